@@ -3,14 +3,19 @@ package com.example.banking.app;
 import com.example.banking.exception.*;
 import com.example.banking.model.Account;
 import com.example.banking.model.Customer;
+import com.example.banking.model.DailyBalance;
+import com.example.banking.model.PeriodStatement;
 import com.example.banking.model.Transaction;
+import com.example.banking.model.TransactionPage;
 import com.example.banking.service.AccountService;
 import com.example.banking.service.AuthService;
 import com.example.banking.service.MiniStatementService;
+import com.example.banking.service.StatementService;
 import com.example.banking.service.TransactionService;
 import com.example.banking.utils.SessionManager;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -18,19 +23,31 @@ import java.util.Scanner;
 
 public class CustomerMenuHandler {
 
+    private static final int HISTORY_PAGE_SIZE = 20;
+
     private final AuthService authService;
     private final AccountService accountService;
     private final TransactionService transactionService;
     private final MiniStatementService miniStatementService;
+    private final StatementService statementService; // null when daily rollups are disabled
 
     public CustomerMenuHandler(AuthService authService,
                                AccountService accountService,
                                TransactionService transactionService,
                                MiniStatementService miniStatementService) {
+        this(authService, accountService, transactionService, miniStatementService, null);
+    }
+
+    public CustomerMenuHandler(AuthService authService,
+                               AccountService accountService,
+                               TransactionService transactionService,
+                               MiniStatementService miniStatementService,
+                               StatementService statementService) {
         this.authService = authService;
         this.accountService = accountService;
         this.transactionService = transactionService;
         this.miniStatementService = miniStatementService;
+        this.statementService = statementService;
     }
 
     public Customer showMenu(Scanner scanner, Customer loggedInCustomer) {
@@ -53,7 +70,7 @@ public class CustomerMenuHandler {
         System.out.println("|\t\u001B[33m💰  TRANSACTIONS SERVICES\u001B[0m                                                                   |");
         System.out.println("|\t───────────────────────────────────────────────────────────────────────────────────────     |");
         System.out.println("|\t\u001B[32m4. 💵 Deposit Money\u001B[0m \t\t\t \u001B[32m5. 💸 Withdraw Money\u001B[0m \t\t\t \u001B[32m6. 🔄 Transfer Funds\u001B[0m       |");
-        System.out.println("|\t\u001B[32m7. 📜 Transaction History\u001B[0m \t\t \u001B[32m8. 🧾 Mini Statement\u001B[0m                                       |");
+        System.out.println("|\t\u001B[32m7. 📜 Transaction History\u001B[0m \t\t \u001B[32m8. 🧾 Mini Statement\u001B[0m \t\t\t \u001B[32m12.📅 Period Statement\u001B[0m     |");
         System.out.println("|                                                                                               |");
         System.out.println("|\t\u001B[33m👤  CUSTOMER SERVICES\u001B[0m                                                                       |");
         System.out.println("|\t───────────────────────────────────────────────────────────────────────────────────────     |");
@@ -87,6 +104,7 @@ public class CustomerMenuHandler {
                 case 9 -> { handleProfile(loggedInCustomer); yield loggedInCustomer; }
                 case 10 -> { handleChangePassword(scanner, loggedInCustomer); yield loggedInCustomer; }
                 case 11 -> throw new LogoutException("👋 Logged out.");
+                case 12 -> { handlePeriodStatement(scanner, loggedInCustomer); yield loggedInCustomer; }
                 default -> {
                     System.out.println("❌ Invalid choice!");
                     yield loggedInCustomer;
@@ -182,12 +200,13 @@ public class CustomerMenuHandler {
     private void handleHistory(Scanner scanner, Customer loggedInCustomer) {
         String type = askAccountType(scanner);
         Account acc = accountService.getAccountByType(loggedInCustomer.getId(), type);
-        List<Transaction> history = transactionService.getHistory(acc.getNumber(), loggedInCustomer.getId());
+
+        // First page only; older rows are fetched on demand with the keyset cursor
+        TransactionPage page = transactionService.getHistoryPage(
+                acc.getNumber(), loggedInCustomer.getId(), null, HISTORY_PAGE_SIZE, null, null);
 
         // ANSI Colors
         final String RESET = "\u001B[0m";
-        final String GREEN = "\u001B[32m";
-        final String RED = "\u001B[31m";
         final String CYAN = "\u001B[36m";
         final String YELLOW = "\u001B[33m";
         final String BOLD = "\u001B[1m";
@@ -197,7 +216,7 @@ public class CustomerMenuHandler {
         System.out.println("\t\t\t\t\t\t\t\t" + CYAN + "📜  Transaction History : " + type + " Account (" + acc.getNumber() + ")" + RESET);
         System.out.println("═════════════════════════════════════════════════════════════════════════════════════════════════════════════════════════════");
 
-        if (history.isEmpty()) {
+        if (page.getItems().isEmpty()) {
             System.out.println(YELLOW + "⚠ No transactions found." + RESET);
             System.out.println("═════════════════════════════════════════════════════════════════════════════════════════════════════════════════════════════");
             return;
@@ -211,53 +230,19 @@ public class CustomerMenuHandler {
         DateTimeFormatter fmt = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")
                 .withZone(ZoneId.systemDefault());
 
-        String accountId = acc.getId();
-
-        for (Transaction t : history) {
-            String from = (t.getFromAccountId() == null) ? "CASH" : accountService.getAccountNumberById(t.getFromAccountId());
-            String to   = (t.getToAccountId()   == null) ? "CASH" : accountService.getAccountNumberById(t.getToAccountId());
+        while (true) {
+            for (Transaction t : page.getItems()) {
+                printHistoryRow(t, acc.getId(), page, fmt);
+            }
 
-            // Shorten Txn ID
-            String shortTxnId = t.getId().substring(0, 6) + "..." + t.getId().substring(t.getId().length() - 4);
+            if (!page.hasMore()) break;
 
-            // Amount (with proper signs and large number padding)
-            String rawAmount;
-            if (t.getToAccountId() != null && t.getToAccountId().equals(accountId)) {
-                rawAmount = "↑ ₹" + String.format("%.2f", t.getAmount());
-            } else if (t.getFromAccountId() != null && t.getFromAccountId().equals(accountId)) {
-                rawAmount = "↓ ₹" + String.format("%.2f", t.getAmount());
-            } else {
-                rawAmount = String.format("%.2f", t.getAmount());
-            }
-            String coloredAmount = (rawAmount.contains("↑") ? GREEN :
-                    rawAmount.contains("↓") ? RED : RESET)
-                    + padVisible(rawAmount, 20) + RESET;
-
-            // Status
-            String rawStatus = t.getStatus();
-            String coloredStatus;
-            switch (rawStatus.toLowerCase()) {
-                case "success":
-                    coloredStatus = GREEN + padVisible("✅ " + rawStatus, 14) + RESET;
-                    break;
-                case "failed":
-                    coloredStatus = RED + padVisible("❌ " + rawStatus, 14) + RESET;
-                    break;
-                case "pending":
-                    coloredStatus = YELLOW + padVisible("⏳ " + rawStatus, 14) + RESET;
-                    break;
-                default:
-                    coloredStatus = CYAN + padVisible(rawStatus, 14) + RESET;
-            }
+            System.out.print(YELLOW + "── Press N for older transactions, or Enter to finish: " + RESET);
+            String answer = scanner.nextLine().trim();
+            if (!answer.equalsIgnoreCase("N")) break;
 
-            // Print row
-            System.out.printf("%-13s | %-9s | %-40s | %s | %s | %-16s%n",
-                    CYAN + shortTxnId + RESET,
-                    t.getType(),
-                    from + " → " + to,
-                    coloredAmount,
-                    coloredStatus,
-                    fmt.format(t.getCreatedAt()));
+            page = transactionService.getHistoryPage(acc.getNumber(), loggedInCustomer.getId(),
+                    page.getNextCursor(), HISTORY_PAGE_SIZE, null, null);
         }
 
         System.out.println("═════════════════════════════════════════════════════════════════════════════════════════════════════════════════════════════");
@@ -265,6 +250,101 @@ public class CustomerMenuHandler {
         System.out.println("═════════════════════════════════════════════════════════════════════════════════════════════════════════════════════════════");
     }
 
+    private void handlePeriodStatement(Scanner scanner, Customer loggedInCustomer) {
+        if (statementService == null) {
+            System.out.println("❌ Period statements are not enabled.");
+            return;
+        }
+        String type = askAccountType(scanner);
+        Account acc = accountService.getAccountByType(loggedInCustomer.getId(), type);
+
+        System.out.print("From date (yyyy-MM-dd): ");
+        LocalDate from = LocalDate.parse(scanner.nextLine().trim());
+        System.out.print("To date (yyyy-MM-dd): ");
+        LocalDate to = LocalDate.parse(scanner.nextLine().trim());
+
+        PeriodStatement st = statementService.getStatement(acc.getNumber(), loggedInCustomer.getId(), from, to);
+
+        final String RESET = "\u001B[0m";
+        final String CYAN = "\u001B[36m";
+        final String GREEN = "\u001B[32m";
+        final String RED = "\u001B[31m";
+        final String BOLD = "\u001B[1m";
+
+        System.out.println();
+        System.out.println("═════════════════════════════════════════════════════════════════════════════════");
+        System.out.println("\t" + CYAN + "📅  Statement : " + type + " Account (" + acc.getNumber() + ") "
+                + from + " → " + to + " (UTC)" + RESET);
+        System.out.println("═════════════════════════════════════════════════════════════════════════════════");
+        System.out.printf(BOLD + "%-12s | %14s | %14s | %14s | %5s | %14s%n" + RESET,
+                "DATE", "OPENING", "CREDITS", "DEBITS", "TXNS", "CLOSING");
+        System.out.println("─────────────┼────────────────┼────────────────┼────────────────┼───────┼───────────────");
+        for (DailyBalance day : st.getDays()) {
+            System.out.printf("%-12s | %14.2f | %s%14.2f%s | %s%14.2f%s | %5d | %14.2f%n",
+                    day.getDay(), day.getOpeningBalance(), GREEN, day.getCredits(), RESET,
+                    RED, day.getDebits(), RESET, day.getCount(), day.getClosingBalance());
+        }
+        System.out.println("─────────────┼────────────────┼────────────────┼────────────────┼───────┼───────────────");
+        System.out.printf(BOLD + "%-12s | %14.2f | %14.2f | %14.2f | %5d | %14.2f%n" + RESET,
+                "TOTAL", st.getOpeningBalance(), st.getCredits(), st.getDebits(), st.getCount(), st.getClosingBalance());
+        System.out.println("═════════════════════════════════════════════════════════════════════════════════");
+    }
+
+    private void printHistoryRow(Transaction t, String accountId, TransactionPage page, DateTimeFormatter fmt) {
+        // ANSI Colors
+        final String RESET = "\u001B[0m";
+        final String GREEN = "\u001B[32m";
+        final String RED = "\u001B[31m";
+        final String CYAN = "\u001B[36m";
+        final String YELLOW = "\u001B[33m";
+
+        // Account numbers come with the page, so no per-row lookups
+        String from = (t.getFromAccountId() == null) ? "CASH" : page.getAccountNumber(t.getFromAccountId());
+        String to   = (t.getToAccountId()   == null) ? "CASH" : page.getAccountNumber(t.getToAccountId());
+
+        // Shorten Txn ID
+        String shortTxnId = t.getId().substring(0, 6) + "..." + t.getId().substring(t.getId().length() - 4);
+
+        // Amount (with proper signs and large number padding)
+        String rawAmount;
+        if (t.getToAccountId() != null && t.getToAccountId().equals(accountId)) {
+            rawAmount = "↑ ₹" + String.format("%.2f", t.getAmount());
+        } else if (t.getFromAccountId() != null && t.getFromAccountId().equals(accountId)) {
+            rawAmount = "↓ ₹" + String.format("%.2f", t.getAmount());
+        } else {
+            rawAmount = String.format("%.2f", t.getAmount());
+        }
+        String coloredAmount = (rawAmount.contains("↑") ? GREEN :
+                rawAmount.contains("↓") ? RED : RESET)
+                + padVisible(rawAmount, 20) + RESET;
+
+        // Status
+        String rawStatus = t.getStatus();
+        String coloredStatus;
+        switch (rawStatus.toLowerCase()) {
+            case "success":
+                coloredStatus = GREEN + padVisible("✅ " + rawStatus, 14) + RESET;
+                break;
+            case "failed":
+                coloredStatus = RED + padVisible("❌ " + rawStatus, 14) + RESET;
+                break;
+            case "pending":
+                coloredStatus = YELLOW + padVisible("⏳ " + rawStatus, 14) + RESET;
+                break;
+            default:
+                coloredStatus = CYAN + padVisible(rawStatus, 14) + RESET;
+        }
+
+        // Print row
+        System.out.printf("%-13s | %-9s | %-40s | %s | %s | %-16s%n",
+                CYAN + shortTxnId + RESET,
+                t.getType(),
+                from + " → " + to,
+                coloredAmount,
+                coloredStatus,
+                fmt.format(t.getCreatedAt()));
+    }
+
     /**
      * Pads a string based on visible width (ignores ANSI codes, counts emojis as 2).
      */
@@ -1,14 +1,24 @@
 package com.example.banking.app;
 
+import com.example.banking.engine.ShardedLedgerEngine;
 import com.example.banking.exception.ExitException;
 import com.example.banking.exception.LogoutException;
+import com.example.banking.ingest.PaymentFileFormat;
+import com.example.banking.ingest.PaymentFileIngestor;
 import com.example.banking.model.Customer;
+import com.example.banking.model.IngestReport;
 import com.example.banking.repository.*;
+import com.example.banking.server.BankingHttpServer;
+import com.example.banking.server.BinaryProtocolServer;
 import com.example.banking.service.*;
 import com.example.banking.utils.DynamoDBUtil;
-import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import com.example.banking.utils.SessionStore;
+import com.example.banking.wal.WriteAheadLog;
 
+import java.nio.file.Path;
 import java.util.Scanner;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 public class Main {
 
@@ -17,20 +27,107 @@ public class Main {
 
         // === Initialize repositories ===
         CustomerRepository customerRepo = new JDBCCustomerRepository();
-        AccountRepository accountRepo = new JDBCAccountRepository();
+        // Accounts are read on every menu action, so keep hot ones in memory
+        AccountRepository accountRepo = new CachingAccountRepository(
+                new JDBCAccountRepository(), Integer.getInteger("account.cache.maxSize", 10_000));
         TransactionRepository transactionRepo = new JDBCTransactionRepository();
         AuditLogRepository auditRepo = new JDBCAuditLogRepository();
-        DynamoDbClient dynamoDbClient = DynamoDBUtil.getLocalClient();
+        // audit.dynamo.client=async pipelines DynamoDB audit writes on the non-blocking client
+        String dynamoEndpoint = System.getProperty("audit.dynamo.endpoint", "http://localhost:8000");
+        AuditLogRepository dynamoAuditRepo = "async".equalsIgnoreCase(System.getProperty("audit.dynamo.client", "sync"))
+                ? new DynamoDBAsyncAuditLogRepository(DynamoDBUtil.getLocalAsyncClient(dynamoEndpoint),
+                        Integer.getInteger("audit.dynamo.maxInFlight", 64))
+                : new DynamoDBAuditLogRepository(DynamoDBUtil.getLocalClient(dynamoEndpoint));
 
         // === Initialize services ===
         AuthService authService = AuthService.getInstance(customerRepo);
         AccountService accountService = AccountService.getInstance(accountRepo);
-        TransactionService transactionService = TransactionService.getInstance(accountRepo, transactionRepo, auditRepo, dynamoDbClient);
+        // audit.journal.dir puts a local memory-mapped journal in front of DynamoDB: audit writes land in the
+        // journal and are forwarded from there, so a slow or unavailable DynamoDB does not lose them
+        String journalDir = System.getProperty("audit.journal.dir");
+        AuditDispatcher auditDispatcher = AuditDispatcher.fromSystemProperties((journalDir == null)
+                ? dynamoAuditRepo
+                : new JournalAuditLogRepository(Path.of(journalDir),
+                        Integer.getInteger("audit.journal.segmentSize", 64 * 1024 * 1024),
+                        Integer.getInteger("audit.journal.maxSegments", JournalAuditLogRepository.DEFAULT_MAX_SEGMENTS),
+                        Boolean.getBoolean("audit.journal.forceOnWrite"), dynamoAuditRepo));
+        TransactionService transactionService = TransactionService.getInstance(accountRepo, transactionRepo, auditRepo,
+                auditDispatcher);
+        // ledger.enabled=true keeps an event-sourced ledger (run MySQLSchemaUpdater first to create its tables)
+        LedgerService ledgerService = null;
+        if (Boolean.getBoolean("ledger.enabled")) {
+            ledgerService = LedgerService.getInstance(new JDBCLedgerEventRepository(), new JDBCBalanceSnapshotRepository());
+            transactionService.addListener(ledgerService);
+            // Recover before serving: replays every partition and logs drifted or mismatched accounts
+            ledgerService.findMismatches(accountRepo);
+            long snapshotInterval = Long.getLong("ledger.snapshot.intervalSec", 300);
+            if (snapshotInterval > 0) ledgerService.startPeriodicSnapshots(snapshotInterval);
+        }
+        // postings.enabled=true writes a debit/credit posting per account for every movement
+        // and serves them over HTTP (run MySQLSchemaUpdater first to create and backfill the table)
+        PostingService postingService = null;
+        if (Boolean.getBoolean("postings.enabled")) {
+            postingService = PostingService.getInstance(new JDBCPostingRepository(), accountRepo);
+            transactionService.addListener(postingService);
+        }
+        // rollups.enabled=true maintains daily balance rollups for period statements and balance-as-of queries;
+        // rollups.backfill=true rebuilds them from the audit trail at startup
+        StatementService statementService = null;
+        if (Boolean.getBoolean("rollups.enabled")) {
+            DailyBalanceRepository dailyBalanceRepo = new JDBCDailyBalanceRepository();
+            statementService = StatementService.getInstance(dailyBalanceRepo, auditRepo, accountRepo);
+            accountService.enableBalanceHistory(dailyBalanceRepo, auditRepo);
+            transactionService.addListener(statementService);
+            if (Boolean.getBoolean("rollups.backfill")) {
+                statementService.backfillAll(Integer.getInteger("rollups.backfill.threads",
+                        Runtime.getRuntime().availableProcessors()));
+            }
+        }
+        // engine.enabled=true runs deposits, withdrawals and transfers on the sharded in-memory engine
+        // (engine.shards, engine.ringCapacity, engine.writeBatchSize) and writes them to MySQL behind it;
+        // it must be the only writer of balances, so it cannot be combined with wal.dir
+        if (Boolean.getBoolean("engine.enabled")) {
+            transactionService.enableLedgerEngine(
+                    ShardedLedgerEngine.fromSystemProperties(accountRepo, transactionRepo, auditRepo, auditDispatcher));
+        }
+        // wal.dir acknowledges money movements once they are fsync'd to a local log and applies them to MySQL
+        // in batches behind it (enabled after the ledger listener so replayed records reach the ledger too)
+        String walDir = System.getProperty("wal.dir");
+        if (walDir != null) {
+            transactionService.enableWriteAheadLog(
+                    new WriteAheadLog(Path.of(walDir), Long.getLong("wal.segmentBytes", 64L * 1024 * 1024),
+                            Integer.getInteger("wal.groupCommit.maxBatch", 512)),
+                    new JDBCWalCheckpointRepository(),
+                    Integer.getInteger("wal.apply.batchSize", 200));
+        }
         MiniStatementService miniStatementService = MiniStatementService.getInstance(transactionRepo);
 
+        // ingest.file applies a bulk payment file (ingest.format CSV or FIXED) and exits; running it again after
+        // an interruption resumes where it stopped. Records that were not applied go to ingest.errors.
+        String ingestFile = System.getProperty("ingest.file");
+        if (ingestFile != null) {
+            runIngest(Path.of(ingestFile), accountRepo, transactionRepo, auditRepo, auditDispatcher, transactionService);
+            if (ledgerService != null) ledgerService.shutdown();
+            transactionService.shutdown();   // ✅ flush queued audit logs before the JVM exits
+            scanner.close();
+            return;
+        }
+
+        // server.port serves the API over local HTTP/JSON (many concurrent customers) instead of the console menu;
+        // terminal.port does the same over the binary ATM/POS protocol (either or both)
+        Integer serverPort = Integer.getInteger("server.port");
+        Integer terminalPort = Integer.getInteger("terminal.port");
+        if (serverPort != null || terminalPort != null) {
+            runServer(serverPort, terminalPort, authService, accountService, transactionService, ledgerService,
+                    postingService);
+            scanner.close();
+            return;
+        }
+
         // === Initialize menu handlers ===
         GuestMenuHandler guestMenu = new GuestMenuHandler(authService, accountService, transactionRepo);
-        CustomerMenuHandler customerMenu = new CustomerMenuHandler(authService, accountService, transactionService, miniStatementService);
+        CustomerMenuHandler customerMenu = new CustomerMenuHandler(authService, accountService, transactionService, miniStatementService,
+                statementService);
 
         Customer loggedInCustomer = null;
         boolean running = true;
@@ -55,6 +152,64 @@ public class Main {
                 ExceptionHandler.handle(e);
             }
         }
+        if (ledgerService != null) ledgerService.shutdown();
+        transactionService.shutdown();   // ✅ flush queued audit logs before the JVM exits
         scanner.close();
     }
+
+    private static void runIngest(Path file, AccountRepository accountRepo, TransactionRepository transactionRepo,
+                                  AuditLogRepository auditRepo, AuditDispatcher auditDispatcher,
+                                  TransactionService transactionService) {
+        PaymentFileIngestor ingestor = PaymentFileIngestor.fromSystemProperties(accountRepo, transactionRepo, auditRepo,
+                new JDBCIngestCheckpointRepository(), auditDispatcher);
+        transactionService.getListeners().forEach(ingestor::addListener);
+        PaymentFileFormat format = PaymentFileFormat.of(System.getProperty("ingest.format", "CSV"));
+        Path errorFile = Path.of(System.getProperty("ingest.errors", file + ".errors"));
+        try {
+            IngestReport report = ingestor.ingest(file, format, errorFile, System.getProperty("ingest.actor", "bulk-ingest"));
+            System.out.println("✅ " + report);
+            if (report.getFailed() + report.getRejected() > 0) {
+                System.out.println("⚠️ Records not applied are listed in " + errorFile);
+            }
+        } catch (RuntimeException e) {
+            ExceptionHandler.handle(e);
+        }
+    }
+
+    // Serves until the JVM is asked to stop (Ctrl+C / SIGTERM), then shuts the services down in order
+    private static void runServer(Integer httpPort, Integer terminalPort, AuthService authService,
+                                  AccountService accountService, TransactionService transactionService,
+                                  LedgerService ledgerService, PostingService postingService) {
+        String host = System.getProperty("server.host", "127.0.0.1");
+        int threads = Integer.getInteger("server.threads", 200);
+        BankingHttpServer httpServer = null;
+        if (httpPort != null) {
+            SessionStore sessions = new SessionStore(TimeUnit.SECONDS.toMillis(Long.getLong("server.sessionTimeoutSec", 300)));
+            httpServer = new BankingHttpServer(authService, accountService, transactionService, sessions);
+            if (postingService != null) httpServer.enablePostings(postingService);
+            httpServer.start(host, httpPort, threads);
+        }
+        BinaryProtocolServer terminalServer = null;
+        if (terminalPort != null) {
+            terminalServer = new BinaryProtocolServer(authService, accountService, transactionService,
+                    Integer.getInteger("terminal.maxPipeline", 64));
+            terminalServer.start(host, terminalPort, threads);
+        }
+
+        BankingHttpServer http = httpServer;
+        BinaryProtocolServer terminals = terminalServer;
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (http != null) http.close();
+            if (terminals != null) terminals.close();
+            if (ledgerService != null) ledgerService.shutdown();
+            transactionService.shutdown();   // ✅ flush queued audit logs before the JVM exits
+            stopped.countDown();
+        }, "server-shutdown"));
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
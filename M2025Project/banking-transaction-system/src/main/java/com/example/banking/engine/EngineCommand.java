@@ -0,0 +1,53 @@
+package com.example.banking.engine;
+
+import com.example.banking.model.AuditLog;
+import com.example.banking.model.Transaction;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * One deposit, withdrawal or transfer travelling through the shards.
+ * A cross-shard transfer visits the source shard (DEBIT), then the destination shard (CREDIT),
+ * and only comes back to the source (REFUND) if the credit is refused.
+ */
+final class EngineCommand {
+
+    enum Stage { EXECUTE, CREDIT, REFUND }
+
+    final String txnId;
+    final String type;           // DEPOSIT / WITHDRAW / TRANSFER
+    final String fromAccountId;  // null for Deposit
+    final String toAccountId;    // null for Withdraw
+    final BigDecimal amount;
+    final String actorId;
+    final Instant createdAt;
+    final CompletableFuture<Transaction> result = new CompletableFuture<>();
+    final long deadlineNanos;    // after this the command is refused as busy rather than wait for room
+
+    Stage stage = Stage.EXECUTE;
+    BigDecimal sourceAfter;      // source balance after the debit (cross-shard transfers)
+    RuntimeException refusal;    // why the credit was refused (REFUND stage)
+    int reserved;                // write-behind slots held for the changes this command may still emit
+    final List<AuditLog> entries = new ArrayList<>(2); // audit entries of the legs applied so far
+
+    EngineCommand(String txnId, String type, String fromAccountId, String toAccountId, BigDecimal amount,
+                  String actorId, Instant createdAt, long deadlineNanos) {
+        this.txnId = txnId;
+        this.type = type;
+        this.fromAccountId = fromAccountId;
+        this.toAccountId = toAccountId;
+        this.amount = amount;
+        this.actorId = actorId;
+        this.createdAt = createdAt;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    Transaction toTransaction(String status) {
+        return new Transaction(txnId, fromAccountId, "FAILED".equals(status) && "TRANSFER".equals(type)
+                ? null : toAccountId, type, amount, status, createdAt);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.banking.engine;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Bounded many-producer / single-consumer queue over a pre-allocated array.
+ * - Producers claim a slot with one CAS on the tail; nothing is allocated per element.
+ * - Each slot carries a sequence number: a producer may fill it when the sequence equals its claimed
+ *   position, and publishes by advancing it; the consumer frees it by advancing it by one lap.
+ * Only one thread may call poll/drain.
+ */
+public final class RingBuffer<T> {
+
+    private final Object[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head; // written by the consumer only
+
+    public RingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two (>= 2)");
+        }
+        this.slots = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    // ✅ False if the buffer is full
+    public boolean offer(T item) {
+        long pos = tail.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    slots[index] = item;
+                    sequences.set(index, pos + 1); // publish
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false; // the slot from one lap ago has not been consumed yet
+            } else {
+                pos = tail.get(); // another producer took this position
+            }
+        }
+    }
+
+    // Waits (spinning, then yielding) until there is room
+    public void put(T item) {
+        int spins = 0;
+        while (!offer(item)) {
+            if (++spins < 100) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    // Waits like put, but gives up (false) once the timeout passes or the thread is interrupted
+    public boolean offer(T item, long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int spins = 0;
+        while (!offer(item)) {
+            if (System.nanoTime() - deadline >= 0 || Thread.currentThread().isInterrupted()) return false;
+            if (++spins < 100) {
+                Thread.onSpinWait();
+            } else if (spins < 200) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(50_000);
+            }
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        long pos = head;
+        int index = (int) (pos & mask);
+        if (sequences.get(index) != pos + 1) return null; // not published yet
+        T item = (T) slots[index];
+        slots[index] = null;
+        sequences.set(index, pos + slots.length); // free the slot for the next lap
+        head = pos + 1;
+        return item;
+    }
+
+    // Hands up to max elements to the consumer; returns how many
+    public int drain(Consumer<T> consumer, int max) {
+        int n = 0;
+        T item;
+        while (n < max && (item = poll()) != null) {
+            consumer.accept(item);
+            n++;
+        }
+        return n;
+    }
+
+    public int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+}
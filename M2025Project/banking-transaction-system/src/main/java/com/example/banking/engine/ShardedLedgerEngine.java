@@ -0,0 +1,701 @@
+package com.example.banking.engine;
+
+import com.example.banking.exception.AccountClosedException;
+import com.example.banking.exception.AccountNotFoundException;
+import com.example.banking.exception.EngineBusyException;
+import com.example.banking.exception.InsufficientFundsException;
+import com.example.banking.exception.NegativeAmountException;
+import com.example.banking.exception.TransactionFailedException;
+import com.example.banking.model.Account;
+import com.example.banking.model.AuditLog;
+import com.example.banking.model.LedgerEvent;
+import com.example.banking.model.Transaction;
+import com.example.banking.repository.AccountRepository;
+import com.example.banking.repository.AuditLogRepository;
+import com.example.banking.repository.TransactionRepository;
+import com.example.banking.service.AuditDispatcher;
+import com.example.banking.service.TransactionListener;
+import com.example.banking.utils.UnitOfWork;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-memory execution engine for deposits, withdrawals and transfers.
+ * - Accounts are partitioned across N shards (CRC32 of the account id, as in the ledger). Each shard is
+ *   one thread that alone owns its accounts' balances, so no locks are taken per operation.
+ * - Callers hand commands to a shard through its pre-allocated ring buffer and get a future back.
+ * - A transfer between shards debits on the source shard, then hands the command to the destination
+ *   shard to credit; if the credit is refused the source shard refunds the debit.
+ * - Every change is queued for a write-behind thread that applies it to the JDBC repositories in
+ *   batches (balance deltas netted per account, transactions and audit rows in bulk). Listeners run
+ *   inside the batch's unit of work; audit rows go to the AuditDispatcher once it commits.
+ * - A batch that fails is written change by change. A change that still fails while the database is
+ *   reachable (or whose balance update the database refuses) is dead-lettered: logged with everything
+ *   needed to replay it, counted, and its account stops taking operations until the engine restarts
+ *   and reloads it. While the database cannot be reached the whole batch is retried with backoff.
+ * - Nothing waits without bound: a command that cannot enter its shard's ring, or whose changes find no
+ *   room in the write-behind queue (e.g. while the database is unreachable), within busyTimeoutMillis of
+ *   being submitted fails with EngineBusyException. A shard whose thread dies fails what it still holds.
+ * Balances are loaded from the AccountRepository on first use; while the engine runs it must be the
+ * only writer of those accounts' balances (a refused update is reported as drift). Write-behind state
+ * is in memory until its batch commits.
+ */
+public class ShardedLedgerEngine implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardedLedgerEngine.class);
+    private static final long MAX_RETRY_BACKOFF_MILLIS = 5_000;
+    private static final int MAX_ATTEMPTS = 3;
+    public static final long DEFAULT_BUSY_TIMEOUT_MILLIS = 1_000;
+
+    private final Shard[] shards;
+    private final Writer writer;
+    private final AccountRepository accountRepository;
+    private final long busyTimeoutMillis;
+    private final AtomicLong submitted = new AtomicLong();
+    private final List<TransactionListener> listeners = new CopyOnWriteArrayList<>();
+    // Accounts with a change the database never got; refused until the engine reloads them
+    private final Set<String> outOfSync = ConcurrentHashMap.newKeySet();
+
+    public ShardedLedgerEngine(int shardCount, int ringCapacity, int writeBatchSize,
+                               AccountRepository accountRepository,
+                               TransactionRepository transactionRepository,
+                               AuditLogRepository auditLogRepository) {
+        this(shardCount, ringCapacity, writeBatchSize, accountRepository, transactionRepository, auditLogRepository,
+                null);
+    }
+
+    public ShardedLedgerEngine(int shardCount, int ringCapacity, int writeBatchSize,
+                               AccountRepository accountRepository,
+                               TransactionRepository transactionRepository,
+                               AuditLogRepository auditLogRepository,
+                               AuditDispatcher auditDispatcher) {
+        this(shardCount, ringCapacity, writeBatchSize, accountRepository, transactionRepository, auditLogRepository,
+                auditDispatcher, DEFAULT_BUSY_TIMEOUT_MILLIS);
+    }
+
+    public ShardedLedgerEngine(int shardCount, int ringCapacity, int writeBatchSize,
+                               AccountRepository accountRepository,
+                               TransactionRepository transactionRepository,
+                               AuditLogRepository auditLogRepository,
+                               AuditDispatcher auditDispatcher, long busyTimeoutMillis) {
+        if (shardCount < 1) throw new IllegalArgumentException("shardCount must be at least 1");
+        this.accountRepository = accountRepository;
+        this.busyTimeoutMillis = busyTimeoutMillis;
+        this.writer = new Writer(new RingBuffer<>(ringCapacity * 2), writeBatchSize, accountRepository,
+                transactionRepository, auditLogRepository, auditDispatcher);
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i, new RingBuffer<>(ringCapacity));
+        }
+        writer.start();
+        for (Shard shard : shards) {
+            shard.start();
+        }
+    }
+
+    // 🔹 Shard count, ring size, write batch size and busy timeout come from system properties
+    public static ShardedLedgerEngine fromSystemProperties(AccountRepository accountRepository,
+                                                           TransactionRepository transactionRepository,
+                                                           AuditLogRepository auditLogRepository,
+                                                           AuditDispatcher auditDispatcher) {
+        return new ShardedLedgerEngine(
+                Integer.getInteger("engine.shards", Runtime.getRuntime().availableProcessors()),
+                Integer.getInteger("engine.ringCapacity", 16_384),
+                Integer.getInteger("engine.writeBatchSize", 500),
+                accountRepository, transactionRepository, auditLogRepository, auditDispatcher,
+                Long.getLong("engine.busyTimeoutMs", DEFAULT_BUSY_TIMEOUT_MILLIS));
+    }
+
+    // 🔹 Register a listener that runs inside the unit of work that writes each successful operation
+    public void addListener(TransactionListener listener) {
+        listeners.add(listener);
+    }
+
+    // ✅ Operations complete with the SUCCESS transaction, or exceptionally with the reason it was refused
+    public CompletableFuture<Transaction> deposit(String accountId, BigDecimal amount, String actorId) {
+        return submit("DEPOSIT", null, accountId, amount, actorId);
+    }
+
+    public CompletableFuture<Transaction> withdraw(String accountId, BigDecimal amount, String actorId) {
+        return submit("WITHDRAW", accountId, null, amount, actorId);
+    }
+
+    public CompletableFuture<Transaction> transfer(String fromAccountId, String toAccountId, BigDecimal amount,
+                                                   String actorId) {
+        if (fromAccountId.equals(toAccountId)) {
+            return CompletableFuture.failedFuture(
+                    new IllegalArgumentException("Source and destination accounts cannot be the same"));
+        }
+        return submit("TRANSFER", fromAccountId, toAccountId, amount, actorId);
+    }
+
+    private CompletableFuture<Transaction> submit(String type, String from, String to, BigDecimal amount,
+                                                  String actorId) {
+        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+            return CompletableFuture.failedFuture(new NegativeAmountException(
+                    type.charAt(0) + type.substring(1).toLowerCase() + " amount must be positive"));
+        }
+        EngineCommand cmd = new EngineCommand(UUID.randomUUID().toString(), type, from, to, amount, actorId,
+                Instant.now(), System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(busyTimeoutMillis));
+        Shard shard = shardFor(from != null ? from : to);
+        if (shard.dead) {
+            return CompletableFuture.failedFuture(new EngineBusyException("Ledger engine shard " + shard.id + " is not running"));
+        }
+        if (!shard.inbox.offer(cmd, busyTimeoutMillis, TimeUnit.MILLISECONDS)) {
+            return CompletableFuture.failedFuture(new EngineBusyException("Ledger engine is busy, try again later"));
+        }
+        submitted.incrementAndGet();
+        return cmd.result;
+    }
+
+    private Shard shardFor(String accountId) {
+        return shards[LedgerEvent.partitionOf(accountId, shards.length)];
+    }
+
+    // Wait until every submitted operation has finished and reached the database (or was dead-lettered)
+    public boolean flush(long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (getCompleted() < submitted.get() || getWriteBehindLag() > 0) {
+            if (System.currentTimeMillis() > deadline) return false;
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() {
+        if (!flush(10_000)) {
+            logger.warn("⚠️ Engine not fully drained on shutdown: {}", stats());
+        }
+        for (Shard shard : shards) {
+            shard.stop();
+        }
+        writer.stop();
+    }
+
+    // ✅ Metrics
+    public int getShardCount() { return shards.length; }
+    public long getBusyTimeoutMillis() { return busyTimeoutMillis; }
+    public long getSubmitted() { return submitted.get(); }
+    public long getCompleted() { return Arrays.stream(shards).mapToLong(s -> s.completed).sum(); }
+    public long getRejected() { return Arrays.stream(shards).mapToLong(s -> s.rejected).sum(); }
+    public long getWriteBehindLag() {
+        return Arrays.stream(shards).mapToLong(s -> s.emitted).sum() - writer.written - writer.deadLettered;
+    }
+    public long getWriteBatches() { return writer.batches; }
+    public long getDriftCount() { return writer.drift; }
+    public long getDeadLetterCount() { return writer.deadLettered; }
+    public Set<String> getOutOfSyncAccounts() { return Set.copyOf(outOfSync); }
+
+    public String stats() {
+        return String.format("shards=%d submitted=%d completed=%d rejected=%d writeLag=%d batches=%d drift=%d deadLettered=%d",
+                shards.length, getSubmitted(), getCompleted(), getRejected(), getWriteBehindLag(),
+                getWriteBatches(), getDriftCount(), getDeadLetterCount());
+    }
+
+    // Spin, then yield, then park briefly: idle shards cost little, busy ones never sleep
+    private static void idle(int rounds) {
+        if (rounds < 100) {
+            Thread.onSpinWait();
+        } else if (rounds < 200) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(50_000);
+        }
+    }
+
+    private static final class AccountState {
+        BigDecimal balance;
+        final boolean active;
+
+        AccountState(BigDecimal balance, boolean active) {
+            this.balance = balance;
+            this.active = active;
+        }
+    }
+
+    // One thread; the only one that reads or writes its accounts' balances
+    private final class Shard implements Runnable {
+        private final int id;
+        private final RingBuffer<EngineCommand> inbox;
+        private volatile boolean dead; // the thread died of an Error; nothing here runs any more
+        // Second legs of cross-shard transfers; unbounded so two shards can never wait on each other
+        private final Queue<EngineCommand> handoffs = new ConcurrentLinkedQueue<>();
+        private final Map<String, AccountState> accounts = new HashMap<>();
+        private final Thread thread;
+        private volatile boolean running = true;
+
+        // Written by this shard's thread only
+        private volatile long completed;
+        private volatile long rejected;
+        private volatile long emitted;
+
+        Shard(int id, RingBuffer<EngineCommand> inbox) {
+            this.id = id;
+            this.inbox = inbox;
+            this.thread = new Thread(this, "engine-shard-" + id);
+            this.thread.setDaemon(true);
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        void stop() {
+            running = false;
+            LockSupport.unpark(thread);
+            try {
+                thread.join(5_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void run() {
+            int idleRounds = 0;
+            while (running || !inbox.isEmpty() || !handoffs.isEmpty()) {
+                EngineCommand cmd = handoffs.poll();
+                if (cmd == null) cmd = inbox.poll();
+                if (cmd == null) {
+                    idle(idleRounds++);
+                    continue;
+                }
+                idleRounds = 0;
+                try {
+                    handle(cmd);
+                } catch (TransactionFailedException e) {
+                    rejected++; // the account is out of sync with the database
+                    finish(cmd, e);
+                } catch (RuntimeException e) {
+                    logger.error("❌ Engine shard {} failed on {} {}", id, cmd.type, cmd.txnId, e);
+                    finish(cmd, e);
+                } catch (Error e) {
+                    die(cmd, e);
+                    throw e;
+                }
+            }
+        }
+
+        // No caller may wait forever on a shard that is gone: fail the command at hand and everything queued
+        private void die(EngineCommand cmd, Error e) {
+            dead = true;
+            logger.error("❌ Engine shard {} died on {} {}; failing its pending operations", id, cmd.type, cmd.txnId, e);
+            EngineBusyException gone = new EngineBusyException("Ledger engine shard " + id + " is not running");
+            if (!cmd.result.isDone()) finish(cmd, gone);
+            EngineCommand pending;
+            while ((pending = handoffs.poll()) != null || (pending = inbox.poll()) != null) {
+                finish(pending, gone);
+            }
+        }
+
+        private void handle(EngineCommand cmd) {
+            switch (cmd.stage) {
+                case EXECUTE -> {
+                    if (reserve(cmd)) {
+                        execute(cmd);
+                    } else {
+                        finish(cmd, new EngineBusyException("Ledger engine is busy writing to the database, try again later"));
+                    }
+                }
+                case CREDIT -> creditLeg(cmd);
+                case REFUND -> refundLeg(cmd);
+            }
+        }
+
+        // Room in the write-behind queue for every change the command can emit (a transfer emits two),
+        // so emitting never waits; the wait for it ends at the command's deadline
+        private boolean reserve(EngineCommand cmd) {
+            int changes = "TRANSFER".equals(cmd.type) ? 2 : 1;
+            try {
+                if (!writer.room.tryAcquire(changes, Math.max(0, cmd.deadlineNanos - System.nanoTime()),
+                        TimeUnit.NANOSECONDS)) {
+                    return false;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            cmd.reserved = changes;
+            return true;
+        }
+
+        private void execute(EngineCommand cmd) {
+            switch (cmd.type) {
+                case "DEPOSIT" -> {
+                    AccountState to = state(cmd.toAccountId);
+                    if (to == null) { finish(cmd, new AccountNotFoundException("Account not found")); return; }
+                    if (!to.active) { reject(cmd, cmd.toAccountId, to, new AccountClosedException("Account is closed")); return; }
+                    apply(cmd, cmd.toAccountId, to, cmd.amount, "DEPOSIT", true);
+                    finish(cmd, null);
+                }
+                case "WITHDRAW" -> {
+                    AccountState from = state(cmd.fromAccountId);
+                    if (from == null) { finish(cmd, new AccountNotFoundException("Account not found")); return; }
+                    if (!from.active) { reject(cmd, cmd.fromAccountId, from, new AccountClosedException("Account is closed")); return; }
+                    if (from.balance.compareTo(cmd.amount) < 0) {
+                        reject(cmd, cmd.fromAccountId, from, new InsufficientFundsException("Insufficient funds for withdrawal"));
+                        return;
+                    }
+                    apply(cmd, cmd.fromAccountId, from, cmd.amount.negate(), "WITHDRAW", true);
+                    finish(cmd, null);
+                }
+                case "TRANSFER" -> transfer(cmd);
+                default -> finish(cmd, new IllegalArgumentException("Unknown operation type: " + cmd.type));
+            }
+        }
+
+        private void transfer(EngineCommand cmd) {
+            AccountState from = state(cmd.fromAccountId);
+            if (from == null) { finish(cmd, new AccountNotFoundException("Source account not found")); return; }
+            if (!from.active) {
+                reject(cmd, cmd.fromAccountId, from, new AccountClosedException("Source or destination account is closed"));
+                return;
+            }
+            if (from.balance.compareTo(cmd.amount) < 0) {
+                reject(cmd, cmd.fromAccountId, from, new InsufficientFundsException("Insufficient funds"));
+                return;
+            }
+
+            if (shardFor(cmd.toAccountId) == this) {
+                // Both accounts are ours: check the destination first and do both sides at once
+                AccountState to = state(cmd.toAccountId);
+                if (to == null) { finish(cmd, new AccountNotFoundException("Destination account not found")); return; }
+                if (!to.active) {
+                    reject(cmd, cmd.fromAccountId, from, new AccountClosedException("Source or destination account is closed"));
+                    return;
+                }
+                apply(cmd, cmd.fromAccountId, from, cmd.amount.negate(), "TRANSFER-DEBIT", false);
+                apply(cmd, cmd.toAccountId, to, cmd.amount, "TRANSFER-CREDIT", true);
+                finish(cmd, null);
+                return;
+            }
+
+            // Step 1 of 2: debit here, then let the destination's shard credit
+            apply(cmd, cmd.fromAccountId, from, cmd.amount.negate(), "TRANSFER-DEBIT", false);
+            cmd.sourceAfter = from.balance;
+            cmd.stage = EngineCommand.Stage.CREDIT;
+            handoff(shardFor(cmd.toAccountId), cmd);
+        }
+
+        // Step 2 of 2 on the destination's shard
+        private void creditLeg(EngineCommand cmd) {
+            RuntimeException refusal;
+            try {
+                AccountState to = state(cmd.toAccountId);
+                if (to != null && to.active) {
+                    apply(cmd, cmd.toAccountId, to, cmd.amount, "TRANSFER-CREDIT", true);
+                    finish(cmd, null);
+                    return;
+                }
+                refusal = (to == null)
+                        ? new AccountNotFoundException("Destination account not found")
+                        : new AccountClosedException("Source or destination account is closed");
+            } catch (RuntimeException e) {
+                refusal = e; // e.g. the account could not be loaded; the debit must still be undone
+            }
+            cmd.refusal = refusal;
+            cmd.stage = EngineCommand.Stage.REFUND;
+            handoff(shardFor(cmd.fromAccountId), cmd);
+        }
+
+        // A dead shard drains its handoffs once; one added after that is failed by whoever removes it
+        private void handoff(Shard target, EngineCommand cmd) {
+            target.handoffs.add(cmd);
+            if (target.dead && target.handoffs.remove(cmd)) {
+                logger.error("❌ {} {} stopped at stage {}: engine shard {} is not running", cmd.type, cmd.txnId,
+                        cmd.stage, target.id);
+                finish(cmd, new EngineBusyException("Ledger engine shard " + target.id + " is not running"));
+            }
+        }
+
+        // Credit refused: give the source its money back and fail the transfer
+        private void refundLeg(EngineCommand cmd) {
+            AccountState from = accounts.get(cmd.fromAccountId); // loaded by step 1
+            BigDecimal before = from.balance;
+            from.balance = before.add(cmd.amount);
+            emit(cmd, new WriteBehind(cmd.fromAccountId, cmd.amount,
+                    audit(cmd, cmd.fromAccountId, "TRANSFER-REVERSAL", before, from.balance),
+                    cmd.toTransaction("FAILED"), null));
+            rejected++;
+            finish(cmd, cmd.refusal);
+        }
+
+        private void apply(EngineCommand cmd, String accountId, AccountState state, BigDecimal delta, String action,
+                           boolean last) {
+            BigDecimal before = state.balance;
+            state.balance = before.add(delta);
+            AuditLog entry = audit(cmd, accountId, action, before, state.balance);
+            cmd.entries.add(entry);
+            emit(cmd, last ? new WriteBehind(accountId, delta, entry, cmd.toTransaction("SUCCESS"), List.copyOf(cmd.entries))
+                    : new WriteBehind(accountId, delta, entry, null, null));
+        }
+
+        // Refused before anything moved: FAILED transaction and audit row, as TransactionService records them
+        private void reject(EngineCommand cmd, String accountId, AccountState state, RuntimeException reason) {
+            emit(cmd, new WriteBehind(accountId, BigDecimal.ZERO,
+                    audit(cmd, accountId, cmd.type + "_FAILED", state.balance, state.balance),
+                    cmd.toTransaction("FAILED"), null));
+            rejected++;
+            finish(cmd, reason);
+        }
+
+        private void finish(EngineCommand cmd, RuntimeException error) {
+            if (cmd.reserved > 0) {
+                writer.room.release(cmd.reserved); // e.g. refused before anything was emitted
+                cmd.reserved = 0;
+            }
+            if (error == null) {
+                cmd.result.complete(cmd.toTransaction("SUCCESS"));
+            } else {
+                cmd.result.completeExceptionally(error);
+            }
+            completed++;
+        }
+
+        // Never waits: the command reserved the slot before it ran
+        private void emit(EngineCommand cmd, WriteBehind change) {
+            if (cmd.reserved <= 0 || !writer.queue.offer(change)) {
+                throw new IllegalStateException("No write-behind slot reserved for " + cmd.type + " " + cmd.txnId);
+            }
+            cmd.reserved--;
+            emitted++;
+        }
+
+        private AuditLog audit(EngineCommand cmd, String accountId, String action, BigDecimal before, BigDecimal after) {
+            return new AuditLog(UUID.randomUUID().toString(), cmd.txnId, accountId, cmd.actorId, action,
+                    before, after, cmd.createdAt);
+        }
+
+        private AccountState state(String accountId) {
+            if (outOfSync.contains(accountId)) {
+                throw new TransactionFailedException("Account " + accountId
+                        + " is out of sync with the database; it is refused until the engine restarts");
+            }
+            AccountState state = accounts.get(accountId);
+            if (state == null) {
+                Account account = accountRepository.findById(accountId);
+                if (account == null) return null;
+                state = new AccountState(account.getBalance(), "ACTIVE".equals(account.getStatus()));
+                accounts.put(accountId, state);
+            }
+            return state;
+        }
+    }
+
+    // Single consumer of every shard's changes; one unit of work per batch
+    private final class Writer implements Runnable {
+        private final RingBuffer<WriteBehind> queue;
+        // Free queue slots not yet reserved by a command; released as the writer drains
+        private final Semaphore room;
+        private final int batchSize;
+        private final AccountRepository accountRepository;
+        private final TransactionRepository transactionRepository;
+        private final AuditLogRepository auditLogRepository;
+        private final AuditDispatcher auditDispatcher; // null: audit rows stay in MySQL only
+        private final Thread thread;
+        private volatile boolean running = true;
+        private RuntimeException lastFailure;
+
+        // Written by the writer thread only
+        private volatile long written;
+        private volatile long batches;
+        private volatile long deadLettered;
+        private volatile long drift;
+
+        Writer(RingBuffer<WriteBehind> queue, int batchSize, AccountRepository accountRepository,
+               TransactionRepository transactionRepository, AuditLogRepository auditLogRepository,
+               AuditDispatcher auditDispatcher) {
+            this.queue = queue;
+            this.room = new Semaphore(queue.capacity());
+            this.batchSize = batchSize;
+            this.accountRepository = accountRepository;
+            this.transactionRepository = transactionRepository;
+            this.auditLogRepository = auditLogRepository;
+            this.auditDispatcher = auditDispatcher;
+            this.thread = new Thread(this, "engine-write-behind");
+            this.thread.setDaemon(true);
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        void stop() {
+            running = false;
+            LockSupport.unpark(thread);
+            try {
+                thread.join(10_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void run() {
+            List<WriteBehind> batch = new ArrayList<>(batchSize);
+            int idleRounds = 0;
+            int failedRounds = 0;
+            while (running || !queue.isEmpty() || !batch.isEmpty()) {
+                // A batch kept after a failed round is topped up, so a bad change gets good ones to compare with
+                int drained = queue.drain(batch::add, batchSize - batch.size());
+                if (drained > 0) room.release(drained);
+                if (batch.isEmpty()) {
+                    idle(idleRounds++);
+                    continue;
+                }
+                idleRounds = 0;
+                if (writeBatch(batch)) {
+                    batch.clear();
+                    failedRounds = 0;
+                    continue;
+                }
+                failedRounds++;
+                logger.error("❌ Engine write-behind batch of {} failed (round {})", batch.size(), failedRounds, lastFailure);
+                if (!running && failedRounds >= MAX_ATTEMPTS) {
+                    // Shutting down and nothing can be written: report every change rather than drop them
+                    batch.forEach(change -> deadLetter(change, lastFailure));
+                    batch.clear();
+                } else {
+                    LockSupport.parkNanos(Math.min(MAX_RETRY_BACKOFF_MILLIS, 50L << Math.min(failedRounds, 10)) * 1_000_000);
+                }
+            }
+        }
+
+        // True once every change is written or dead-lettered; false if the database cannot be reached
+        private boolean writeBatch(List<WriteBehind> batch) {
+            if (tryWrite(batch, 1)) {
+                written += batch.size();
+                return true;
+            }
+
+            // Something in the batch fails: write it change by change to find out what
+            List<WriteBehind> failed = new ArrayList<>();
+            List<RuntimeException> reasons = new ArrayList<>();
+            boolean progress = false;
+            for (WriteBehind change : batch) {
+                if (tryWrite(List.of(change), MAX_ATTEMPTS)) {
+                    written++;
+                    progress = true;
+                } else if (lastFailure instanceof BalanceRefused) {
+                    deadLetter(change, lastFailure);
+                    progress = true;
+                } else {
+                    failed.add(change);
+                    reasons.add(lastFailure);
+                }
+            }
+            if (!progress && !databaseReachable(batch.get(0).accountId)) return false; // the database, not the changes
+            for (int i = 0; i < failed.size(); i++) {
+                deadLetter(failed.get(i), reasons.get(i));
+            }
+            return true;
+        }
+
+        private boolean tryWrite(List<WriteBehind> changes, int attempts) {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    write(changes);
+                    batches++;
+                    return true;
+                } catch (BalanceRefused e) {
+                    lastFailure = e; // retrying cannot change the database's answer
+                    return false;
+                } catch (RuntimeException e) {
+                    lastFailure = e;
+                    if (attempt >= attempts) return false;
+                }
+            }
+        }
+
+        // Nothing could be written: the changes are only to blame if the database still answers a read
+        private boolean databaseReachable(String accountId) {
+            try {
+                accountRepository.findById(accountId);
+                return true;
+            } catch (RuntimeException e) {
+                return false;
+            }
+        }
+
+        private void deadLetter(WriteBehind change, RuntimeException reason) {
+            logger.error("❌ Engine change not written: account={} delta={} txn={} action={} status={}: {}",
+                    change.accountId, change.delta, change.audit.getTxnId(), change.audit.getAction(),
+                    change.txn == null ? "-" : change.txn.getStatus(), reason == null ? "?" : reason.getMessage());
+            if (change.delta.signum() != 0 && outOfSync.add(change.accountId)) {
+                logger.error("❌ Account {} is out of sync with the database; refusing its operations until restart",
+                        change.accountId);
+            }
+            if (reason instanceof BalanceRefused) drift++;
+            deadLettered++; // last: flush() returns once the change is accounted for
+        }
+
+        private void write(List<WriteBehind> batch) {
+            // Net the balance changes per account: one conditional UPDATE per account per batch
+            Map<String, BigDecimal> net = new TreeMap<>();
+            List<Transaction> txns = new ArrayList<>();
+            List<AuditLog> audits = new ArrayList<>(batch.size());
+            List<Transaction> succeeded = new ArrayList<>();
+            List<AuditLog> entries = new ArrayList<>();
+            for (WriteBehind change : batch) {
+                if (change.delta.signum() != 0) net.merge(change.accountId, change.delta, BigDecimal::add);
+                if (change.txn != null) txns.add(change.txn);
+                audits.add(change.audit);
+                if (change.entries != null) {
+                    succeeded.add(change.txn);
+                    entries.addAll(change.entries);
+                }
+            }
+
+            UnitOfWork.run(() -> {
+                net.forEach((accountId, delta) -> {
+                    int sign = delta.signum();
+                    BigDecimal result = sign > 0 ? accountRepository.credit(accountId, delta)
+                            : sign < 0 ? accountRepository.debit(accountId, delta.negate())
+                            : BigDecimal.ZERO;
+                    // Someone else changed or closed the account behind the engine's back: save nothing
+                    if (result == null) throw new BalanceRefused(accountId, delta);
+                });
+                if (!txns.isEmpty()) transactionRepository.saveAll(txns);
+                auditLogRepository.saveAll(audits);
+                if (!succeeded.isEmpty()) {
+                    for (TransactionListener listener : listeners) {
+                        listener.onTransactions(succeeded, entries);
+                    }
+                }
+            });
+
+            // Committed: a failing audit sink is reported but never undoes it
+            if (auditDispatcher != null) {
+                try {
+                    auditDispatcher.dispatch(audits);
+                } catch (RuntimeException e) {
+                    logger.warn("⚠️ {} engine audit log(s) not dispatched: {}", audits.size(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static final class BalanceRefused extends RuntimeException {
+        BalanceRefused(String accountId, BigDecimal delta) {
+            super("Balance change " + delta + " for account " + accountId + " refused by the database");
+        }
+    }
+}
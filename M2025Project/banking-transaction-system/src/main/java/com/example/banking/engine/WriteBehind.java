@@ -0,0 +1,28 @@
+package com.example.banking.engine;
+
+import com.example.banking.model.AuditLog;
+import com.example.banking.model.Transaction;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * A change a shard has already made in memory that still has to reach the database.
+ * delta is the signed balance change (zero for a rejected operation); txn is set once per operation,
+ * by whichever shard finishes it. entries is set with a SUCCESS txn: every account's audit entry, for listeners.
+ */
+final class WriteBehind {
+    final String accountId;
+    final BigDecimal delta;
+    final AuditLog audit;
+    final Transaction txn;
+    final List<AuditLog> entries;
+
+    WriteBehind(String accountId, BigDecimal delta, AuditLog audit, Transaction txn, List<AuditLog> entries) {
+        this.accountId = accountId;
+        this.delta = delta;
+        this.audit = audit;
+        this.txn = txn;
+        this.entries = entries;
+    }
+}
@@ -0,0 +1,4 @@
+package com.example.banking.exception;
+public class AuditQueueFullException extends RuntimeException {
+    public AuditQueueFullException(String message) { super(message); }
+}
@@ -0,0 +1,4 @@
+package com.example.banking.exception;
+public class EngineBusyException extends RuntimeException {
+    public EngineBusyException(String message) { super(message); }
+}
@@ -0,0 +1,94 @@
+package com.example.banking.ingest;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Interns account numbers straight from the mapped file: a number is looked up by its bytes and turned
+ * into a String only the first time it is seen, so a file with millions of records but a few thousand
+ * accounts allocates a few thousand Strings. Refs are dense (0, 1, 2, ...) in first-seen order.
+ * Single writer (the parsing thread); other threads only read numbers of refs handed to them.
+ */
+final class AccountNumberTable {
+
+    static final int MAX_NUMBER_LENGTH = 64;
+
+    private int[] slots = new int[1024];          // ref + 1, 0 = empty; open addressing, linear probing
+    private int[] hashes = new int[512];          // per ref
+    private int[] keyOffsets = new int[512];      // per ref, into keys
+    private byte[] keys = new byte[512 * 16];
+    private String[] numbers = new String[512];
+    private int keysUsed;
+    private int size;
+
+    // Ref of the number in buf[start, end), adding it if new
+    int intern(ByteBuffer buf, int start, int end) {
+        int length = end - start;
+        int hash = 0x811C9DC5; // FNV-1a
+        for (int i = start; i < end; i++) {
+            hash = (hash ^ (buf.get(i) & 0xFF)) * 0x01000193;
+        }
+
+        int mask = slots.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int entry = slots[slot];
+            if (entry == 0) {
+                int ref = add(buf, start, length, hash);
+                slots[slot] = ref + 1;
+                if (size * 2 > slots.length) rehash();
+                return ref;
+            }
+            int ref = entry - 1;
+            if (hashes[ref] == hash && sameBytes(ref, buf, start, length)) return ref;
+        }
+    }
+
+    String numberOf(int ref) {
+        return numbers[ref];
+    }
+
+    int size() {
+        return size;
+    }
+
+    private boolean sameBytes(int ref, ByteBuffer buf, int start, int length) {
+        int offset = keyOffsets[ref];
+        int storedLength = (ref + 1 < size ? keyOffsets[ref + 1] : keysUsed) - offset;
+        if (storedLength != length) return false;
+        for (int i = 0; i < length; i++) {
+            if (keys[offset + i] != buf.get(start + i)) return false;
+        }
+        return true;
+    }
+
+    private int add(ByteBuffer buf, int start, int length, int hash) {
+        if (size == hashes.length) {
+            hashes = Arrays.copyOf(hashes, size * 2);
+            keyOffsets = Arrays.copyOf(keyOffsets, size * 2);
+            numbers = Arrays.copyOf(numbers, size * 2);
+        }
+        if (keysUsed + length > keys.length) {
+            keys = Arrays.copyOf(keys, Math.max(keys.length * 2, keysUsed + length));
+        }
+        buf.get(start, keys, keysUsed, length);
+
+        int ref = size++;
+        hashes[ref] = hash;
+        keyOffsets[ref] = keysUsed;
+        numbers[ref] = new String(keys, keysUsed, length, StandardCharsets.UTF_8);
+        keysUsed += length;
+        return ref;
+    }
+
+    private void rehash() {
+        int[] grown = new int[slots.length * 2];
+        int mask = grown.length - 1;
+        for (int ref = 0; ref < size; ref++) {
+            int slot = hashes[ref] & mask;
+            while (grown[slot] != 0) slot = (slot + 1) & mask;
+            grown[slot] = ref + 1;
+        }
+        slots = grown;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.banking.ingest;
+
+/**
+ * Layouts of bulk payment files. One record per line (LF or CRLF); blank lines are ignored.
+ * Record types are D/DEPOSIT, W/WITHDRAW/WITHDRAWAL and T/TRANSFER (any case). A deposit names only
+ * the destination account, a withdrawal only the source, a transfer both.
+ */
+public enum PaymentFileFormat {
+
+    /**
+     * type,from,to,amount — e.g. "T,ACC1001,ACC2001,250.00" or "D,,ACC2001,40".
+     * Fields are trimmed; further fields (a reference, say) are ignored; quoting is not supported.
+     * A first line starting with "type" is a header.
+     */
+    CSV,
+
+    /**
+     * Fixed columns: type (1 char) · from (20, left-aligned) · to (20, left-aligned) ·
+     * amount (18, right-aligned). Padding is spaces; anything after column 59 is ignored.
+     */
+    FIXED_WIDTH;
+
+    static final int TYPE_WIDTH = 1;
+    static final int ACCOUNT_WIDTH = 20;
+    static final int AMOUNT_WIDTH = 18;
+    static final int RECORD_WIDTH = TYPE_WIDTH + 2 * ACCOUNT_WIDTH + AMOUNT_WIDTH;
+
+    // "csv", "fixed" or "fixed_width" (any case)
+    public static PaymentFileFormat of(String name) {
+        String n = name.trim().toUpperCase();
+        if (n.equals("FIXED")) return FIXED_WIDTH;
+        try {
+            return valueOf(n);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown payment file format: " + name);
+        }
+    }
+}
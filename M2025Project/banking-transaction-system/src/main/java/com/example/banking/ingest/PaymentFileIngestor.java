@@ -0,0 +1,693 @@
+package com.example.banking.ingest;
+
+import com.example.banking.exception.AccountClosedException;
+import com.example.banking.exception.AuditQueueFullException;
+import com.example.banking.exception.InsufficientFundsException;
+import com.example.banking.exception.NegativeAmountException;
+import com.example.banking.exception.TransactionFailedException;
+import com.example.banking.model.Account;
+import com.example.banking.model.AuditLog;
+import com.example.banking.model.IngestReport;
+import com.example.banking.model.Transaction;
+import com.example.banking.repository.AccountRepository;
+import com.example.banking.repository.AuditLogRepository;
+import com.example.banking.repository.IngestCheckpointRepository;
+import com.example.banking.repository.TransactionRepository;
+import com.example.banking.service.AuditDispatcher;
+import com.example.banking.service.MiniStatementService;
+import com.example.banking.service.TransactionListener;
+import com.example.banking.strategy.DepositStrategy;
+import com.example.banking.strategy.TransferStrategy;
+import com.example.banking.strategy.WithdrawStrategy;
+import com.example.banking.utils.AccountLockManager;
+import com.example.banking.utils.UnitOfWork;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Applies a bulk payment file (deposits, withdrawals, transfers by account number; see PaymentFileFormat).
+ * - The file is memory-mapped window by window and parsed in place into columnar blocks; account numbers
+ *   are interned from their bytes and resolved with one lookup per block for the numbers it adds.
+ * - Each record belongs to the partition that owns its debited account (the credited one for a deposit),
+ *   split along lock stripes. Partitions run in parallel; within one, records keep file order.
+ * - A transfer between two partitions' accounts is queued to both and applied by the source's partition
+ *   once both have reached it, so every account sees its records in file order (a withdrawal always
+ *   sees the transfers into the account that precede it in the file).
+ * - A partition commits its records in chunks: the strategies' balance updates, transaction and audit rows,
+ *   listener work and the partition's checkpoint share one unit of work, under every touched account's lock.
+ * - Files are identified by a digest of their content. Running the same file again (even a renamed or
+ *   touched copy) resumes after each partition's checkpoint; a finished file is a no-op.
+ * - Every record that was not applied is written to the error file with its line number and the reason.
+ */
+public class PaymentFileIngestor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentFileIngestor.class);
+
+    static final int DEFAULT_WINDOW_BYTES = 256 * 1024 * 1024;
+    private static final int MAX_PARTITIONS = 64;   // fewest stripes any lock manager has (one core)
+    private static final int BLOCK_RECORDS = 8192;
+    private static final int QUEUE_DEPTH = 4;        // blocks parsed ahead of the slowest partition
+    private static final RecordBlock END = new RecordBlock(0);
+    private static final String ERROR_HEADER = "line,offset,reason,record";
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final AuditLogRepository auditLogRepository; // MySQL
+    private final IngestCheckpointRepository checkpoints;
+    private final AuditDispatcher auditDispatcher;       // DynamoDB (and any other off-thread sinks)
+    private final AccountLockManager lockManager;
+    private final int partitions;
+    private final int commitBatchSize;
+    private final int windowBytes;
+    private final List<TransactionListener> listeners = new CopyOnWriteArrayList<>();
+
+    // Metrics (all runs)
+    private final AtomicLong filesIngested = new AtomicLong();
+    private final AtomicLong recordsApplied = new AtomicLong();
+    private final AtomicLong recordsFailed = new AtomicLong();
+    private final AtomicLong recordsRejected = new AtomicLong();
+    private final AtomicLong chunksCommitted = new AtomicLong();
+
+    public PaymentFileIngestor(AccountRepository accountRepository, TransactionRepository transactionRepository,
+                               AuditLogRepository auditLogRepository, IngestCheckpointRepository checkpoints,
+                               AuditDispatcher auditDispatcher, int partitions, int commitBatchSize) {
+        this(accountRepository, transactionRepository, auditLogRepository, checkpoints, auditDispatcher,
+                partitions, commitBatchSize, AccountLockManager.getInstance(), DEFAULT_WINDOW_BYTES);
+    }
+
+    PaymentFileIngestor(AccountRepository accountRepository, TransactionRepository transactionRepository,
+                        AuditLogRepository auditLogRepository, IngestCheckpointRepository checkpoints,
+                        AuditDispatcher auditDispatcher, int partitions, int commitBatchSize,
+                        AccountLockManager lockManager, int windowBytes) {
+        if (commitBatchSize < 1) throw new IllegalArgumentException("Commit batch size must be positive");
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.auditLogRepository = auditLogRepository;
+        this.checkpoints = checkpoints;
+        this.auditDispatcher = auditDispatcher;
+        this.lockManager = lockManager;
+        // Rounded down to a power of two so partitions line up with lock stripes
+        int cap = Math.min(MAX_PARTITIONS, lockManager.getStripeCount());
+        this.partitions = Math.min(Integer.highestOneBit(Math.max(1, partitions)), cap);
+        this.commitBatchSize = commitBatchSize;
+        this.windowBytes = windowBytes;
+    }
+
+    // ingest.partitions (default 8) and ingest.batchSize (records per commit, default 500)
+    public static PaymentFileIngestor fromSystemProperties(AccountRepository accountRepository,
+                                                           TransactionRepository transactionRepository,
+                                                           AuditLogRepository auditLogRepository,
+                                                           IngestCheckpointRepository checkpoints,
+                                                           AuditDispatcher auditDispatcher) {
+        return new PaymentFileIngestor(accountRepository, transactionRepository, auditLogRepository, checkpoints,
+                auditDispatcher, Integer.getInteger("ingest.partitions", 8),
+                Integer.getInteger("ingest.batchSize", 500));
+    }
+
+    // 🔹 Register a listener that runs inside every chunk's unit of work (same contract as TransactionService's)
+    public void addListener(TransactionListener listener) {
+        listeners.add(listener);
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    /**
+     * Applies every record of the file not applied by an earlier run, acting as actorId in the audit trail.
+     * Throws TransactionFailedException if a partition stops on an unexpected error (database down, ...);
+     * what was committed before that stays, and the next run picks up from there.
+     */
+    public IngestReport ingest(Path file, PaymentFileFormat format, Path errorFile, String actorId) {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            String fileKey = fileKey(channel);
+            long[] resumeAfter = loadCheckpoints(fileKey);
+            boolean resuming = Arrays.stream(resumeAfter).anyMatch(offset -> offset >= 0);
+            if (resuming) logger.info("🔹 Resuming {} after its last checkpoint", file);
+
+            Run run;
+            try (BufferedWriter errors = openErrorFile(errorFile, resuming)) {
+                run = new Run(fileKey, resumeAfter, errors, actorId);
+                run.start();
+                try {
+                    run.feed(channel, format);
+                } finally {
+                    run.finish();
+                }
+            }
+            if (run.failure != null) {
+                throw new TransactionFailedException("Payment file ingestion stopped: " + run.failure.getMessage()
+                        + " (run it again to resume after the last checkpoint)");
+            }
+
+            filesIngested.incrementAndGet();
+            IngestReport report = new IngestReport(run.records, run.applied.sum(), run.failed.sum(),
+                    run.rejected.sum(), run.skipped.sum(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            logger.info("✅ Ingested {}: {}", file, report);
+            return report;
+
+        } catch (IOException e) {
+            throw new RuntimeException("Error ingesting payment file: " + e.getMessage(), e);
+        }
+    }
+
+    // SHA-256 of the content: a copy is the same file, any changed byte makes a new one
+    private String fileKey(FileChannel channel) throws IOException {
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        long size = channel.size();
+        for (long position = 0; position < size; position += windowBytes) {
+            sha256.update(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(windowBytes, size - position)));
+        }
+        return "sha256:" + HexFormat.of().formatHex(sha256.digest());
+    }
+
+    private long[] loadCheckpoints(String fileKey) {
+        long[] resumeAfter = new long[partitions];
+        Arrays.fill(resumeAfter, -1L);
+        Map<Integer, Long> saved = checkpoints.loadOffsets(fileKey);
+        if (saved.isEmpty()) {
+            // A row per partition up front records how the file was split
+            UnitOfWork.run(() -> {
+                for (int p = 0; p < partitions; p++) checkpoints.saveOffset(fileKey, p, -1L);
+            });
+            return resumeAfter;
+        }
+        if (saved.size() != partitions) {
+            throw new IllegalStateException("Payment file was started with " + saved.size()
+                    + " partitions; resume it with the same number");
+        }
+        saved.forEach((p, offset) -> resumeAfter[p] = offset);
+        return resumeAfter;
+    }
+
+    private static BufferedWriter openErrorFile(Path errorFile, boolean resuming) throws IOException {
+        BufferedWriter errors = Files.newBufferedWriter(errorFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, resuming ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING);
+        if (!resuming) {
+            errors.write(ERROR_HEADER);
+            errors.newLine();
+            errors.flush();
+        }
+        return errors;
+    }
+
+    /** State of one ingest() call: the feeding (parsing) thread plus one worker per partition. */
+    private final class Run {
+        private final String fileKey;
+        private final long[] resumeAfter;   // per partition: offset of the last record already applied
+        private final BufferedWriter errors;
+        private final String actorId;
+        private final Partition[] workers = new Partition[partitions];
+
+        private long records;               // feeding thread only
+        private final LongAdder applied = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder skipped = new LongAdder();
+        private volatile Throwable failure;
+
+        // Account lookups, feeding thread only
+        private final AccountNumberTable numbers = new AccountNumberTable();
+        private Account[] accounts = new Account[1024];
+        private int resolved;
+
+        Run(String fileKey, long[] resumeAfter, BufferedWriter errors, String actorId) {
+            this.fileKey = fileKey;
+            this.resumeAfter = resumeAfter;
+            this.errors = errors;
+            this.actorId = actorId;
+        }
+
+        void start() {
+            for (int p = 0; p < partitions; p++) {
+                workers[p] = new Partition(this, p);
+                workers[p].thread.start();
+            }
+        }
+
+        // Maps the file window by window and hands parsed blocks to the partitions
+        void feed(FileChannel channel, PaymentFileFormat format) throws IOException {
+            PaymentRecordParser parser = new PaymentRecordParser(format, numbers);
+            long minResume = Arrays.stream(resumeAfter).min().orElse(-1L);
+            long size = channel.size();
+            long position = 0;
+            long lineNo = 0;
+
+            while (position < size && failure == null) {
+                long length = Math.min(windowBytes, size - position);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int limit = (int) length;
+                if (position + length < size) {
+                    // Stop after the window's last complete line; the next window starts on the one after it
+                    while (limit > 0 && window.get(limit - 1) != '\n') limit--;
+                    if (limit == 0) {
+                        throw new IllegalStateException("Line at offset " + position + " does not fit in one mapping window");
+                    }
+                }
+
+                RecordBlock block = null;
+                int lineStart = 0;
+                while (lineStart < limit && failure == null) {
+                    int lineEnd = lineStart;
+                    while (lineEnd < limit && window.get(lineEnd) != '\n') lineEnd++;
+                    lineNo++;
+                    long offset = position + lineStart;
+                    int textEnd = lineEnd > lineStart && window.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+
+                    boolean blank = textEnd == lineStart;
+                    boolean header = offset == 0 && parser.isHeader(window, lineStart, textEnd);
+                    if (!blank && !header) {
+                        records++;
+                        if (offset <= minResume) {
+                            skipped.increment(); // every partition is past it
+                        } else {
+                            if (block == null) block = new RecordBlock(BLOCK_RECORDS);
+                            int i = block.size++;
+                            block.offset[i] = offset;
+                            block.lineNo[i] = lineNo;
+                            block.lineLength[i] = textEnd - lineStart;
+                            parser.parse(window, lineStart, textEnd, block, i);
+                            if (block.isFull()) {
+                                dispatch(block, window, position);
+                                block = null;
+                            }
+                        }
+                    }
+                    lineStart = lineEnd + 1;
+                }
+                if (block != null) dispatch(block, window, position);
+                position += limit;
+            }
+        }
+
+        private void dispatch(RecordBlock block, MappedByteBuffer window, long windowStart) {
+            block.window = window;
+            block.windowStart = windowStart;
+            resolveNewNumbers();
+            block.accounts = accounts;
+
+            int[] owner = new int[block.size];
+            int[] partner = new int[block.size];
+            int[] sizes = new int[partitions];
+            for (int i = 0; i < block.size; i++) {
+                if (block.error[i] == null) block.error[i] = missingAccount(block, i);
+                owner[i] = block.error[i] != null
+                        ? (int) (block.lineNo[i] & (partitions - 1)) // rejections only need someone to report them
+                        : lockManager.partitionOf(accounts[block.primaryRef(i)].getId(), partitions);
+                sizes[owner[i]]++;
+                partner[i] = -1;
+                if (block.error[i] == null && block.type[i] == RecordBlock.TRANSFER) {
+                    int p = lockManager.partitionOf(accounts[block.to[i]].getId(), partitions);
+                    if (p != owner[i]) {
+                        if (block.crossings == null) block.crossings = new RecordBlock.Crossing[block.size];
+                        block.crossings[i] = new RecordBlock.Crossing(owner[i]);
+                        partner[i] = p;
+                        sizes[p]++;
+                    }
+                }
+            }
+            block.byPartition = new int[partitions][];
+            for (int p = 0; p < partitions; p++) block.byPartition[p] = new int[sizes[p]];
+            block.partitionSizes = new int[partitions];
+            for (int i = 0; i < block.size; i++) {
+                int p = owner[i];
+                block.byPartition[p][block.partitionSizes[p]++] = i;
+                if (partner[i] >= 0) {
+                    p = partner[i];
+                    block.byPartition[p][block.partitionSizes[p]++] = i;
+                }
+            }
+
+            for (int p = 0; p < partitions && failure == null; p++) {
+                if (block.partitionSizes[p] > 0) handOff(workers[p], block);
+            }
+        }
+
+        // One lookup for the numbers first seen since the previous block
+        private void resolveNewNumbers() {
+            int size = numbers.size();
+            if (size == resolved) return;
+            if (size > accounts.length) {
+                // Blocks already handed over keep the old array, which holds every ref they use
+                accounts = Arrays.copyOf(accounts, Math.max(size, accounts.length * 2));
+            }
+            Map<String, Integer> refs = new HashMap<>();
+            for (int ref = resolved; ref < size; ref++) refs.put(numbers.numberOf(ref), ref);
+            for (Account acc : accountRepository.findByNumbers(new ArrayList<>(refs.keySet()))) {
+                Integer ref = refs.get(acc.getNumber());
+                if (ref != null) accounts[ref] = acc;
+            }
+            resolved = size;
+        }
+
+        private String missingAccount(RecordBlock block, int i) {
+            if (block.from[i] >= 0 && accounts[block.from[i]] == null) {
+                return block.type[i] == RecordBlock.TRANSFER ? "Source account not found" : "Account not found";
+            }
+            if (block.to[i] >= 0 && accounts[block.to[i]] == null) {
+                return block.type[i] == RecordBlock.TRANSFER ? "Destination account not found" : "Account not found";
+            }
+            return null;
+        }
+
+        // Blocks while the partition is QUEUE_DEPTH blocks behind; gives up if its worker has died
+        private void handOff(Partition worker, RecordBlock block) {
+            try {
+                while (!worker.queue.offer(block, 100, TimeUnit.MILLISECONDS)) {
+                    if (!worker.thread.isAlive()) return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            }
+        }
+
+        void finish() {
+            for (Partition worker : workers) {
+                if (worker != null) handOff(worker, END);
+            }
+            for (Partition worker : workers) {
+                if (worker == null) continue;
+                try {
+                    worker.thread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    fail(e);
+                    return;
+                }
+            }
+        }
+
+        synchronized void fail(Throwable e) {
+            if (failure == null) failure = e;
+        }
+
+        // Written just before the chunk commits: a crash in between repeats these lines on resume, never loses them
+        void writeErrors(CharSequence lines) {
+            synchronized (errors) {
+                try {
+                    errors.append(lines);
+                    errors.flush();
+                } catch (IOException e) {
+                    throw new RuntimeException("Error writing ingest error file: " + e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    /** One partition's worker: applies its share of every block in file order, a chunk per unit of work. */
+    private final class Partition implements Runnable {
+        private final Run run;
+        private final int index;
+        private final ArrayBlockingQueue<RecordBlock> queue = new ArrayBlockingQueue<>(QUEUE_DEPTH);
+        private final Thread thread;
+        private final DepositStrategy deposit = new DepositStrategy(accountRepository);
+        private final WithdrawStrategy withdraw = new WithdrawStrategy(accountRepository);
+        // This worker's own copies of the accounts, by ref: strategies update balances on them
+        private Account[] local = new Account[1024];
+
+        Partition(Run run, int index) {
+            this.run = run;
+            this.index = index;
+            this.thread = new Thread(this, "ingest-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (RecordBlock block = queue.take(); block != END; block = queue.take()) {
+                    if (run.failure == null) process(block);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                run.fail(e);
+            } catch (RuntimeException | Error e) {
+                logger.error("❌ Ingest partition {} stopped", index, e);
+                run.fail(e);
+            }
+        }
+
+        private void process(RecordBlock block) {
+            int[] records = block.byPartition[index];
+            int n = block.partitionSizes[index];
+            int first = 0;
+            while (first < n && block.offset[records[first]] <= run.resumeAfter[index]) {
+                RecordBlock.Crossing crossing = block.crossing(records[first]);
+                if (crossing == null || crossing.owner == index) run.skipped.increment(); // applied by an earlier run
+                first++;
+            }
+            int from = first;
+            for (int k = first; k < n && run.failure == null; k++) {
+                RecordBlock.Crossing crossing = block.crossing(records[k]);
+                if (crossing == null) {
+                    if (k + 1 - from == commitBatchSize) {
+                        applyChunk(block, records, from, k + 1);
+                        from = k + 1;
+                    }
+                    continue;
+                }
+                // Commit what comes before it first: no locks are held while waiting for the other partition
+                if (from < k) applyChunk(block, records, from, k);
+                from = k + 1;
+                if (run.failure == null) cross(block, records, k, crossing);
+            }
+            if (from < n && run.failure == null) applyChunk(block, records, from, n);
+        }
+
+        // Record k is a transfer shared with another partition: the owner applies it alone once both are here
+        private void cross(RecordBlock block, int[] records, int k, RecordBlock.Crossing crossing) {
+            if (block.offset[records[k]] <= run.resumeAfter[crossing.owner]) {
+                if (crossing.owner == index) run.skipped.increment(); // the owner applied it in an earlier run
+                return;
+            }
+            if (crossing.owner != index) {
+                crossing.partnerArrived.countDown();
+                await(crossing.applied);
+                return;
+            }
+            try {
+                if (await(crossing.partnerArrived)) applyChunk(block, records, k, k + 1);
+            } finally {
+                crossing.applied.countDown();
+            }
+        }
+
+        // False if the run failed (or this thread was interrupted) while waiting
+        private boolean await(CountDownLatch latch) {
+            try {
+                while (!latch.await(100, TimeUnit.MILLISECONDS)) {
+                    if (run.failure != null) return false;
+                }
+                return run.failure == null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                run.fail(e);
+                return false;
+            }
+        }
+
+        private void applyChunk(RecordBlock block, int[] records, int from, int to) {
+            Set<String> accountIds = new HashSet<>();
+            for (int k = from; k < to; k++) {
+                int i = records[k];
+                if (block.error[i] != null) continue;
+                if (block.from[i] >= 0) accountIds.add(block.accounts[block.from[i]].getId());
+                if (block.to[i] >= 0) accountIds.add(block.accounts[block.to[i]].getId());
+            }
+
+            ChunkOutcome outcome = lockManager.withLocks(accountIds,
+                    () -> UnitOfWork.execute(() -> applyRecords(block, records, from, to)));
+
+            MiniStatementService ms = MiniStatementService.getInstance(transactionRepository);
+            for (Transaction t : outcome.succeeded) {
+                if (t.getFromAccountId() != null) ms.addTransaction(t.getFromAccountId(), t);
+                if (t.getToAccountId() != null) ms.addTransaction(t.getToAccountId(), t);
+            }
+            dispatchAudit(outcome.logs);
+
+            run.applied.add(outcome.succeeded.size());
+            run.failed.add(outcome.failed);
+            run.rejected.add(outcome.rejected);
+            recordsApplied.addAndGet(outcome.succeeded.size());
+            recordsFailed.addAndGet(outcome.failed);
+            recordsRejected.addAndGet(outcome.rejected);
+            chunksCommitted.incrementAndGet();
+        }
+
+        // Runs inside the chunk's unit of work with every account it touches locked
+        private ChunkOutcome applyRecords(RecordBlock block, int[] records, int from, int to) {
+            Instant now = Instant.now();
+            ChunkOutcome out = new ChunkOutcome(to - from);
+            List<AuditLog> movementLogs = new ArrayList<>((to - from) * 2);
+            StringBuilder errorLines = new StringBuilder();
+
+            for (int k = from; k < to; k++) {
+                int i = records[k];
+                if (block.error[i] != null) {
+                    out.rejected++;
+                    appendError(errorLines, block, i, block.error[i]);
+                    continue;
+                }
+
+                BigDecimal amount = BigDecimal.valueOf(block.unscaled[i], block.scale[i]);
+                Account account = local(block, block.primaryRef(i));
+                BigDecimal before = account.getBalance();
+                try {
+                    Transaction t = applyRecord(block, i, account, amount, movementLogs);
+                    out.txns.add(t);
+                    out.succeeded.add(t);
+                } catch (NegativeAmountException | InsufficientFundsException | AccountClosedException e) {
+                    String type = typeName(block.type[i]);
+                    Transaction failTxn = new Transaction(UUID.randomUUID().toString(),
+                            block.type[i] == RecordBlock.DEPOSIT ? null : account.getId(),
+                            block.type[i] == RecordBlock.DEPOSIT ? account.getId() : null,
+                            type, amount, "FAILED", now);
+                    out.txns.add(failTxn);
+                    out.failureLogs.add(new AuditLog(UUID.randomUUID().toString(), failTxn.getId(), account.getId(),
+                            run.actorId, type + "_FAILED", before, before, now));
+                    out.failed++;
+                    appendError(errorLines, block, i, e.getMessage());
+                }
+            }
+
+            out.logs.addAll(movementLogs);
+            out.logs.addAll(out.failureLogs);
+            if (!out.txns.isEmpty()) transactionRepository.saveAll(out.txns);
+            if (!out.logs.isEmpty()) auditLogRepository.saveAll(out.logs);
+            if (!out.succeeded.isEmpty()) {
+                for (TransactionListener listener : listeners) {
+                    listener.onTransactions(out.succeeded, movementLogs);
+                }
+            }
+            if (errorLines.length() > 0) run.writeErrors(errorLines);
+            checkpoints.saveOffset(run.fileKey, index, block.offset[records[to - 1]]);
+            return out;
+        }
+
+        // Deposits and withdrawals are one guarded statement each, so a refusal changes nothing;
+        // a transfer is two, so it gets a savepoint that undoes the debit if the credit is refused
+        private Transaction applyRecord(RecordBlock block, int i, Account account, BigDecimal amount,
+                                        List<AuditLog> movementLogs) {
+            String actorId = run.actorId;
+            Transaction t;
+            switch (block.type[i]) {
+                case RecordBlock.DEPOSIT:
+                    t = deposit.execute(account, amount, null);
+                    movementLogs.add(new AuditLog(UUID.randomUUID().toString(), t.getId(), account.getId(), actorId,
+                            "DEPOSIT", account.getBalance().subtract(amount), account.getBalance()));
+                    break;
+                case RecordBlock.WITHDRAW:
+                    t = withdraw.execute(account, amount, null);
+                    movementLogs.add(new AuditLog(UUID.randomUUID().toString(), t.getId(), account.getId(), actorId,
+                            "WITHDRAW", account.getBalance().add(amount), account.getBalance()));
+                    break;
+                default: {
+                    Account dest = local(block, block.to[i]);
+                    TransferStrategy transfer = new TransferStrategy(accountRepository, dest);
+                    t = UnitOfWork.execute(() -> transfer.execute(account, amount, dest.getNumber()));
+                    movementLogs.add(new AuditLog(UUID.randomUUID().toString(), t.getId(), account.getId(), actorId,
+                            "TRANSFER-DEBIT", account.getBalance().add(amount), account.getBalance()));
+                    movementLogs.add(new AuditLog(UUID.randomUUID().toString(), t.getId(), dest.getId(), actorId,
+                            "TRANSFER-CREDIT", dest.getBalance().subtract(amount), dest.getBalance()));
+                }
+            }
+            t.setStatus("SUCCESS");
+            return t;
+        }
+
+        private Account local(RecordBlock block, int ref) {
+            if (ref >= local.length) local = Arrays.copyOf(local, Math.max(ref + 1, local.length * 2));
+            Account copy = local[ref];
+            if (copy == null) {
+                Account acc = block.accounts[ref];
+                copy = new Account(acc.getId(), acc.getCustomerId(), acc.getNumber(), acc.getBalance(),
+                        acc.getType(), acc.getStatus(), acc.getCreatedAt());
+                local[ref] = copy;
+            }
+            return copy;
+        }
+    }
+
+    private static final class ChunkOutcome {
+        final List<Transaction> txns;
+        final List<Transaction> succeeded;
+        final List<AuditLog> failureLogs = new ArrayList<>();
+        final List<AuditLog> logs;
+        int failed;
+        int rejected;
+
+        ChunkOutcome(int records) {
+            txns = new ArrayList<>(records);
+            succeeded = new ArrayList<>(records);
+            logs = new ArrayList<>(records * 2);
+        }
+    }
+
+    // line,offset,"reason",record — the record is last so commas in it need no quoting
+    private static void appendError(StringBuilder out, RecordBlock block, int i, String reason) {
+        out.append(block.lineNo[i]).append(',').append(block.offset[i]).append(",\"")
+                .append(reason == null ? "Error" : reason.replace("\"", "\"\"")).append("\",")
+                .append(block.lineText(i)).append('\n');
+    }
+
+    private static String typeName(byte type) {
+        switch (type) {
+            case RecordBlock.DEPOSIT: return "DEPOSIT";
+            case RecordBlock.WITHDRAW: return "WITHDRAW";
+            default: return "TRANSFER";
+        }
+    }
+
+    // The money movement is already committed, so a sink failure is logged but never undoes it
+    private void dispatchAudit(List<AuditLog> logs) {
+        if (logs.isEmpty()) return;
+        try {
+            auditDispatcher.dispatch(logs);
+        } catch (AuditQueueFullException e) {
+            logger.warn("⚠️ {} audit log(s) not queued: {}", logs.size(), e.getMessage());
+        } catch (RuntimeException e) {
+            logger.error("❌ {} audit log(s) not written after commit", logs.size(), e);
+        }
+    }
+
+    public String stats() {
+        return String.format("ingest: files=%d applied=%d failed=%d rejected=%d chunks=%d partitions=%d",
+                filesIngested.get(), recordsApplied.get(), recordsFailed.get(), recordsRejected.get(),
+                chunksCommitted.get(), partitions);
+    }
+}
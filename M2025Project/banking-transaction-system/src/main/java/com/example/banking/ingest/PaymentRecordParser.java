@@ -0,0 +1,175 @@
+package com.example.banking.ingest;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Parses one line of a mapped payment file into a RecordBlock slot, reading bytes in place:
+ * account numbers go through the AccountNumberTable and amounts become an unscaled long plus a scale,
+ * so a valid record allocates nothing. Rejections are constant messages.
+ */
+final class PaymentRecordParser {
+
+    static final int MAX_LINE_LENGTH = 1024;
+    private static final int MAX_AMOUNT_DIGITS = 18; // always fits a long
+
+    private static final byte[] DEPOSIT = "DEPOSIT".getBytes();
+    private static final byte[] WITHDRAW = "WITHDRAW".getBytes();
+    private static final byte[] WITHDRAWAL = "WITHDRAWAL".getBytes();
+    private static final byte[] TRANSFER = "TRANSFER".getBytes();
+    private static final byte[] HEADER = "TYPE".getBytes();
+
+    private final PaymentFileFormat format;
+    private final AccountNumberTable numbers;
+
+    // Field bounds of the line being parsed: type, from, to, amount
+    private final int[] fieldStart = new int[4];
+    private final int[] fieldEnd = new int[4];
+
+    PaymentRecordParser(PaymentFileFormat format, AccountNumberTable numbers) {
+        this.format = format;
+        this.numbers = numbers;
+    }
+
+    // Whether the file's first line [start, end) is a CSV header rather than a record
+    boolean isHeader(ByteBuffer buf, int start, int end) {
+        return format == PaymentFileFormat.CSV && end - start >= HEADER.length
+                && equalsIgnoreCase(buf, start, start + HEADER.length, HEADER);
+    }
+
+    /** Fills slot i of the block from the line buf[start, end) (terminator excluded); sets error[i] if invalid. */
+    void parse(ByteBuffer buf, int start, int end, RecordBlock block, int i) {
+        if (end > start && buf.get(end - 1) == '\r') end--;
+        block.from[i] = -1;
+        block.to[i] = -1;
+        block.error[i] = parseFields(buf, start, end, block, i);
+    }
+
+    private String parseFields(ByteBuffer buf, int start, int end, RecordBlock block, int i) {
+        if (end - start > MAX_LINE_LENGTH) return "Line longer than " + MAX_LINE_LENGTH + " bytes";
+        String split = format == PaymentFileFormat.CSV ? splitCsv(buf, start, end) : splitFixed(start, end);
+        if (split != null) return split;
+        for (int f = 0; f < 4; f++) trim(buf, f);
+
+        byte type = parseType(buf, fieldStart[0], fieldEnd[0]);
+        if (type == 0) return "Unknown record type";
+        block.type[i] = type;
+
+        boolean hasFrom = fieldEnd[1] > fieldStart[1];
+        boolean hasTo = fieldEnd[2] > fieldStart[2];
+        switch (type) {
+            case RecordBlock.DEPOSIT:
+                if (hasFrom || !hasTo) return "A deposit names only the destination account";
+                break;
+            case RecordBlock.WITHDRAW:
+                if (!hasFrom || hasTo) return "A withdrawal names only the source account";
+                break;
+            default:
+                if (!hasFrom || !hasTo) return "Source and destination account numbers are required";
+        }
+        if (fieldEnd[1] - fieldStart[1] > AccountNumberTable.MAX_NUMBER_LENGTH
+                || fieldEnd[2] - fieldStart[2] > AccountNumberTable.MAX_NUMBER_LENGTH) {
+            return "Account number too long";
+        }
+
+        String amountError = parseAmount(buf, fieldStart[3], fieldEnd[3], block, i);
+        if (amountError != null) return amountError;
+
+        if (hasFrom) block.from[i] = numbers.intern(buf, fieldStart[1], fieldEnd[1]);
+        if (hasTo) block.to[i] = numbers.intern(buf, fieldStart[2], fieldEnd[2]);
+        if (type == RecordBlock.TRANSFER && block.from[i] == block.to[i]) {
+            return "Source and destination accounts cannot be the same";
+        }
+        return null;
+    }
+
+    private String splitCsv(ByteBuffer buf, int start, int end) {
+        int field = 0;
+        fieldStart[0] = start;
+        for (int p = start; p < end; p++) {
+            byte b = buf.get(p);
+            if (b == '"') return "Quoted fields are not supported";
+            if (b == ',') {
+                fieldEnd[field] = p;
+                if (++field == 4) return null; // anything after the amount is ignored
+                fieldStart[field] = p + 1;
+            }
+        }
+        fieldEnd[field] = end;
+        return field == 3 ? null : "Expected 4 fields: type,from,to,amount";
+    }
+
+    private String splitFixed(int start, int end) {
+        if (end - start < PaymentFileFormat.RECORD_WIDTH) {
+            return "Record shorter than " + PaymentFileFormat.RECORD_WIDTH + " characters";
+        }
+        int[] widths = {PaymentFileFormat.TYPE_WIDTH, PaymentFileFormat.ACCOUNT_WIDTH,
+                PaymentFileFormat.ACCOUNT_WIDTH, PaymentFileFormat.AMOUNT_WIDTH};
+        int p = start;
+        for (int f = 0; f < 4; f++) {
+            fieldStart[f] = p;
+            p += widths[f];
+            fieldEnd[f] = p;
+        }
+        return null;
+    }
+
+    private void trim(ByteBuffer buf, int f) {
+        while (fieldStart[f] < fieldEnd[f] && buf.get(fieldStart[f]) == ' ') fieldStart[f]++;
+        while (fieldEnd[f] > fieldStart[f] && buf.get(fieldEnd[f] - 1) == ' ') fieldEnd[f]--;
+    }
+
+    private static byte parseType(ByteBuffer buf, int start, int end) {
+        if (end - start == 1) {
+            byte b = (byte) (buf.get(start) & ~0x20); // ASCII upper case
+            return b == RecordBlock.DEPOSIT || b == RecordBlock.WITHDRAW || b == RecordBlock.TRANSFER ? b : 0;
+        }
+        if (equalsIgnoreCase(buf, start, end, DEPOSIT)) return RecordBlock.DEPOSIT;
+        if (equalsIgnoreCase(buf, start, end, WITHDRAW) || equalsIgnoreCase(buf, start, end, WITHDRAWAL)) {
+            return RecordBlock.WITHDRAW;
+        }
+        if (equalsIgnoreCase(buf, start, end, TRANSFER)) return RecordBlock.TRANSFER;
+        return 0;
+    }
+
+    // [+-]digits[.digits]; the sign is kept so a non-positive amount fails like it does interactively
+    private static String parseAmount(ByteBuffer buf, int start, int end, RecordBlock block, int i) {
+        if (start == end) return "Amount is required";
+        boolean negative = false;
+        byte first = buf.get(start);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            start++;
+        }
+
+        long value = 0;
+        int digits = 0;
+        int scale = -1; // digits after the point; -1 until one is seen
+        for (int p = start; p < end; p++) {
+            byte b = buf.get(p);
+            if (b == '.' && scale < 0) {
+                scale = 0;
+            } else if (b >= '0' && b <= '9') {
+                if (++digits > MAX_AMOUNT_DIGITS) return "Amount has too many digits";
+                value = value * 10 + (b - '0');
+                if (scale >= 0) scale++;
+            } else {
+                return "Invalid amount";
+            }
+        }
+        if (digits == 0) return "Invalid amount";
+
+        block.unscaled[i] = negative ? -value : value;
+        block.scale[i] = (byte) Math.max(scale, 0);
+        return null;
+    }
+
+    private static boolean equalsIgnoreCase(ByteBuffer buf, int start, int end, byte[] upper) {
+        if (end - start != upper.length) return false;
+        for (int k = 0; k < upper.length; k++) {
+            byte b = buf.get(start + k);
+            if (b >= 'a' && b <= 'z') b -= 32;
+            if (b != upper[k]) return false;
+        }
+        return true;
+    }
+}
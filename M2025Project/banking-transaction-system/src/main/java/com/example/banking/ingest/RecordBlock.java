@@ -0,0 +1,83 @@
+package com.example.banking.ingest;
+
+import com.example.banking.model.Account;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Up to `capacity` consecutive records of one mapped window, stored column by column (no object per
+ * record). Filled by the parsing thread, then handed to the partition workers and never changed again.
+ */
+final class RecordBlock {
+
+    static final byte DEPOSIT = 'D';
+    static final byte WITHDRAW = 'W';
+    static final byte TRANSFER = 'T';
+
+    final byte[] type;
+    final int[] from;          // account ref, -1 if none
+    final int[] to;            // account ref, -1 if none
+    final long[] unscaled;     // amount = unscaled * 10^-scale
+    final byte[] scale;
+    final long[] offset;       // file offset of the line
+    final long[] lineNo;       // 1-based
+    final int[] lineLength;    // without the line terminator
+    final String[] error;      // why the record is rejected, or null
+    int size;
+
+    // Set when the block is handed over
+    ByteBuffer window;         // the mapped window the lines live in
+    long windowStart;          // its file offset
+    Account[] accounts;        // by ref; null where the number is unknown
+    int[][] byPartition;       // record indexes per partition, in file order
+    int[] partitionSizes;
+    Crossing[] crossings;      // by record: transfers between two partitions; null if the block has none
+
+    RecordBlock(int capacity) {
+        type = new byte[capacity];
+        from = new int[capacity];
+        to = new int[capacity];
+        unscaled = new long[capacity];
+        scale = new byte[capacity];
+        offset = new long[capacity];
+        lineNo = new long[capacity];
+        lineLength = new int[capacity];
+        error = new String[capacity];
+    }
+
+    boolean isFull() {
+        return size == type.length;
+    }
+
+    // Original text of record i, for the error file
+    String lineText(int i) {
+        byte[] bytes = new byte[lineLength[i]];
+        window.get((int) (offset[i] - windowStart), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    Crossing crossing(int i) {
+        return crossings == null ? null : crossings[i];
+    }
+
+    // Account that is debited (withdrawal, transfer) or credited (deposit); its owner partition runs the record
+    int primaryRef(int i) {
+        return type[i] == DEPOSIT ? to[i] : from[i];
+    }
+
+    /**
+     * A transfer between accounts of two partitions, queued to both. Each reaches it in file order; the
+     * source's partition (owner) applies it once the other has arrived, and the other waits until it has.
+     */
+    static final class Crossing {
+        final int owner;
+        final CountDownLatch partnerArrived = new CountDownLatch(1);
+        final CountDownLatch applied = new CountDownLatch(1);
+
+        Crossing(int owner) {
+            this.owner = owner;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.banking.model;
+
+import java.util.List;
+
+public class AuditLogPage {
+    private final List<AuditLog> items;     // newest first
+    private final HistoryCursor nextCursor; // null when this is the last page
+
+    public AuditLogPage(List<AuditLog> items, HistoryCursor nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters
+    public List<AuditLog> getItems() { return items; }
+    public HistoryCursor getNextCursor() { return nextCursor; }
+    public boolean hasMore() { return nextCursor != null; }
+}
@@ -0,0 +1,27 @@
+package com.example.banking.model;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * An account's balance after applying every ledger event up to and including lastSequence.
+ */
+public class BalanceSnapshot {
+    private final String accountId;
+    private final BigDecimal balance;
+    private final long lastSequence;
+    private final Instant createdAt;
+
+    public BalanceSnapshot(String accountId, BigDecimal balance, long lastSequence, Instant createdAt) {
+        this.accountId = accountId;
+        this.balance = balance;
+        this.lastSequence = lastSequence;
+        this.createdAt = createdAt;
+    }
+
+    // Getters
+    public String getAccountId() { return accountId; }
+    public BigDecimal getBalance() { return balance; }
+    public long getLastSequence() { return lastSequence; }
+    public Instant getCreatedAt() { return createdAt; }
+}
@@ -0,0 +1,84 @@
+package com.example.banking.model;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-account, per-day rollup of balance changes. Days are UTC calendar days.
+ * credits and debits are positive magnitudes; closing = opening + credits - debits.
+ */
+public class DailyBalance {
+    private final String accountId;
+    private final LocalDate day;
+    private final BigDecimal openingBalance;
+    private final BigDecimal credits;
+    private final BigDecimal debits;
+    private final int count;
+    private final BigDecimal closingBalance;
+
+    public DailyBalance(String accountId, LocalDate day, BigDecimal openingBalance, BigDecimal credits,
+                        BigDecimal debits, int count, BigDecimal closingBalance) {
+        this.accountId = accountId;
+        this.day = day;
+        this.openingBalance = openingBalance;
+        this.credits = credits;
+        this.debits = debits;
+        this.count = count;
+        this.closingBalance = closingBalance;
+    }
+
+    public static LocalDate dayOf(Instant instant) {
+        return LocalDate.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    // 🔹 Balance-changing audit entries (entries that leave the balance unchanged, e.g. *_FAILED, are skipped)
+    public static boolean isMovement(AuditLog entry) {
+        return entry.getBeforeBalance().compareTo(entry.getAfterBalance()) != 0;
+    }
+
+    // ✅ Fold one account's audit entries, oldest first, into one rollup per active day
+    public static List<DailyBalance> rollUp(String accountId, List<AuditLog> oldestFirst) {
+        List<DailyBalance> days = new ArrayList<>();
+        DailyBalance current = null;
+        for (AuditLog entry : oldestFirst) {
+            if (!isMovement(entry)) continue;
+            LocalDate day = dayOf(entry.getCreatedAt());
+            if (current != null && !current.day.equals(day)) {
+                days.add(current);
+                current = null;
+            }
+            DailyBalance single = of(entry);
+            current = (current == null) ? single : current.plus(single);
+        }
+        if (current != null) days.add(current);
+        return days;
+    }
+
+    // Rollup of a single audit entry
+    public static DailyBalance of(AuditLog entry) {
+        BigDecimal change = entry.getAfterBalance().subtract(entry.getBeforeBalance());
+        return new DailyBalance(entry.getAccountId(), dayOf(entry.getCreatedAt()), entry.getBeforeBalance(),
+                change.signum() > 0 ? change : BigDecimal.ZERO,
+                change.signum() < 0 ? change.negate() : BigDecimal.ZERO,
+                1, entry.getAfterBalance());
+    }
+
+    // Same account and day, later activity: keeps this opening, takes the later closing
+    public DailyBalance plus(DailyBalance later) {
+        return new DailyBalance(accountId, day, openingBalance, credits.add(later.credits), debits.add(later.debits),
+                count + later.count, later.closingBalance);
+    }
+
+    // Getters
+    public String getAccountId() { return accountId; }
+    public LocalDate getDay() { return day; }
+    public BigDecimal getOpeningBalance() { return openingBalance; }
+    public BigDecimal getCredits() { return credits; }
+    public BigDecimal getDebits() { return debits; }
+    public int getCount() { return count; }
+    public BigDecimal getClosingBalance() { return closingBalance; }
+}
@@ -0,0 +1,33 @@
+package com.example.banking.model;
+
+import java.time.Instant;
+
+/**
+ * Keyset position in an account's transaction, audit or posting history.
+ * The next page starts strictly after (createdAt, id) in newest-first order.
+ */
+public class HistoryCursor {
+    private final Instant createdAt;
+    private final String id;
+
+    public HistoryCursor(Instant createdAt, String id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public static HistoryCursor after(Transaction txn) {
+        return new HistoryCursor(txn.getCreatedAt(), txn.getId());
+    }
+
+    public static HistoryCursor after(AuditLog log) {
+        return new HistoryCursor(log.getCreatedAt(), log.getId());
+    }
+
+    public static HistoryCursor after(Posting posting) {
+        return new HistoryCursor(posting.getCreatedAt(), posting.getId());
+    }
+
+    // Getters
+    public Instant getCreatedAt() { return createdAt; }
+    public String getId() { return id; }
+}
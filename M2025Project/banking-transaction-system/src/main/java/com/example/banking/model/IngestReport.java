@@ -0,0 +1,46 @@
+package com.example.banking.model;
+
+/**
+ * Outcome of one payment file ingestion run.
+ * - applied: records recorded as SUCCESS transactions
+ * - failed: records recorded as FAILED transactions (insufficient funds, closed account, bad amount)
+ * - rejected: records nothing could be recorded for (unparseable line, unknown account); see the error file
+ * - skipped: records an earlier, interrupted run of the same file had already applied
+ */
+public class IngestReport {
+    private final long records;
+    private final long applied;
+    private final long failed;
+    private final long rejected;
+    private final long skipped;
+    private final long elapsedMillis;
+
+    public IngestReport(long records, long applied, long failed, long rejected, long skipped, long elapsedMillis) {
+        this.records = records;
+        this.applied = applied;
+        this.failed = failed;
+        this.rejected = rejected;
+        this.skipped = skipped;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // Records handled by this run (skipped ones excluded) per second of wall-clock time
+    public long getRecordsPerSecond() {
+        long handled = records - skipped;
+        return elapsedMillis == 0 ? handled * 1000 : handled * 1000 / elapsedMillis;
+    }
+
+    // Getters
+    public long getRecords() { return records; }
+    public long getApplied() { return applied; }
+    public long getFailed() { return failed; }
+    public long getRejected() { return rejected; }
+    public long getSkipped() { return skipped; }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    @Override
+    public String toString() {
+        return String.format("records=%d applied=%d failed=%d rejected=%d skipped=%d in %d ms (%d records/s)",
+                records, applied, failed, rejected, skipped, elapsedMillis, getRecordsPerSecond());
+    }
+}
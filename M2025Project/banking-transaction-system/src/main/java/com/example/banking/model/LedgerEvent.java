@@ -0,0 +1,64 @@
+package com.example.banking.model;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.zip.CRC32;
+
+/**
+ * One balance change on one account, appended to the ledger in the same unit of work as the change itself.
+ * amount is signed (credit > 0, debit < 0); balanceAfter lets recovery cross-check the replayed sum.
+ */
+public class LedgerEvent {
+    private final long sequence;        // assigned by the ledger store; 0 until stored
+    private final String id;            // UUID
+    private final String accountId;
+    private final String txnId;
+    private final BigDecimal amount;
+    private final BigDecimal balanceAfter;
+    private final Instant createdAt;
+
+    public LedgerEvent(String id, String accountId, String txnId, BigDecimal amount, BigDecimal balanceAfter,
+                       Instant createdAt) {
+        this(0, id, accountId, txnId, amount, balanceAfter, createdAt);
+    }
+
+    public LedgerEvent(long sequence, String id, String accountId, String txnId, BigDecimal amount,
+                       BigDecimal balanceAfter, Instant createdAt) {
+        this.sequence = sequence;
+        this.id = id;
+        this.accountId = accountId;
+        this.txnId = txnId;
+        this.amount = amount;
+        this.balanceAfter = balanceAfter;
+        this.createdAt = createdAt;
+    }
+
+    public static final int BUCKETS = 1024;
+
+    // Fixed bucket of an account; matches the stored bucket column (CRC32(account_id) % 1024) in MySQL
+    public static int bucketOf(String accountId) {
+        CRC32 crc = new CRC32();
+        crc.update(accountId.getBytes(StandardCharsets.UTF_8));
+        return (int) (crc.getValue() % BUCKETS);
+    }
+
+    // Stable partition of an account: partition p of n owns buckets firstBucket(p, n) .. firstBucket(p + 1, n) - 1,
+    // so in MySQL one partition is one range of the bucket index
+    public static int partitionOf(String accountId, int partitions) {
+        return bucketOf(accountId) * partitions / BUCKETS;
+    }
+
+    public static int firstBucket(int partition, int partitions) {
+        return (partition * BUCKETS + partitions - 1) / partitions;
+    }
+
+    // Getters
+    public long getSequence() { return sequence; }
+    public String getId() { return id; }
+    public String getAccountId() { return accountId; }
+    public String getTxnId() { return txnId; }
+    public BigDecimal getAmount() { return amount; }
+    public BigDecimal getBalanceAfter() { return balanceAfter; }
+    public Instant getCreatedAt() { return createdAt; }
+}
@@ -0,0 +1,45 @@
+package com.example.banking.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Statement for an account over [from, to] (inclusive UTC days), built from daily rollups.
+ */
+public class PeriodStatement {
+    private final String accountId;
+    private final LocalDate from;
+    private final LocalDate to;
+    private final BigDecimal openingBalance;
+    private final BigDecimal credits;
+    private final BigDecimal debits;
+    private final int count;
+    private final BigDecimal closingBalance;
+    private final List<DailyBalance> days; // active days only, oldest first
+
+    public PeriodStatement(String accountId, LocalDate from, LocalDate to, BigDecimal openingBalance,
+                           BigDecimal credits, BigDecimal debits, int count, BigDecimal closingBalance,
+                           List<DailyBalance> days) {
+        this.accountId = accountId;
+        this.from = from;
+        this.to = to;
+        this.openingBalance = openingBalance;
+        this.credits = credits;
+        this.debits = debits;
+        this.count = count;
+        this.closingBalance = closingBalance;
+        this.days = days;
+    }
+
+    // Getters
+    public String getAccountId() { return accountId; }
+    public LocalDate getFrom() { return from; }
+    public LocalDate getTo() { return to; }
+    public BigDecimal getOpeningBalance() { return openingBalance; }
+    public BigDecimal getCredits() { return credits; }
+    public BigDecimal getDebits() { return debits; }
+    public int getCount() { return count; }
+    public BigDecimal getClosingBalance() { return closingBalance; }
+    public List<DailyBalance> getDays() { return days; }
+}
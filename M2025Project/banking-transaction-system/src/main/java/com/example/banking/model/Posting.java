@@ -0,0 +1,50 @@
+package com.example.banking.model;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One side of a money movement on one account (double entry).
+ * amount is signed: credit > 0, debit < 0. The postings of a transfer sum to zero.
+ */
+public class Posting {
+    private final String id;            // UUID
+    private final String txnId;
+    private final String accountId;
+    private final BigDecimal amount;
+    private final Instant createdAt;
+
+    public Posting(String id, String txnId, String accountId, BigDecimal amount, Instant createdAt) {
+        this.id = id;
+        this.txnId = txnId;
+        this.accountId = accountId;
+        this.amount = amount;
+        this.createdAt = createdAt;
+    }
+
+    // 🔹 Debit for the source account (if any), credit for the destination (if any)
+    public static List<Posting> forTransaction(Transaction txn) {
+        List<Posting> postings = new ArrayList<>(2);
+        if (txn.getFromAccountId() != null) {
+            postings.add(new Posting(UUID.randomUUID().toString(), txn.getId(), txn.getFromAccountId(),
+                    txn.getAmount().negate(), txn.getCreatedAt()));
+        }
+        if (txn.getToAccountId() != null) {
+            postings.add(new Posting(UUID.randomUUID().toString(), txn.getId(), txn.getToAccountId(),
+                    txn.getAmount(), txn.getCreatedAt()));
+        }
+        return postings;
+    }
+
+    public boolean isDebit() { return amount.signum() < 0; }
+
+    // Getters
+    public String getId() { return id; }
+    public String getTxnId() { return txnId; }
+    public String getAccountId() { return accountId; }
+    public BigDecimal getAmount() { return amount; }
+    public Instant getCreatedAt() { return createdAt; }
+}
@@ -0,0 +1,18 @@
+package com.example.banking.model;
+
+import java.util.List;
+
+public class PostingPage {
+    private final List<Posting> items;      // newest first
+    private final HistoryCursor nextCursor; // null when this is the last page
+
+    public PostingPage(List<Posting> items, HistoryCursor nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters
+    public List<Posting> getItems() { return items; }
+    public HistoryCursor getNextCursor() { return nextCursor; }
+    public boolean hasMore() { return nextCursor != null; }
+}
@@ -0,0 +1,28 @@
+package com.example.banking.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Money in and out of one account over a period. debits is reported as a positive magnitude.
+ */
+public class PostingTotals {
+    private final String accountId;
+    private final BigDecimal credits;
+    private final BigDecimal debits;
+    private final long count;
+
+    public PostingTotals(String accountId, BigDecimal credits, BigDecimal debits, long count) {
+        this.accountId = accountId;
+        this.credits = credits;
+        this.debits = debits;
+        this.count = count;
+    }
+
+    public BigDecimal getNet() { return credits.subtract(debits); }
+
+    // Getters
+    public String getAccountId() { return accountId; }
+    public BigDecimal getCredits() { return credits; }
+    public BigDecimal getDebits() { return debits; }
+    public long getCount() { return count; }
+}
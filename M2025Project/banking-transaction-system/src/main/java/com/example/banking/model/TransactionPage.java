@@ -0,0 +1,32 @@
+package com.example.banking.model;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TransactionPage {
+    private final List<Transaction> items;          // newest first
+    private final HistoryCursor nextCursor;         // null when this is the last page
+    private final Map<String, String> accountNumbers; // account id -> account number for every id on this page
+
+    public TransactionPage(List<Transaction> items, HistoryCursor nextCursor) {
+        this(items, nextCursor, new HashMap<>());
+    }
+
+    public TransactionPage(List<Transaction> items, HistoryCursor nextCursor, Map<String, String> accountNumbers) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.accountNumbers = accountNumbers;
+    }
+
+    // Getters
+    public List<Transaction> getItems() { return items; }
+    public HistoryCursor getNextCursor() { return nextCursor; }
+    public boolean hasMore() { return nextCursor != null; }
+    public Map<String, String> getAccountNumbers() { return accountNumbers; }
+
+    // Account number for an id on this page; falls back to the id itself if unknown
+    public String getAccountNumber(String accountId) {
+        return accountNumbers.getOrDefault(accountId, accountId);
+    }
+}
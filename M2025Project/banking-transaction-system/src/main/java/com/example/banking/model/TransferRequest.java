@@ -0,0 +1,23 @@
+package com.example.banking.model;
+
+import java.math.BigDecimal;
+
+/**
+ * One line of a batch transfer (a payroll or settlement file).
+ */
+public class TransferRequest {
+    private final String fromAccountNumber;
+    private final String toAccountNumber;
+    private final BigDecimal amount;
+
+    public TransferRequest(String fromAccountNumber, String toAccountNumber, BigDecimal amount) {
+        this.fromAccountNumber = fromAccountNumber;
+        this.toAccountNumber = toAccountNumber;
+        this.amount = amount;
+    }
+
+    // Getters
+    public String getFromAccountNumber() { return fromAccountNumber; }
+    public String getToAccountNumber() { return toAccountNumber; }
+    public BigDecimal getAmount() { return amount; }
+}
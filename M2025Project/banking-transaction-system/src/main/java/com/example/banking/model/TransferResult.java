@@ -0,0 +1,30 @@
+package com.example.banking.model;
+
+/**
+ * Outcome of one batch line, at the same position as its request.
+ * transaction is the SUCCESS or FAILED row that was recorded, or null when the line was rejected
+ * before anything could be recorded (unknown account, not the caller's account, ...).
+ */
+public class TransferResult {
+    private final int index;
+    private final TransferRequest request;
+    private final Transaction transaction;
+    private final String error;
+
+    public TransferResult(int index, TransferRequest request, Transaction transaction, String error) {
+        this.index = index;
+        this.request = request;
+        this.transaction = transaction;
+        this.error = error;
+    }
+
+    public boolean isSuccess() {
+        return error == null && transaction != null && "SUCCESS".equals(transaction.getStatus());
+    }
+
+    // Getters
+    public int getIndex() { return index; }
+    public TransferRequest getRequest() { return request; }
+    public Transaction getTransaction() { return transaction; }
+    public String getError() { return error; }
+}
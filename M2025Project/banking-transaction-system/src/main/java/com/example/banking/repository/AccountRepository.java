@@ -1,7 +1,9 @@
 package com.example.banking.repository;
 
 import com.example.banking.model.Account;
-import java.util.List;
+
+import java.math.BigDecimal;
+import java.util.*;
 
 public interface AccountRepository {
     Account save(Account account);
@@ -10,8 +12,44 @@ public interface AccountRepository {
 
     Account findByNumber(String number);
 
+    // 🔹 Bulk lookup; ids that don't exist are simply missing from the result
+    List<Account> findByIds(Collection<String> ids);
+
     List<Account> findByCustomerId(String customerId);
 
+    // 🔹 Every account id (for batch jobs that walk all accounts)
+    List<String> findAllIds();
+
     // 🔹 New method to fetch account by type
     Account findByCustomerIdAndType(String customerId, String type);
+
+    // 🔹 Atomic balance mutations done inside the database.
+    // Both return the new balance, or null if nothing was updated
+    // (account missing / not ACTIVE, or for debit: balance would go negative).
+    BigDecimal credit(String accountId, BigDecimal amount);
+
+    BigDecimal debit(String accountId, BigDecimal amount);
+
+    // 🔹 Bulk lookup by account number; numbers that don't exist are simply missing from the result
+    default List<Account> findByNumbers(Collection<String> numbers) {
+        List<Account> accounts = new ArrayList<>();
+        for (String number : new LinkedHashSet<>(numbers)) {
+            Account acc = findByNumber(number);
+            if (acc != null) accounts.add(acc);
+        }
+        return accounts;
+    }
+
+    // 🔹 Adds each (possibly negative) delta to its account's balance, guarded like credit/debit.
+    // Returns the ids whose update was refused (missing / not ACTIVE / balance would go negative).
+    default Set<String> applyDeltas(Map<String, BigDecimal> deltas) {
+        Set<String> refused = new HashSet<>();
+        for (Map.Entry<String, BigDecimal> delta : new TreeMap<>(deltas).entrySet()) {
+            BigDecimal after = delta.getValue().signum() >= 0
+                    ? credit(delta.getKey(), delta.getValue())
+                    : debit(delta.getKey(), delta.getValue().negate());
+            if (after == null) refused.add(delta.getKey());
+        }
+        return refused;
+    }
 }
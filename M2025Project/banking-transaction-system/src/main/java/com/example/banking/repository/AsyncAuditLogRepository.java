@@ -0,0 +1,15 @@
+package com.example.banking.repository;
+
+import com.example.banking.model.AuditLog;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// 🔹 An audit store whose writes complete in the background instead of blocking the caller
+public interface AsyncAuditLogRepository extends AuditLogRepository {
+
+    CompletableFuture<AuditLog> saveAsync(AuditLog log);
+
+    CompletableFuture<List<AuditLog>> saveAllAsync(Collection<AuditLog> logs);
+}
@@ -1,12 +1,28 @@
 package com.example.banking.repository;
 
 import com.example.banking.model.AuditLog;
+import com.example.banking.model.AuditLogPage;
+import com.example.banking.model.HistoryCursor;
+
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 public interface AuditLogRepository {
     AuditLog save(AuditLog log);
 
+    // 🔹 Persist many logs at once
+    List<AuditLog> saveAll(Collection<AuditLog> logs);
+
     AuditLog findById(String id);
 
     List<AuditLog> findAll();
+
+    // 🔹 One account's audit trail, newest first, within [from, to) (either bound may be null).
+    // Pass the previous page's next cursor to continue; null starts from the newest entry.
+    AuditLogPage findByAccountId(String accountId, Instant from, Instant to, int limit, HistoryCursor after);
+
+    default AuditLogPage findByAccountId(String accountId, Instant from, Instant to, int limit) {
+        return findByAccountId(accountId, from, to, limit, null);
+    }
 }
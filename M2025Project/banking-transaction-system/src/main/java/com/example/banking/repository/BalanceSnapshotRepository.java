@@ -0,0 +1,14 @@
+package com.example.banking.repository;
+
+import com.example.banking.model.BalanceSnapshot;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface BalanceSnapshotRepository {
+
+    // 🔹 Insert or replace per account; an older snapshot never overwrites a newer one
+    void saveAll(Collection<BalanceSnapshot> snapshots);
+
+    List<BalanceSnapshot> findByPartition(int partition, int partitions);
+}
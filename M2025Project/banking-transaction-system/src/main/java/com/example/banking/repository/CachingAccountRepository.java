@@ -0,0 +1,345 @@
+package com.example.banking.repository;
+
+import com.example.banking.model.Account;
+import com.example.banking.utils.UnitOfWork;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caching decorator for any AccountRepository.
+ * - Accounts are indexed by id, number and (customerId, type); the id map is LRU-bounded
+ *   and evicting an account also drops its secondary index entries.
+ * - Writes go straight to the delegate and invalidate the touched account, both immediately and
+ *   again when the surrounding unit of work finishes, so a rolled-back or concurrent update never
+ *   leaves a stale balance behind.
+ * - Callers always get their own copy, so mutating a returned Account never changes the cache.
+ */
+public class CachingAccountRepository implements AccountRepository {
+
+    private final AccountRepository delegate;
+    private final int maxSize;
+
+    // All three maps are guarded by "this"
+    private final LinkedHashMap<String, Account> byId;
+    private final Map<String, String> idByNumber = new HashMap<>();
+    private final Map<String, String> idByCustomerAndType = new HashMap<>();
+
+    // Ticks on every invalidation. A load remembers the tick it started at and is not cached if its own
+    // account was invalidated after that; markers are dropped once no load in flight can still need them.
+    private long clock;
+    private long clearedAt;
+    private final Map<String, Long> invalidatedAt = new HashMap<>();
+    private final TreeMap<Long, Integer> loadsInFlight = new TreeMap<>();
+    private int pruneThreshold = MIN_PRUNE_THRESHOLD;
+    private static final int MIN_PRUNE_THRESHOLD = 1_024;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public CachingAccountRepository(AccountRepository delegate, int maxSize) {
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+        this.byId = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Account> eldest) {
+                if (size() <= CachingAccountRepository.this.maxSize) return false;
+                dropSecondaryKeys(eldest.getValue());
+                evictions.incrementAndGet();
+                return true;
+            }
+        };
+    }
+
+    @Override
+    public Account save(Account account) {
+        invalidate(account);
+        Account saved = delegate.save(account);
+        invalidateAfterCompletion(account);
+        return saved;
+    }
+
+    @Override
+    public Account findById(String id) {
+        Account cached;
+        synchronized (this) {
+            cached = byId.get(id);
+        }
+        if (cached != null) {
+            hits.incrementAndGet();
+            return copy(cached);
+        }
+
+        misses.incrementAndGet();
+        long start = beginLoad();
+        try {
+            return cacheLoaded(delegate.findById(id), start);
+        } finally {
+            endLoad(start);
+        }
+    }
+
+    @Override
+    public Account findByNumber(String number) {
+        Account cached;
+        synchronized (this) {
+            String id = idByNumber.get(number);
+            cached = (id != null) ? byId.get(id) : null;
+        }
+        if (cached != null) {
+            hits.incrementAndGet();
+            return copy(cached);
+        }
+
+        misses.incrementAndGet();
+        long start = beginLoad();
+        try {
+            return cacheLoaded(delegate.findByNumber(number), start);
+        } finally {
+            endLoad(start);
+        }
+    }
+
+    @Override
+    public List<Account> findByIds(Collection<String> ids) {
+        List<Account> found = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        synchronized (this) {
+            for (String id : new LinkedHashSet<>(ids)) {
+                Account cached = byId.get(id);
+                if (cached != null) {
+                    found.add(copy(cached));
+                } else {
+                    missing.add(id);
+                }
+            }
+        }
+        hits.addAndGet(found.size());
+        misses.addAndGet(missing.size());
+
+        if (!missing.isEmpty()) {
+            long start = beginLoad();
+            try {
+                for (Account loaded : delegate.findByIds(missing)) {
+                    found.add(cacheLoaded(loaded, start));
+                }
+            } finally {
+                endLoad(start);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public List<Account> findByCustomerId(String customerId) {
+        long start = beginLoad();
+        try {
+            List<Account> accounts = delegate.findByCustomerId(customerId);
+            List<Account> result = new ArrayList<>(accounts.size());
+            for (Account acc : accounts) {
+                result.add(cacheLoaded(acc, start));
+            }
+            return result;
+        } finally {
+            endLoad(start);
+        }
+    }
+
+    @Override
+    public List<String> findAllIds() {
+        return delegate.findAllIds();
+    }
+
+    @Override
+    public Account findByCustomerIdAndType(String customerId, String type) {
+        String key = customerTypeKey(customerId, type);
+        Account cached;
+        synchronized (this) {
+            String id = idByCustomerAndType.get(key);
+            cached = (id != null) ? byId.get(id) : null;
+        }
+        if (cached != null) {
+            hits.incrementAndGet();
+            return copy(cached);
+        }
+
+        misses.incrementAndGet();
+        long start = beginLoad();
+        try {
+            Account loaded = delegate.findByCustomerIdAndType(customerId, type);
+            if (loaded == null) return null;
+
+            Account result = cacheLoaded(loaded, start);
+            synchronized (this) {
+                if (unchangedSince(loaded.getId(), start) && byId.containsKey(loaded.getId())) {
+                    idByCustomerAndType.put(key, loaded.getId());
+                }
+            }
+            return result;
+        } finally {
+            endLoad(start);
+        }
+    }
+
+    @Override
+    public BigDecimal credit(String accountId, BigDecimal amount) {
+        invalidateId(accountId);
+        BigDecimal balance = delegate.credit(accountId, amount);
+        UnitOfWork.afterCompletion(() -> invalidateId(accountId));
+        return balance;
+    }
+
+    @Override
+    public BigDecimal debit(String accountId, BigDecimal amount) {
+        invalidateId(accountId);
+        BigDecimal balance = delegate.debit(accountId, amount);
+        UnitOfWork.afterCompletion(() -> invalidateId(accountId));
+        return balance;
+    }
+
+    @Override
+    public List<Account> findByNumbers(Collection<String> numbers) {
+        List<Account> found = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        synchronized (this) {
+            for (String number : new LinkedHashSet<>(numbers)) {
+                String id = idByNumber.get(number);
+                Account cached = (id != null) ? byId.get(id) : null;
+                if (cached != null) {
+                    found.add(copy(cached));
+                } else {
+                    missing.add(number);
+                }
+            }
+        }
+        hits.addAndGet(found.size());
+        misses.addAndGet(missing.size());
+
+        if (!missing.isEmpty()) {
+            long start = beginLoad();
+            try {
+                for (Account loaded : delegate.findByNumbers(missing)) {
+                    found.add(cacheLoaded(loaded, start));
+                }
+            } finally {
+                endLoad(start);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public Set<String> applyDeltas(Map<String, BigDecimal> deltas) {
+        List<String> ids = new ArrayList<>(deltas.keySet());
+        ids.forEach(this::invalidateId);
+        Set<String> refused = delegate.applyDeltas(deltas);
+        UnitOfWork.afterCompletion(() -> ids.forEach(this::invalidateId));
+        return refused;
+    }
+
+    // ✅ Metrics
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+    public long getEvictions() { return evictions.get(); }
+    public long getInvalidations() { return invalidations.get(); }
+    public synchronized int size() { return byId.size(); }
+    public int getMaxSize() { return maxSize; }
+    public double getHitRate() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0 : (double) hits.get() / total;
+    }
+
+    public String stats() {
+        return String.format("size=%d/%d hits=%d misses=%d hitRate=%.1f%% evictions=%d invalidations=%d",
+                size(), maxSize, getHits(), getMisses(), getHitRate() * 100, getEvictions(), getInvalidations());
+    }
+
+    public synchronized void clear() {
+        byId.clear();
+        idByNumber.clear();
+        idByCustomerAndType.clear();
+        clearedAt = ++clock; // every load in flight is stale
+    }
+
+    // Stores a copy of a freshly loaded account unless that account was invalidated meanwhile
+    private Account cacheLoaded(Account loaded, long start) {
+        if (loaded == null) return null;
+        synchronized (this) {
+            if (unchangedSince(loaded.getId(), start)) {
+                Account previous = byId.put(loaded.getId(), copy(loaded));
+                if (previous != null && !previous.getNumber().equals(loaded.getNumber())) {
+                    idByNumber.remove(previous.getNumber());
+                }
+                idByNumber.put(loaded.getNumber(), loaded.getId());
+            }
+        }
+        return copy(loaded);
+    }
+
+    private void invalidateAfterCompletion(Account account) {
+        String id = account.getId();
+        String number = account.getNumber();
+        String key = customerTypeKey(account.getCustomerId(), account.getType());
+        UnitOfWork.afterCompletion(() -> {
+            synchronized (this) {
+                invalidateId(id);
+                idByNumber.remove(number);
+                idByCustomerAndType.remove(key);
+            }
+        });
+    }
+
+    private synchronized void invalidate(Account account) {
+        invalidateId(account.getId());
+        idByNumber.remove(account.getNumber());
+        // A new or closed account can change which account findByCustomerIdAndType should return
+        idByCustomerAndType.remove(customerTypeKey(account.getCustomerId(), account.getType()));
+    }
+
+    private synchronized void invalidateId(String id) {
+        // Only loads in flight can race with this; with none, there is nothing to mark
+        if (!loadsInFlight.isEmpty()) invalidatedAt.put(id, ++clock);
+        invalidations.incrementAndGet();
+        Account removed = byId.remove(id);
+        if (removed != null) dropSecondaryKeys(removed);
+    }
+
+    private synchronized long beginLoad() {
+        loadsInFlight.merge(clock, 1, Integer::sum);
+        return clock;
+    }
+
+    private synchronized void endLoad(long start) {
+        loadsInFlight.merge(start, -1, (a, b) -> a + b == 0 ? null : a + b);
+        if (loadsInFlight.isEmpty()) {
+            invalidatedAt.clear();
+        } else if (invalidatedAt.size() > pruneThreshold) {
+            // Markers at or before the oldest load in flight can no longer stop anything
+            long oldest = loadsInFlight.firstKey();
+            invalidatedAt.values().removeIf(tick -> tick <= oldest);
+            pruneThreshold = Math.max(MIN_PRUNE_THRESHOLD, 2 * invalidatedAt.size());
+        }
+    }
+
+    // Caller holds the lock
+    private boolean unchangedSince(String id, long start) {
+        return start >= clearedAt && invalidatedAt.getOrDefault(id, Long.MIN_VALUE) <= start;
+    }
+
+    private void dropSecondaryKeys(Account account) {
+        idByNumber.remove(account.getNumber(), account.getId());
+        idByCustomerAndType.remove(customerTypeKey(account.getCustomerId(), account.getType()), account.getId());
+    }
+
+    private static String customerTypeKey(String customerId, String type) {
+        return customerId + "|" + type;
+    }
+
+    private static Account copy(Account a) {
+        return new Account(a.getId(), a.getCustomerId(), a.getNumber(), a.getBalance(),
+                a.getType(), a.getStatus(), a.getCreatedAt());
+    }
+}
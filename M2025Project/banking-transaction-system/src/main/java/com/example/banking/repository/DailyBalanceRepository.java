@@ -0,0 +1,27 @@
+package com.example.banking.repository;
+
+import com.example.banking.model.AuditLog;
+import com.example.banking.model.DailyBalance;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface DailyBalanceRepository {
+
+    // 🔹 Fold committed audit entries into their (account, day) rows, creating rows as needed.
+    // Entries for one account must arrive in commit order (they do: each account is locked while it changes).
+    void applyAll(Collection<AuditLog> entries);
+
+    // Replace every row of one account (used by the backfill)
+    void replaceForAccount(String accountId, List<DailyBalance> days);
+
+    // Rows with from <= day <= to, oldest first
+    List<DailyBalance> findByAccountId(String accountId, LocalDate from, LocalDate to);
+
+    // Last active day strictly before the given day, or null
+    DailyBalance findLatestBefore(String accountId, LocalDate day);
+
+    // First active day strictly after the given day, or null
+    DailyBalance findEarliestAfter(String accountId, LocalDate day);
+}
@@ -0,0 +1,234 @@
+package com.example.banking.repository;
+
+import com.example.banking.model.AuditLog;
+import com.example.banking.model.AuditLogPage;
+import com.example.banking.model.HistoryCursor;
+import com.example.banking.utils.AuditLogMapper;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * DynamoDB audit store on the non-blocking client.
+ * - saveAsync/saveAllAsync return as soon as the request is sent; many requests are pipelined
+ *   over the client's few connections.
+ * - At most maxInFlight requests are outstanding; beyond that, callers wait for a permit, which keeps
+ *   a burst from piling up unbounded work in the HTTP client. Only the caller's thread ever waits: a batch
+ *   holds its permit through its retries, so SDK and timer threads never block on one.
+ * - The blocking AuditLogRepository methods simply wait on the async ones.
+ */
+public class DynamoDBAsyncAuditLogRepository implements AsyncAuditLogRepository {
+
+    private final DynamoDbAsyncClient dynamoDb;
+    private final String tableName = "AuditLogs";
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private final int maxAttempts;
+    private final long baseBackoffMillis;
+
+    // 🔹 Metrics
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong throttledItems = new AtomicLong();
+    private final AtomicLong permitWaits = new AtomicLong();
+
+    public DynamoDBAsyncAuditLogRepository(DynamoDbAsyncClient dynamoDb, int maxInFlight) {
+        this(dynamoDb, maxInFlight, DynamoDBAuditLogRepository.DEFAULT_MAX_ATTEMPTS,
+                DynamoDBAuditLogRepository.DEFAULT_BASE_BACKOFF_MILLIS);
+    }
+
+    DynamoDBAsyncAuditLogRepository(DynamoDbAsyncClient dynamoDb, int maxInFlight, int maxAttempts, long baseBackoffMillis) {
+        if (maxInFlight < 1) throw new IllegalArgumentException("maxInFlight must be at least 1");
+        this.dynamoDb = dynamoDb;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMillis = baseBackoffMillis;
+    }
+
+    @Override
+    public CompletableFuture<AuditLog> saveAsync(AuditLog log) {
+        PutItemRequest request = PutItemRequest.builder()
+                .tableName(tableName)
+                .item(AuditLogMapper.toAttributeMap(log))
+                .build();
+        return send(() -> call(() -> dynamoDb.putItem(request)))
+                .handle((response, error) -> {
+                    if (error != null) throw failure("Failed to save audit log in DynamoDB", error);
+                    return log;
+                });
+    }
+
+    // ✅ One BatchWriteItem per 25 logs, all sent without waiting for each other
+    @Override
+    public CompletableFuture<List<AuditLog>> saveAllAsync(Collection<AuditLog> logs) {
+        List<AuditLog> saved = new ArrayList<>(logs);
+        List<CompletableFuture<Void>> batches = new ArrayList<>();
+        for (List<WriteRequest> batch : DynamoDBAuditLogRepository.toWriteBatches(logs)) {
+            batches.add(send(() -> writeBatch(Map.of(tableName, batch), 1)));
+        }
+        return CompletableFuture.allOf(batches.toArray(new CompletableFuture[0])).thenApply(done -> saved);
+    }
+
+    // Resubmits UnprocessedItems after a jittered exponential delay, without blocking any thread;
+    // runs under the one permit send() took for the whole batch
+    private CompletableFuture<Void> writeBatch(Map<String, List<WriteRequest>> items, int attempt) {
+        return call(() -> dynamoDb.batchWriteItem(BatchWriteItemRequest.builder().requestItems(items).build()))
+                .handle((response, error) -> {
+                    if (error != null) {
+                        Throwable cause = unwrap(error);
+                        boolean throttled = cause instanceof ProvisionedThroughputExceededException
+                                || cause instanceof RequestLimitExceededException;
+                        if (throttled && attempt < maxAttempts) return items;
+                        throw failure("Failed to batch save audit logs in DynamoDB", cause);
+                    }
+                    if (!response.hasUnprocessedItems() || response.unprocessedItems().isEmpty()) return null;
+
+                    Map<String, List<WriteRequest>> unprocessed = response.unprocessedItems();
+                    throttledItems.addAndGet(unprocessed.getOrDefault(tableName, List.of()).size());
+                    if (attempt >= maxAttempts) {
+                        throw failure("Failed to batch save audit logs in DynamoDB: "
+                                + unprocessed.getOrDefault(tableName, List.of()).size()
+                                + " items still unprocessed after " + attempt + " attempts", null);
+                    }
+                    return unprocessed;
+                })
+                .thenCompose(retry -> {
+                    if (retry == null) return CompletableFuture.completedFuture(null);
+                    long delay = DynamoDBAuditLogRepository.jitteredBackoffMillis(baseBackoffMillis, attempt);
+                    return CompletableFuture
+                            .supplyAsync(() -> retry, CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS))
+                            .thenCompose(pending -> writeBatch(pending, attempt + 1));
+                });
+    }
+
+    // Every operation goes through here on the caller's thread, so the in-flight cap covers all of them;
+    // the permit is held until the operation (retries included) completes
+    private <T> CompletableFuture<T> send(Supplier<CompletableFuture<T>> operation) {
+        if (!inFlight.tryAcquire()) {
+            permitWaits.incrementAndGet();
+            inFlight.acquireUninterruptibly();
+        }
+
+        CompletableFuture<T> future;
+        try {
+            future = operation.get();
+        } catch (RuntimeException e) {
+            inFlight.release();
+            return CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((r, e) -> inFlight.release());
+    }
+
+    // One request to DynamoDB; a client that throws instead of returning a failed future fails it too
+    private <T> CompletableFuture<T> call(Supplier<CompletableFuture<T>> request) {
+        requests.incrementAndGet();
+        try {
+            return request.get();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public AuditLog save(AuditLog log) {
+        return join(saveAsync(log));
+    }
+
+    @Override
+    public List<AuditLog> saveAll(Collection<AuditLog> logs) {
+        return join(saveAllAsync(logs));
+    }
+
+    @Override
+    public AuditLog findById(String id) {
+        GetItemRequest request = GetItemRequest.builder()
+                .tableName(tableName)
+                .key(AuditLogMapper.keyMap("logId", id))
+                .build();
+        GetItemResponse response = join(send(() -> call(() -> dynamoDb.getItem(request))));
+        if (!response.hasItem()) return null;
+        return AuditLogMapper.fromAttributeMap(response.item());
+    }
+
+    @Override
+    public List<AuditLog> findAll() {
+        // The paginator publisher requests the next page only after the previous one is consumed
+        List<AuditLog> list = Collections.synchronizedList(new ArrayList<>());
+        join(dynamoDb.scanPaginator(ScanRequest.builder().tableName(tableName).build())
+                .items()
+                .subscribe(item -> list.add(AuditLogMapper.fromAttributeMap(item))));
+        return new ArrayList<>(list);
+    }
+
+    @Override
+    public AuditLogPage findByAccountId(String accountId, Instant from, Instant to, int limit, HistoryCursor after) {
+        QueryRequest.Builder query = DynamoDBAuditLogRepository.accountQuery(tableName, accountId, from, to);
+        Map<String, AttributeValue> startKey = DynamoDBAuditLogRepository.accountStartKey(accountId, after);
+
+        int fetch = limit + 1; // one extra item tells us whether another page exists
+        List<AuditLog> list = new ArrayList<>();
+        do {
+            QueryRequest request = query.limit(fetch - list.size()).exclusiveStartKey(startKey).build();
+            QueryResponse response = join(send(() -> call(() -> dynamoDb.query(request))));
+            response.items().forEach(item -> list.add(AuditLogMapper.fromAttributeMap(item)));
+            startKey = response.hasLastEvaluatedKey() && !response.lastEvaluatedKey().isEmpty()
+                    ? response.lastEvaluatedKey() : null;
+        } while (startKey != null && list.size() < fetch);
+
+        if (list.size() > limit) {
+            List<AuditLog> page = new ArrayList<>(list.subList(0, limit));
+            return new AuditLogPage(page, HistoryCursor.after(page.get(limit - 1)));
+        }
+        return new AuditLogPage(list, null);
+    }
+
+    // ✅ Metrics
+    public int getInFlight() { return maxInFlight - inFlight.availablePermits(); }
+    public int getMaxInFlight() { return maxInFlight; }
+    public long getRequestCount() { return requests.get(); }
+    public long getFailureCount() { return failures.get(); }
+    public long getThrottledItemCount() { return throttledItems.get(); }
+    public long getPermitWaitCount() { return permitWaits.get(); }
+
+    public String stats() {
+        return String.format("inFlight=%d/%d requests=%d failures=%d throttledItems=%d permitWaits=%d",
+                getInFlight(), maxInFlight, getRequestCount(), getFailureCount(), getThrottledItemCount(),
+                getPermitWaitCount());
+    }
+
+    private RuntimeException failure(String message, Throwable error) {
+        failures.incrementAndGet();
+        Throwable cause = unwrap(error);
+        return new RuntimeException(cause == null ? message : message + ": " + cause.getMessage(), cause);
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new RuntimeException(cause.getMessage(), cause);
+        }
+    }
+}
@@ -1,20 +1,66 @@
 package com.example.banking.repository;
 
 import com.example.banking.model.AuditLog;
+import com.example.banking.model.AuditLogPage;
+import com.example.banking.model.HistoryCursor;
 import com.example.banking.utils.AuditLogMapper;
+import software.amazon.awssdk.core.exception.SdkException;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.*;
 
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class DynamoDBAuditLogRepository implements AuditLogRepository {
 
+    // DynamoDB caps BatchWriteItem at 25 put/delete requests
+    static final int MAX_BATCH_SIZE = 25;
+    public static final String ACCOUNT_INDEX = "accountId-createdAt-index";
+    static final int DEFAULT_MAX_ATTEMPTS = 8;
+    static final long DEFAULT_BASE_BACKOFF_MILLIS = 50;
+    private static final long MAX_BACKOFF_MILLIS = 5_000;
+
     private final DynamoDbClient dynamoDb;
     private final String tableName = "AuditLogs";
+    private final int maxAttempts;
+    private final long baseBackoffMillis;
+
+    // 🔹 Batch metrics
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong batchRequests = new AtomicLong();
+    private final AtomicLong throttledItems = new AtomicLong();
+    private final AtomicLong throttledRequests = new AtomicLong();
+    private final AtomicLong totalBatchNanos = new AtomicLong();
+    private final AtomicLong maxBatchNanos = new AtomicLong();
 
     public DynamoDBAuditLogRepository(DynamoDbClient dynamoDb) {
+        this(dynamoDb, DEFAULT_MAX_ATTEMPTS, DEFAULT_BASE_BACKOFF_MILLIS);
+    }
+
+    DynamoDBAuditLogRepository(DynamoDbClient dynamoDb, int maxAttempts, long baseBackoffMillis) {
         this.dynamoDb = dynamoDb;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMillis = baseBackoffMillis;
     }
 
     @Override
@@ -30,6 +76,111 @@ public class DynamoDBAuditLogRepository implements AuditLogRepository {
         }
     }
 
+    // ✅ Writes logs 25 at a time with BatchWriteItem instead of one putItem each
+    @Override
+    public List<AuditLog> saveAll(Collection<AuditLog> logs) {
+        for (List<WriteRequest> batch : toWriteBatches(logs)) {
+            writeBatch(batch);
+        }
+        return new ArrayList<>(logs);
+    }
+
+    // Splits logs into BatchWriteItem-sized groups of put requests; shared with the async repository
+    static List<List<WriteRequest>> toWriteBatches(Collection<AuditLog> logs) {
+        // A batch may not contain the same key twice; the last write for a logId wins, as with putItem
+        Map<String, AuditLog> unique = new LinkedHashMap<>();
+        for (AuditLog log : logs) {
+            unique.put(log.getId(), log);
+        }
+
+        List<List<WriteRequest>> batches = new ArrayList<>();
+        List<WriteRequest> chunk = new ArrayList<>(MAX_BATCH_SIZE);
+        for (AuditLog log : unique.values()) {
+            chunk.add(WriteRequest.builder()
+                    .putRequest(PutRequest.builder().item(AuditLogMapper.toAttributeMap(log)).build())
+                    .build());
+            if (chunk.size() == MAX_BATCH_SIZE) {
+                batches.add(chunk);
+                chunk = new ArrayList<>(MAX_BATCH_SIZE);
+            }
+        }
+        if (!chunk.isEmpty()) batches.add(chunk);
+        return batches;
+    }
+
+    // One logical batch: resubmits UnprocessedItems with jittered exponential backoff until all land
+    private void writeBatch(List<WriteRequest> requests) {
+        long start = System.nanoTime();
+        Map<String, List<WriteRequest>> pending = Map.of(tableName, requests);
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                batchRequests.incrementAndGet();
+                BatchWriteItemResponse response = dynamoDb.batchWriteItem(BatchWriteItemRequest.builder()
+                        .requestItems(pending)
+                        .build());
+
+                if (!response.hasUnprocessedItems() || response.unprocessedItems().isEmpty()) break;
+
+                pending = response.unprocessedItems();
+                throttledItems.addAndGet(pending.getOrDefault(tableName, List.of()).size());
+            } catch (ProvisionedThroughputExceededException | RequestLimitExceededException e) {
+                throttledRequests.incrementAndGet();
+                if (attempt >= maxAttempts) {
+                    throw new RuntimeException("Failed to batch save audit logs in DynamoDB: " + e.getMessage(), e);
+                }
+            } catch (DynamoDbException e) {
+                throw new RuntimeException("Failed to batch save audit logs in DynamoDB: " + e.getMessage(), e);
+            }
+
+            if (attempt >= maxAttempts) {
+                throw new RuntimeException("Failed to batch save audit logs in DynamoDB: "
+                        + pending.getOrDefault(tableName, List.of()).size() + " items still unprocessed after "
+                        + attempt + " attempts");
+            }
+            backoff(attempt);
+        }
+
+        long elapsed = System.nanoTime() - start;
+        batches.incrementAndGet();
+        totalBatchNanos.addAndGet(elapsed);
+        maxBatchNanos.accumulateAndGet(elapsed, Math::max);
+    }
+
+    // "Full jitter": a random delay between 0 and base * 2^attempt (capped)
+    static long jitteredBackoffMillis(long baseBackoffMillis, int attempt) {
+        long ceiling = Math.min(MAX_BACKOFF_MILLIS, baseBackoffMillis << Math.min(attempt, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private void backoff(int attempt) {
+        try {
+            Thread.sleep(jitteredBackoffMillis(baseBackoffMillis, attempt));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while retrying DynamoDB batch write", e);
+        }
+    }
+
+    // ✅ Metrics
+    public long getBatchCount() { return batches.get(); }
+    public long getBatchRequestCount() { return batchRequests.get(); }
+    public long getThrottledItemCount() { return throttledItems.get(); }
+    public long getThrottledRequestCount() { return throttledRequests.get(); }
+    public double getAverageBatchMillis() {
+        long n = batches.get();
+        return n == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalBatchNanos.get()) / 1000.0 / n;
+    }
+    public double getMaxBatchMillis() {
+        return TimeUnit.NANOSECONDS.toMicros(maxBatchNanos.get()) / 1000.0;
+    }
+
+    public String stats() {
+        return String.format("batches=%d requests=%d throttledItems=%d throttledRequests=%d avgBatch=%.1fms maxBatch=%.1fms",
+                getBatchCount(), getBatchRequestCount(), getThrottledItemCount(), getThrottledRequestCount(),
+                getAverageBatchMillis(), getMaxBatchMillis());
+    }
+
     @Override
     public AuditLog findById(String id) {
         try {
@@ -44,16 +195,150 @@ public class DynamoDBAuditLogRepository implements AuditLogRepository {
         }
     }
 
+    // ✅ Queries the accountId/createdAt GSI newest first; no table scan
     @Override
-    public List<AuditLog> findAll() {
+    public AuditLogPage findByAccountId(String accountId, Instant from, Instant to, int limit, HistoryCursor after) {
+        QueryRequest.Builder query = accountQuery(tableName, accountId, from, to);
+        Map<String, AttributeValue> startKey = accountStartKey(accountId, after);
+
+        int fetch = limit + 1; // one extra item tells us whether another page exists
+        List<AuditLog> list = new ArrayList<>();
         try {
-            ScanResponse response = dynamoDb.scan(builder -> builder.tableName(tableName));
-            List<AuditLog> list = new ArrayList<>();
-            response.items().forEach(item -> list.add(AuditLogMapper.fromAttributeMap(item)));
-            return list;
+            // A single response stops at 1 MB, so keep querying until the page is full or the index is exhausted
+            do {
+                QueryResponse response = dynamoDb.query(query
+                        .limit(fetch - list.size())
+                        .exclusiveStartKey(startKey)
+                        .build());
+                response.items().forEach(item -> list.add(AuditLogMapper.fromAttributeMap(item)));
+                startKey = response.hasLastEvaluatedKey() && !response.lastEvaluatedKey().isEmpty()
+                        ? response.lastEvaluatedKey() : null;
+            } while (startKey != null && list.size() < fetch);
         } catch (DynamoDbException e) {
-            throw new RuntimeException("Failed to fetch audit logs from DynamoDB: " + e.getMessage(), e);
+            throw new RuntimeException("Failed to query audit logs by account from DynamoDB: " + e.getMessage(), e);
         }
+
+        if (list.size() > limit) {
+            List<AuditLog> page = new ArrayList<>(list.subList(0, limit));
+            return new AuditLogPage(page, HistoryCursor.after(page.get(limit - 1)));
+        }
+        return new AuditLogPage(list, null);
     }
-}
 
+    // Newest-first query on the account index over [from, to); shared with the async repository
+    static QueryRequest.Builder accountQuery(String tableName, String accountId, Instant from, Instant to) {
+        Map<String, AttributeValue> values = new HashMap<>();
+        values.put(":a", AttributeValue.builder().s(accountId).build());
+
+        // The sort key allows one condition, so [from, to) becomes BETWEEN from AND to - 1ns
+        String condition = "accountId = :a";
+        if (from != null && to != null) {
+            condition += " AND createdAt BETWEEN :f AND :t";
+            values.put(":f", AttributeValue.builder().s(AuditLogMapper.formatInstant(from)).build());
+            values.put(":t", AttributeValue.builder().s(AuditLogMapper.formatInstant(to.minusNanos(1))).build());
+        } else if (from != null) {
+            condition += " AND createdAt >= :f";
+            values.put(":f", AttributeValue.builder().s(AuditLogMapper.formatInstant(from)).build());
+        } else if (to != null) {
+            condition += " AND createdAt < :t";
+            values.put(":t", AttributeValue.builder().s(AuditLogMapper.formatInstant(to)).build());
+        }
+
+        return QueryRequest.builder()
+                .tableName(tableName)
+                .indexName(ACCOUNT_INDEX)
+                .keyConditionExpression(condition)
+                .expressionAttributeValues(values)
+                .scanIndexForward(false);
+    }
+
+    // The index's LastEvaluatedKey for the entry a cursor points at
+    static Map<String, AttributeValue> accountStartKey(String accountId, HistoryCursor after) {
+        if (after == null) return null;
+        Map<String, AttributeValue> startKey = new HashMap<>();
+        startKey.put("accountId", AttributeValue.builder().s(accountId).build());
+        startKey.put("createdAt", AttributeValue.builder().s(AuditLogMapper.formatInstant(after.getCreatedAt())).build());
+        startKey.put("logId", AttributeValue.builder().s(after.getId()).build());
+        return startKey;
+    }
+
+    // Loads every page into memory; prefer streamAll() or parallelScan() for large tables
+    @Override
+    public List<AuditLog> findAll() {
+        try (Stream<AuditLog> stream = streamAll()) {
+            return stream.collect(Collectors.toList());
+        }
+    }
+
+    // ✅ Lazily follows LastEvaluatedKey, fetching the next 1 MB page only when the stream reaches it.
+    // Pages are fetched inside the caller's terminal operation, so a failure is wrapped there, not here.
+    public Stream<AuditLog> streamAll() {
+        Iterator<Map<String, AttributeValue>> items =
+                dynamoDb.scanPaginator(ScanRequest.builder().tableName(tableName).build()).items().iterator();
+        Iterator<AuditLog> logs = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                try {
+                    return items.hasNext();
+                } catch (SdkException e) {
+                    throw new RuntimeException("Failed to fetch audit logs from DynamoDB: " + e.getMessage(), e);
+                }
+            }
+
+            @Override
+            public AuditLog next() {
+                try {
+                    return AuditLogMapper.fromAttributeMap(items.next());
+                } catch (SdkException e) {
+                    throw new RuntimeException("Failed to fetch audit logs from DynamoDB: " + e.getMessage(), e);
+                }
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(logs, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Segmented scan: splits the table into totalSegments pieces and scans them concurrently,
+     * one thread per segment. The consumer is called from several threads at once, so it must be thread-safe.
+     * Returns the number of items scanned.
+     */
+    public long parallelScan(int totalSegments, Consumer<AuditLog> consumer) {
+        if (totalSegments < 1) throw new IllegalArgumentException("totalSegments must be at least 1");
+
+        AtomicInteger threadIds = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(totalSegments, r -> {
+            Thread t = new Thread(r, "audit-scan-" + threadIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        AtomicLong scanned = new AtomicLong();
+        try {
+            List<Future<?>> futures = new ArrayList<>(totalSegments);
+            for (int segment = 0; segment < totalSegments; segment++) {
+                ScanRequest request = ScanRequest.builder()
+                        .tableName(tableName)
+                        .segment(segment)
+                        .totalSegments(totalSegments)
+                        .build();
+                futures.add(pool.submit(() -> dynamoDb.scanPaginator(request).items().forEach(item -> {
+                    consumer.accept(AuditLogMapper.fromAttributeMap(item));
+                    scanned.incrementAndGet();
+                })));
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return scanned.get();
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to scan audit logs in DynamoDB: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while scanning audit logs in DynamoDB", e);
+        } finally {
+            // A failed segment stops the rest
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.banking.repository;
+
+import java.util.Map;
+
+public interface IngestCheckpointRepository {
+
+    // 🔹 Offset of the last record each partition has applied from the file (empty if never started)
+    Map<Integer, Long> loadOffsets(String fileKey);
+
+    // Saved in the same unit of work as the records it covers; never moves backwards
+    void saveOffset(String fileKey, int partition, long offset);
+}
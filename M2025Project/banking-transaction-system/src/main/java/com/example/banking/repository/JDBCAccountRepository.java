@@ -3,12 +3,22 @@ package com.example.banking.repository;
 import com.example.banking.model.Account;
 import com.example.banking.utils.DatabaseUtil;
 
+import java.math.BigDecimal;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 public class JDBCAccountRepository implements AccountRepository {
 
+    private static final int IN_CLAUSE_CHUNK = 500;
+
     @Override
     public Account save(Account account) {
         String sql = "INSERT INTO accounts (id, customer_id, number, type, balance, status, created_at) " +
@@ -70,6 +80,33 @@ public class JDBCAccountRepository implements AccountRepository {
         }
     }
 
+    @Override
+    public List<Account> findByIds(Collection<String> ids) {
+        List<Account> accounts = new ArrayList<>();
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        distinct.remove(null);
+
+        // Chunked IN (...) lists keep each statement to a sane size
+        for (int start = 0; start < distinct.size(); start += IN_CLAUSE_CHUNK) {
+            List<String> chunk = distinct.subList(start, Math.min(start + IN_CLAUSE_CHUNK, distinct.size()));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            String sql = "SELECT * FROM accounts WHERE id IN (" + placeholders + ")";
+
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    stmt.setString(i + 1, chunk.get(i));
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) accounts.add(mapRowToAccount(rs));
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Error finding accounts by ids", e);
+            }
+        }
+        return accounts;
+    }
+
     @Override
     public List<Account> findByCustomerId(String customerId) {
         String sql = "SELECT * FROM accounts WHERE customer_id=?";
@@ -85,6 +122,20 @@ public class JDBCAccountRepository implements AccountRepository {
         }
     }
 
+    @Override
+    public List<String> findAllIds() {
+        String sql = "SELECT id FROM accounts";
+        List<String> ids = new ArrayList<>();
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) ids.add(rs.getString("id"));
+            return ids;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error listing account ids", e);
+        }
+    }
+
     @Override
     public Account findByCustomerIdAndType(String customerId, String type) {
         String sql = "SELECT * FROM accounts WHERE customer_id=? AND type=? AND status='ACTIVE' ORDER BY created_at DESC LIMIT 1";
@@ -100,6 +151,98 @@ public class JDBCAccountRepository implements AccountRepository {
         }
     }
 
+    @Override
+    public BigDecimal credit(String accountId, BigDecimal amount) {
+        String sql = "UPDATE accounts SET balance = (@new_balance := balance + ?) WHERE id=? AND status='ACTIVE'";
+        return mutateBalance(sql, accountId, amount, false, "Error crediting account");
+    }
+
+    @Override
+    public BigDecimal debit(String accountId, BigDecimal amount) {
+        // WHERE is evaluated before SET, so the balance can never go below zero
+        String sql = "UPDATE accounts SET balance = (@new_balance := balance - ?) WHERE id=? AND status='ACTIVE' AND balance >= ?";
+        return mutateBalance(sql, accountId, amount, true, "Error debiting account");
+    }
+
+    @Override
+    public List<Account> findByNumbers(Collection<String> numbers) {
+        List<Account> accounts = new ArrayList<>();
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(numbers));
+        distinct.remove(null);
+
+        for (int start = 0; start < distinct.size(); start += IN_CLAUSE_CHUNK) {
+            List<String> chunk = distinct.subList(start, Math.min(start + IN_CLAUSE_CHUNK, distinct.size()));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            String sql = "SELECT * FROM accounts WHERE number IN (" + placeholders + ")";
+
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    stmt.setString(i + 1, chunk.get(i));
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) accounts.add(mapRowToAccount(rs));
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Error finding accounts by numbers", e);
+            }
+        }
+        return accounts;
+    }
+
+    @Override
+    public Set<String> applyDeltas(Map<String, BigDecimal> deltas) {
+        Set<String> refused = new HashSet<>();
+        if (deltas.isEmpty()) return refused;
+
+        // One conditional UPDATE per account, sent as a single batch; ascending id order means two
+        // batches touching the same accounts take MySQL's row locks in the same order
+        // (zero deltas are skipped: MySQL reports an unchanged row as 0 affected, i.e. "refused")
+        List<Map.Entry<String, BigDecimal>> ordered = new ArrayList<>();
+        for (Map.Entry<String, BigDecimal> delta : new TreeMap<>(deltas).entrySet()) {
+            if (delta.getValue().signum() != 0) ordered.add(delta);
+        }
+        if (ordered.isEmpty()) return refused;
+        String sql = "UPDATE accounts SET balance = balance + ? WHERE id=? AND status='ACTIVE' AND balance + ? >= 0";
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (Map.Entry<String, BigDecimal> delta : ordered) {
+                stmt.setBigDecimal(1, delta.getValue());
+                stmt.setString(2, delta.getKey());
+                stmt.setBigDecimal(3, delta.getValue());
+                stmt.addBatch();
+            }
+            int[] counts = stmt.executeBatch();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) refused.add(ordered.get(i).getKey());
+            }
+            return refused;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error applying balance deltas: " + e.getMessage(), e);
+        }
+    }
+
+    // Runs the conditional UPDATE, then reads the balance it wrote from the session variable on the same
+    // connection (the unit of work's, when there is one), so a concurrent change can't be read instead.
+    // null when the update was refused; the variable is only read after a row actually changed.
+    private BigDecimal mutateBalance(String sql, String accountId, BigDecimal amount,
+                                     boolean guardBalance, String errorMessage) {
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            try (PreparedStatement update = conn.prepareStatement(sql)) {
+                update.setBigDecimal(1, amount);
+                update.setString(2, accountId);
+                if (guardBalance) update.setBigDecimal(3, amount);
+                if (update.executeUpdate() == 0) return null;
+            }
+            try (PreparedStatement select = conn.prepareStatement("SELECT @new_balance");
+                 ResultSet rs = select.executeQuery()) {
+                return rs.next() ? rs.getBigDecimal(1) : null;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(errorMessage, e);
+        }
+    }
+
     // 🔹 Helper method for mapping ResultSet to Account object
     private Account mapRowToAccount(ResultSet rs) throws SQLException {
         return new Account(
@@ -1,30 +1,28 @@
 package com.example.banking.repository;
 
 import com.example.banking.model.AuditLog;
+import com.example.banking.model.AuditLogPage;
+import com.example.banking.model.HistoryCursor;
 import com.example.banking.utils.DatabaseUtil;
 
 import java.sql.*;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 public class JDBCAuditLogRepository implements AuditLogRepository {
 
+    private static final String INSERT_SQL =
+            "INSERT INTO audit_logs (id, account_id, actor_id, transaction_id, action, before_balance, after_balance, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
     @Override
     public AuditLog save(AuditLog log) {
-        String sql = "INSERT INTO audit_logs (id, account_id, actor_id, transaction_id, action, before_balance, after_balance, created_at) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
         try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, log.getId());
-            ps.setString(2, log.getAccountId());
-            ps.setString(3, log.getActor());
-            ps.setString(4, log.getTxnId());
-            ps.setString(5, log.getAction());
-            ps.setBigDecimal(6, log.getBeforeBalance());
-            ps.setBigDecimal(7, log.getAfterBalance());
-            ps.setTimestamp(8, Timestamp.from(log.getCreatedAt()));
+             PreparedStatement ps = conn.prepareStatement(INSERT_SQL)) {
 
+            bindInsert(ps, log);
             ps.executeUpdate();
             return log;
 
@@ -33,6 +31,37 @@ public class JDBCAuditLogRepository implements AuditLogRepository {
         }
     }
 
+    @Override
+    public List<AuditLog> saveAll(Collection<AuditLog> logs) {
+        if (logs.isEmpty()) return new ArrayList<>();
+
+        // With rewriteBatchedStatements the driver sends the batch as multi-row INSERTs
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(INSERT_SQL)) {
+
+            for (AuditLog log : logs) {
+                bindInsert(ps, log);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            return new ArrayList<>(logs);
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Error saving audit logs: " + e.getMessage(), e);
+        }
+    }
+
+    private void bindInsert(PreparedStatement ps, AuditLog log) throws SQLException {
+        ps.setString(1, log.getId());
+        ps.setString(2, log.getAccountId());
+        ps.setString(3, log.getActor());
+        ps.setString(4, log.getTxnId());
+        ps.setString(5, log.getAction());
+        ps.setBigDecimal(6, log.getBeforeBalance());
+        ps.setBigDecimal(7, log.getAfterBalance());
+        ps.setTimestamp(8, Timestamp.from(log.getCreatedAt()));
+    }
+
     @Override
     public AuditLog findById(String id) {
         String sql = "SELECT * FROM audit_logs WHERE id = ?";
@@ -69,6 +98,47 @@ public class JDBCAuditLogRepository implements AuditLogRepository {
         }
     }
 
+    // Keyset page over idx_audit_account_created (account_id, created_at, id)
+    @Override
+    public AuditLogPage findByAccountId(String accountId, Instant from, Instant to, int limit, HistoryCursor after) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM audit_logs WHERE account_id = ?");
+        if (from != null) sql.append(" AND created_at >= ?");
+        if (to != null) sql.append(" AND created_at < ?");
+        if (after != null) sql.append(" AND (created_at < ? OR (created_at = ? AND id < ?))");
+        sql.append(" ORDER BY created_at DESC, id DESC LIMIT ?");
+
+        List<AuditLog> list = new ArrayList<>();
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+
+            int i = 1;
+            ps.setString(i++, accountId);
+            if (from != null) ps.setTimestamp(i++, Timestamp.from(from));
+            if (to != null) ps.setTimestamp(i++, Timestamp.from(to));
+            if (after != null) {
+                ps.setTimestamp(i++, Timestamp.from(after.getCreatedAt()));
+                ps.setTimestamp(i++, Timestamp.from(after.getCreatedAt()));
+                ps.setString(i++, after.getId());
+            }
+            ps.setInt(i, limit + 1); // one extra row tells us whether another page exists
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapRowToAuditLog(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error fetching audit logs for account: " + e.getMessage(), e);
+        }
+
+        HistoryCursor next = null;
+        if (list.size() > limit) {
+            list = new ArrayList<>(list.subList(0, limit));
+            next = HistoryCursor.after(list.get(limit - 1));
+        }
+        return new AuditLogPage(list, next);
+    }
+
     // 🔹 Helper method for mapping ResultSet to AuditLog object
     private AuditLog mapRowToAuditLog(ResultSet rs) throws SQLException {
         return new AuditLog(
@@ -0,0 +1,69 @@
+package com.example.banking.repository;
+
+import com.example.banking.model.BalanceSnapshot;
+import com.example.banking.model.LedgerEvent;
+import com.example.banking.utils.DatabaseUtil;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class JDBCBalanceSnapshotRepository implements BalanceSnapshotRepository {
+
+    // balance is assigned before last_seq, so its IF still compares against the stored sequence
+    private static final String UPSERT_SQL =
+            "INSERT INTO balance_snapshots (account_id, balance, last_seq, created_at) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "balance = IF(VALUES(last_seq) > last_seq, VALUES(balance), balance), " +
+            "created_at = IF(VALUES(last_seq) > last_seq, VALUES(created_at), created_at), " +
+            "last_seq = GREATEST(last_seq, VALUES(last_seq))";
+
+    @Override
+    public void saveAll(Collection<BalanceSnapshot> snapshots) {
+        if (snapshots.isEmpty()) return;
+
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(UPSERT_SQL)) {
+
+            for (BalanceSnapshot snapshot : snapshots) {
+                ps.setString(1, snapshot.getAccountId());
+                ps.setBigDecimal(2, snapshot.getBalance());
+                ps.setLong(3, snapshot.getLastSequence());
+                ps.setTimestamp(4, Timestamp.from(snapshot.getCreatedAt()));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Error saving balance snapshots: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<BalanceSnapshot> findByPartition(int partition, int partitions) {
+        // One range of idx_snapshot_bucket (see LedgerEvent.partitionOf)
+        String sql = "SELECT * FROM balance_snapshots WHERE bucket BETWEEN ? AND ?";
+        List<BalanceSnapshot> list = new ArrayList<>();
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, LedgerEvent.firstBucket(partition, partitions));
+            ps.setInt(2, LedgerEvent.firstBucket(partition + 1, partitions) - 1);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(new BalanceSnapshot(
+                            rs.getString("account_id"),
+                            rs.getBigDecimal("balance"),
+                            rs.getLong("last_seq"),
+                            rs.getTimestamp("created_at").toInstant()
+                    ));
+                }
+            }
+            return list;
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Error fetching balance snapshots: " + e.getMessage(), e);
+        }
+    }
+}
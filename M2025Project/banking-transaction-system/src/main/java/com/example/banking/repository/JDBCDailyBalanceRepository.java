@@ -0,0 +1,133 @@
+package com.example.banking.repository;
+
+import com.example.banking.model.AuditLog;
+import com.example.banking.model.DailyBalance;
+import com.example.banking.utils.DatabaseUtil;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Rollups keyed by (account_id, day), so every lookup is a primary-key range scan over O(days) rows.
+ */
+public class JDBCDailyBalanceRepository implements DailyBalanceRepository {
+
+    // The first entry of a day sets the opening balance; later ones only add to the totals and move the close
+    private static final String UPSERT_SQL =
+            "INSERT INTO daily_balances (account_id, day, opening_balance, credits, debits, txn_count, closing_balance) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "credits = credits + VALUES(credits), " +
+            "debits = debits + VALUES(debits), " +
+            "txn_count = txn_count + VALUES(txn_count), " +
+            "closing_balance = VALUES(closing_balance)";
+
+    @Override
+    public void applyAll(Collection<AuditLog> entries) {
+        List<DailyBalance> rows = new ArrayList<>(entries.size());
+        for (AuditLog entry : entries) {
+            if (DailyBalance.isMovement(entry)) rows.add(DailyBalance.of(entry));
+        }
+        upsert(rows, "Error updating daily balances: ");
+    }
+
+    @Override
+    public void replaceForAccount(String accountId, List<DailyBalance> days) {
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement("DELETE FROM daily_balances WHERE account_id = ?")) {
+
+            ps.setString(1, accountId);
+            ps.executeUpdate();
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Error clearing daily balances: " + e.getMessage(), e);
+        }
+        upsert(days, "Error saving daily balances: ");
+    }
+
+    private void upsert(List<DailyBalance> rows, String errorMessage) {
+        if (rows.isEmpty()) return;
+
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(UPSERT_SQL)) {
+
+            for (DailyBalance row : rows) {
+                ps.setString(1, row.getAccountId());
+                ps.setObject(2, row.getDay());
+                ps.setBigDecimal(3, row.getOpeningBalance());
+                ps.setBigDecimal(4, row.getCredits());
+                ps.setBigDecimal(5, row.getDebits());
+                ps.setInt(6, row.getCount());
+                ps.setBigDecimal(7, row.getClosingBalance());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+
+        } catch (SQLException e) {
+            throw new RuntimeException(errorMessage + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<DailyBalance> findByAccountId(String accountId, LocalDate from, LocalDate to) {
+        String sql = "SELECT * FROM daily_balances WHERE account_id = ? AND day >= ? AND day <= ? ORDER BY day";
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, accountId);
+            ps.setObject(2, from);
+            ps.setObject(3, to);
+            return query(ps);
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Error fetching daily balances: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public DailyBalance findLatestBefore(String accountId, LocalDate day) {
+        return findOne("SELECT * FROM daily_balances WHERE account_id = ? AND day < ? ORDER BY day DESC LIMIT 1",
+                accountId, day);
+    }
+
+    @Override
+    public DailyBalance findEarliestAfter(String accountId, LocalDate day) {
+        return findOne("SELECT * FROM daily_balances WHERE account_id = ? AND day > ? ORDER BY day LIMIT 1",
+                accountId, day);
+    }
+
+    private DailyBalance findOne(String sql, String accountId, LocalDate day) {
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, accountId);
+            ps.setObject(2, day);
+            List<DailyBalance> rows = query(ps);
+            return rows.isEmpty() ? null : rows.get(0);
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Error fetching daily balance: " + e.getMessage(), e);
+        }
+    }
+
+    private List<DailyBalance> query(PreparedStatement ps) throws SQLException {
+        List<DailyBalance> list = new ArrayList<>();
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                list.add(new DailyBalance(
+                        rs.getString("account_id"),
+                        rs.getObject("day", LocalDate.class),
+                        rs.getBigDecimal("opening_balance"),
+                        rs.getBigDecimal("credits"),
+                        rs.getBigDecimal("debits"),
+                        rs.getInt("txn_count"),
+                        rs.getBigDecimal("closing_balance")
+                ));
+            }
+        }
+        return list;
+    }
+}
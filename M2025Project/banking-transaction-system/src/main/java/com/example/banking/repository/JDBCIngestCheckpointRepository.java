@@ -0,0 +1,53 @@
+package com.example.banking.repository;
+
+import com.example.banking.utils.DatabaseUtil;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+public class JDBCIngestCheckpointRepository implements IngestCheckpointRepository {
+
+    // GREATEST keeps a retried, older chunk from rewinding its partition
+    private static final String UPSERT_SQL =
+            "INSERT INTO ingest_checkpoint (file_key, partition_no, applied_offset) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE applied_offset = GREATEST(applied_offset, VALUES(applied_offset))";
+
+    @Override
+    public Map<Integer, Long> loadOffsets(String fileKey) {
+        String sql = "SELECT partition_no, applied_offset FROM ingest_checkpoint WHERE file_key = ?";
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, fileKey);
+            Map<Integer, Long> offsets = new HashMap<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    offsets.put(rs.getInt("partition_no"), rs.getLong("applied_offset"));
+                }
+            }
+            return offsets;
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Error loading ingest checkpoint: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void saveOffset(String fileKey, int partition, long offset) {
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(UPSERT_SQL)) {
+
+            ps.setString(1, fileKey);
+            ps.setInt(2, partition);
+            ps.setLong(3, offset);
+            ps.executeUpdate();
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Error saving ingest checkpoint: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.banking.repository;
+
+import com.example.banking.model.LedgerEvent;
+import com.example.banking.utils.DatabaseUtil;
+
+import java.sql.*;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+public class JDBCLedgerEventRepository implements LedgerEventRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO ledger_events (id, account_id, transaction_id, amount, balance_after, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Override
+    public void appendAll(Collection<LedgerEvent> events) {
+        if (events.isEmpty()) return;
+
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(INSERT_SQL)) {
+
+            for (LedgerEvent event : events) {
+                ps.setString(1, event.getId());
+                ps.setString(2, event.getAccountId());
+                ps.setString(3, event.getTxnId());
+                ps.setBigDecimal(4, event.getAmount());
+                ps.setBigDecimal(5, event.getBalanceAfter());
+                ps.setTimestamp(6, Timestamp.from(event.getCreatedAt()));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Error appending ledger events: " + e.getMessage(), e);
+        }
+    }
+
+    // Accounts with a snapshot: their range of idx_snapshot_bucket, then only the tail past each snapshot
+    // (idx_ledger_account_seq). Per-account order is all recovery needs.
+    private static final String TAIL_SQL =
+            "SELECT e.* FROM balance_snapshots s " +
+            "JOIN ledger_events e ON e.account_id = s.account_id AND e.seq > s.last_seq " +
+            "WHERE s.bucket BETWEEN ? AND ? " +
+            "ORDER BY e.account_id, e.seq";
+
+    // Accounts without one: every event, read in index order from idx_ledger_bucket_account_seq
+    private static final String UNSNAPSHOTTED_SQL =
+            "SELECT e.* FROM ledger_events e " +
+            "WHERE e.bucket BETWEEN ? AND ? " +
+            "AND NOT EXISTS (SELECT 1 FROM balance_snapshots s WHERE s.account_id = e.account_id) " +
+            "ORDER BY e.bucket, e.account_id, e.seq";
+
+    @Override
+    public void forEachAfterSnapshot(int partition, int partitions, Consumer<LedgerEvent> consumer) {
+        int firstBucket = LedgerEvent.firstBucket(partition, partitions);
+        int lastBucket = LedgerEvent.firstBucket(partition + 1, partitions) - 1;
+        if (lastBucket < firstBucket) return; // more partitions than buckets
+        stream(TAIL_SQL, firstBucket, lastBucket, consumer);
+        stream(UNSNAPSHOTTED_SQL, firstBucket, lastBucket, consumer);
+    }
+
+    private void stream(String sql, int firstBucket, int lastBucket, Consumer<LedgerEvent> consumer) {
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            // Connector/J streams rows one at a time instead of buffering the whole tail
+            ps.setFetchSize(Integer.MIN_VALUE);
+            ps.setInt(1, firstBucket);
+            ps.setInt(2, lastBucket);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(new LedgerEvent(
+                            rs.getLong("seq"),
+                            rs.getString("id"),
+                            rs.getString("account_id"),
+                            rs.getString("transaction_id"),
+                            rs.getBigDecimal("amount"),
+                            rs.getBigDecimal("balance_after"),
+                            rs.getTimestamp("created_at").toInstant()
+                    ));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error reading ledger events: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long maxSequence() {
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT COALESCE(MAX(seq), 0) FROM ledger_events");
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error reading ledger sequence: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.banking.repository;
+
+import com.example.banking.model.HistoryCursor;
+import com.example.banking.model.Posting;
+import com.example.banking.model.PostingPage;
+import com.example.banking.model.PostingTotals;
+import com.example.banking.utils.DatabaseUtil;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Postings live in one table indexed on (account_id, created_at, id, amount): history pages,
+ * period totals and balances are all a single index range scan, and the aggregates never touch
+ * the table rows (see MySQLSchemaUpdater.createPostingsTable).
+ */
+public class JDBCPostingRepository implements PostingRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO postings (id, transaction_id, account_id, amount, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    @Override
+    public void saveAll(Collection<Posting> postings) {
+        if (postings.isEmpty()) return;
+
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(INSERT_SQL)) {
+
+            for (Posting posting : postings) {
+                ps.setString(1, posting.getId());
+                ps.setString(2, posting.getTxnId());
+                ps.setString(3, posting.getAccountId());
+                ps.setBigDecimal(4, posting.getAmount());
+                ps.setTimestamp(5, Timestamp.from(posting.getCreatedAt()));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Error saving postings: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public PostingPage findByAccountId(String accountId, Instant from, Instant to, int limit, HistoryCursor after) {
+        String sql = "SELECT * FROM postings WHERE account_id = ?" + range(from, to) +
+                (after != null ? " AND (created_at < ? OR (created_at = ? AND id < ?))" : "") +
+                " ORDER BY created_at DESC, id DESC LIMIT ?";
+
+        int fetch = limit + 1; // one extra row tells us whether another page exists
+        List<Posting> list = new ArrayList<>();
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            int i = bindRange(ps, accountId, from, to);
+            if (after != null) {
+                ps.setTimestamp(i++, Timestamp.from(after.getCreatedAt()));
+                ps.setTimestamp(i++, Timestamp.from(after.getCreatedAt()));
+                ps.setString(i++, after.getId());
+            }
+            ps.setInt(i, fetch);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapRowToPosting(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error fetching postings: " + e.getMessage(), e);
+        }
+
+        if (list.size() > limit) {
+            List<Posting> page = new ArrayList<>(list.subList(0, limit));
+            return new PostingPage(page, HistoryCursor.after(page.get(limit - 1)));
+        }
+        return new PostingPage(list, null);
+    }
+
+    @Override
+    public PostingTotals totalsByAccountId(String accountId, Instant from, Instant to) {
+        String sql = "SELECT COALESCE(SUM(GREATEST(amount, 0)), 0) AS credits, " +
+                "COALESCE(SUM(GREATEST(-amount, 0)), 0) AS debits, COUNT(*) AS n " +
+                "FROM postings WHERE account_id = ?" + range(from, to);
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            bindRange(ps, accountId, from, to);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return new PostingTotals(accountId, rs.getBigDecimal("credits"), rs.getBigDecimal("debits"),
+                        rs.getLong("n"));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error totalling postings: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public BigDecimal balanceOf(String accountId, Instant asOf) {
+        String sql = "SELECT COALESCE(SUM(amount), 0) AS balance FROM postings WHERE account_id = ?" + range(null, asOf);
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            bindRange(ps, accountId, null, asOf);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getBigDecimal("balance");
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error computing balance from postings: " + e.getMessage(), e);
+        }
+    }
+
+    private static String range(Instant from, Instant to) {
+        return (from != null ? " AND created_at >= ?" : "") + (to != null ? " AND created_at < ?" : "");
+    }
+
+    // Binds account id and the optional bounds; returns the next parameter index
+    private static int bindRange(PreparedStatement ps, String accountId, Instant from, Instant to) throws SQLException {
+        int i = 1;
+        ps.setString(i++, accountId);
+        if (from != null) ps.setTimestamp(i++, Timestamp.from(from));
+        if (to != null) ps.setTimestamp(i++, Timestamp.from(to));
+        return i;
+    }
+
+    private Posting mapRowToPosting(ResultSet rs) throws SQLException {
+        return new Posting(
+                rs.getString("id"),
+                rs.getString("transaction_id"),
+                rs.getString("account_id"),
+                rs.getBigDecimal("amount"),
+                rs.getTimestamp("created_at").toInstant()
+        );
+    }
+}
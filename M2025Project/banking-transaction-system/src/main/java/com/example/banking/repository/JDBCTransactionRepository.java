@@ -1,29 +1,30 @@
 package com.example.banking.repository;
 
+import com.example.banking.model.HistoryCursor;
 import com.example.banking.model.Transaction;
+import com.example.banking.model.TransactionPage;
 import com.example.banking.utils.DatabaseUtil;
 
 import java.sql.*;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class JDBCTransactionRepository implements TransactionRepository {
 
+    private static final String INSERT_SQL =
+            "INSERT INTO transactions (id, type, from_account_id, to_account_id, amount, status, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
     @Override
     public Transaction save(Transaction txn) {
-        String sql = "INSERT INTO transactions (id, type, from_account_id, to_account_id, amount, status, created_at) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?)";
         try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, txn.getId());
-            ps.setString(2, txn.getType());
-            ps.setString(3, txn.getFromAccountId());
-            ps.setString(4, txn.getToAccountId());
-            ps.setBigDecimal(5, txn.getAmount());
-            ps.setString(6, txn.getStatus());
-            ps.setTimestamp(7, Timestamp.from(txn.getCreatedAt()));
+             PreparedStatement ps = conn.prepareStatement(INSERT_SQL)) {
 
+            bindInsert(ps, txn);
             ps.executeUpdate();
             return txn;
 
@@ -32,6 +33,36 @@ public class JDBCTransactionRepository implements TransactionRepository {
         }
     }
 
+    @Override
+    public List<Transaction> saveAll(Collection<Transaction> txns) {
+        if (txns.isEmpty()) return new ArrayList<>();
+
+        // With rewriteBatchedStatements the driver sends the batch as multi-row INSERTs
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(INSERT_SQL)) {
+
+            for (Transaction txn : txns) {
+                bindInsert(ps, txn);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            return new ArrayList<>(txns);
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Error saving transactions: " + e.getMessage(), e);
+        }
+    }
+
+    private void bindInsert(PreparedStatement ps, Transaction txn) throws SQLException {
+        ps.setString(1, txn.getId());
+        ps.setString(2, txn.getType());
+        ps.setString(3, txn.getFromAccountId());
+        ps.setString(4, txn.getToAccountId());
+        ps.setBigDecimal(5, txn.getAmount());
+        ps.setString(6, txn.getStatus());
+        ps.setTimestamp(7, Timestamp.from(txn.getCreatedAt()));
+    }
+
     @Override
     public Transaction findById(String id) {
         String sql = "SELECT * FROM transactions WHERE id = ?";
@@ -73,6 +104,107 @@ public class JDBCTransactionRepository implements TransactionRepository {
         }
     }
 
+    @Override
+    public List<Transaction> findRecentSuccessfulByAccountId(String accountId, int limit) {
+        String side = "SELECT * FROM transactions WHERE %s = ? AND status = 'SUCCESS' " +
+                "ORDER BY created_at DESC, id DESC LIMIT ?";
+        String sql = "SELECT * FROM (" +
+                "(" + String.format(side, "from_account_id") + ")" +
+                " UNION ALL " +
+                "(" + String.format(side, "to_account_id") + ")" +
+                ") t ORDER BY created_at DESC, id DESC LIMIT ?";
+
+        List<Transaction> list = new ArrayList<>();
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, accountId);
+            ps.setInt(2, limit);
+            ps.setString(3, accountId);
+            ps.setInt(4, limit);
+            ps.setInt(5, limit);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapRowToTransaction(rs));
+                }
+            }
+            return list;
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Error fetching recent transactions: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Keyset pagination over (created_at, id).
+     * Each side of the OR is its own index range scan on (from_account_id | to_account_id, created_at, id),
+     * limited before the UNION, so a page costs the same no matter how deep the cursor is.
+     */
+    @Override
+    public TransactionPage findPageByAccountId(String accountId, HistoryCursor after, int pageSize,
+                                               Instant from, Instant to) {
+        StringBuilder range = new StringBuilder();
+        if (from != null) range.append(" AND created_at >= ?");
+        if (to != null) range.append(" AND created_at < ?");
+        if (after != null) range.append(" AND (created_at < ? OR (created_at = ? AND id < ?))");
+
+        // Counterpart account numbers are joined onto the (at most 2 * fetch) page rows,
+        // so rendering a page needs no per-row account lookups
+        String order = " ORDER BY created_at DESC, id DESC LIMIT ?";
+        String sql = "SELECT t.*, fa.number AS from_account_number, ta.number AS to_account_number FROM (" +
+                "(SELECT * FROM transactions WHERE from_account_id = ?" + range + order + ")" +
+                " UNION ALL " +
+                "(SELECT * FROM transactions WHERE to_account_id = ?" + range + order + ")" +
+                ") t" +
+                " LEFT JOIN accounts fa ON fa.id = t.from_account_id" +
+                " LEFT JOIN accounts ta ON ta.id = t.to_account_id" +
+                " ORDER BY t.created_at DESC, t.id DESC LIMIT ?";
+
+        int fetch = pageSize + 1; // one extra row tells us whether another page exists
+        List<Transaction> list = new ArrayList<>();
+        Map<String, String> accountNumbers = new HashMap<>();
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            int i = 1;
+            for (int side = 0; side < 2; side++) {
+                ps.setString(i++, accountId);
+                if (from != null) ps.setTimestamp(i++, Timestamp.from(from));
+                if (to != null) ps.setTimestamp(i++, Timestamp.from(to));
+                if (after != null) {
+                    ps.setTimestamp(i++, Timestamp.from(after.getCreatedAt()));
+                    ps.setTimestamp(i++, Timestamp.from(after.getCreatedAt()));
+                    ps.setString(i++, after.getId());
+                }
+                ps.setInt(i++, fetch);
+            }
+            ps.setInt(i, fetch);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Transaction txn = mapRowToTransaction(rs);
+                    list.add(txn);
+                    if (txn.getFromAccountId() != null && rs.getString("from_account_number") != null) {
+                        accountNumbers.put(txn.getFromAccountId(), rs.getString("from_account_number"));
+                    }
+                    if (txn.getToAccountId() != null && rs.getString("to_account_number") != null) {
+                        accountNumbers.put(txn.getToAccountId(), rs.getString("to_account_number"));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error fetching transaction page: " + e.getMessage(), e);
+        }
+
+        HistoryCursor next = null;
+        if (list.size() > pageSize) {
+            list = new ArrayList<>(list.subList(0, pageSize));
+            next = HistoryCursor.after(list.get(pageSize - 1));
+        }
+        return new TransactionPage(list, next, accountNumbers);
+    }
+
     @Override
     public List<Transaction> findAll() {
         String sql = "SELECT * FROM transactions ORDER BY created_at DESC";
@@ -0,0 +1,43 @@
+package com.example.banking.repository;
+
+import com.example.banking.utils.DatabaseUtil;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class JDBCWalCheckpointRepository implements WalCheckpointRepository {
+
+    // Single-row table; GREATEST keeps a late, smaller checkpoint from rewinding it
+    private static final String UPSERT_SQL =
+            "INSERT INTO wal_checkpoint (id, applied_lsn) VALUES (1, ?) " +
+            "ON DUPLICATE KEY UPDATE applied_lsn = GREATEST(applied_lsn, VALUES(applied_lsn))";
+
+    @Override
+    public long loadAppliedLsn() {
+        String sql = "SELECT applied_lsn FROM wal_checkpoint WHERE id = 1";
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            return rs.next() ? rs.getLong("applied_lsn") : 0L;
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Error loading WAL checkpoint: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void saveAppliedLsn(long lsn) {
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(UPSERT_SQL)) {
+
+            ps.setLong(1, lsn);
+            ps.executeUpdate();
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Error saving WAL checkpoint: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,641 @@
+package com.example.banking.repository;
+
+import com.example.banking.model.AuditLog;
+import com.example.banking.model.AuditLogPage;
+import com.example.banking.model.HistoryCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Local append-only audit journal on memory-mapped segment files.
+ * - Each segment is pre-allocated to segmentSize bytes and mapped once; appends are plain memory writes.
+ * - Record layout: [int bodyLength][int crc32(body)][body]. A zero length marks the end of written data,
+ *   and a CRC mismatch marks a torn write; reopening truncates the segment there.
+ * - A record that does not fit in the current segment starts the next one. At most maxSegments are kept:
+ *   rolling over past that deletes the oldest segment and drops its records from the indexes.
+ * - Indexes by id, txnId and accountId live in memory and are rebuilt by scanning the segments on open.
+ * - Given a downstream repository, the journal sits in front of it: saves return once the record is in the
+ *   journal, and a background thread forwards records in order, resuming after the last forwarded record
+ *   on restart (at-least-once, so downstream writes must be idempotent by log id). A segment is only
+ *   deleted once it has been forwarded; until then a full journal refuses new records.
+ * Set forceOnWrite to flush every record to disk; otherwise data reaches disk via the page cache
+ * (surviving a process crash, but not a power loss) or on flush()/close().
+ */
+public class JournalAuditLogRepository implements AuditLogRepository, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalAuditLogRepository.class);
+
+    public static final int DEFAULT_MAX_SEGMENTS = 16;
+    static final int FORWARD_BATCH_SIZE = 100;
+    static final long FORWARD_RETRY_MILLIS = 1_000;
+
+    private static final int HEADER_SIZE = 8;
+    private static final String SEGMENT_PREFIX = "audit-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String FORWARDED_FILE = "forwarded.pos";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final boolean forceOnWrite;
+    private final AuditLogRepository downstream;
+    private final Thread forwarder;
+    private final long forwardRetryMillis;
+
+    // Guarded by "this"
+    private final List<Segment> segments = new ArrayList<>();
+    private final Map<String, Entry> byId = new HashMap<>();
+    private final Map<String, List<Entry>> byTxnId = new HashMap<>();
+    private final Map<String, List<Entry>> byAccountId = new HashMap<>();
+    private Segment current;
+    private boolean closed;
+    // Everything before (forwardedSegment, forwardedOffset) has reached the downstream repository
+    private int forwardedSegment;
+    private int forwardedOffset;
+
+    private final AtomicLong forwarded = new AtomicLong();
+    private final AtomicLong forwardFailures = new AtomicLong();
+
+    // Standalone journal: nothing is forwarded, and the oldest segment is simply deleted on rollover
+    public JournalAuditLogRepository(Path directory, int segmentSize, boolean forceOnWrite) {
+        this(directory, segmentSize, DEFAULT_MAX_SEGMENTS, forceOnWrite, null);
+    }
+
+    public JournalAuditLogRepository(Path directory, int segmentSize, int maxSegments, boolean forceOnWrite,
+                                     AuditLogRepository downstream) {
+        this(directory, segmentSize, maxSegments, forceOnWrite, downstream, FORWARD_RETRY_MILLIS);
+    }
+
+    JournalAuditLogRepository(Path directory, int segmentSize, int maxSegments, boolean forceOnWrite,
+                              AuditLogRepository downstream, long forwardRetryMillis) {
+        if (segmentSize < 1024) throw new IllegalArgumentException("segmentSize must be at least 1024 bytes");
+        if (maxSegments < 2) throw new IllegalArgumentException("maxSegments must be at least 2");
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        this.forceOnWrite = forceOnWrite;
+        this.downstream = downstream;
+        this.forwardRetryMillis = forwardRetryMillis;
+        try {
+            Files.createDirectories(directory);
+            recover();
+        } catch (IOException e) {
+            throw new RuntimeException("Error opening audit journal: " + e.getMessage(), e);
+        }
+
+        if (downstream == null) {
+            forwarder = null;
+        } else {
+            forwarder = new Thread(this::forwardLoop, "audit-journal-forwarder");
+            forwarder.setDaemon(true);
+            forwarder.start();
+        }
+    }
+
+    @Override
+    public synchronized AuditLog save(AuditLog log) {
+        append(log);
+        if (forceOnWrite) current.buffer.force();
+        if (downstream != null) notifyAll();
+        return log;
+    }
+
+    // One force for the whole batch
+    @Override
+    public synchronized List<AuditLog> saveAll(Collection<AuditLog> logs) {
+        Set<Segment> touched = new LinkedHashSet<>();
+        for (AuditLog log : logs) {
+            append(log);
+            touched.add(current);
+        }
+        if (forceOnWrite) touched.forEach(s -> s.buffer.force());
+        if (downstream != null) notifyAll();
+        return new ArrayList<>(logs);
+    }
+
+    @Override
+    public synchronized AuditLog findById(String id) {
+        Entry entry = byId.get(id);
+        return entry == null ? null : read(entry);
+    }
+
+    // 🔹 Every journal record for one transaction (e.g. both legs of a transfer)
+    public synchronized List<AuditLog> findByTxnId(String txnId) {
+        List<AuditLog> list = new ArrayList<>();
+        for (Entry entry : byTxnId.getOrDefault(txnId, List.of())) {
+            list.add(read(entry));
+        }
+        return list;
+    }
+
+    // Journal order (oldest first); a record superseded by a later one with the same id is skipped
+    @Override
+    public synchronized List<AuditLog> findAll() {
+        List<AuditLog> list = new ArrayList<>();
+        for (Segment segment : segments) {
+            ByteBuffer buf = segment.buffer.duplicate();
+            int pos = 0;
+            while (pos < segment.writePosition) {
+                int length = buf.getInt(pos);
+                buf.position(pos + HEADER_SIZE);
+                AuditLog log = decode(buf);
+                Entry latest = byId.get(log.getId());
+                if (latest.segment == segment && latest.offset == pos) list.add(log);
+                pos += HEADER_SIZE + length;
+            }
+        }
+        return list;
+    }
+
+    // Filters on the in-memory index and only decodes the records that make the page
+    @Override
+    public synchronized AuditLogPage findByAccountId(String accountId, Instant from, Instant to, int limit, HistoryCursor after) {
+        List<Entry> matches = new ArrayList<>();
+        for (Entry entry : byAccountId.getOrDefault(accountId, List.of())) {
+            if (from != null && entry.createdAt.isBefore(from)) continue;
+            if (to != null && !entry.createdAt.isBefore(to)) continue;
+            if (after != null && !isOlder(entry, after)) continue;
+            matches.add(entry);
+        }
+        matches.sort(NEWEST_FIRST);
+
+        List<AuditLog> page = new ArrayList<>();
+        for (int i = 0; i < Math.min(limit, matches.size()); i++) {
+            page.add(read(matches.get(i)));
+        }
+        HistoryCursor next = matches.size() > limit ? HistoryCursor.after(page.get(limit - 1)) : null;
+        return new AuditLogPage(page, next);
+    }
+
+    // Push mapped pages to disk
+    public synchronized void flush() {
+        for (Segment segment : segments) {
+            segment.buffer.force();
+        }
+    }
+
+    // Stops forwarding (what is left is forwarded after the next open), then closes the segments and downstream
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            notifyAll();
+        }
+        if (forwarder != null) {
+            try {
+                forwarder.join(10_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            flush();
+            for (Segment segment : segments) {
+                closeChannel(segment);
+            }
+        }
+        if (downstream instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                logger.warn("⚠️ Error closing audit journal downstream {}", downstream.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    // ✅ Metrics
+    public synchronized int getSegmentCount() { return segments.size(); }
+    public synchronized int size() { return byId.size(); }
+    public long getForwardedCount() { return forwarded.get(); }
+    public long getForwardFailures() { return forwardFailures.get(); }
+
+    // ---- write path ----
+
+    private void append(AuditLog log) {
+        if (closed) throw new IllegalStateException("Audit journal is closed");
+
+        byte[] body = encode(log);
+        int recordSize = HEADER_SIZE + body.length;
+        if (recordSize > segmentSize) {
+            throw new IllegalArgumentException("Audit log " + log.getId() + " is larger than a journal segment");
+        }
+        if (current.writePosition + recordSize > segmentSize) {
+            if (segments.size() >= maxSegments) dropOldestSegment();
+            current = openSegment(current.index + 1);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(body);
+
+        // Body first, header last: a crash mid-append leaves a zero length, not a half-valid record
+        int pos = current.writePosition;
+        ByteBuffer buf = current.buffer;
+        buf.put(pos + HEADER_SIZE, body);
+        buf.putInt(pos + 4, (int) crc.getValue());
+        buf.putInt(pos, body.length);
+        current.writePosition = pos + recordSize;
+
+        index(log, new Entry(current, pos, log.getId(), log.getCreatedAt()));
+    }
+
+    private void index(AuditLog log, Entry entry) {
+        Entry previous = byId.put(log.getId(), entry);
+        if (previous != null) {
+            // A re-written id replaces the old record everywhere, as putItem would
+            removeEntry(byTxnId, previous.txnId, previous);
+            removeEntry(byAccountId, previous.accountId, previous);
+        }
+        entry.txnId = log.getTxnId();
+        entry.accountId = log.getAccountId();
+        entry.segment.entries.add(entry);
+        if (log.getTxnId() != null) byTxnId.computeIfAbsent(log.getTxnId(), k -> new ArrayList<>()).add(entry);
+        if (log.getAccountId() != null) byAccountId.computeIfAbsent(log.getAccountId(), k -> new ArrayList<>()).add(entry);
+    }
+
+    private static void removeEntry(Map<String, List<Entry>> index, String key, Entry entry) {
+        if (key == null) return;
+        List<Entry> list = index.get(key);
+        if (list == null) return;
+        list.remove(entry);
+        if (list.isEmpty()) index.remove(key);
+    }
+
+    // ---- retention ----
+
+    // Keeps the journal at maxSegments: the oldest segment goes, along with its index entries
+    private void dropOldestSegment() {
+        Segment oldest = segments.get(0);
+        if (downstream != null) {
+            forwardCursor();
+            if (oldest.index >= forwardedSegment) {
+                throw new RuntimeException("Error appending to audit journal: all " + segments.size()
+                        + " segments are still waiting to be forwarded downstream");
+            }
+        }
+        segments.remove(0);
+
+        Set<String> txnIds = new HashSet<>();
+        Set<String> accountIds = new HashSet<>();
+        for (Entry entry : oldest.entries) {
+            if (byId.get(entry.id) == entry) byId.remove(entry.id);
+            if (entry.txnId != null) txnIds.add(entry.txnId);
+            if (entry.accountId != null) accountIds.add(entry.accountId);
+        }
+        // One pass per key rather than one list removal per record
+        for (String txnId : txnIds) removeSegment(byTxnId, txnId, oldest);
+        for (String accountId : accountIds) removeSegment(byAccountId, accountId, oldest);
+
+        closeChannel(oldest);
+        try {
+            Files.deleteIfExists(oldest.file);
+        } catch (IOException e) {
+            logger.warn("⚠️ Could not delete audit journal segment {}: {}", oldest.file, e.getMessage());
+        }
+    }
+
+    private static void removeSegment(Map<String, List<Entry>> index, String key, Segment segment) {
+        List<Entry> list = index.get(key);
+        if (list == null) return;
+        list.removeIf(e -> e.segment == segment);
+        if (list.isEmpty()) index.remove(key);
+    }
+
+    private static void closeChannel(Segment segment) {
+        try {
+            segment.channel.close();
+        } catch (IOException ignored) {
+            // the mapping stays valid until it is garbage-collected
+        }
+    }
+
+    // ---- forwarding ----
+
+    private void forwardLoop() {
+        while (true) {
+            List<AuditLog> batch = new ArrayList<>();
+            int nextSegment;
+            int nextOffset;
+            synchronized (this) {
+                try {
+                    while (!closed && !hasUnforwarded()) wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (closed) return;
+
+                Segment segment = forwardCursor();
+                int offset = forwardedOffset;
+                while (batch.size() < FORWARD_BATCH_SIZE) {
+                    if (offset < segment.writePosition) {
+                        ByteBuffer buf = segment.buffer.duplicate();
+                        int length = buf.getInt(offset);
+                        buf.position(offset + HEADER_SIZE);
+                        batch.add(decode(buf));
+                        offset += HEADER_SIZE + length;
+                    } else if (segment != current) {
+                        segment = segments.get(segments.indexOf(segment) + 1);
+                        offset = 0;
+                    } else {
+                        break;
+                    }
+                }
+                nextSegment = segment.index;
+                nextOffset = offset;
+            }
+
+            // Outside the lock, so appends never wait on the downstream repository
+            try {
+                downstream.saveAll(batch);
+            } catch (RuntimeException e) {
+                forwardFailures.incrementAndGet();
+                logger.warn("⚠️ Forwarding {} audit logs from the journal failed, retrying in {} ms: {}",
+                        batch.size(), forwardRetryMillis, e.getMessage());
+                synchronized (this) {
+                    try {
+                        if (!closed) wait(forwardRetryMillis);
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                continue;
+            }
+            forwarded.addAndGet(batch.size());
+
+            synchronized (this) {
+                forwardedSegment = nextSegment;
+                forwardedOffset = nextOffset;
+                saveForwardedPosition();
+            }
+        }
+    }
+
+    private boolean hasUnforwarded() {
+        Segment segment = forwardCursor();
+        return forwardedOffset < segment.writePosition;
+    }
+
+    // Moves the forwarding cursor past segments it has finished and returns the segment it points into
+    private Segment forwardCursor() {
+        for (Segment segment : segments) {
+            if (segment.index < forwardedSegment) continue;
+            if (segment.index > forwardedSegment) {
+                forwardedSegment = segment.index;
+                forwardedOffset = 0;
+            }
+            if (segment == current || forwardedOffset < segment.writePosition) return segment;
+            forwardedSegment = segment.index + 1;
+            forwardedOffset = 0;
+        }
+        // The cursor is past every segment (e.g. segment files were removed by hand): start the current one again
+        forwardedSegment = current.index;
+        forwardedOffset = 0;
+        return current;
+    }
+
+    // Written after each forwarded batch; a stale position only means some records are forwarded twice
+    private void saveForwardedPosition() {
+        Path target = directory.resolve(FORWARDED_FILE);
+        Path tmp = directory.resolve(FORWARDED_FILE + ".tmp");
+        try {
+            Files.writeString(tmp, forwardedSegment + ":" + forwardedOffset);
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("⚠️ Could not save the audit journal forwarding position: {}", e.getMessage());
+        }
+    }
+
+    private void loadForwardedPosition() throws IOException {
+        Path file = directory.resolve(FORWARDED_FILE);
+        if (!Files.exists(file)) {
+            // Nothing forwarded yet: start from the oldest record on disk
+            forwardedSegment = segments.get(0).index;
+            forwardedOffset = 0;
+            return;
+        }
+        String[] parts = Files.readString(file).trim().split(":");
+        forwardedSegment = Integer.parseInt(parts[0]);
+        forwardedOffset = Integer.parseInt(parts[1]);
+    }
+
+    // ---- recovery ----
+
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing
+                    .filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                            && p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            int index = Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+            recoverSegment(file, index);
+        }
+        if (current == null) current = openSegment(0);
+        if (downstream != null) loadForwardedPosition();
+    }
+
+    // Re-reads complete records, truncates the file where they end, then maps it and indexes them
+    private void recoverSegment(Path file, int index) throws IOException {
+        List<AuditLog> logs = new ArrayList<>();
+        List<Integer> offsets = new ArrayList<>();
+        int end = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (end + HEADER_SIZE <= size) {
+                readFully(channel, header.clear(), end);
+                int length = header.getInt(0);
+                if (length <= 0 || end + HEADER_SIZE + (long) length > size) break;
+
+                byte[] body = new byte[length];
+                readFully(channel, ByteBuffer.wrap(body), end + HEADER_SIZE);
+                CRC32 crc = new CRC32();
+                crc.update(body);
+                if ((int) crc.getValue() != header.getInt(4)) break; // torn write
+
+                logs.add(decode(ByteBuffer.wrap(body)));
+                offsets.add(end);
+                end += HEADER_SIZE + length;
+            }
+            // Whatever follows the last complete record (a torn record, or older records written after it
+            // that reached disk first) must never be read back, so cut the file there
+            if (size > end) channel.truncate(end);
+        }
+
+        Segment segment = openSegment(index); // pre-allocates again, so the tail reads as zeros
+        segment.writePosition = end;
+        for (int i = 0; i < logs.size(); i++) {
+            AuditLog log = logs.get(i);
+            index(log, new Entry(segment, offsets.get(i), log.getId(), log.getCreatedAt()));
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buf, long position) throws IOException {
+        while (buf.hasRemaining()) {
+            int n = channel.read(buf, position + buf.position());
+            if (n < 0) throw new EOFException("Unexpected end of audit journal segment");
+        }
+    }
+
+    private Segment openSegment(int index) {
+        Path file = directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            if (raf.length() < segmentSize) raf.setLength(segmentSize); // pre-allocate
+            int size = (int) raf.length();
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            Segment segment = new Segment(index, file, channel, buffer, size);
+            segments.add(segment);
+            current = segment;
+            return segment;
+        } catch (IOException e) {
+            throw new RuntimeException("Error opening audit journal segment " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    // ---- encoding ----
+
+    private AuditLog read(Entry entry) {
+        ByteBuffer buf = entry.segment.buffer.duplicate();
+        buf.position(entry.offset + HEADER_SIZE);
+        return decode(buf);
+    }
+
+    // Strings as (short length, UTF-8), amounts as (scale, unscaled bytes), time as (epoch seconds, nanos)
+    static byte[] encode(AuditLog log) {
+        byte[][] strings = {
+                utf8(log.getId()), utf8(log.getTxnId()), utf8(log.getAccountId()),
+                utf8(log.getActor()), utf8(log.getAction())
+        };
+        byte[] before = log.getBeforeBalance().unscaledValue().toByteArray();
+        byte[] after = log.getAfterBalance().unscaledValue().toByteArray();
+
+        int size = 8 + 4 + 2 * (4 + 1);
+        for (byte[] s : strings) size += 2 + (s == null ? 0 : s.length);
+        size += before.length + after.length;
+
+        ByteBuffer buf = ByteBuffer.allocate(size);
+        for (byte[] s : strings) {
+            if (s == null) {
+                buf.putShort((short) -1);
+            } else {
+                buf.putShort((short) s.length);
+                buf.put(s);
+            }
+        }
+        putDecimal(buf, log.getBeforeBalance().scale(), before);
+        putDecimal(buf, log.getAfterBalance().scale(), after);
+        buf.putLong(log.getCreatedAt().getEpochSecond());
+        buf.putInt(log.getCreatedAt().getNano());
+        return buf.array();
+    }
+
+    static AuditLog decode(ByteBuffer buf) {
+        String id = getString(buf);
+        String txnId = getString(buf);
+        String accountId = getString(buf);
+        String actor = getString(buf);
+        String action = getString(buf);
+        BigDecimal before = getDecimal(buf);
+        BigDecimal after = getDecimal(buf);
+        Instant createdAt = Instant.ofEpochSecond(buf.getLong(), buf.getInt());
+        return new AuditLog(id, txnId, accountId, actor, action, before, after, createdAt);
+    }
+
+    private static byte[] utf8(String s) {
+        if (s == null) return null;
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) throw new IllegalArgumentException("Audit field too long for journal");
+        return bytes;
+    }
+
+    private static String getString(ByteBuffer buf) {
+        short length = buf.getShort();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void putDecimal(ByteBuffer buf, int scale, byte[] unscaled) {
+        buf.putInt(scale);
+        buf.put((byte) unscaled.length);
+        buf.put(unscaled);
+    }
+
+    private static BigDecimal getDecimal(ByteBuffer buf) {
+        int scale = buf.getInt();
+        byte[] unscaled = new byte[buf.get() & 0xFF];
+        buf.get(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    private static boolean isOlder(Entry entry, HistoryCursor cursor) {
+        int cmp = entry.createdAt.compareTo(cursor.getCreatedAt());
+        return cmp < 0 || (cmp == 0 && entry.id.compareTo(cursor.getId()) < 0);
+    }
+
+    private static final Comparator<Entry> NEWEST_FIRST =
+            Comparator.comparing((Entry e) -> e.createdAt).thenComparing(e -> e.id).reversed();
+
+    private static final class Segment {
+        final int index;
+        final Path file;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        final int size;
+        final List<Entry> entries = new ArrayList<>();
+        int writePosition;
+
+        Segment(int index, Path file, FileChannel channel, MappedByteBuffer buffer, int size) {
+            this.index = index;
+            this.file = file;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.size = size;
+        }
+    }
+
+    // Where a record lives, plus the fields needed to filter without decoding it
+    private static final class Entry {
+        final Segment segment;
+        final int offset;
+        final String id;
+        final Instant createdAt;
+        String txnId;
+        String accountId;
+
+        Entry(Segment segment, int offset, String id, Instant createdAt) {
+            this.segment = segment;
+            this.offset = offset;
+            this.id = id;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.banking.repository;
+
+import com.example.banking.model.LedgerEvent;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+
+public interface LedgerEventRepository {
+
+    // 🔹 Append events; the store assigns increasing sequence numbers
+    void appendAll(Collection<LedgerEvent> events);
+
+    // Streams one partition's events that are newer than their account's balance snapshot
+    // (every event for accounts without one), each account's in sequence order, without loading them all
+    void forEachAfterSnapshot(int partition, int partitions, Consumer<LedgerEvent> consumer);
+
+    long maxSequence();
+}
@@ -0,0 +1,29 @@
+package com.example.banking.repository;
+
+import com.example.banking.model.HistoryCursor;
+import com.example.banking.model.Posting;
+import com.example.banking.model.PostingPage;
+import com.example.banking.model.PostingTotals;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Double-entry postings, one row per account per transaction.
+ * Every query is a range scan of a single (account_id, created_at, ...) index.
+ * from (inclusive) and to (exclusive) are optional bounds.
+ */
+public interface PostingRepository {
+
+    void saveAll(Collection<Posting> postings);
+
+    // 🔹 One page of an account's postings, newest first, starting after the cursor (null = first page)
+    PostingPage findByAccountId(String accountId, Instant from, Instant to, int limit, HistoryCursor after);
+
+    // 🔹 Credits, debits and count over the period
+    PostingTotals totalsByAccountId(String accountId, Instant from, Instant to);
+
+    // 🔹 Sum of every posting before asOf (null = all of them)
+    BigDecimal balanceOf(String accountId, Instant asOf);
+}
@@ -1,14 +1,30 @@
 package com.example.banking.repository;
 
+import com.example.banking.model.HistoryCursor;
 import com.example.banking.model.Transaction;
+import com.example.banking.model.TransactionPage;
+
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 public interface TransactionRepository {
     Transaction save(Transaction txn);
 
+    // 🔹 Persist many rows in one round-trip
+    List<Transaction> saveAll(Collection<Transaction> txns);
+
     Transaction findById(String id);
 
     List<Transaction> findByAccountId(String accountId);
 
+    // 🔹 Newest `limit` SUCCESS transactions (filter and limit run in the database)
+    List<Transaction> findRecentSuccessfulByAccountId(String accountId, int limit);
+
+    // 🔹 One page of history, newest first, starting after the cursor (null = first page).
+    // from (inclusive) and to (exclusive) are optional date bounds.
+    TransactionPage findPageByAccountId(String accountId, HistoryCursor after, int pageSize,
+                                        Instant from, Instant to);
+
     List<Transaction> findAll();
 }
@@ -0,0 +1,10 @@
+package com.example.banking.repository;
+
+public interface WalCheckpointRepository {
+
+    // 🔹 Highest write-ahead log LSN already applied to the database (0 if none)
+    long loadAppliedLsn();
+
+    // Saved in the same unit of work as the batch it covers; never moves backwards
+    void saveAppliedLsn(long lsn);
+}
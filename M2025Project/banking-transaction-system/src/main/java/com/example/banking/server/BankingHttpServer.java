@@ -0,0 +1,484 @@
+package com.example.banking.server;
+
+import com.example.banking.exception.*;
+import com.example.banking.model.Account;
+import com.example.banking.model.Customer;
+import com.example.banking.model.HistoryCursor;
+import com.example.banking.model.Posting;
+import com.example.banking.model.PostingPage;
+import com.example.banking.model.PostingTotals;
+import com.example.banking.model.Transaction;
+import com.example.banking.model.TransactionPage;
+import com.example.banking.service.AccountService;
+import com.example.banking.service.AuthService;
+import com.example.banking.service.PostingService;
+import com.example.banking.service.TransactionService;
+import com.example.banking.utils.SessionStore;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local HTTP/JSON front end over AuthService, AccountService and TransactionService, so one JVM can
+ * serve many customers at once instead of the single console user of Main's menu loop.
+ * - Every request runs on its own virtual thread when the JVM has them (Java 21+), otherwise on a
+ *   fixed pool of server.threads platform threads.
+ * - Nothing is kept per connection: POST /api/login returns a bearer token and each later request
+ *   is resolved against the SessionStore, so handlers share no mutable state.
+ * - Errors map to status codes the way ExceptionHandler maps them to console messages.
+ *
+ * Endpoints (JSON bodies, Authorization: Bearer <token> unless noted):
+ *   POST   /api/register                    {fullName, email, password, phone}   (no token)
+ *   POST   /api/login                       {email, password}                    (no token)
+ *   POST   /api/logout
+ *   GET    /api/accounts
+ *   POST   /api/accounts                    {type}
+ *   GET    /api/accounts/{number}/balance   [?asOf=ISO-8601 instant]
+ *   GET    /api/accounts/{number}/transactions [?limit=20&cursor=...]
+ *   GET    /api/accounts/{number}/postings  [?from=&to=&limit=20&cursor=...]    (postings enabled)
+ *   GET    /api/accounts/{number}/postings/totals [?from=&to=]               (postings enabled)
+ *   DELETE /api/accounts/{number}
+ *   POST   /api/deposit                     {accountNumber, amount}
+ *   POST   /api/withdraw                    {accountNumber, amount}
+ *   POST   /api/transfer                    {fromAccountNumber, toAccountNumber, amount}
+ */
+public class BankingHttpServer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(BankingHttpServer.class);
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
+    private final AuthService authService;
+    private final AccountService accountService;
+    private final TransactionService transactionService;
+    private final SessionStore sessions;
+    private volatile PostingService postingService; // null = postings endpoints answer 404
+
+    private HttpServer server;
+    private ExecutorService requestExecutor;
+    private ScheduledExecutorService sweeper;
+
+    // 🔹 Metrics
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong clientErrors = new AtomicLong();
+    private final AtomicLong serverErrors = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public BankingHttpServer(AuthService authService, AccountService accountService,
+                             TransactionService transactionService, SessionStore sessions) {
+        this.authService = authService;
+        this.accountService = accountService;
+        this.transactionService = transactionService;
+        this.sessions = sessions;
+    }
+
+    public void enablePostings(PostingService postingService) {
+        this.postingService = postingService;
+    }
+
+    // ✅ Bind and start serving; returns the bound port (useful with port 0)
+    public synchronized int start(String host, int port, int platformThreads) {
+        if (server != null) throw new IllegalStateException("Server already started");
+        try {
+            server = HttpServer.create(new InetSocketAddress(host, port), 1024);
+        } catch (IOException e) {
+            throw new RuntimeException("Error starting HTTP server: " + e.getMessage(), e);
+        }
+        requestExecutor = newRequestExecutor(platformThreads);
+        server.setExecutor(requestExecutor);
+        server.createContext("/api/", this::handle);
+        server.start();
+
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "session-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        sweeper.scheduleAtFixedRate(sessions::sweep, 1, 1, TimeUnit.MINUTES);
+
+        logger.info("✅ Banking API listening on http://{}:{}/api/", host, getPort());
+        return getPort();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        stop(2); // let in-flight requests finish for up to 2 s
+    }
+
+    synchronized void stop(int delaySeconds) {
+        if (server == null) return;
+        server.stop(delaySeconds);
+        requestExecutor.shutdown();
+        sweeper.shutdownNow();
+        server = null;
+        logger.info("🔹 Banking API stopped: {}", stats());
+    }
+
+    // ✅ Metrics
+    public long getRequestCount() { return requests.get(); }
+    public long getClientErrorCount() { return clientErrors.get(); }
+    public long getServerErrorCount() { return serverErrors.get(); }
+    public int getInFlight() { return inFlight.get(); }
+
+    public String stats() {
+        return String.format("requests=%d clientErrors=%d serverErrors=%d inFlight=%d sessions=%d",
+                getRequestCount(), getClientErrorCount(), getServerErrorCount(), getInFlight(), sessions.size());
+    }
+
+    // Virtual threads are a Java 21 API and the build targets 17, so look the factory up at runtime
+    static ExecutorService newRequestExecutor(int platformThreads) {
+        try {
+            ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            logger.info("🔹 Serving requests on virtual threads");
+            return executor;
+        } catch (ReflectiveOperationException e) {
+            logger.info("🔹 Virtual threads unavailable; serving requests on {} platform threads", platformThreads);
+            AtomicInteger ids = new AtomicInteger();
+            return Executors.newFixedThreadPool(Math.max(1, platformThreads), r -> {
+                Thread t = new Thread(r, "http-worker-" + ids.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    // ---- request handling ----
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        inFlight.incrementAndGet();
+        try {
+            Object body = route(exchange.getRequestMethod(), exchange.getRequestURI().getPath(), exchange);
+            send(exchange, 200, body);
+        } catch (Exception e) {
+            int status = statusOf(e);
+            if (status >= 500) {
+                serverErrors.incrementAndGet();
+                logger.error("❌ {} {} failed", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+            } else {
+                clientErrors.incrementAndGet();
+            }
+            String message = (status >= 500 && !(e instanceof AuditQueueFullException))
+                    ? "Unexpected error" : e.getMessage();
+            send(exchange, status, Map.of("error", message == null ? e.getClass().getSimpleName() : message));
+        } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    private Object route(String method, String path, HttpExchange exchange) throws IOException {
+        String[] parts = path.substring("/api/".length()).split("/");
+
+        switch (method + " " + parts[0]) {
+            case "POST register": {
+                Map<String, String> in = readBody(exchange);
+                Customer customer = authService.register(required(in, "fullName"), required(in, "email"),
+                        required(in, "password"), required(in, "phone"));
+                return customerJson(customer);
+            }
+            case "POST login": {
+                Map<String, String> in = readBody(exchange);
+                Customer customer = authService.login(required(in, "email"), required(in, "password"));
+                Map<String, Object> out = customerJson(customer);
+                out.put("token", sessions.start(customer));
+                return out;
+            }
+            case "POST logout": {
+                authenticate(exchange);
+                sessions.end(bearerToken(exchange));
+                return Map.of("loggedOut", true);
+            }
+            case "POST deposit": {
+                String customerId = authenticate(exchange);
+                Map<String, String> in = readBody(exchange);
+                return transactionJson(transactionService.deposit(required(in, "accountNumber"),
+                        amount(in), customerId));
+            }
+            case "POST withdraw": {
+                String customerId = authenticate(exchange);
+                Map<String, String> in = readBody(exchange);
+                return transactionJson(transactionService.withdraw(required(in, "accountNumber"),
+                        amount(in), customerId));
+            }
+            case "POST transfer": {
+                String customerId = authenticate(exchange);
+                Map<String, String> in = readBody(exchange);
+                return transactionJson(transactionService.transfer(required(in, "fromAccountNumber"),
+                        required(in, "toAccountNumber"), amount(in), customerId));
+            }
+            default:
+                break;
+        }
+
+        if (!parts[0].equals("accounts")) throw new NotFound("No such endpoint: " + method + " " + path);
+        String customerId = authenticate(exchange);
+
+        if (parts.length == 1) {
+            if (method.equals("GET")) {
+                List<Object> accounts = new ArrayList<>();
+                for (Account acc : accountService.getCustomerAccounts(customerId)) accounts.add(accountJson(acc));
+                return Map.of("accounts", accounts);
+            }
+            if (method.equals("POST")) {
+                Map<String, String> in = readBody(exchange);
+                return accountJson(accountService.createAccount(customerId, BigDecimal.ZERO, required(in, "type")));
+            }
+        } else if (parts.length == 2 && method.equals("DELETE")) {
+            accountService.closeAccount(parts[1], customerId);
+            return Map.of("accountNumber", parts[1], "status", "CLOSED");
+        } else if (parts.length == 3 && method.equals("GET")) {
+            Map<String, String> query = query(exchange);
+            String number = parts[1];
+            if (parts[2].equals("balance")) {
+                String asOf = query.get("asOf");
+                BigDecimal balance = (asOf == null)
+                        ? accountService.viewBalance(number, customerId)
+                        : accountService.balanceAsOf(number, customerId, parseInstant(asOf));
+                Map<String, Object> out = new LinkedHashMap<>();
+                out.put("accountNumber", number);
+                out.put("balance", balance);
+                if (asOf != null) out.put("asOf", asOf);
+                return out;
+            }
+            if (parts[2].equals("transactions")) {
+                int limit = query.containsKey("limit") ? parseInt(query.get("limit"), "limit") : DEFAULT_PAGE_SIZE;
+                TransactionPage page = transactionService.getHistoryPage(number, customerId,
+                        decodeCursor(query.get("cursor")), limit, null, null);
+                return pageJson(page);
+            }
+            if (parts[2].equals("postings")) {
+                int limit = query.containsKey("limit") ? parseInt(query.get("limit"), "limit") : DEFAULT_PAGE_SIZE;
+                PostingPage page = postings().getPostings(number, customerId, instantParam(query, "from"),
+                        instantParam(query, "to"), limit, decodeCursor(query.get("cursor")));
+                return postingPageJson(page);
+            }
+        } else if (parts.length == 4 && method.equals("GET") && parts[2].equals("postings")
+                && parts[3].equals("totals")) {
+            Map<String, String> query = query(exchange);
+            Instant from = instantParam(query, "from");
+            Instant to = instantParam(query, "to");
+            PostingTotals totals = postings().getTotals(parts[1], customerId, from, to);
+            Map<String, Object> out = new LinkedHashMap<>();
+            out.put("accountNumber", parts[1]);
+            out.put("credits", totals.getCredits());
+            out.put("debits", totals.getDebits());
+            out.put("net", totals.getNet());
+            out.put("count", totals.getCount());
+            out.put("postedBalance", postings().getComputedBalance(parts[1], customerId, to));
+            return out;
+        }
+        throw new NotFound("No such endpoint: " + method + " " + path);
+    }
+
+    // ---- sessions ----
+
+    private String authenticate(HttpExchange exchange) {
+        String customerId = sessions.resolve(bearerToken(exchange));
+        if (customerId == null) throw new InvalidCredentialsException("Not logged in or session expired");
+        return customerId;
+    }
+
+    private static String bearerToken(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.regionMatches(true, 0, "Bearer ", 0, 7)) return null;
+        return header.substring(7).trim();
+    }
+
+    // ---- JSON in/out ----
+
+    private static Map<String, String> readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (bytes.length > MAX_BODY_BYTES) throw new IllegalArgumentException("Request body too large");
+            return Json.parseObject(new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = Json.write(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, Object> customerJson(Customer customer) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("customerId", customer.getId());
+        out.put("fullName", customer.getFullName());
+        out.put("email", customer.getEmail());
+        return out;
+    }
+
+    private static Map<String, Object> accountJson(Account acc) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("accountNumber", acc.getNumber());
+        out.put("type", acc.getType());
+        out.put("status", acc.getStatus());
+        out.put("balance", acc.getBalance());
+        return out;
+    }
+
+    private Map<String, Object> transactionJson(Transaction txn) {
+        List<String> ids = new ArrayList<>(2);
+        if (txn.getFromAccountId() != null) ids.add(txn.getFromAccountId());
+        if (txn.getToAccountId() != null) ids.add(txn.getToAccountId());
+        return transactionJson(txn, accountService.getAccountNumbersByIds(ids));
+    }
+
+    private static Map<String, Object> transactionJson(Transaction txn, Map<String, String> numbers) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("transactionId", txn.getId());
+        out.put("type", txn.getType());
+        out.put("status", txn.getStatus());
+        out.put("amount", txn.getAmount());
+        out.put("fromAccountNumber", txn.getFromAccountId() == null ? null
+                : numbers.getOrDefault(txn.getFromAccountId(), txn.getFromAccountId()));
+        out.put("toAccountNumber", txn.getToAccountId() == null ? null
+                : numbers.getOrDefault(txn.getToAccountId(), txn.getToAccountId()));
+        out.put("createdAt", txn.getCreatedAt());
+        return out;
+    }
+
+    private static Map<String, Object> pageJson(TransactionPage page) {
+        List<Object> items = new ArrayList<>(page.getItems().size());
+        for (Transaction txn : page.getItems()) items.add(transactionJson(txn, page.getAccountNumbers()));
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("transactions", items);
+        out.put("nextCursor", encodeCursor(page.getNextCursor()));
+        return out;
+    }
+
+    private PostingService postings() {
+        PostingService service = postingService;
+        if (service == null) throw new NotFound("Postings are not enabled");
+        return service;
+    }
+
+    private static Map<String, Object> postingPageJson(PostingPage page) {
+        List<Object> items = new ArrayList<>(page.getItems().size());
+        for (Posting posting : page.getItems()) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("postingId", posting.getId());
+            item.put("transactionId", posting.getTxnId());
+            item.put("amount", posting.getAmount());
+            item.put("createdAt", posting.getCreatedAt());
+            items.add(item);
+        }
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("postings", items);
+        out.put("nextCursor", encodeCursor(page.getNextCursor()));
+        return out;
+    }
+
+    // Cursor on the wire: "<createdAt ISO instant>~<transaction or posting id>"
+    static String encodeCursor(HistoryCursor cursor) {
+        return cursor == null ? null : cursor.getCreatedAt() + "~" + cursor.getId();
+    }
+
+    static HistoryCursor decodeCursor(String text) {
+        if (text == null || text.isEmpty()) return null;
+        int sep = text.indexOf('~');
+        if (sep < 0) throw new IllegalArgumentException("Invalid cursor");
+        return new HistoryCursor(parseInstant(text.substring(0, sep)), text.substring(sep + 1));
+    }
+
+    // ---- parameters ----
+
+    private static String required(Map<String, String> fields, String name) {
+        String value = fields.get(name);
+        if (value == null || value.isBlank()) throw new IllegalArgumentException("Missing field: " + name);
+        return value;
+    }
+
+    private static BigDecimal amount(Map<String, String> fields) {
+        try {
+            return new BigDecimal(required(fields, "amount"));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("amount must be a number");
+        }
+    }
+
+    private static int parseInt(String value, String name) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be an integer");
+        }
+    }
+
+    private static Instant parseInstant(String value) {
+        try {
+            return Instant.parse(value);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid instant (expected ISO-8601, e.g. 2025-01-31T10:15:30Z): " + value);
+        }
+    }
+
+    private static Instant instantParam(Map<String, String> query, String name) {
+        String value = query.get(name);
+        return value == null || value.isEmpty() ? null : parseInstant(value);
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null) return params;
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq <= 0) continue;
+            params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    // ---- errors ----
+
+    static int statusOf(Exception e) {
+        // The service wraps a refused movement (insufficient funds, bad amount...): the cause decides
+        if (e instanceof TransactionFailedException) {
+            return e.getCause() instanceof Exception cause ? statusOf(cause) : 409;
+        }
+        if (e instanceof NotFound || e instanceof AccountNotFoundException
+                || e instanceof CustomerNotFoundException) return 404;
+        if (e instanceof InvalidCredentialsException) return 401;
+        if (e instanceof UnauthorizedAccessException) return 403;
+        if (e instanceof EmailAlreadyRegisteredException || e instanceof AccountAlreadyExistsException
+                || e instanceof AccountClosedException || e instanceof InsufficientFundsException) return 409;
+        if (e instanceof NegativeAmountException || e instanceof InvalidAccountTypeException
+                || e instanceof IllegalArgumentException) return 400;
+        if (e instanceof AuditQueueFullException || e instanceof EngineBusyException) return 503;
+        return 500;
+    }
+
+    private static final class NotFound extends RuntimeException {
+        NotFound(String message) {
+            super(message);
+        }
+    }
+}
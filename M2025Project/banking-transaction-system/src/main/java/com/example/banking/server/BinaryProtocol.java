@@ -0,0 +1,217 @@
+package com.example.banking.server;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Wire format of the terminal (ATM/POS) protocol. Every frame is [u16 length][body], big-endian:
+ *   request  body: [i32 requestId][u8 op][fields...]
+ *   response body: [i32 requestId][u8 op][u8 status][payload...]
+ * Fields are strings as [u8 length][UTF-8] and amounts as [i64 unscaled][i8 scale].
+ * Request fields per op: LOGIN email,password · BALANCE account · DEPOSIT/WITHDRAW account,amount ·
+ * TRANSFER from,to,amount. OK payloads: LOGIN customerId · BALANCE amount · money ops txnId,txnStatus.
+ * Any other status carries one string: the error message.
+ * Responses on a connection come back in request order; requestId lets clients match them anyway.
+ */
+public final class BinaryProtocol {
+
+    public static final int MAX_FRAME = 1024; // body bytes; the largest legal request is well under this
+
+    // Operations
+    public static final byte LOGIN = 1;
+    public static final byte BALANCE = 2;
+    public static final byte DEPOSIT = 3;
+    public static final byte WITHDRAW = 4;
+    public static final byte TRANSFER = 5;
+
+    // Response status codes
+    public static final byte OK = 0;
+    public static final byte BAD_REQUEST = 1;
+    public static final byte UNAUTHENTICATED = 2;
+    public static final byte FORBIDDEN = 3;
+    public static final byte NOT_FOUND = 4;
+    public static final byte CONFLICT = 5;
+    public static final byte BUSY = 6;
+    public static final byte ERROR = 7;
+
+    private BinaryProtocol() {}
+
+    // Same classes as the HTTP API's status codes
+    static byte statusOf(Exception e) {
+        switch (BankingHttpServer.statusOf(e)) {
+            case 400: return BAD_REQUEST;
+            case 401: return UNAUTHENTICATED;
+            case 403: return FORBIDDEN;
+            case 404: return NOT_FOUND;
+            case 409: return CONFLICT;
+            case 503: return BUSY;
+            default: return ERROR;
+        }
+    }
+
+    // ---- requests ----
+
+    /** A decoded request; invalid frames decode to a request carrying only the parse error. */
+    static final class Request {
+        final int requestId;
+        final byte op;
+        final String account;   // BALANCE/DEPOSIT/WITHDRAW account, TRANSFER source, LOGIN email
+        final String other;     // TRANSFER destination, LOGIN password
+        final BigDecimal amount;
+        final String invalid;   // parse error, or null
+
+        Request(int requestId, byte op, String account, String other, BigDecimal amount, String invalid) {
+            this.requestId = requestId;
+            this.op = op;
+            this.account = account;
+            this.other = other;
+            this.amount = amount;
+            this.invalid = invalid;
+        }
+    }
+
+    static ByteBuffer encodeRequest(int requestId, byte op, String first, String second, BigDecimal amount) {
+        ByteBuffer buf = ByteBuffer.allocate(2 + MAX_FRAME);
+        buf.position(2);
+        buf.putInt(requestId).put(op);
+        switch (op) {
+            case LOGIN -> { putString(buf, first); putString(buf, second); }
+            case BALANCE -> putString(buf, first);
+            case DEPOSIT, WITHDRAW -> { putString(buf, first); putAmount(buf, amount); }
+            case TRANSFER -> { putString(buf, first); putString(buf, second); putAmount(buf, amount); }
+            default -> throw new IllegalArgumentException("Unknown op: " + op);
+        }
+        return finish(buf);
+    }
+
+    // Reads one request body of `length` bytes at the buffer's position
+    static Request decodeRequest(ByteBuffer buf, int length) {
+        int end = buf.position() + length;
+        int requestId = buf.getInt();
+        byte op = buf.get();
+        try {
+            Request request = switch (op) {
+                case LOGIN -> new Request(requestId, op, getString(buf), getString(buf), null, null);
+                case BALANCE -> new Request(requestId, op, getString(buf), null, null, null);
+                case DEPOSIT, WITHDRAW -> new Request(requestId, op, getString(buf), null, getAmount(buf), null);
+                case TRANSFER -> new Request(requestId, op, getString(buf), getString(buf), getAmount(buf), null);
+                default -> new Request(requestId, op, null, null, null, "Unknown op: " + op);
+            };
+            if (buf.position() != end) return new Request(requestId, op, null, null, null, "Malformed frame");
+            return request;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            return new Request(requestId, op, null, null, null, "Malformed frame");
+        }
+    }
+
+    // ---- responses ----
+
+    /** A decoded response (client side). */
+    public static final class Response {
+        private final int requestId;
+        private final byte op;
+        private final byte status;
+        private final String text;       // customerId, txnId or error message
+        private final String txnStatus;
+        private final BigDecimal amount;
+
+        Response(int requestId, byte op, byte status, String text, String txnStatus, BigDecimal amount) {
+            this.requestId = requestId;
+            this.op = op;
+            this.status = status;
+            this.text = text;
+            this.txnStatus = txnStatus;
+            this.amount = amount;
+        }
+
+        public int getRequestId() { return requestId; }
+        public byte getOp() { return op; }
+        public byte getStatus() { return status; }
+        public boolean isOk() { return status == OK; }
+        public String getCustomerId() { return op == LOGIN && isOk() ? text : null; }
+        public String getTransactionId() { return op >= DEPOSIT && isOk() ? text : null; }
+        public String getTransactionStatus() { return txnStatus; }
+        public BigDecimal getBalance() { return amount; }
+        public String getError() { return isOk() ? null : text; }
+    }
+
+    static ByteBuffer encodeOk(int requestId, byte op, String text, String txnStatus, BigDecimal amount) {
+        ByteBuffer buf = ByteBuffer.allocate(2 + 6 + 2 * 256); // header + at most two strings
+        buf.position(2);
+        buf.putInt(requestId).put(op).put(OK);
+        switch (op) {
+            case LOGIN -> putString(buf, text);
+            case BALANCE -> putAmount(buf, amount);
+            default -> { putString(buf, text); putString(buf, txnStatus); }
+        }
+        return finish(buf);
+    }
+
+    static ByteBuffer encodeError(int requestId, byte op, byte status, String message) {
+        ByteBuffer buf = ByteBuffer.allocate(2 + 6 + 256);
+        buf.position(2);
+        buf.putInt(requestId).put(op).put(status);
+        putString(buf, truncate(message == null ? "Error" : message));
+        return finish(buf);
+    }
+
+    static Response decodeResponse(ByteBuffer buf) {
+        int requestId = buf.getInt();
+        byte op = buf.get();
+        byte status = buf.get();
+        if (status != OK) return new Response(requestId, op, status, getString(buf), null, null);
+        return switch (op) {
+            case LOGIN -> new Response(requestId, op, status, getString(buf), null, null);
+            case BALANCE -> new Response(requestId, op, status, null, null, getAmount(buf));
+            default -> new Response(requestId, op, status, getString(buf), getString(buf), null);
+        };
+    }
+
+    // ---- fields ----
+
+    // Writes the length prefix and flips the buffer for sending
+    private static ByteBuffer finish(ByteBuffer buf) {
+        buf.putShort(0, (short) (buf.position() - 2));
+        buf.flip();
+        return buf;
+    }
+
+    private static void putString(ByteBuffer buf, String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 255) throw new IllegalArgumentException("Field too long: " + s);
+        buf.put((byte) bytes.length).put(bytes);
+    }
+
+    private static String getString(ByteBuffer buf) {
+        byte[] bytes = new byte[buf.get() & 0xFF];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void putAmount(ByteBuffer buf, BigDecimal amount) {
+        if (amount.scale() < Byte.MIN_VALUE || amount.scale() > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Amount scale out of range: " + amount);
+        }
+        try {
+            buf.putLong(amount.unscaledValue().longValueExact()).put((byte) amount.scale());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount out of range: " + amount);
+        }
+    }
+
+    private static BigDecimal getAmount(ByteBuffer buf) {
+        long unscaled = buf.getLong();
+        return new BigDecimal(BigInteger.valueOf(unscaled), buf.get());
+    }
+
+    // Cuts to at most 255 UTF-8 bytes without splitting a character
+    private static String truncate(String s) {
+        if (s.getBytes(StandardCharsets.UTF_8).length <= 255) return s;
+        int end = Math.min(s.length(), 255);
+        while (s.substring(0, end).getBytes(StandardCharsets.UTF_8).length > 255) end--;
+        return s.substring(0, end);
+    }
+}
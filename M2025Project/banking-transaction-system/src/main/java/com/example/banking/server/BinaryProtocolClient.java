@@ -0,0 +1,100 @@
+package com.example.banking.server;
+
+import com.example.banking.server.BinaryProtocol.Response;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Blocking terminal-side client for BinaryProtocol with pipelining.
+ * - send*() only buffers the frame and returns its request id; flush() (or receive()) puts
+ *   everything buffered on the wire in one write.
+ * - receive() returns the next response; responses arrive in the order requests were sent.
+ * Not thread-safe: one client per terminal/thread.
+ */
+public class BinaryProtocolClient implements AutoCloseable {
+
+    private final SocketChannel channel;
+    private final ByteBuffer out = ByteBuffer.allocate(64 * 1024);
+    private final ByteBuffer in = ByteBuffer.allocate(64 * 1024);
+    private int nextRequestId = 1;
+
+    public BinaryProtocolClient(String host, int port) throws IOException {
+        this.channel = SocketChannel.open(new InetSocketAddress(host, port));
+        this.channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        this.in.flip(); // starts empty
+    }
+
+    public int sendLogin(String email, String password) throws IOException {
+        return send(BinaryProtocol.LOGIN, email, password, null);
+    }
+
+    public int sendBalance(String accountNumber) throws IOException {
+        return send(BinaryProtocol.BALANCE, accountNumber, null, null);
+    }
+
+    public int sendDeposit(String accountNumber, BigDecimal amount) throws IOException {
+        return send(BinaryProtocol.DEPOSIT, accountNumber, null, amount);
+    }
+
+    public int sendWithdraw(String accountNumber, BigDecimal amount) throws IOException {
+        return send(BinaryProtocol.WITHDRAW, accountNumber, null, amount);
+    }
+
+    public int sendTransfer(String fromAccountNumber, String toAccountNumber, BigDecimal amount) throws IOException {
+        return send(BinaryProtocol.TRANSFER, fromAccountNumber, toAccountNumber, amount);
+    }
+
+    // ✅ Send one request and wait for its answer
+    public Response login(String email, String password) throws IOException {
+        sendLogin(email, password);
+        return receive();
+    }
+
+    private int send(byte op, String first, String second, BigDecimal amount) throws IOException {
+        int requestId = nextRequestId++;
+        ByteBuffer frame = BinaryProtocol.encodeRequest(requestId, op, first, second, amount);
+        if (out.remaining() < frame.remaining()) flush();
+        out.put(frame);
+        return requestId;
+    }
+
+    public void flush() throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    // Next response in request order; flushes anything still buffered first
+    public Response receive() throws IOException {
+        if (out.position() > 0) flush();
+        while (true) {
+            if (in.remaining() >= 2) {
+                int length = in.getShort(in.position()) & 0xFFFF;
+                if (in.remaining() >= 2 + length) {
+                    in.position(in.position() + 2);
+                    int end = in.position() + length;
+                    Response response = BinaryProtocol.decodeResponse(in);
+                    in.position(end);
+                    return response;
+                }
+            }
+            in.compact();
+            int n = channel.read(in);
+            in.flip();
+            if (n < 0) throw new EOFException("Server closed the connection");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
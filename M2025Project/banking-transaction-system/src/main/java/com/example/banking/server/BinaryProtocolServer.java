@@ -0,0 +1,367 @@
+package com.example.banking.server;
+
+import com.example.banking.model.Customer;
+import com.example.banking.model.Transaction;
+import com.example.banking.service.AccountService;
+import com.example.banking.service.AuthService;
+import com.example.banking.service.TransactionService;
+import com.example.banking.server.BinaryProtocol.Request;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TCP front end for ATM/POS terminals speaking BinaryProtocol.
+ * - One selector thread accepts, reads and writes for every connection. It decodes frames from a
+ *   single shared read buffer; only a partial trailing frame is copied per connection, so idle
+ *   terminals cost a socket and a small object rather than a buffer each.
+ * - Decoded requests go to a worker (virtual threads when available, see BankingHttpServer).
+ *   Requests on one connection run one at a time in arrival order, so a terminal can pipeline
+ *   LOGIN followed by money movements without waiting, and responses come back in order.
+ * - A connection with maxPipeline requests outstanding stops being read until its backlog halves.
+ * - The connection is bound to the customer that logged in on it; there is no per-request token.
+ */
+public class BinaryProtocolServer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(BinaryProtocolServer.class);
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_GATHER = 64;
+
+    private final AuthService authService;
+    private final AccountService accountService;
+    private final TransactionService transactionService;
+    private final int maxPipeline;
+
+    private Selector selector;
+    private ServerSocketChannel acceptor;
+    private ExecutorService workers;
+    private Thread eventLoop;
+    private volatile boolean running;
+
+    // Connections with responses to write or reads to resume; handed from workers to the selector thread
+    private final Queue<Connection> ready = new ConcurrentLinkedQueue<>();
+
+    // 🔹 Metrics
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong protocolErrors = new AtomicLong();
+    private final AtomicLong readPauses = new AtomicLong();
+
+    public BinaryProtocolServer(AuthService authService, AccountService accountService,
+                                TransactionService transactionService, int maxPipeline) {
+        if (maxPipeline < 2) throw new IllegalArgumentException("maxPipeline must be at least 2");
+        this.authService = authService;
+        this.accountService = accountService;
+        this.transactionService = transactionService;
+        this.maxPipeline = maxPipeline;
+    }
+
+    // ✅ Bind and start the event loop; returns the bound port (useful with port 0)
+    public synchronized int start(String host, int port, int platformThreads) {
+        if (running) throw new IllegalStateException("Server already started");
+        try {
+            selector = Selector.open();
+            acceptor = ServerSocketChannel.open();
+            acceptor.bind(new InetSocketAddress(host, port), 4096);
+            acceptor.configureBlocking(false);
+            acceptor.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            throw new RuntimeException("Error starting binary protocol server: " + e.getMessage(), e);
+        }
+        workers = BankingHttpServer.newRequestExecutor(platformThreads);
+        running = true;
+        eventLoop = new Thread(this::eventLoop, "terminal-selector");
+        eventLoop.setDaemon(true);
+        eventLoop.start();
+
+        logger.info("✅ Terminal protocol listening on {}:{}", host, getPort());
+        return getPort();
+    }
+
+    public int getPort() {
+        return acceptor.socket().getLocalPort();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!running) return;
+        running = false;
+        selector.wakeup();
+        try {
+            eventLoop.join(5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workers.shutdown();
+        try {
+            workers.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.info("🔹 Terminal protocol stopped: {}", stats());
+    }
+
+    // ✅ Metrics
+    public int getConnectionCount() { return connections.get(); }
+    public long getRequestCount() { return requests.get(); }
+    public long getErrorCount() { return errors.get(); }
+    public long getProtocolErrorCount() { return protocolErrors.get(); }
+    public long getReadPauseCount() { return readPauses.get(); }
+
+    public String stats() {
+        return String.format("connections=%d requests=%d errors=%d protocolErrors=%d readPauses=%d",
+                getConnectionCount(), getRequestCount(), getErrorCount(), getProtocolErrorCount(), getReadPauseCount());
+    }
+
+    // ---- selector thread ----
+
+    private void eventLoop() {
+        ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+        ByteBuffer[] gather = new ByteBuffer[MAX_GATHER];
+        while (running) {
+            try {
+                selector.select(1_000);
+                Connection conn;
+                while ((conn = ready.poll()) != null) {
+                    conn.signalled.set(false);
+                    if (!conn.key.isValid()) continue;
+                    flush(conn, gather);
+                    if (conn.readPaused && !conn.hangUp && conn.outstanding.get() <= maxPipeline / 2) {
+                        conn.readPaused = false;
+                        conn.key.interestOps(conn.key.interestOps() | SelectionKey.OP_READ);
+                    }
+                }
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Connection c = (Connection) key.attachment();
+                    if (key.isReadable()) read(c, readBuffer);
+                    if (key.isValid() && key.isWritable()) flush(c, gather);
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.error("❌ Terminal selector loop error", e);
+            }
+        }
+
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof Connection c) close(c);
+        }
+        try {
+            acceptor.close();
+            selector.close();
+        } catch (IOException ignored) {}
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = acceptor.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            Connection conn = new Connection(channel);
+            conn.key = channel.register(selector, SelectionKey.OP_READ, conn);
+            connections.incrementAndGet();
+        }
+    }
+
+    private void read(Connection conn, ByteBuffer in) {
+        in.clear();
+        if (conn.partial != null) {
+            in.put(conn.partial);
+            conn.partial = null;
+        }
+        int n;
+        try {
+            n = conn.channel.read(in);
+        } catch (IOException e) {
+            n = -1; // reset by peer
+        }
+        if (n < 0) {
+            close(conn);
+            return;
+        }
+        in.flip();
+
+        int decoded = 0;
+        while (in.remaining() >= 2) {
+            int length = in.getShort(in.position()) & 0xFFFF;
+            if (length < 5 || length > BinaryProtocol.MAX_FRAME) {
+                // Cannot resynchronise a length-prefixed stream: answer what came before, then hang up
+                protocolErrors.incrementAndGet();
+                conn.hangUp = true;
+                conn.key.interestOps(conn.key.interestOps() & ~SelectionKey.OP_READ);
+                in.position(in.limit());
+                break;
+            }
+            if (in.remaining() < 2 + length) break;
+            in.position(in.position() + 2);
+            int end = in.position() + length;
+            conn.requests.add(BinaryProtocol.decodeRequest(in, length));
+            in.position(end);
+            decoded++;
+        }
+        if (in.hasRemaining()) {
+            conn.partial = new byte[in.remaining()];
+            in.get(conn.partial);
+        }
+        if (decoded == 0) {
+            if (conn.hangUp && conn.outstanding.get() == 0 && conn.outbound.isEmpty()) close(conn);
+            return;
+        }
+
+        requests.addAndGet(decoded);
+        if (conn.outstanding.addAndGet(decoded) >= maxPipeline && !conn.hangUp) {
+            conn.readPaused = true;
+            readPauses.incrementAndGet();
+            conn.key.interestOps(conn.key.interestOps() & ~SelectionKey.OP_READ);
+        }
+        if (conn.draining.compareAndSet(false, true)) {
+            workers.execute(() -> drain(conn));
+        }
+    }
+
+    // Gathering write of queued responses; keeps OP_WRITE only while the socket is full
+    private void flush(Connection conn, ByteBuffer[] gather) {
+        try {
+            while (true) {
+                int count = 0;
+                for (ByteBuffer buf : conn.outbound) {
+                    if (count == gather.length) break;
+                    gather[count++] = buf;
+                }
+                if (count == 0) break;
+                conn.channel.write(gather, 0, count);
+                int done = 0;
+                while (done < count && !gather[done].hasRemaining()) done++;
+                for (int i = 0; i < done; i++) conn.outbound.poll();
+                Arrays.fill(gather, 0, count, null);
+                if (done < count) {
+                    conn.key.interestOps(conn.key.interestOps() | SelectionKey.OP_WRITE);
+                    return;
+                }
+            }
+            // outstanding is read before outbound: a worker enqueues its response before decrementing
+            if (conn.hangUp && conn.outstanding.get() == 0 && conn.outbound.isEmpty()) {
+                close(conn);
+            } else if ((conn.key.interestOps() & SelectionKey.OP_WRITE) != 0) {
+                conn.key.interestOps(conn.key.interestOps() & ~SelectionKey.OP_WRITE);
+            }
+        } catch (IOException | CancelledKeyException e) {
+            close(conn);
+        }
+    }
+
+    private void close(Connection conn) {
+        if (!conn.closed.compareAndSet(false, true)) return;
+        conn.key.cancel();
+        try {
+            conn.channel.close();
+        } catch (IOException ignored) {}
+        connections.decrementAndGet();
+    }
+
+    // ---- worker side ----
+
+    // Runs the connection's queued requests in order; only one drain per connection at a time
+    private void drain(Connection conn) {
+        do {
+            Request request;
+            while ((request = conn.requests.poll()) != null) {
+                if (conn.closed.get()) continue; // nobody to answer
+                conn.outbound.add(execute(conn, request));
+                conn.outstanding.decrementAndGet();
+                if (conn.signalled.compareAndSet(false, true)) {
+                    ready.add(conn);
+                    selector.wakeup();
+                }
+            }
+            conn.draining.set(false);
+            // A request may have arrived between the last poll and clearing the flag
+        } while (!conn.requests.isEmpty() && conn.draining.compareAndSet(false, true));
+    }
+
+    private ByteBuffer execute(Connection conn, Request request) {
+        if (request.invalid != null) {
+            errors.incrementAndGet();
+            return BinaryProtocol.encodeError(request.requestId, request.op, BinaryProtocol.BAD_REQUEST, request.invalid);
+        }
+        try {
+            if (request.op == BinaryProtocol.LOGIN) {
+                Customer customer = authService.login(request.account, request.other);
+                conn.customerId = customer.getId();
+                return BinaryProtocol.encodeOk(request.requestId, request.op, customer.getId(), null, null);
+            }
+            String customerId = conn.customerId;
+            if (customerId == null) {
+                errors.incrementAndGet();
+                return BinaryProtocol.encodeError(request.requestId, request.op, BinaryProtocol.UNAUTHENTICATED,
+                        "Not logged in");
+            }
+            Transaction txn;
+            switch (request.op) {
+                case BinaryProtocol.BALANCE:
+                    return BinaryProtocol.encodeOk(request.requestId, request.op, null, null,
+                            accountService.viewBalance(request.account, customerId));
+                case BinaryProtocol.DEPOSIT:
+                    txn = transactionService.deposit(request.account, request.amount, customerId);
+                    break;
+                case BinaryProtocol.WITHDRAW:
+                    txn = transactionService.withdraw(request.account, request.amount, customerId);
+                    break;
+                default:
+                    txn = transactionService.transfer(request.account, request.other, request.amount, customerId);
+                    break;
+            }
+            return BinaryProtocol.encodeOk(request.requestId, request.op, txn.getId(), txn.getStatus(), null);
+        } catch (Exception e) {
+            errors.incrementAndGet();
+            byte status = BinaryProtocol.statusOf(e);
+            if (status == BinaryProtocol.ERROR) {
+                logger.error("❌ Terminal request {} (op {}) failed", request.requestId, request.op, e);
+            }
+            return BinaryProtocol.encodeError(request.requestId, request.op, status,
+                    status == BinaryProtocol.ERROR ? "Unexpected error" : e.getMessage());
+        }
+    }
+
+    private static final class Connection {
+        final SocketChannel channel;
+        SelectionKey key;
+        byte[] partial;      // selector thread only: bytes of an incomplete trailing frame
+        boolean readPaused;  // selector thread only
+        boolean hangUp;      // selector thread only: close once every decoded request is answered
+
+        final Queue<Request> requests = new ConcurrentLinkedQueue<>();
+        final Queue<ByteBuffer> outbound = new ConcurrentLinkedQueue<>();
+        final AtomicInteger outstanding = new AtomicInteger(); // decoded, not yet answered
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicBoolean signalled = new AtomicBoolean();
+        final AtomicBoolean closed = new AtomicBoolean();
+        volatile String customerId;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+}
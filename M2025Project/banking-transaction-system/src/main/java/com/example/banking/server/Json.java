@@ -0,0 +1,174 @@
+package com.example.banking.server;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Just enough JSON for the server API, so the project needs no JSON library.
+ * - parseObject() reads one flat object whose values are strings, numbers, booleans or null;
+ *   numbers are kept as their literal text so amounts reach BigDecimal without rounding.
+ * - write() renders maps, collections, strings, numbers, booleans and null (anything else via toString()).
+ */
+final class Json {
+
+    private Json() {}
+
+    static Map<String, String> parseObject(String text) {
+        Parser parser = new Parser(text == null ? "" : text);
+        Map<String, String> fields = new LinkedHashMap<>();
+        parser.skipWhitespace();
+        if (parser.atEnd()) return fields; // empty body = no fields
+        parser.expect('{');
+        parser.skipWhitespace();
+        if (!parser.consume('}')) {
+            do {
+                parser.skipWhitespace();
+                String key = parser.readString();
+                parser.skipWhitespace();
+                parser.expect(':');
+                parser.skipWhitespace();
+                fields.put(key, parser.readScalar());
+                parser.skipWhitespace();
+            } while (parser.consume(','));
+            parser.expect('}');
+        }
+        parser.skipWhitespace();
+        if (!parser.atEnd()) throw new IllegalArgumentException("Unexpected content after JSON object");
+        return fields;
+    }
+
+    static String write(Object value) {
+        StringBuilder out = new StringBuilder();
+        write(value, out);
+        return out.toString();
+    }
+
+    private static void write(Object value, StringBuilder out) {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof Map<?, ?> map) {
+            out.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!first) out.append(',');
+                first = false;
+                writeString(String.valueOf(entry.getKey()), out);
+                out.append(':');
+                write(entry.getValue(), out);
+            }
+            out.append('}');
+        } else if (value instanceof Collection<?> items) {
+            out.append('[');
+            boolean first = true;
+            for (Object item : items) {
+                if (!first) out.append(',');
+                first = false;
+                write(item, out);
+            }
+            out.append(']');
+        } else if (value instanceof BigDecimal decimal) {
+            out.append(decimal.toPlainString());
+        } else if (value instanceof Number || value instanceof Boolean) {
+            out.append(value);
+        } else {
+            writeString(value.toString(), out);
+        }
+    }
+
+    private static void writeString(String s, StringBuilder out) {
+        out.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) out.append(String.format("\\u%04x", (int) c));
+                    else out.append(c);
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    private static final class Parser {
+        private final String text;
+        private int pos;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        boolean atEnd() {
+            return pos >= text.length();
+        }
+
+        void skipWhitespace() {
+            while (!atEnd() && Character.isWhitespace(text.charAt(pos))) pos++;
+        }
+
+        boolean consume(char c) {
+            if (!atEnd() && text.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        void expect(char c) {
+            if (!consume(c)) throw new IllegalArgumentException("Malformed JSON: expected '" + c + "' at " + pos);
+        }
+
+        // String value, literal number text, "true"/"false", or null for JSON null
+        String readScalar() {
+            if (atEnd()) throw new IllegalArgumentException("Malformed JSON: missing value");
+            char c = text.charAt(pos);
+            if (c == '"') return readString();
+            if (c == '{' || c == '[') throw new IllegalArgumentException("Nested JSON values are not supported");
+            int start = pos;
+            while (!atEnd() && ",} \t\r\n".indexOf(text.charAt(pos)) < 0) pos++;
+            String literal = text.substring(start, pos);
+            if (literal.equals("null")) return null;
+            if (literal.equals("true") || literal.equals("false")) return literal;
+            if (!literal.matches("-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?")) {
+                throw new IllegalArgumentException("Malformed JSON value: " + literal);
+            }
+            return literal;
+        }
+
+        String readString() {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                if (atEnd()) throw new IllegalArgumentException("Malformed JSON: unterminated string");
+                char c = text.charAt(pos++);
+                if (c == '"') return sb.toString();
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                if (atEnd()) throw new IllegalArgumentException("Malformed JSON: unterminated escape");
+                char e = text.charAt(pos++);
+                switch (e) {
+                    case '"', '\\', '/' -> sb.append(e);
+                    case 'b' -> sb.append('\b');
+                    case 'f' -> sb.append('\f');
+                    case 'n' -> sb.append('\n');
+                    case 'r' -> sb.append('\r');
+                    case 't' -> sb.append('\t');
+                    case 'u' -> {
+                        if (pos + 4 > text.length()) throw new IllegalArgumentException("Malformed JSON: bad \\u escape");
+                        sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        pos += 4;
+                    }
+                    default -> throw new IllegalArgumentException("Malformed JSON: bad escape \\" + e);
+                }
+            }
+        }
+    }
+}
@@ -3,21 +3,38 @@ package com.example.banking.service;
 import com.example.banking.exception.*;
 import com.example.banking.factory.AccountFactory;
 import com.example.banking.model.Account;
+import com.example.banking.model.AuditLog;
+import com.example.banking.model.AuditLogPage;
+import com.example.banking.model.DailyBalance;
+import com.example.banking.model.HistoryCursor;
 import com.example.banking.repository.AccountRepository;
+import com.example.banking.repository.AuditLogRepository;
+import com.example.banking.repository.DailyBalanceRepository;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class AccountService {
 
     private static AccountService instance; // Singleton
     private final AccountRepository accountRepository;
+    private static final int DELTA_PAGE_SIZE = 500;
+
+    // Balance history (null until enableBalanceHistory is called)
+    private volatile DailyBalanceRepository dailyBalanceRepository;
+    private volatile AuditLogRepository auditLogRepository;
 
     private AccountService(AccountRepository accountRepository) {
         this.accountRepository = accountRepository;
     }
 
-    public static AccountService getInstance(AccountRepository accountRepository) {
+    public static synchronized AccountService getInstance(AccountRepository accountRepository) {
         if (instance == null) {
             instance = new AccountService(accountRepository);
         }
@@ -54,6 +71,52 @@ public class AccountService {
         return acc.getBalance();
     }
 
+    // 🔹 Daily rollups act as checkpoints and the audit trail supplies the deltas for balanceAsOf
+    public void enableBalanceHistory(DailyBalanceRepository dailyBalanceRepository, AuditLogRepository auditLogRepository) {
+        this.dailyBalanceRepository = dailyBalanceRepository;
+        this.auditLogRepository = auditLogRepository;
+    }
+
+    /**
+     * ✅ Balance the account had at the given instant (changes at exactly asOf are not included).
+     * One rollup lookup gives the balance at the start of asOf's UTC day; only that day's audit
+     * entries before asOf are then scanned, so the cost never depends on the account's age.
+     */
+    public BigDecimal balanceAsOf(String accountNumber, String actorId, Instant asOf) {
+        DailyBalanceRepository rollups = dailyBalanceRepository;
+        if (rollups == null) throw new IllegalStateException("Balance history is not enabled");
+
+        Account acc = accountRepository.findByNumber(accountNumber);
+        if (acc == null) throw new AccountNotFoundException("Account not found: " + accountNumber);
+        if (!acc.getCustomerId().equals(actorId))
+            throw new UnauthorizedAccessException("You are not authorized to view this account");
+
+        LocalDate day = DailyBalance.dayOf(asOf);
+        List<DailyBalance> sameDay = rollups.findByAccountId(acc.getId(), day, day);
+        if (sameDay.isEmpty()) {
+            // No movement that day: the balance is the one carried in from the nearest active day
+            DailyBalance before = rollups.findLatestBefore(acc.getId(), day);
+            if (before != null) return before.getClosingBalance();
+            DailyBalance after = rollups.findEarliestAfter(acc.getId(), day);
+            return (after != null) ? after.getOpeningBalance() : acc.getBalance();
+        }
+
+        // Checkpoint: the day's opening balance, then that day's movements up to asOf
+        BigDecimal balance = sameDay.get(0).getOpeningBalance();
+        Instant dayStart = day.atStartOfDay(ZoneOffset.UTC).toInstant();
+        HistoryCursor cursor = null;
+        do {
+            AuditLogPage page = auditLogRepository.findByAccountId(acc.getId(), dayStart, asOf, DELTA_PAGE_SIZE, cursor);
+            for (AuditLog entry : page.getItems()) {
+                if (DailyBalance.isMovement(entry)) {
+                    balance = balance.add(entry.getAfterBalance().subtract(entry.getBeforeBalance()));
+                }
+            }
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return balance;
+    }
+
     // ✅ Close account
     public void closeAccount(String accountNumber, String actorId) {
         Account acc = accountRepository.findByNumber(accountNumber);
@@ -89,4 +152,14 @@ public class AccountService {
         return (acc != null) ? acc.getNumber() : accountId;
     }
 
+    // Bulk version of getAccountNumberById: one query for any number of ids
+    public Map<String, String> getAccountNumbersByIds(Collection<String> accountIds) {
+        Map<String, String> numbers = new HashMap<>();
+        if (accountIds.isEmpty()) return numbers;
+        for (Account acc : accountRepository.findByIds(accountIds)) {
+            numbers.put(acc.getId(), acc.getNumber());
+        }
+        return numbers;
+    }
+
 }
@@ -0,0 +1,328 @@
+package com.example.banking.service;
+
+import com.example.banking.exception.AuditQueueFullException;
+import com.example.banking.model.AuditLog;
+import com.example.banking.repository.AsyncAuditLogRepository;
+import com.example.banking.repository.AuditLogRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fans audit logs out to one or more sinks (e.g. DynamoDB) off the caller's thread.
+ * - ASYNC: each sink has a bounded queue and its own writer thread that drains up to batchSize
+ *   logs at a time into sink.saveAll(...).
+ * - SYNC: logs are written to every sink on the caller's thread before dispatch returns.
+ * When a queue is full, BLOCK waits up to blockTimeoutMillis and FAIL_FAST rejects immediately;
+ * either way an AuditQueueFullException tells the caller the logs were not accepted. A dispatch is
+ * queued for every sink or for none, so sinks never disagree about what was handed to them.
+ * A batch a writer gives up on is dropped, counted (getDroppedBatches) and logged.
+ * Sinks that implement AsyncAuditLogRepository get batches handed off without the writer waiting
+ * for each one, so several batches can be on the wire at once.
+ */
+public class AuditDispatcher implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditDispatcher.class);
+
+    public enum BackpressurePolicy { BLOCK, FAIL_FAST }
+
+    public enum DurabilityMode { SYNC, ASYNC }
+
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+
+    private final List<SinkWriter> writers = new ArrayList<>();
+    private final BackpressurePolicy policy;
+    private final DurabilityMode mode;
+    private final long blockTimeoutMillis;
+    // Only dispatch adds to the queues; holding this while checking then filling them makes that all-or-nothing.
+    // A producer waiting for room releases it, so callers whose logs fit are not held up; writers signal
+    // spaceFreed after draining, but only while someone waits.
+    private final ReentrantLock enqueueLock = new ReentrantLock();
+    private final Condition spaceFreed = enqueueLock.newCondition();
+    private final AtomicInteger waitingProducers = new AtomicInteger();
+
+    public AuditDispatcher(List<AuditLogRepository> sinks, int queueCapacity, int batchSize,
+                           BackpressurePolicy policy, DurabilityMode mode, long blockTimeoutMillis) {
+        this.policy = policy;
+        this.mode = mode;
+        this.blockTimeoutMillis = blockTimeoutMillis;
+        for (AuditLogRepository sink : sinks) {
+            SinkWriter writer = new SinkWriter(sink, queueCapacity, batchSize);
+            writers.add(writer);
+            if (mode == DurabilityMode.ASYNC) writer.start();
+        }
+    }
+
+    // 🔹 Queue size, batch size, backpressure and durability come from system properties
+    public static AuditDispatcher fromSystemProperties(AuditLogRepository... sinks) {
+        return new AuditDispatcher(
+                List.of(sinks),
+                Integer.getInteger("audit.queue.capacity", 10_000),
+                Integer.getInteger("audit.batch.size", 25),
+                BackpressurePolicy.valueOf(System.getProperty("audit.backpressure", "BLOCK")),
+                DurabilityMode.valueOf(System.getProperty("audit.durability", "ASYNC")),
+                Long.getLong("audit.block.timeoutMs", 1000));
+    }
+
+    // Dispatcher that writes inline on the caller's thread (no queues, no threads)
+    public static AuditDispatcher synchronous(AuditLogRepository... sinks) {
+        return new AuditDispatcher(List.of(sinks), 1, 1, BackpressurePolicy.BLOCK, DurabilityMode.SYNC, 0);
+    }
+
+    // ✅ Hand logs to every sink
+    public void dispatch(Collection<AuditLog> logs) {
+        if (logs.isEmpty()) return;
+
+        if (mode == DurabilityMode.SYNC) {
+            // Every sink gets its write even if an earlier one failed; the first failure is rethrown
+            RuntimeException failure = null;
+            for (SinkWriter writer : writers) {
+                try {
+                    writer.write(new ArrayList<>(logs));
+                } catch (RuntimeException e) {
+                    if (failure == null) failure = e;
+                    else failure.addSuppressed(e);
+                }
+            }
+            if (failure != null) throw failure;
+            return;
+        }
+
+        enqueueLock.lock();
+        try {
+            awaitCapacity(logs.size());
+            for (SinkWriter writer : writers) {
+                writer.outstanding.addAndGet(logs.size());
+                writer.queue.addAll(logs); // fits: capacity only grows while the lock is held
+            }
+        } finally {
+            enqueueLock.unlock();
+        }
+    }
+
+    // Called with enqueueLock held; returns (still holding it) once every queue has room for count more
+    // logs, otherwise rejects the whole dispatch
+    private void awaitCapacity(int count) {
+        SinkWriter full = firstWithoutRoom(count);
+        if (full == null) return;
+
+        long remaining = TimeUnit.MILLISECONDS.toNanos(policy == BackpressurePolicy.BLOCK ? blockTimeoutMillis : 0);
+        waitingProducers.incrementAndGet();
+        try {
+            // Checked again after announcing the wait, so a writer that drains now is sure to signal
+            while ((full = firstWithoutRoom(count)) != null) {
+                if (count > full.capacity || remaining <= 0) throw reject(full, count);
+                try {
+                    remaining = spaceFreed.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw reject(full, count);
+                }
+            }
+        } finally {
+            waitingProducers.decrementAndGet();
+        }
+    }
+
+    private SinkWriter firstWithoutRoom(int count) {
+        for (SinkWriter writer : writers) {
+            if (writer.queue.remainingCapacity() < count) return writer;
+        }
+        return null;
+    }
+
+    private AuditQueueFullException reject(SinkWriter writer, int count) {
+        writer.rejected.addAndGet(count);
+        return new AuditQueueFullException("Audit queue full for " + writer.sink.getClass().getSimpleName()
+                + " (" + writer.queue.size() + " pending, " + count + " offered)");
+    }
+
+    // Wakes producers waiting for room; a no-op unless one is waiting
+    private void signalSpaceFreed() {
+        if (waitingProducers.get() == 0) return;
+        enqueueLock.lock();
+        try {
+            spaceFreed.signalAll();
+        } finally {
+            enqueueLock.unlock();
+        }
+    }
+
+    // Wait until every queue is empty and every in-flight batch is written
+    public boolean flush(long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        for (SinkWriter writer : writers) {
+            while (!writer.isIdle()) {
+                if (System.currentTimeMillis() > deadline) return false;
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // Drain what is queued, stop the writer threads, then close sinks that hold files or connections
+    @Override
+    public void close() {
+        if (mode == DurabilityMode.ASYNC && !flush(10_000)) {
+            logger.warn("⚠️ Audit queues not fully drained on shutdown: {}", stats());
+        }
+        writers.forEach(SinkWriter::stop);
+        for (SinkWriter writer : writers) {
+            if (writer.sink instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    logger.warn("⚠️ Error closing audit sink {}", writer.sink.getClass().getSimpleName(), e);
+                }
+            }
+        }
+    }
+
+    // ✅ Metrics
+    public int getQueueDepth() {
+        return writers.stream().mapToInt(w -> w.queue.size()).sum();
+    }
+    public long getWritten() { return writers.stream().mapToLong(w -> w.written.get()).sum(); }
+    public long getRejected() { return writers.stream().mapToLong(w -> w.rejected.get()).sum(); }
+    public long getFailed() { return writers.stream().mapToLong(w -> w.failed.get()).sum(); }
+    public long getBatches() { return writers.stream().mapToLong(w -> w.batches.get()).sum(); }
+    public long getDroppedBatches() { return writers.stream().mapToLong(w -> w.droppedBatches.get()).sum(); }
+
+    public String stats() {
+        return String.format("mode=%s policy=%s queued=%d written=%d batches=%d rejected=%d failed=%d droppedBatches=%d",
+                mode, policy, getQueueDepth(), getWritten(), getBatches(), getRejected(), getFailed(),
+                getDroppedBatches());
+    }
+
+    // One bounded queue + writer thread per sink
+    private final class SinkWriter implements Runnable {
+        private final AuditLogRepository sink;
+        private final BlockingQueue<AuditLog> queue;
+        private final int capacity;
+        private final int batchSize;
+        private final Thread thread;
+        private volatile boolean running = true;
+        // Logs dispatched but not yet written or dropped (ASYNC), whether queued, in hand or on the wire
+        private final AtomicInteger outstanding = new AtomicInteger();
+
+        private final AtomicLong written = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong batches = new AtomicLong();
+        private final AtomicLong droppedBatches = new AtomicLong();
+
+        SinkWriter(AuditLogRepository sink, int capacity, int batchSize) {
+            this.sink = sink;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.capacity = capacity;
+            this.batchSize = batchSize;
+            this.thread = new Thread(this, "audit-writer-" + sink.getClass().getSimpleName());
+            this.thread.setDaemon(true);
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        void stop() {
+            running = false;
+            thread.interrupt();
+        }
+
+        boolean isIdle() {
+            return outstanding.get() == 0;
+        }
+
+        @Override
+        public void run() {
+            List<AuditLog> batch = new ArrayList<>(batchSize);
+            while (running || !queue.isEmpty()) {
+                try {
+                    AuditLog first = queue.poll(200, TimeUnit.MILLISECONDS);
+                    if (first == null) continue;
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    signalSpaceFreed();
+                    write(batch);
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        // Final drain on shutdown
+                        queue.drainTo(batch);
+                        if (!batch.isEmpty()) write(batch);
+                        return;
+                    }
+                } finally {
+                    batch.clear();
+                }
+            }
+        }
+
+        void write(List<AuditLog> batch) {
+            if (mode == DurabilityMode.ASYNC && sink instanceof AsyncAuditLogRepository) {
+                writeAsync((AsyncAuditLogRepository) sink, new ArrayList<>(batch));
+                return;
+            }
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    sink.saveAll(batch);
+                    written.addAndGet(batch.size());
+                    batches.incrementAndGet();
+                    finished(batch.size());
+                    return;
+                } catch (RuntimeException e) {
+                    if (attempt >= MAX_WRITE_ATTEMPTS || mode == DurabilityMode.SYNC) {
+                        failed.addAndGet(batch.size());
+                        if (mode == DurabilityMode.SYNC) throw e;
+                        drop(batch.size(), attempt + " attempts", e);
+                        finished(batch.size());
+                        return;
+                    }
+                    try {
+                        Thread.sleep(100L << attempt);
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        }
+
+        // The sink retries throttled items and caps in-flight requests itself
+        void writeAsync(AsyncAuditLogRepository asyncSink, List<AuditLog> batch) {
+            asyncSink.saveAllAsync(batch).whenComplete((saved, error) -> {
+                if (error == null) {
+                    written.addAndGet(batch.size());
+                    batches.incrementAndGet();
+                } else {
+                    failed.addAndGet(batch.size());
+                    drop(batch.size(), "a failed async write", error);
+                }
+                finished(batch.size());
+            });
+        }
+
+        private void finished(int logs) {
+            if (mode == DurabilityMode.ASYNC) outstanding.addAndGet(-logs);
+        }
+
+        private void drop(int logs, String after, Throwable error) {
+            long dropped = droppedBatches.incrementAndGet();
+            logger.error("❌ Dropped {} audit logs after {} to {} ({} batches dropped so far)",
+                    logs, after, sink.getClass().getSimpleName(), dropped, error);
+        }
+    }
+}
@@ -17,7 +17,7 @@ public class AuthService {
     }
 
     // Singleton getter
-    public static AuthService getInstance(CustomerRepository customerRepository) {
+    public static synchronized AuthService getInstance(CustomerRepository customerRepository) {
         if (instance == null) {
             instance = new AuthService(customerRepository);
         }
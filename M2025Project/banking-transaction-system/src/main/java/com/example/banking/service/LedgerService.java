@@ -0,0 +1,234 @@
+package com.example.banking.service;
+
+import com.example.banking.model.Account;
+import com.example.banking.model.AuditLog;
+import com.example.banking.model.BalanceSnapshot;
+import com.example.banking.model.LedgerEvent;
+import com.example.banking.model.Transaction;
+import com.example.banking.repository.AccountRepository;
+import com.example.banking.repository.BalanceSnapshotRepository;
+import com.example.banking.repository.LedgerEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Event-sourced view of balances.
+ * - As a TransactionListener it appends one LedgerEvent per touched account inside the operation's
+ *   unit of work, so the ledger never disagrees with the accounts table.
+ * - recover() rebuilds every balance from the latest per-account snapshot plus the event tail,
+ *   one partition of accounts per thread.
+ * - takeSnapshot() folds the tail into new snapshots so the next recovery replays less.
+ * An event whose recorded balance differs from the replayed sum is drift: the sum is kept and the
+ * account reported, since papering over it would also hide a lost or duplicated event.
+ */
+public class LedgerService implements TransactionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerService.class);
+
+    private static LedgerService instance;
+    private final LedgerEventRepository eventRepository;
+    private final BalanceSnapshotRepository snapshotRepository;
+    private final int partitions;
+
+    // Recovery reads snapshots then the tail past them; a concurrent snapshot write would move that line
+    private final Object snapshotLock = new Object();
+    private ScheduledExecutorService scheduler;
+
+    private final AtomicLong lastReplayedEvents = new AtomicLong();
+    private volatile Set<String> driftedAccounts = Set.of();
+
+    LedgerService(LedgerEventRepository eventRepository, BalanceSnapshotRepository snapshotRepository, int partitions) {
+        if (partitions < 1) throw new IllegalArgumentException("partitions must be at least 1");
+        this.eventRepository = eventRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.partitions = partitions;
+    }
+
+    public static synchronized LedgerService getInstance(LedgerEventRepository eventRepository,
+                                                         BalanceSnapshotRepository snapshotRepository) {
+        if (instance == null) {
+            int partitions = Integer.getInteger("ledger.partitions", Runtime.getRuntime().availableProcessors());
+            instance = new LedgerService(eventRepository, snapshotRepository, partitions);
+        }
+        return instance;
+    }
+
+    // ✅ Ledger events for a committed-together operation (one per audit entry)
+    @Override
+    public void onTransaction(Transaction txn, List<AuditLog> entries) {
+        onTransactions(List.of(txn), entries);
+    }
+
+    @Override
+    public void onTransactions(List<Transaction> txns, List<AuditLog> entries) {
+        List<LedgerEvent> events = new ArrayList<>(entries.size());
+        for (AuditLog entry : entries) {
+            events.add(new LedgerEvent(UUID.randomUUID().toString(), entry.getAccountId(), entry.getTxnId(),
+                    entry.getAfterBalance().subtract(entry.getBeforeBalance()), entry.getAfterBalance(),
+                    entry.getCreatedAt()));
+        }
+        eventRepository.appendAll(events);
+    }
+
+    // ✅ Current balance of every account that has a snapshot or an event
+    public Map<String, BigDecimal> recoverBalances() {
+        Map<String, BigDecimal> balances = new HashMap<>();
+        recover().forEach((accountId, state) -> balances.put(accountId, state.getBalance()));
+        return balances;
+    }
+
+    // Snapshot + tail, partitions replayed concurrently; each partition owns a disjoint set of accounts
+    public Map<String, BalanceSnapshot> recover() {
+        synchronized (snapshotLock) {
+            long start = System.nanoTime();
+            AtomicLong replayed = new AtomicLong();
+            Set<String> drifted = ConcurrentHashMap.newKeySet();
+
+            ExecutorService pool = newPool("ledger-recovery", partitions);
+            try {
+                List<Future<Map<String, BalanceSnapshot>>> futures = new ArrayList<>(partitions);
+                for (int p = 0; p < partitions; p++) {
+                    int partition = p;
+                    futures.add(pool.submit(() -> recoverPartition(partition, replayed, drifted)));
+                }
+
+                Map<String, BalanceSnapshot> result = new HashMap<>();
+                for (Future<Map<String, BalanceSnapshot>> future : futures) {
+                    result.putAll(future.get());
+                }
+
+                lastReplayedEvents.set(replayed.get());
+                driftedAccounts = Set.copyOf(drifted);
+                if (!drifted.isEmpty()) {
+                    logger.warn("⚠️ Ledger drift in {} accounts (recorded balance differs from replayed events), e.g. {}",
+                            drifted.size(), drifted.stream().sorted().limit(10).toList());
+                }
+                logger.info("✅ Recovered {} balances from {} events in {} ms ({} partitions)", result.size(),
+                        replayed.get(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), partitions);
+                return result;
+            } catch (ExecutionException e) {
+                throw new RuntimeException("Ledger recovery failed: " + e.getCause().getMessage(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Ledger recovery interrupted", e);
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    private Map<String, BalanceSnapshot> recoverPartition(int partition, AtomicLong replayed, Set<String> drifted) {
+        Map<String, BigDecimal> balances = new HashMap<>();
+        Map<String, Long> lastSequence = new HashMap<>();
+        for (BalanceSnapshot snapshot : snapshotRepository.findByPartition(partition, partitions)) {
+            balances.put(snapshot.getAccountId(), snapshot.getBalance());
+            lastSequence.put(snapshot.getAccountId(), snapshot.getLastSequence());
+        }
+
+        long[] count = {0};
+        eventRepository.forEachAfterSnapshot(partition, partitions, event -> {
+            String accountId = event.getAccountId();
+            if (event.getSequence() <= lastSequence.getOrDefault(accountId, 0L)) return;
+
+            BigDecimal balance = balances.getOrDefault(accountId, BigDecimal.ZERO).add(event.getAmount());
+            if (balance.compareTo(event.getBalanceAfter()) != 0) {
+                // e.g. a balance that predates the ledger (seedSnapshots fixes that) or a lost event
+                drifted.add(accountId);
+            }
+            balances.put(accountId, balance);
+            lastSequence.put(accountId, event.getSequence());
+            count[0]++;
+        });
+        replayed.addAndGet(count[0]);
+
+        Instant now = Instant.now();
+        Map<String, BalanceSnapshot> result = new HashMap<>();
+        balances.forEach((accountId, balance) ->
+                result.put(accountId, new BalanceSnapshot(accountId, balance, lastSequence.getOrDefault(accountId, 0L), now)));
+        return result;
+    }
+
+    // ✅ Fold the event tail into fresh snapshots; returns how many accounts were written
+    public int takeSnapshot() {
+        synchronized (snapshotLock) {
+            Map<String, BalanceSnapshot> state = recover();
+            snapshotRepository.saveAll(state.values());
+            return state.size();
+        }
+    }
+
+    // Opening snapshots for accounts whose balance predates the ledger; run once with no traffic flowing
+    public void seedSnapshots(Collection<Account> accounts) {
+        synchronized (snapshotLock) {
+            long sequence = eventRepository.maxSequence();
+            Instant now = Instant.now();
+            List<BalanceSnapshot> snapshots = new ArrayList<>(accounts.size());
+            for (Account account : accounts) {
+                snapshots.add(new BalanceSnapshot(account.getId(), account.getBalance(), sequence, now));
+            }
+            snapshotRepository.saveAll(snapshots);
+        }
+    }
+
+    // 🔹 Cheap consistency check: account ids whose stored balance differs from the ledger's
+    public List<String> findMismatches(AccountRepository accountRepository) {
+        Map<String, BigDecimal> ledger = recoverBalances();
+        List<String> mismatched = new ArrayList<>();
+        for (Account account : accountRepository.findByIds(ledger.keySet())) {
+            if (account.getBalance().compareTo(ledger.get(account.getId())) != 0) {
+                mismatched.add(account.getId());
+            }
+        }
+        if (!mismatched.isEmpty()) {
+            logger.warn("⚠️ {} accounts disagree with the ledger, e.g. {}", mismatched.size(),
+                    mismatched.subList(0, Math.min(10, mismatched.size())));
+        }
+        return mismatched;
+    }
+
+    public synchronized void startPeriodicSnapshots(long intervalSeconds) {
+        if (scheduler != null) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ledger-snapshot");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                takeSnapshot();
+            } catch (RuntimeException e) {
+                logger.error("❌ Ledger snapshot failed", e);
+            }
+        }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    // ✅ Metrics
+    public long getLastReplayedEvents() { return lastReplayedEvents.get(); }
+    // Accounts with drift in the last recovery
+    public long getDriftCount() { return driftedAccounts.size(); }
+    public Set<String> getDriftedAccounts() { return driftedAccounts; }
+    public int getPartitions() { return partitions; }
+
+    private static ExecutorService newPool(String name, int threads) {
+        AtomicInteger ids = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, name + "-" + ids.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+}
@@ -5,49 +5,141 @@ import com.example.banking.repository.TransactionRepository;
 
 import java.util.*;
 
+/**
+ * Last few successful transactions per account, kept in memory.
+ * - Each account gets a fixed-size ring buffer (newest entry overwrites the oldest).
+ * - At most maxAccounts buffers are kept; the least recently used account is dropped first,
+ *   so memory stays bounded at maxAccounts * STATEMENT_SIZE entries.
+ * - A dropped (or never loaded) account is reloaded with a LIMIT query on next read. Pushes for an
+ *   account without a buffer are ignored: the transaction is already committed, so that load returns it
+ *   along with the history a push-only buffer would have lost.
+ */
 public class MiniStatementService {
+    private static final int STATEMENT_SIZE = 5;
+    private static final int DEFAULT_MAX_ACCOUNTS = 100_000;
+
     private static MiniStatementService instance;
     private final TransactionRepository transactionRepository;
+    private final int maxAccounts;
 
-    // Map<AccountNumber, Queue<Transaction>>
-    private final Map<String, Deque<Transaction>> miniStatements = new HashMap<>();
+    // Map<AccountId, RingBuffer>, access-ordered for LRU eviction; guarded by itself
+    private final LinkedHashMap<String, RingBuffer> miniStatements;
 
-    private MiniStatementService(TransactionRepository transactionRepository) {
+    MiniStatementService(TransactionRepository transactionRepository, int maxAccounts) {
         this.transactionRepository = transactionRepository;
+        this.maxAccounts = maxAccounts;
+        this.miniStatements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, RingBuffer> eldest) {
+                return size() > MiniStatementService.this.maxAccounts;
+            }
+        };
     }
 
-    public static MiniStatementService getInstance(TransactionRepository transactionRepository) {
+    public static synchronized MiniStatementService getInstance(TransactionRepository transactionRepository) {
         if (instance == null) {
-            instance = new MiniStatementService(transactionRepository);
+            instance = new MiniStatementService(transactionRepository,
+                    Integer.getInteger("ministatement.maxAccounts", DEFAULT_MAX_ACCOUNTS));
         }
         return instance;
     }
 
     // Load last 5 on login
     public void loadInitial(String accountId) {
-        List<Transaction> txns = transactionRepository.findByAccountId(accountId);
-        Deque<Transaction> queue = new ArrayDeque<>();
-
-        txns.stream()
-                .filter(t -> "SUCCESS".equalsIgnoreCase(t.getStatus()))
-                .limit(5)
-                .forEach(queue::add);
+        load(accountId);
+    }
 
-        miniStatements.put(accountId, queue);
+    // The buffer is registered before the query so pushes committed meanwhile are merged, not lost
+    private RingBuffer load(String accountId) {
+        RingBuffer buffer = bufferFor(accountId);
+        List<Transaction> recent = transactionRepository.findRecentSuccessfulByAccountId(accountId, STATEMENT_SIZE);
+        buffer.merge(recent);
+        return buffer;
     }
 
-    // Add new successful txn
+    // Add new successful txn (called after commit)
     public void addTransaction(String accountId, Transaction txn) {
         if (!"SUCCESS".equalsIgnoreCase(txn.getStatus())) return;
+        RingBuffer buffer;
+        synchronized (miniStatements) {
+            buffer = miniStatements.get(accountId);
+        }
+        if (buffer != null) buffer.push(txn);
+    }
+
+    // Get last 5 for display (newest first)
+    public List<Transaction> getMiniStatement(String accountId) {
+        RingBuffer buffer;
+        synchronized (miniStatements) {
+            buffer = miniStatements.get(accountId);
+        }
+        if (buffer == null || !buffer.isLoaded()) {
+            buffer = load(accountId);
+        }
+        return buffer.snapshot();
+    }
 
-        Deque<Transaction> queue = miniStatements.computeIfAbsent(accountId, k -> new ArrayDeque<>());
+    int trackedAccounts() {
+        synchronized (miniStatements) {
+            return miniStatements.size();
+        }
+    }
 
-        if (queue.size() == 5) queue.removeLast(); // FIFO
-        queue.addFirst(txn);
+    private RingBuffer bufferFor(String accountId) {
+        synchronized (miniStatements) {
+            return miniStatements.computeIfAbsent(accountId, k -> new RingBuffer(STATEMENT_SIZE));
+        }
     }
 
-    // Get last 5 for display
-    public List<Transaction> getMiniStatement(String accountId) {
-        return new ArrayList<>(miniStatements.getOrDefault(accountId, new ArrayDeque<>()));
+    // Fixed-capacity circular buffer; all methods lock the buffer itself
+    private static final class RingBuffer {
+        private final Transaction[] slots;
+        private int head;   // next slot to write
+        private int count;
+        private boolean loaded; // holds the account's history, not just pushes since registration
+
+        RingBuffer(int capacity) {
+            this.slots = new Transaction[capacity];
+        }
+
+        synchronized void push(Transaction txn) {
+            slots[head] = txn;
+            head = (head + 1) % slots.length;
+            if (count < slots.length) count++;
+        }
+
+        // Combine rows loaded from the database with anything pushed meanwhile
+        synchronized void merge(List<Transaction> rows) {
+            Map<String, Transaction> byId = new LinkedHashMap<>();
+            for (Transaction t : snapshotUnlocked()) byId.put(t.getId(), t);
+            for (Transaction t : rows) byId.putIfAbsent(t.getId(), t);
+
+            List<Transaction> merged = new ArrayList<>(byId.values());
+            merged.sort(Comparator.comparing(Transaction::getCreatedAt).reversed());
+
+            Arrays.fill(slots, null);
+            head = 0;
+            count = 0;
+            for (int i = Math.min(merged.size(), slots.length) - 1; i >= 0; i--) {
+                push(merged.get(i)); // oldest first so the newest ends up at the head
+            }
+            loaded = true;
+        }
+
+        synchronized boolean isLoaded() {
+            return loaded;
+        }
+
+        synchronized List<Transaction> snapshot() {
+            return snapshotUnlocked();
+        }
+
+        private List<Transaction> snapshotUnlocked() {
+            List<Transaction> list = new ArrayList<>(count);
+            for (int i = 1; i <= count; i++) {
+                list.add(slots[(head - i + slots.length) % slots.length]);
+            }
+            return list;
+        }
     }
 }
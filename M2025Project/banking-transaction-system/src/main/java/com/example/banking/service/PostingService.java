@@ -0,0 +1,100 @@
+package com.example.banking.service;
+
+import com.example.banking.exception.AccountNotFoundException;
+import com.example.banking.exception.UnauthorizedAccessException;
+import com.example.banking.model.Account;
+import com.example.banking.model.AuditLog;
+import com.example.banking.model.HistoryCursor;
+import com.example.banking.model.Posting;
+import com.example.banking.model.PostingPage;
+import com.example.banking.model.PostingTotals;
+import com.example.banking.model.Transaction;
+import com.example.banking.repository.AccountRepository;
+import com.example.banking.repository.PostingRepository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Account-centric view of money movements.
+ * As a TransactionListener it writes a debit/credit posting per touched account inside the operation's
+ * unit of work; the query methods read them back without the OR over from/to columns that
+ * transactions need. Queries are by account number and only for the account's owner
+ * (served as GET /api/accounts/{number}/postings by BankingHttpServer).
+ */
+public class PostingService implements TransactionListener {
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private static PostingService instance;
+    private final PostingRepository postingRepository;
+    private final AccountRepository accountRepository;
+
+    PostingService(PostingRepository postingRepository, AccountRepository accountRepository) {
+        this.postingRepository = postingRepository;
+        this.accountRepository = accountRepository;
+    }
+
+    public static synchronized PostingService getInstance(PostingRepository postingRepository,
+                                                          AccountRepository accountRepository) {
+        if (instance == null) {
+            instance = new PostingService(postingRepository, accountRepository);
+        }
+        return instance;
+    }
+
+    @Override
+    public void onTransaction(Transaction txn, List<AuditLog> entries) {
+        postingRepository.saveAll(Posting.forTransaction(txn));
+    }
+
+    @Override
+    public void onTransactions(List<Transaction> txns, List<AuditLog> entries) {
+        List<Posting> postings = new ArrayList<>(txns.size() * 2);
+        for (Transaction txn : txns) {
+            postings.addAll(Posting.forTransaction(txn));
+        }
+        postingRepository.saveAll(postings);
+    }
+
+    // One keyset page of the account's postings, newest first (cursor null = newest page)
+    public PostingPage getPostings(String accountNumber, String actorId, Instant from, Instant to,
+                                   int pageSize, HistoryCursor cursor) {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        checkRange(from, to);
+        Account account = ownedAccount(accountNumber, actorId);
+        return postingRepository.findByAccountId(account.getId(), from, to, pageSize, cursor);
+    }
+
+    public PostingTotals getTotals(String accountNumber, String actorId, Instant from, Instant to) {
+        checkRange(from, to);
+        Account account = ownedAccount(accountNumber, actorId);
+        return postingRepository.totalsByAccountId(account.getId(), from, to);
+    }
+
+    // Balance implied by the postings alone (opening balances that predate them are not included)
+    public BigDecimal getComputedBalance(String accountNumber, String actorId, Instant asOf) {
+        Account account = ownedAccount(accountNumber, actorId);
+        return postingRepository.balanceOf(account.getId(), asOf);
+    }
+
+    private Account ownedAccount(String accountNumber, String actorId) {
+        Account account = accountRepository.findByNumber(accountNumber);
+        if (account == null) throw new AccountNotFoundException("Account not found");
+
+        if (!account.getCustomerId().equals(actorId)) {
+            throw new UnauthorizedAccessException("Unauthorized: cannot view this account's postings");
+        }
+        return account;
+    }
+
+    private static void checkRange(Instant from, Instant to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("Start of date range must be before its end");
+        }
+    }
+}
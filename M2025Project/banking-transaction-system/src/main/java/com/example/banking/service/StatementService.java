@@ -0,0 +1,178 @@
+package com.example.banking.service;
+
+import com.example.banking.exception.AccountNotFoundException;
+import com.example.banking.exception.UnauthorizedAccessException;
+import com.example.banking.model.Account;
+import com.example.banking.model.AuditLog;
+import com.example.banking.model.AuditLogPage;
+import com.example.banking.model.DailyBalance;
+import com.example.banking.model.HistoryCursor;
+import com.example.banking.model.PeriodStatement;
+import com.example.banking.model.Transaction;
+import com.example.banking.repository.AccountRepository;
+import com.example.banking.repository.AuditLogRepository;
+import com.example.banking.repository.DailyBalanceRepository;
+import com.example.banking.utils.AccountLockManager;
+import com.example.banking.utils.UnitOfWork;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Period statements from per-account daily rollups.
+ * - As a TransactionListener it folds each operation's audit entries into the (account, day) rows
+ *   inside the operation's unit of work.
+ * - backfill() rebuilds the rows from the audit trail, several accounts at a time.
+ * - getStatement() reads O(days) rollup rows instead of every transaction in the period.
+ */
+public class StatementService implements TransactionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementService.class);
+    private static final int BACKFILL_PAGE_SIZE = 1000;
+    private static final int MAX_STATEMENT_DAYS = 366 * 5;
+
+    private static StatementService instance;
+    private final DailyBalanceRepository dailyBalanceRepository;
+    private final AuditLogRepository auditLogRepository;
+    private final AccountRepository accountRepository;
+    private final AccountLockManager lockManager = AccountLockManager.getInstance();
+
+    StatementService(DailyBalanceRepository dailyBalanceRepository, AuditLogRepository auditLogRepository,
+                     AccountRepository accountRepository) {
+        this.dailyBalanceRepository = dailyBalanceRepository;
+        this.auditLogRepository = auditLogRepository;
+        this.accountRepository = accountRepository;
+    }
+
+    public static synchronized StatementService getInstance(DailyBalanceRepository dailyBalanceRepository,
+                                                            AuditLogRepository auditLogRepository,
+                                                            AccountRepository accountRepository) {
+        if (instance == null) {
+            instance = new StatementService(dailyBalanceRepository, auditLogRepository, accountRepository);
+        }
+        return instance;
+    }
+
+    @Override
+    public void onTransaction(Transaction txn, List<AuditLog> entries) {
+        dailyBalanceRepository.applyAll(entries);
+    }
+
+    @Override
+    public void onTransactions(List<Transaction> txns, List<AuditLog> entries) {
+        dailyBalanceRepository.applyAll(entries);
+    }
+
+    // ✅ Statement for [from, to] (inclusive UTC days)
+    public PeriodStatement getStatement(String accountNumber, String actorId, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Start of date range must not be after its end");
+        }
+        if (from.plusDays(MAX_STATEMENT_DAYS).isBefore(to)) {
+            throw new IllegalArgumentException("Statement period cannot exceed " + MAX_STATEMENT_DAYS + " days");
+        }
+
+        Account account = accountRepository.findByNumber(accountNumber);
+        if (account == null) throw new AccountNotFoundException("Account not found");
+        if (!account.getCustomerId().equals(actorId)) {
+            throw new UnauthorizedAccessException("Unauthorized: cannot view this account's statement");
+        }
+
+        List<DailyBalance> days = dailyBalanceRepository.findByAccountId(account.getId(), from, to);
+        BigDecimal credits = BigDecimal.ZERO;
+        BigDecimal debits = BigDecimal.ZERO;
+        int count = 0;
+        for (DailyBalance day : days) {
+            credits = credits.add(day.getCredits());
+            debits = debits.add(day.getDebits());
+            count += day.getCount();
+        }
+
+        BigDecimal opening;
+        BigDecimal closing;
+        if (!days.isEmpty()) {
+            opening = days.get(0).getOpeningBalance();
+            closing = days.get(days.size() - 1).getClosingBalance();
+        } else {
+            // Quiet period: the balance is whatever it was at the nearest active day around it
+            opening = closing = balanceOutside(account, from, to);
+        }
+        return new PeriodStatement(account.getId(), from, to, opening, credits, debits, count, closing, days);
+    }
+
+    private BigDecimal balanceOutside(Account account, LocalDate from, LocalDate to) {
+        DailyBalance before = dailyBalanceRepository.findLatestBefore(account.getId(), from);
+        if (before != null) return before.getClosingBalance();
+        DailyBalance after = dailyBalanceRepository.findEarliestAfter(account.getId(), to);
+        if (after != null) return after.getOpeningBalance();
+        return account.getBalance(); // no movement ever recorded
+    }
+
+    // 🔹 Rebuild every account's rollups; returns the number of rows written
+    public long backfillAll(int threads) {
+        return backfill(accountRepository.findAllIds(), threads);
+    }
+
+    /**
+     * Rebuilds the rollups of the given accounts from their audit trail, `threads` accounts at a time.
+     * Each account is rebuilt under its lock and in one unit of work, so live updates never interleave.
+     */
+    public long backfill(Collection<String> accountIds, int threads) {
+        long start = System.nanoTime();
+        AtomicLong rows = new AtomicLong();
+
+        ExecutorService pool = newPool("rollup-backfill", threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>(accountIds.size());
+            for (String accountId : accountIds) {
+                futures.add(pool.submit(() -> rows.addAndGet(backfillAccount(accountId))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Rollup backfill failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Rollup backfill interrupted", e);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        logger.info("✅ Backfilled {} daily balances for {} accounts in {} ms", rows.get(), accountIds.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return rows.get();
+    }
+
+    private int backfillAccount(String accountId) {
+        return lockManager.withLock(accountId, () -> UnitOfWork.execute(() -> {
+            List<AuditLog> entries = new ArrayList<>();
+            HistoryCursor cursor = null;
+            do {
+                AuditLogPage page = auditLogRepository.findByAccountId(accountId, null, null, BACKFILL_PAGE_SIZE, cursor);
+                entries.addAll(page.getItems());
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+            Collections.reverse(entries); // pages come newest first
+
+            List<DailyBalance> days = DailyBalance.rollUp(accountId, entries);
+            dailyBalanceRepository.replaceForAccount(accountId, days);
+            return days.size();
+        }));
+    }
+
+    private static ExecutorService newPool(String name, int threads) {
+        AtomicInteger ids = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread t = new Thread(r, name + "-" + ids.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.banking.service;
+
+import com.example.banking.model.AuditLog;
+import com.example.banking.model.Transaction;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Observer for successful money movements. Called inside the operation's unit of work, after the
+ * balance update and audit rows, so whatever a listener writes commits or rolls back with them.
+ * Throwing fails the whole operation.
+ */
+public interface TransactionListener {
+
+    // entries holds one audit entry per account touched, with that account's before/after balance
+    void onTransaction(Transaction txn, List<AuditLog> entries);
+
+    // 🔹 Many movements committed together (batch transfers); entries are in commit order and carry
+    // their transaction id. Override to write them in one go instead of one call per transaction.
+    default void onTransactions(List<Transaction> txns, List<AuditLog> entries) {
+        Map<String, List<AuditLog>> byTxn = new LinkedHashMap<>();
+        for (AuditLog entry : entries) {
+            byTxn.computeIfAbsent(entry.getTxnId(), id -> new ArrayList<>()).add(entry);
+        }
+        for (Transaction txn : txns) {
+            onTransaction(txn, byTxn.getOrDefault(txn.getId(), List.of()));
+        }
+    }
+}
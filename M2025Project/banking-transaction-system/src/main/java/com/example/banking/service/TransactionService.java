@@ -1,54 +1,179 @@
 package com.example.banking.service;
 
+import com.example.banking.engine.ShardedLedgerEngine;
 import com.example.banking.exception.AccountNotFoundException;
 import com.example.banking.exception.AccountClosedException;
+import com.example.banking.exception.AuditQueueFullException;
+import com.example.banking.exception.EngineBusyException;
+import com.example.banking.exception.InsufficientFundsException;
+import com.example.banking.exception.NegativeAmountException;
 import com.example.banking.exception.UnauthorizedAccessException;
 import com.example.banking.exception.TransactionFailedException;
 import com.example.banking.model.Account;
+import com.example.banking.model.HistoryCursor;
 import com.example.banking.model.Transaction;
 import com.example.banking.model.AuditLog;
+import com.example.banking.model.TransactionPage;
+import com.example.banking.model.TransferRequest;
+import com.example.banking.model.TransferResult;
 import com.example.banking.repository.AccountRepository;
-import com.example.banking.repository.DynamoDBAuditLogRepository;
 import com.example.banking.repository.TransactionRepository;
 import com.example.banking.repository.AuditLogRepository;
+import com.example.banking.repository.WalCheckpointRepository;
 import com.example.banking.strategy.DepositStrategy;
 import com.example.banking.strategy.WithdrawStrategy;
 import com.example.banking.strategy.TransferStrategy;
 import com.example.banking.strategy.TransactionStrategy;
-import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import com.example.banking.utils.AccountLockManager;
+import com.example.banking.utils.UnitOfWork;
+import com.example.banking.wal.WalApplier;
+import com.example.banking.wal.WalBatchHandler;
+import com.example.banking.wal.WalRecord;
+import com.example.banking.wal.WriteAheadLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class TransactionService {
 
+    private static final Logger logger = LoggerFactory.getLogger(TransactionService.class);
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_BATCH_SIZE = 50_000;
+
     private static TransactionService instance;
     private final AccountRepository accountRepository;
+    private final AccountLockManager lockManager = AccountLockManager.getInstance();
     private final TransactionRepository transactionRepository;
     private final AuditLogRepository auditLogRepository; // MySQL
-    private final DynamoDBAuditLogRepository dynamoDbAuditLogRepository; // DynamoDB
+    private final AuditDispatcher auditDispatcher; // DynamoDB (and any other off-thread sinks)
+    private final List<TransactionListener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong auditDispatchFailures = new AtomicLong();
+
+    // Write-ahead log mode (off unless enableWriteAheadLog is called)
+    private volatile WriteAheadLog wal;
+    private WalApplier walApplier;
+    // Balance each account will have once everything accepted into the log is applied
+    private final Map<String, BigDecimal> projectedBalances = new ConcurrentHashMap<>();
+    // Sharded in-memory engine mode (off unless enableLedgerEngine is called)
+    private volatile ShardedLedgerEngine engine;
+    private long engineTimeoutMillis; // published by the write to engine
 
     private TransactionService(AccountRepository accountRepository,
                                TransactionRepository transactionRepository,
                                AuditLogRepository auditLogRepository,
-                               DynamoDbClient dynamoDbClient) {
+                               AuditDispatcher auditDispatcher) {
         this.accountRepository = accountRepository;
         this.transactionRepository = transactionRepository;
         this.auditLogRepository = auditLogRepository;
-        this.dynamoDbAuditLogRepository = new DynamoDBAuditLogRepository(dynamoDbClient);
+        this.auditDispatcher = auditDispatcher;
     }
 
-    public static TransactionService getInstance(AccountRepository accountRepository,
+    public static synchronized TransactionService getInstance(AccountRepository accountRepository,
                                                  TransactionRepository transactionRepository,
                                                  AuditLogRepository auditLogRepository,
-                                                 DynamoDbClient dynamoDbClient) {
+                                                 AuditDispatcher auditDispatcher) {
         if (instance == null) {
-            instance = new TransactionService(accountRepository, transactionRepository, auditLogRepository, dynamoDbClient);
+            instance = new TransactionService(accountRepository, transactionRepository, auditLogRepository, auditDispatcher);
         }
         return instance;
     }
 
+    // 🔹 Register a listener that runs inside every successful operation's unit of work
+    public void addListener(TransactionListener listener) {
+        listeners.add(listener);
+    }
+
+    // Listeners registered so far, so other writers (bulk ingestion) can keep the same read models up to date
+    public List<TransactionListener> getListeners() {
+        return List.copyOf(listeners);
+    }
+
+    /**
+     * Switches deposits, withdrawals and transfers to write-ahead log mode: an operation is acknowledged
+     * (status PENDING) as soon as its record is durable in the log, and MySQL is updated in batches
+     * behind it. Replays anything left in the log from a previous run before returning.
+     */
+    public synchronized void enableWriteAheadLog(WriteAheadLog wal, WalCheckpointRepository checkpoints, int batchSize) {
+        if (this.wal != null) throw new IllegalStateException("Write-ahead log already enabled");
+        if (engine != null) throw new IllegalStateException("Ledger engine mode is enabled");
+        walApplier = new WalApplier(wal, checkpoints, new WalBatchHandler() {
+            @Override
+            public Runnable apply(List<WalRecord> batch) {
+                return applyLoggedBatch(batch);
+            }
+
+            @Override
+            public Runnable reject(WalRecord record, Exception cause) {
+                return rejectLogged(record);
+            }
+        }, batchSize);
+        walApplier.start();
+        this.wal = wal;
+    }
+
+    /**
+     * Switches deposits, withdrawals and transfers to the sharded in-memory engine: balances are changed by
+     * the shard owning the account and written to MySQL in batches behind it. Ownership and status are
+     * still checked here; listeners run in the engine's write unit of work. The engine must be the only
+     * writer of balances while it runs, so batch transfers go through it one by one.
+     */
+    public synchronized void enableLedgerEngine(ShardedLedgerEngine engine) {
+        if (this.engine != null) throw new IllegalStateException("Ledger engine already enabled");
+        if (wal != null) throw new IllegalStateException("Write-ahead log mode is enabled");
+        engine.addListener(new TransactionListener() {
+            @Override
+            public void onTransaction(Transaction txn, List<AuditLog> entries) {
+                notifyListeners(txn, entries);
+            }
+
+            @Override
+            public void onTransactions(List<Transaction> txns, List<AuditLog> entries) {
+                for (TransactionListener listener : listeners) {
+                    listener.onTransactions(txns, entries);
+                }
+            }
+        });
+        // A shard gives up on a command after the busy timeout; waiting a few times that covers the queue ahead of it
+        this.engineTimeoutMillis = Long.getLong("engine.resultTimeoutMs", 5 * engine.getBusyTimeoutMillis());
+        this.engine = engine;
+    }
+
+    // Wait until every acknowledged operation has reached MySQL (true immediately without a log)
+    public boolean flushWriteAheadLog(long timeoutMillis) {
+        return walApplier == null || walApplier.flush(timeoutMillis);
+    }
+
+    // Drain pending audit logs; call once on application exit
+    public void shutdown() {
+        if (wal != null) {
+            wal.close();         // writes what is still queued
+            walApplier.close();  // applies it
+            logger.info("🔹 Write-ahead log closed: {} / {}", wal.stats(), walApplier.stats());
+        }
+        if (engine != null) {
+            engine.close();      // writes what the shards have done; its audit rows go to the dispatcher
+            logger.info("🔹 Ledger engine closed: {}", engine.stats());
+        }
+        auditDispatcher.close();
+    }
+
     // Deposit
     public Transaction deposit(String accountNumber, BigDecimal amount, String actorId) {
         Account account = accountRepository.findByNumber(accountNumber);
@@ -62,38 +187,41 @@ public class TransactionService {
         if (!"ACTIVE".equals(account.getStatus())) {
             throw new AccountClosedException("Account is closed");
         }
+        if (engine != null) return viaEngine(engine.deposit(account.getId(), amount, actorId), "Deposit failed: ");
 
+        List<AuditLog> logs = new ArrayList<>();
+        Transaction txn;
         try {
-            TransactionStrategy strategy = new DepositStrategy();
-            Transaction txn = strategy.execute(account, amount, null);
-
-            accountRepository.save(account);
-
-            txn.setStatus("SUCCESS");
-            transactionRepository.save(txn);
-
-            MiniStatementService.getInstance(transactionRepository).addTransaction(account.getId(), txn);
-
-            AuditLog log = new AuditLog(UUID.randomUUID().toString(), txn.getId(), account.getId(),
-                    actorId, "DEPOSIT", before, account.getBalance());
-
-            auditLogRepository.save(log);
-            dynamoDbAuditLogRepository.save(log);
-
-            return txn;
+            if (wal != null) return submitLogged("DEPOSIT", null, account, amount, actorId);
+
+            // Balance update, transaction row and MySQL audit row share one connection and one commit,
+            // made while holding the account's lock so concurrent operations on it are serialized
+            txn = lockManager.withLock(account.getId(), () -> UnitOfWork.execute(() -> {
+                TransactionStrategy strategy = new DepositStrategy(accountRepository);
+                Transaction t = strategy.execute(account, amount, null);
+
+                t.setStatus("SUCCESS");
+                transactionRepository.save(t);
+
+                AuditLog log = new AuditLog(UUID.randomUUID().toString(), t.getId(), account.getId(),
+                        actorId, "DEPOSIT", account.getBalance().subtract(amount), account.getBalance());
+                auditLogRepository.save(log);
+                logs.add(log);
+                notifyListeners(t, logs);
+                return t;
+            }));
         } catch (Exception ex) {
             Transaction failTxn = new Transaction(UUID.randomUUID().toString(), null, account.getId(), "DEPOSIT", amount);
-            failTxn.setStatus("FAILED");
-            transactionRepository.save(failTxn);
-
             AuditLog failLog = new AuditLog(UUID.randomUUID().toString(), failTxn.getId(), account.getId(),
                     actorId, "DEPOSIT_FAILED", before, before);
+            recordFailure(failTxn, failLog);
 
-            auditLogRepository.save(failLog);
-            dynamoDbAuditLogRepository.save(failLog);
-
-            throw new TransactionFailedException("Deposit failed: " + ex.getMessage());
+            throw new TransactionFailedException("Deposit failed: " + ex.getMessage(), ex);
         }
+
+        MiniStatementService.getInstance(transactionRepository).addTransaction(account.getId(), txn);
+        dispatchAudit(logs);
+        return txn;
     }
 
     // Withdraw
@@ -109,38 +237,39 @@ public class TransactionService {
         if (!"ACTIVE".equals(account.getStatus())) {
             throw new AccountClosedException("Account is closed");
         }
+        if (engine != null) return viaEngine(engine.withdraw(account.getId(), amount, actorId), "Withdrawal failed: ");
 
+        List<AuditLog> logs = new ArrayList<>();
+        Transaction txn;
         try {
-            TransactionStrategy strategy = new WithdrawStrategy();
-            Transaction txn = strategy.execute(account, amount, null);
-
-            accountRepository.save(account);
-
-            txn.setStatus("SUCCESS");
-            transactionRepository.save(txn);
-
-            MiniStatementService.getInstance(transactionRepository).addTransaction(account.getId(), txn);
-
-            AuditLog log = new AuditLog(UUID.randomUUID().toString(), txn.getId(), account.getId(),
-                    actorId, "WITHDRAW", before, account.getBalance());
-
-            auditLogRepository.save(log);
-            dynamoDbAuditLogRepository.save(log);
-
-            return txn;
+            if (wal != null) return submitLogged("WITHDRAW", account, null, amount, actorId);
+
+            txn = lockManager.withLock(account.getId(), () -> UnitOfWork.execute(() -> {
+                TransactionStrategy strategy = new WithdrawStrategy(accountRepository);
+                Transaction t = strategy.execute(account, amount, null);
+
+                t.setStatus("SUCCESS");
+                transactionRepository.save(t);
+
+                AuditLog log = new AuditLog(UUID.randomUUID().toString(), t.getId(), account.getId(),
+                        actorId, "WITHDRAW", account.getBalance().add(amount), account.getBalance());
+                auditLogRepository.save(log);
+                logs.add(log);
+                notifyListeners(t, logs);
+                return t;
+            }));
         } catch (Exception ex) {
             Transaction failTxn = new Transaction(UUID.randomUUID().toString(), account.getId(), null, "WITHDRAW", amount);
-            failTxn.setStatus("FAILED");
-            transactionRepository.save(failTxn);
-
             AuditLog failLog = new AuditLog(UUID.randomUUID().toString(), failTxn.getId(), account.getId(),
                     actorId, "WITHDRAW_FAILED", before, before);
+            recordFailure(failTxn, failLog);
 
-            auditLogRepository.save(failLog);
-            dynamoDbAuditLogRepository.save(failLog);
-
-            throw new TransactionFailedException("Withdrawal failed: " + ex.getMessage());
+            throw new TransactionFailedException("Withdrawal failed: " + ex.getMessage(), ex);
         }
+
+        MiniStatementService.getInstance(transactionRepository).addTransaction(account.getId(), txn);
+        dispatchAudit(logs);
+        return txn;
     }
 
     // Transfer
@@ -161,35 +290,37 @@ public class TransactionService {
         if (!"ACTIVE".equals(source.getStatus()) || !"ACTIVE".equals(dest.getStatus())) {
             throw new AccountClosedException("Source or destination account is closed");
         }
+        if (engine != null) {
+            return viaEngine(engine.transfer(source.getId(), dest.getId(), amount, actorId), "Transfer failed: ");
+        }
 
         BigDecimal beforeSrc = source.getBalance();
-        BigDecimal beforeDest = dest.getBalance();
 
+        List<AuditLog> logs = new ArrayList<>();
+        Transaction txn;
         try {
-            TransactionStrategy strategy = new TransferStrategy(dest);
-            Transaction txn = strategy.execute(source, amount, dest.getNumber());
-
-            source = accountRepository.save(source);
-            dest = accountRepository.save(dest);
-
-            txn.setStatus("SUCCESS");
-            transactionRepository.save(txn);
-
-            MiniStatementService ms = MiniStatementService.getInstance(transactionRepository);
-            ms.addTransaction(source.getId(), txn);
-            ms.addTransaction(dest.getId(), txn);
-
-            AuditLog log1 = new AuditLog(UUID.randomUUID().toString(), txn.getId(), source.getId(),
-                    actorId, "TRANSFER-DEBIT", beforeSrc, source.getBalance());
-            AuditLog log2 = new AuditLog(UUID.randomUUID().toString(), txn.getId(), dest.getId(),
-                    actorId, "TRANSFER-CREDIT", beforeDest, dest.getBalance());
-
-            auditLogRepository.save(log1);
-            auditLogRepository.save(log2);
-            dynamoDbAuditLogRepository.save(log1);
-            dynamoDbAuditLogRepository.save(log2);
-
-            return txn;
+            if (wal != null) return submitLogged("TRANSFER", source, dest, amount, actorId);
+
+            // Both balance updates, the transaction row and both audit rows commit together or not at all.
+            // Both account locks are taken in a fixed global order, so opposite transfers cannot deadlock.
+            txn = lockManager.withLocks(List.of(source.getId(), dest.getId()), () -> UnitOfWork.execute(() -> {
+                TransactionStrategy strategy = new TransferStrategy(accountRepository, dest);
+                Transaction t = strategy.execute(source, amount, dest.getNumber());
+
+                t.setStatus("SUCCESS");
+                transactionRepository.save(t);
+
+                AuditLog log1 = new AuditLog(UUID.randomUUID().toString(), t.getId(), source.getId(),
+                        actorId, "TRANSFER-DEBIT", source.getBalance().add(amount), source.getBalance());
+                AuditLog log2 = new AuditLog(UUID.randomUUID().toString(), t.getId(), dest.getId(),
+                        actorId, "TRANSFER-CREDIT", dest.getBalance().subtract(amount), dest.getBalance());
+
+                logs.add(log1);
+                logs.add(log2);
+                auditLogRepository.saveAll(logs);
+                notifyListeners(t, logs);
+                return t;
+            }));
         } catch (Exception ex) {
             // 🔴 FIXED: Destination account should not be linked in failed transfer
             Transaction failTxn = new Transaction(
@@ -199,8 +330,6 @@ public class TransactionService {
                     "TRANSFER",
                     amount
             );
-            failTxn.setStatus("FAILED");
-            transactionRepository.save(failTxn);
 
             AuditLog failLog = new AuditLog(
                     UUID.randomUUID().toString(),
@@ -211,14 +340,422 @@ public class TransactionService {
                     beforeSrc,
                     beforeSrc
             );
+            recordFailure(failTxn, failLog);
+
+            throw new TransactionFailedException("Transfer failed: " + ex.getMessage(), ex);
+        }
+
+        MiniStatementService ms = MiniStatementService.getInstance(transactionRepository);
+        ms.addTransaction(source.getId(), txn);
+        ms.addTransaction(dest.getId(), txn);
+
+        dispatchAudit(logs);
+        return txn;
+    }
+
+    /**
+     * Executes a whole file of transfers (payroll, merchant settlement) with set-based writes.
+     * - Lines are checked in order against running balances, so a line may spend what an earlier line
+     *   of the same batch paid in, and a failing line never stops the others.
+     * - Each touched account gets one balance update for its net movement; transaction and audit rows
+     *   go in as batched inserts. All of it commits in one unit of work, under every account's lock.
+     * - Results come back per line, in request order. Lines refused for funds or amount are recorded as
+     *   FAILED like a single transfer; lines naming unknown/closed/foreign accounts are only reported.
+     * In write-ahead log and engine modes the lines go through transfer() one at a time instead.
+     */
+    public List<TransferResult> executeBatch(List<TransferRequest> requests, String actorId) {
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("A batch can hold at most " + MAX_BATCH_SIZE + " transfers");
+        }
+        if (requests.isEmpty()) return new ArrayList<>();
+        if (wal != null || engine != null) return executeOneByOne(requests, actorId);
+
+        long start = System.nanoTime();
+        Set<String> numbers = new HashSet<>();
+        for (TransferRequest request : requests) {
+            numbers.add(request.getFromAccountNumber());
+            numbers.add(request.getToAccountNumber());
+        }
+        numbers.remove(null);
+        Set<String> accountIds = new HashSet<>();
+        for (Account acc : accountRepository.findByNumbers(numbers)) {
+            accountIds.add(acc.getId());
+        }
+
+        BatchOutcome outcome = null;
+        for (int attempt = 1; outcome == null; attempt++) {
+            try {
+                outcome = lockManager.withLocks(accountIds,
+                        () -> UnitOfWork.execute(() -> applyBatch(requests, actorId, accountIds)));
+            } catch (BatchConflictException e) {
+                // An account changed without its lock (e.g. closed meanwhile); re-validate once against fresh rows
+                if (attempt == 2) throw new TransactionFailedException("Batch transfer failed: " + e.getMessage());
+                logger.warn("⚠️ Retrying batch of {} transfers: {}", requests.size(), e.getMessage());
+            }
+        }
+
+        MiniStatementService ms = MiniStatementService.getInstance(transactionRepository);
+        for (Transaction t : outcome.succeeded) {
+            ms.addTransaction(t.getFromAccountId(), t);
+            ms.addTransaction(t.getToAccountId(), t);
+        }
+        dispatchAudit(outcome.logs);
+        logger.info("✅ Batch of {} transfers: {} succeeded, {} accounts updated in {} ms", requests.size(),
+                outcome.succeeded.size(), outcome.accountsUpdated,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return outcome.results;
+    }
+
+    // Runs inside the batch's unit of work with every account locked
+    private BatchOutcome applyBatch(List<TransferRequest> requests, String actorId, Set<String> accountIds) {
+        Map<String, Account> byNumber = new HashMap<>();
+        for (Account acc : accountRepository.findByIds(accountIds)) { // re-read now that the locks are held
+            byNumber.put(acc.getNumber(), acc);
+        }
+
+        Instant now = Instant.now();
+        Map<String, BigDecimal> running = new HashMap<>(); // account id -> balance after the lines so far
+        List<TransferResult> results = new ArrayList<>(requests.size());
+        List<Transaction> txns = new ArrayList<>(requests.size());
+        List<Transaction> succeeded = new ArrayList<>(requests.size());
+        List<AuditLog> movementLogs = new ArrayList<>(requests.size() * 2);
+        List<AuditLog> failureLogs = new ArrayList<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            TransferRequest request = requests.get(i);
+            String rejection = checkBatchLine(request, byNumber, actorId);
+            if (rejection != null) {
+                results.add(new TransferResult(i, request, null, rejection));
+                continue;
+            }
+            Account source = byNumber.get(request.getFromAccountNumber());
+            Account dest = byNumber.get(request.getToAccountNumber());
+            BigDecimal amount = request.getAmount();
+            BigDecimal srcBefore = running.computeIfAbsent(source.getId(), id -> source.getBalance());
+
+            String failure = amount.compareTo(BigDecimal.ZERO) <= 0 ? "Transfer amount must be positive"
+                    : srcBefore.compareTo(amount) < 0 ? "Insufficient funds" : null;
+            if (failure != null) {
+                Transaction failTxn = new Transaction(UUID.randomUUID().toString(), source.getId(), null,
+                        "TRANSFER", amount, "FAILED", now);
+                failureLogs.add(new AuditLog(UUID.randomUUID().toString(), failTxn.getId(), source.getId(), actorId,
+                        "TRANSFER_FAILED", srcBefore, srcBefore, now));
+                txns.add(failTxn);
+                results.add(new TransferResult(i, request, failTxn, failure));
+                continue;
+            }
+
+            BigDecimal destBefore = running.computeIfAbsent(dest.getId(), id -> dest.getBalance());
+            running.put(source.getId(), srcBefore.subtract(amount));
+            running.put(dest.getId(), destBefore.add(amount));
+
+            Transaction t = new Transaction(UUID.randomUUID().toString(), source.getId(), dest.getId(),
+                    "TRANSFER", amount, "SUCCESS", now);
+            movementLogs.add(new AuditLog(UUID.randomUUID().toString(), t.getId(), source.getId(), actorId,
+                    "TRANSFER-DEBIT", srcBefore, srcBefore.subtract(amount), now));
+            movementLogs.add(new AuditLog(UUID.randomUUID().toString(), t.getId(), dest.getId(), actorId,
+                    "TRANSFER-CREDIT", destBefore, destBefore.add(amount), now));
+            txns.add(t);
+            succeeded.add(t);
+            results.add(new TransferResult(i, request, t, null));
+        }
+
+        // Net movement per account: one guarded UPDATE each, however many lines touched it
+        Map<String, BigDecimal> deltas = new HashMap<>();
+        for (Account acc : byNumber.values()) {
+            BigDecimal after = running.get(acc.getId());
+            if (after != null && after.compareTo(acc.getBalance()) != 0) {
+                deltas.put(acc.getId(), after.subtract(acc.getBalance()));
+            }
+        }
+        Set<String> refused = accountRepository.applyDeltas(deltas);
+        if (!refused.isEmpty()) {
+            throw new BatchConflictException(refused.size() + " account(s) refused their balance update");
+        }
 
+        List<AuditLog> logs = new ArrayList<>(movementLogs.size() + failureLogs.size());
+        logs.addAll(movementLogs);
+        logs.addAll(failureLogs);
+        transactionRepository.saveAll(txns);
+        auditLogRepository.saveAll(logs);
+        if (!succeeded.isEmpty()) {
+            for (TransactionListener listener : listeners) {
+                listener.onTransactions(succeeded, movementLogs);
+            }
+        }
+        return new BatchOutcome(results, succeeded, logs, deltas.size());
+    }
+
+    // Same checks transfer() makes before touching anything; null when the line may proceed
+    private static String checkBatchLine(TransferRequest request, Map<String, Account> byNumber, String actorId) {
+        if (request.getFromAccountNumber() == null || request.getToAccountNumber() == null) {
+            return "Source and destination account numbers are required";
+        }
+        if (request.getAmount() == null) return "Transfer amount is required";
+        if (request.getFromAccountNumber().equals(request.getToAccountNumber())) {
+            return "Source and destination accounts cannot be the same";
+        }
+        Account source = byNumber.get(request.getFromAccountNumber());
+        if (source == null) return "Source account not found";
+        Account dest = byNumber.get(request.getToAccountNumber());
+        if (dest == null) return "Destination account not found";
+        if (!source.getCustomerId().equals(actorId)) return "Unauthorized: cannot transfer from this account";
+        if (!"ACTIVE".equals(source.getStatus()) || !"ACTIVE".equals(dest.getStatus())) {
+            return "Source or destination account is closed";
+        }
+        return null;
+    }
+
+    // WAL and engine modes: each line goes through transfer() like any other transfer (acknowledged through
+    // the log, or answered by the owning shard), so those modes keep their single writer of balances
+    private List<TransferResult> executeOneByOne(List<TransferRequest> requests, String actorId) {
+        List<TransferResult> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            TransferRequest request = requests.get(i);
+            try {
+                Transaction t = transfer(request.getFromAccountNumber(), request.getToAccountNumber(),
+                        request.getAmount(), actorId);
+                results.add(new TransferResult(i, request, t, null));
+            } catch (RuntimeException e) {
+                results.add(new TransferResult(i, request, null, e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    private static final class BatchOutcome {
+        final List<TransferResult> results;
+        final List<Transaction> succeeded;
+        final List<AuditLog> logs;
+        final int accountsUpdated;
+
+        BatchOutcome(List<TransferResult> results, List<Transaction> succeeded, List<AuditLog> logs, int accountsUpdated) {
+            this.results = results;
+            this.succeeded = succeeded;
+            this.logs = logs;
+            this.accountsUpdated = accountsUpdated;
+        }
+    }
+
+    private static final class BatchConflictException extends RuntimeException {
+        BatchConflictException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * WAL mode: checks funds against the projected balance and reserves the amount under the account
+     * locks, then waits (outside the locks) for the group commit that makes the record durable.
+     */
+    private Transaction submitLogged(String type, Account from, Account to, BigDecimal amount, String actorId) {
+        String txnId = UUID.randomUUID().toString();
+        Instant createdAt = Instant.now();
+        List<String> accountIds = new ArrayList<>(2);
+        if (from != null) accountIds.add(from.getId());
+        if (to != null) accountIds.add(to.getId());
+
+        CompletableFuture<WalRecord> durable = lockManager.withLocks(accountIds, () -> {
+            if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+                throw new NegativeAmountException(amountLabel(type) + " amount must be positive");
+            }
+            if (from != null && projectedBalance(from).compareTo(amount) < 0) {
+                throw new InsufficientFundsException("WITHDRAW".equals(type)
+                        ? "Insufficient funds for withdrawal" : "Insufficient funds");
+            }
+            reserve(from, to, amount);
+            return wal.append(new WalRecord(txnId, type, from == null ? null : from.getId(),
+                    to == null ? null : to.getId(), amount, actorId, createdAt));
+        });
+
+        try {
+            durable.join();
+        } catch (CompletionException e) {
+            release(from == null ? null : from.getId(), to == null ? null : to.getId(), amount);
+            throw new TransactionFailedException("Write-ahead log unavailable: " + e.getCause().getMessage(), e.getCause());
+        }
+        return new Transaction(txnId, from == null ? null : from.getId(), to == null ? null : to.getId(),
+                type, amount, "PENDING", createdAt);
+    }
+
+    private BigDecimal projectedBalance(Account account) {
+        // First touch since startup: nothing is pending for the account, so the stored balance is current
+        return projectedBalances.computeIfAbsent(account.getId(), id -> account.getBalance());
+    }
+
+    // Both sides start from the stored balance the first time they are touched, then move by the amount
+    private void reserve(Account from, Account to, BigDecimal amount) {
+        if (from != null) projectedBalance(from);
+        if (to != null) projectedBalance(to);
+        if (from != null) projectedBalances.merge(from.getId(), amount.negate(), BigDecimal::add);
+        if (to != null) projectedBalances.merge(to.getId(), amount, BigDecimal::add);
+    }
+
+    // Undoes a reservation; an account with no projection (e.g. replay after a restart) has nothing to undo,
+    // since its projection will be seeded from the stored balance once the record is settled
+    private void release(String fromId, String toId, BigDecimal amount) {
+        if (fromId != null) projectedBalances.computeIfPresent(fromId, (id, p) -> p.add(amount));
+        if (toId != null) projectedBalances.computeIfPresent(toId, (id, p) -> p.subtract(amount));
+    }
+
+    private static String amountLabel(String type) {
+        return type.charAt(0) + type.substring(1).toLowerCase();
+    }
+
+    /**
+     * Applies one batch of durable log records inside the applier's unit of work. Each record gets its own
+     * savepoint, so one that the database now refuses (account closed, funds gone) is recorded as FAILED
+     * without undoing the rest of the batch.
+     */
+    private Runnable applyLoggedBatch(List<WalRecord> batch) {
+        List<Transaction> applied = new ArrayList<>(batch.size());
+        List<WalRecord> rejected = new ArrayList<>();
+        List<AuditLog> logs = new ArrayList<>();
+
+        for (WalRecord record : batch) {
+            try {
+                List<AuditLog> entries = UnitOfWork.execute(() -> applyLogged(record));
+                Transaction t = new Transaction(record.getTxnId(), record.getFromAccountId(), record.getToAccountId(),
+                        record.getType(), record.getAmount(), "SUCCESS", record.getCreatedAt());
+                transactionRepository.save(t);
+                auditLogRepository.saveAll(entries);
+                notifyListeners(t, entries);
+                applied.add(t);
+                logs.addAll(entries);
+            } catch (AccountClosedException | InsufficientFundsException e) {
+                logger.warn("⚠️ Logged {} {} rejected on apply: {}", record.getType(), record.getTxnId(), e.getMessage());
+                rejected.add(record);
+                logs.add(recordLoggedFailure(record));
+            }
+        }
+
+        return () -> {
+            for (WalRecord record : rejected) {
+                release(record.getFromAccountId(), record.getToAccountId(), record.getAmount());
+            }
+            MiniStatementService ms = MiniStatementService.getInstance(transactionRepository);
+            for (Transaction t : applied) {
+                if (t.getFromAccountId() != null) ms.addTransaction(t.getFromAccountId(), t);
+                if (t.getToAccountId() != null) ms.addTransaction(t.getToAccountId(), t);
+            }
+            dispatchAudit(logs);
+        };
+    }
+
+    // A record the database keeps refusing: its PENDING transaction resolves as FAILED and its reservation is undone
+    private Runnable rejectLogged(WalRecord record) {
+        AuditLog failLog = recordLoggedFailure(record);
+        return () -> {
+            release(record.getFromAccountId(), record.getToAccountId(), record.getAmount());
+            dispatchAudit(List.of(failLog));
+        };
+    }
+
+    // Balance changes for one record; the same conditional credit/debit the strategies use
+    private List<AuditLog> applyLogged(WalRecord record) {
+        String txnId = record.getTxnId();
+        String actorId = record.getActorId();
+        BigDecimal amount = record.getAmount();
+        Instant at = record.getCreatedAt();
+
+        switch (record.getType()) {
+            case "DEPOSIT": {
+                BigDecimal after = accountRepository.credit(record.getToAccountId(), amount);
+                if (after == null) throw new AccountClosedException("Account is closed");
+                return List.of(new AuditLog(UUID.randomUUID().toString(), txnId, record.getToAccountId(), actorId,
+                        "DEPOSIT", after.subtract(amount), after, at));
+            }
+            case "WITHDRAW": {
+                BigDecimal after = accountRepository.debit(record.getFromAccountId(), amount);
+                if (after == null) throw new InsufficientFundsException("Insufficient funds for withdrawal");
+                return List.of(new AuditLog(UUID.randomUUID().toString(), txnId, record.getFromAccountId(), actorId,
+                        "WITHDRAW", after.add(amount), after, at));
+            }
+            case "TRANSFER": {
+                BigDecimal srcAfter = accountRepository.debit(record.getFromAccountId(), amount);
+                if (srcAfter == null) throw new InsufficientFundsException("Insufficient funds");
+                BigDecimal destAfter = accountRepository.credit(record.getToAccountId(), amount);
+                if (destAfter == null) throw new AccountClosedException("Destination account is closed");
+                return List.of(
+                        new AuditLog(UUID.randomUUID().toString(), txnId, record.getFromAccountId(), actorId,
+                                "TRANSFER-DEBIT", srcAfter.add(amount), srcAfter, at),
+                        new AuditLog(UUID.randomUUID().toString(), txnId, record.getToAccountId(), actorId,
+                                "TRANSFER-CREDIT", destAfter.subtract(amount), destAfter, at));
+            }
+            default:
+                throw new IllegalStateException("Unknown logged operation type: " + record.getType());
+        }
+    }
+
+    // FAILED row under the id the caller was given, so a PENDING transaction always resolves
+    private AuditLog recordLoggedFailure(WalRecord record) {
+        String accountId = record.getFromAccountId() != null ? record.getFromAccountId() : record.getToAccountId();
+        Account account = accountRepository.findById(accountId);
+        BigDecimal balance = account == null ? BigDecimal.ZERO : account.getBalance();
+
+        Transaction failTxn = new Transaction(record.getTxnId(), record.getFromAccountId(),
+                "TRANSFER".equals(record.getType()) ? null : record.getToAccountId(),
+                record.getType(), record.getAmount(), "FAILED", record.getCreatedAt());
+        AuditLog failLog = new AuditLog(UUID.randomUUID().toString(), failTxn.getId(), accountId,
+                record.getActorId(), record.getType() + "_FAILED", balance, balance, record.getCreatedAt());
+        transactionRepository.save(failTxn);
+        auditLogRepository.save(failLog);
+        return failLog;
+    }
+
+    // Engine mode: wait for the owning shard's answer (it has already recorded a refusal as FAILED)
+    private Transaction viaEngine(CompletableFuture<Transaction> result, String failurePrefix) {
+        Transaction txn;
+        try {
+            txn = result.get(engineTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw new TransactionFailedException(failurePrefix + e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            // Reported as busy; the shard may still complete it, and its outcome is then recorded as usual
+            throw new TransactionFailedException(failurePrefix + "no answer from the ledger engine within "
+                    + engineTimeoutMillis + " ms", new EngineBusyException("Ledger engine did not answer in time"));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransactionFailedException(failurePrefix + "interrupted while waiting for the ledger engine", e);
+        }
+        MiniStatementService ms = MiniStatementService.getInstance(transactionRepository);
+        if (txn.getFromAccountId() != null) ms.addTransaction(txn.getFromAccountId(), txn);
+        if (txn.getToAccountId() != null) ms.addTransaction(txn.getToAccountId(), txn);
+        return txn;
+    }
+
+    // Persist a FAILED transaction and its audit entry in their own unit of work
+    private void recordFailure(Transaction failTxn, AuditLog failLog) {
+        failTxn.setStatus("FAILED");
+        UnitOfWork.run(() -> {
+            transactionRepository.save(failTxn);
             auditLogRepository.save(failLog);
-            dynamoDbAuditLogRepository.save(failLog);
+        });
+        dispatchAudit(List.of(failLog));
+    }
 
-            throw new TransactionFailedException("Transfer failed: " + ex.getMessage());
+    private void notifyListeners(Transaction txn, List<AuditLog> logs) {
+        for (TransactionListener listener : listeners) {
+            listener.onTransaction(txn, logs);
         }
     }
 
+    // The money movement is already committed, so no sink failure (full queue, SYNC write error...)
+    // may reach the caller as if the movement had failed; it is counted and logged instead
+    private void dispatchAudit(List<AuditLog> logs) {
+        try {
+            auditDispatcher.dispatch(logs);
+        } catch (AuditQueueFullException e) {
+            auditDispatchFailures.incrementAndGet();
+            logger.warn("⚠️ {} audit log(s) not queued: {}", logs.size(), e.getMessage());
+        } catch (RuntimeException e) {
+            auditDispatchFailures.incrementAndGet();
+            logger.error("❌ {} audit log(s) not written after commit", logs.size(), e);
+        }
+    }
+
+    // ✅ Metrics
+    public long getAuditDispatchFailures() { return auditDispatchFailures.get(); }
+
     // Transaction history
     public List<Transaction> getHistory(String accountNumber, String actorId) {
         Account account = accountRepository.findByNumber(accountNumber);
@@ -230,5 +767,25 @@ public class TransactionService {
 
         return transactionRepository.findByAccountId(account.getId());
     }
+
+    // Transaction history, one keyset page at a time (cursor null = newest page)
+    public TransactionPage getHistoryPage(String accountNumber, String actorId, HistoryCursor cursor,
+                                          int pageSize, Instant from, Instant to) {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("Start of date range must be before its end");
+        }
+
+        Account account = accountRepository.findByNumber(accountNumber);
+        if (account == null) throw new AccountNotFoundException("Account not found");
+
+        if (!account.getCustomerId().equals(actorId)) {
+            throw new UnauthorizedAccessException("Unauthorized: cannot view this account's transactions");
+        }
+
+        return transactionRepository.findPageByAccountId(account.getId(), cursor, pageSize, from, to);
+    }
 }
 
@@ -1,21 +1,34 @@
 package com.example.banking.strategy;
 
+import com.example.banking.exception.AccountClosedException;
 import com.example.banking.exception.NegativeAmountException;
 import com.example.banking.model.Account;
 import com.example.banking.model.Transaction;
+import com.example.banking.repository.AccountRepository;
 
 import java.math.BigDecimal;
 import java.util.UUID;
 
 public class DepositStrategy implements TransactionStrategy {
 
+    private final AccountRepository accountRepository;
+
+    public DepositStrategy(AccountRepository accountRepository) {
+        this.accountRepository = accountRepository;
+    }
+
     @Override
     public Transaction execute(Account account, BigDecimal amount, String targetAccountNumber) {
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new NegativeAmountException("Deposit amount must be positive");
         }
 
-        account.setBalance(account.getBalance().add(amount));
+        // Balance is changed atomically in the database; the in-memory copy is refreshed from the result
+        BigDecimal newBalance = accountRepository.credit(account.getId(), amount);
+        if (newBalance == null) {
+            throw new AccountClosedException("Account is closed");
+        }
+        account.setBalance(newBalance);
 
         return new Transaction(
                 UUID.randomUUID().toString(),
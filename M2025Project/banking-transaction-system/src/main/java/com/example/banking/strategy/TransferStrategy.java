@@ -1,18 +1,22 @@
 package com.example.banking.strategy;
 
+import com.example.banking.exception.AccountClosedException;
 import com.example.banking.exception.InsufficientFundsException;
 import com.example.banking.exception.NegativeAmountException;
 import com.example.banking.model.Account;
 import com.example.banking.model.Transaction;
+import com.example.banking.repository.AccountRepository;
 
 import java.math.BigDecimal;
 import java.util.UUID;
 
 public class TransferStrategy implements TransactionStrategy {
 
+    private final AccountRepository accountRepository;
     private final Account targetAccount;
 
-    public TransferStrategy(Account targetAccount) {
+    public TransferStrategy(AccountRepository accountRepository, Account targetAccount) {
+        this.accountRepository = accountRepository;
         this.targetAccount = targetAccount;
     }
 
@@ -21,15 +25,21 @@ public class TransferStrategy implements TransactionStrategy {
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new NegativeAmountException("Transfer amount must be positive");
         }
-        if (sourceAccount.getBalance().compareTo(amount) < 0) {
+
+        // Deduct from source (refused by the database if funds are insufficient)
+        BigDecimal newSourceBalance = accountRepository.debit(sourceAccount.getId(), amount);
+        if (newSourceBalance == null) {
             throw new InsufficientFundsException("Insufficient funds");
         }
 
-        // Deduct from source
-        sourceAccount.setBalance(sourceAccount.getBalance().subtract(amount));
+        // Credit to destination (caller's unit of work rolls back the debit if this fails)
+        BigDecimal newTargetBalance = accountRepository.credit(targetAccount.getId(), amount);
+        if (newTargetBalance == null) {
+            throw new AccountClosedException("Destination account is closed");
+        }
 
-        // Credit to destination
-        targetAccount.setBalance(targetAccount.getBalance().add(amount));
+        sourceAccount.setBalance(newSourceBalance);
+        targetAccount.setBalance(newTargetBalance);
 
         return new Transaction(
                 UUID.randomUUID().toString(),
@@ -40,5 +50,3 @@ public class TransferStrategy implements TransactionStrategy {
         );
     }
 }
-
-
@@ -4,22 +4,31 @@ import com.example.banking.exception.NegativeAmountException;
 import com.example.banking.exception.InsufficientFundsException;
 import com.example.banking.model.Account;
 import com.example.banking.model.Transaction;
+import com.example.banking.repository.AccountRepository;
 
 import java.math.BigDecimal;
 import java.util.UUID;
 
 public class WithdrawStrategy implements TransactionStrategy {
 
+    private final AccountRepository accountRepository;
+
+    public WithdrawStrategy(AccountRepository accountRepository) {
+        this.accountRepository = accountRepository;
+    }
+
     @Override
     public Transaction execute(Account account, BigDecimal amount, String targetAccountNumber) {
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new NegativeAmountException("Withdraw amount must be positive");
         }
-        if (account.getBalance().compareTo(amount) < 0) {
+
+        // Conditional debit: the database refuses it if the balance would go negative
+        BigDecimal newBalance = accountRepository.debit(account.getId(), amount);
+        if (newBalance == null) {
             throw new InsufficientFundsException("Insufficient funds for withdrawal");
         }
-
-        account.setBalance(account.getBalance().subtract(amount));
+        account.setBalance(newBalance);
 
         return new Transaction(
                 UUID.randomUUID().toString(),
@@ -0,0 +1,99 @@
+package com.example.banking.utils;
+
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped per-account locks.
+ * - Each account id hashes to one of a fixed number of stripes, so memory does not grow with accounts.
+ * - Operations on unrelated accounts almost always land on different stripes and run in parallel.
+ * - Multi-account operations lock their stripes in ascending stripe order, so two transfers
+ *   in opposite directions can never deadlock.
+ */
+public class AccountLockManager {
+
+    private static volatile AccountLockManager instance;
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public AccountLockManager(int stripeCount) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1; // round up to power of two
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    public static AccountLockManager getInstance() {
+        if (instance == null) {
+            synchronized (AccountLockManager.class) {
+                if (instance == null) {
+                    instance = new AccountLockManager(Runtime.getRuntime().availableProcessors() * 64);
+                }
+            }
+        }
+        return instance;
+    }
+
+    // ✅ Run work while holding the lock for one account
+    public <T> T withLock(String accountId, Supplier<T> work) {
+        ReentrantLock lock = stripes[stripeOf(accountId)];
+        lock.lock();
+        try {
+            return work.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ✅ Run work while holding the locks for several accounts (taken in global stripe order)
+    public <T> T withLocks(Collection<String> accountIds, Supplier<T> work) {
+        TreeSet<Integer> ordered = new TreeSet<>();
+        for (String id : accountIds) {
+            ordered.add(stripeOf(id));
+        }
+
+        int locked = 0;
+        Integer[] indexes = ordered.toArray(new Integer[0]);
+        try {
+            for (Integer index : indexes) {
+                stripes[index].lock();
+                locked++;
+            }
+            return work.get();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                stripes[indexes[i]].unlock();
+            }
+        }
+    }
+
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    /**
+     * Splits accounts into `partitions` groups (a power of two, at most the stripe count) along stripe
+     * boundaries: workers that each own one group never wait on each other's single-account locks.
+     * Depends only on the account id and the partition count, so it is the same on every machine.
+     */
+    public int partitionOf(String accountId, int partitions) {
+        if (Integer.bitCount(partitions) != 1 || partitions > stripes.length) {
+            throw new IllegalArgumentException("Partitions must be a power of two up to " + stripes.length);
+        }
+        return spread(accountId) & (partitions - 1);
+    }
+
+    int stripeOf(String accountId) {
+        return spread(accountId) & mask;
+    }
+
+    private static int spread(String accountId) {
+        int h = accountId.hashCode();
+        return h ^ (h >>> 16); // spread high bits, same as HashMap
+    }
+}
@@ -5,11 +5,21 @@ import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.Map;
 
 public class AuditLogMapper {
 
+    // Fixed-width UTC timestamps sort lexicographically in time order, which the accountId/createdAt index relies on
+    private static final DateTimeFormatter SORTABLE_INSTANT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSSSSSSS'Z'").withZone(ZoneOffset.UTC);
+
+    public static String formatInstant(Instant instant) {
+        return SORTABLE_INSTANT.format(instant);
+    }
+
     public static Map<String, AttributeValue> toAttributeMap(AuditLog log) {
         Map<String, AttributeValue> map = new HashMap<>();
         map.put("logId", AttributeValue.builder().s(log.getId()).build());
@@ -19,7 +29,7 @@ public class AuditLogMapper {
         map.put("action", AttributeValue.builder().s(log.getAction()).build());
         map.put("beforeBalance", AttributeValue.builder().n(log.getBeforeBalance().toPlainString()).build());
         map.put("afterBalance", AttributeValue.builder().n(log.getAfterBalance().toPlainString()).build());
-        map.put("createdAt", AttributeValue.builder().s(log.getCreatedAt().toString()).build());
+        map.put("createdAt", AttributeValue.builder().s(formatInstant(log.getCreatedAt())).build());
         return map;
     }
 
@@ -0,0 +1,315 @@
+package com.example.banking.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Small fixed-bound JDBC connection pool.
+ * - Keeps between minSize and maxSize physical connections open, reopening up to minSize after discards.
+ * - Validates a connection before handing it out only if it sat idle longer than validateAfterIdleMillis,
+ *   so the hot path of borrow/return/borrow skips the isValid round-trip.
+ * - Fails with SQLTimeoutException if no connection frees up within acquireTimeoutMillis.
+ * - Logs a warning (with the borrower's stack trace) when a connection is held longer than leakThresholdMillis;
+ *   the stack is only captured when that check is on.
+ *
+ * Connections handed out are proxies: calling close() returns the physical connection to the pool,
+ * or closes it if the pool has been shut down meanwhile.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPool.class);
+
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection create() throws SQLException;
+    }
+
+    private final ConnectionFactory factory;
+    private final int minSize;
+    private final int maxSize;
+    private final long acquireTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final long validateAfterIdleMillis;
+    private final int validationTimeoutSeconds;
+
+    private final LinkedBlockingDeque<Connection> idle = new LinkedBlockingDeque<>();
+    private final Map<Connection, Long> idleSince = new ConcurrentHashMap<>();
+    private final Map<Connection, Lease> leased = new ConcurrentHashMap<>();
+    private final Semaphore permits;
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    // Metrics
+    private final AtomicLong acquireCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
+    private final AtomicLong discardedCount = new AtomicLong();
+
+    public static final long DEFAULT_VALIDATE_AFTER_IDLE_MILLIS = 500;
+
+    public ConnectionPool(ConnectionFactory factory, int minSize, int maxSize,
+                          long acquireTimeoutMillis, long leakThresholdMillis) {
+        this(factory, minSize, maxSize, acquireTimeoutMillis, leakThresholdMillis, DEFAULT_VALIDATE_AFTER_IDLE_MILLIS);
+    }
+
+    public ConnectionPool(ConnectionFactory factory, int minSize, int maxSize,
+                          long acquireTimeoutMillis, long leakThresholdMillis, long validateAfterIdleMillis) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+        this.factory = factory;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.validateAfterIdleMillis = validateAfterIdleMillis;
+        this.validationTimeoutSeconds = 2;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        if (leakThresholdMillis > 0) {
+            long period = Math.max(1000, leakThresholdMillis / 2);
+            housekeeper.scheduleAtFixedRate(this::detectLeaks, period, period, TimeUnit.MILLISECONDS);
+        }
+        housekeeper.execute(this::fillToMinimum);
+    }
+
+    // ✅ Borrow a connection (blocks up to acquireTimeoutMillis)
+    public Connection getConnection() throws SQLException {
+        if (closed) throw new SQLException("Connection pool is closed");
+
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        }
+        recordWait(System.nanoTime() - start);
+        if (!acquired) {
+            timeoutCount.incrementAndGet();
+            throw new SQLTimeoutException("Timed out after " + acquireTimeoutMillis
+                    + " ms waiting for a connection (active=" + getActiveCount() + ", max=" + maxSize + ")");
+        }
+
+        try {
+            Connection physical = takeValidIdle();
+            if (physical == null) {
+                physical = factory.create();
+                totalConnections.incrementAndGet();
+            }
+            Throwable borrowSite = leakThresholdMillis > 0 ? new Throwable("Connection borrowed here") : null;
+            leased.put(physical, new Lease(System.currentTimeMillis(), borrowSite));
+            return wrap(physical);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private Connection takeValidIdle() {
+        Connection conn;
+        while ((conn = idle.pollFirst()) != null) {
+            Long since = idleSince.remove(conn);
+            boolean fresh = since != null && System.currentTimeMillis() - since < validateAfterIdleMillis;
+            if (fresh || isValid(conn)) return conn;
+            discard(conn);
+        }
+        return null;
+    }
+
+    private boolean isValid(Connection conn) {
+        try {
+            return !conn.isClosed() && conn.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    // Called by the proxy when the caller closes its connection
+    private void release(Connection physical) {
+        if (leased.remove(physical) == null) return; // already released
+
+        try {
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            discard(physical);
+            permits.release();
+            return;
+        }
+
+        if (closed) {
+            discard(physical);
+        } else {
+            idleSince.put(physical, System.currentTimeMillis());
+            idle.offerFirst(physical); // LIFO keeps the hottest connections in use
+            // close() may have drained the idle list between the check and the offer
+            if (closed && idle.remove(physical)) discard(physical);
+        }
+        permits.release();
+    }
+
+    private void discard(Connection physical) {
+        idleSince.remove(physical);
+        totalConnections.decrementAndGet();
+        discardedCount.incrementAndGet();
+        try {
+            physical.close();
+        } catch (SQLException ignored) {}
+        if (!closed && totalConnections.get() < minSize) {
+            try {
+                housekeeper.execute(this::fillToMinimum);
+            } catch (RejectedExecutionException ignored) {
+                // shut down concurrently
+            }
+        }
+    }
+
+    private void fillToMinimum() {
+        while (!closed && totalConnections.get() < minSize) {
+            if (!permits.tryAcquire()) return;
+            try {
+                Connection conn = factory.create();
+                totalConnections.incrementAndGet();
+                idleSince.put(conn, System.currentTimeMillis());
+                idle.offerLast(conn);
+            } catch (SQLException e) {
+                logger.warn("⚠️ Could not pre-open pooled connection: {}", e.getMessage());
+                return;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    private void detectLeaks() {
+        long now = System.currentTimeMillis();
+        for (Lease lease : leased.values()) {
+            if (!lease.reported && now - lease.borrowedAt > leakThresholdMillis) {
+                lease.reported = true;
+                leakCount.incrementAndGet();
+                logger.warn("⚠️ Possible connection leak: held for {} ms", now - lease.borrowedAt, lease.borrowSite);
+            }
+        }
+    }
+
+    private void recordWait(long nanos) {
+        acquireCount.incrementAndGet();
+        totalWaitNanos.addAndGet(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private Connection wrap(Connection physical) {
+        InvocationHandler handler = new InvocationHandler() {
+            private boolean released;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "close":
+                        if (!released) {
+                            released = true;
+                            release(physical);
+                        }
+                        return null;
+                    case "isClosed":
+                        return released || physical.isClosed();
+                    case "unwrap":
+                        if (((Class<?>) args[0]).isInstance(physical)) return physical;
+                        break;
+                    case "toString":
+                        return "Pooled[" + physical + "]";
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        if (released) throw new SQLException("Connection already returned to pool");
+                }
+                try {
+                    return method.invoke(physical, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        };
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, handler);
+    }
+
+    // ✅ Metrics
+    public int getActiveCount() { return leased.size(); }
+    public int getIdleCount() { return idle.size(); }
+    public int getTotalCount() { return totalConnections.get(); }
+    public int getMaxSize() { return maxSize; }
+    public int getWaitingThreads() { return permits.getQueueLength(); }
+    public long getAcquireCount() { return acquireCount.get(); }
+    public long getTimeoutCount() { return timeoutCount.get(); }
+    public long getLeakCount() { return leakCount.get(); }
+    public long getDiscardedCount() { return discardedCount.get(); }
+    public double getAverageWaitMillis() {
+        long count = acquireCount.get();
+        return count == 0 ? 0 : totalWaitNanos.get() / 1_000_000.0 / count;
+    }
+    public double getMaxWaitMillis() { return maxWaitNanos.get() / 1_000_000.0; }
+
+    public String stats() {
+        return String.format("active=%d idle=%d total=%d/%d waiting=%d acquires=%d avgWait=%.3fms maxWait=%.3fms timeouts=%d leaks=%d",
+                getActiveCount(), getIdleCount(), getTotalCount(), maxSize, getWaitingThreads(),
+                getAcquireCount(), getAverageWaitMillis(), getMaxWaitMillis(), getTimeoutCount(), getLeakCount());
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        Connection conn;
+        while ((conn = idle.pollFirst()) != null) {
+            discard(conn);
+        }
+        if (!leased.isEmpty()) {
+            logger.info("🔹 Connection pool closed with {} connections still leased; they close when returned",
+                    leased.size());
+        }
+    }
+
+    private static final class Lease {
+        private final long borrowedAt;
+        private final Throwable borrowSite; // null when leak detection is off
+        private volatile boolean reported;
+
+        private Lease(long borrowedAt, Throwable borrowSite) {
+            this.borrowedAt = borrowedAt;
+            this.borrowSite = borrowSite;
+        }
+    }
+}
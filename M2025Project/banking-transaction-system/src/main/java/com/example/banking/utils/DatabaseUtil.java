@@ -5,12 +5,36 @@ import java.sql.DriverManager;
 import java.sql.SQLException;
 
 public class DatabaseUtil {
-    private static final String URL = "jdbc:mysql://localhost:3306/banking_system";
+    // rewriteBatchedStatements turns JDBC batches into multi-row INSERTs
+    private static final String URL = "jdbc:mysql://localhost:3306/banking_system"
+            + "?rewriteBatchedStatements=true";
     private static final String USER = "bank_user";        // ✅ your MySQL user
     private static final String PASSWORD = "Prreya@888"; // 🔹 replace with actual password
 
+    // Pool settings (override with -Ddb.pool.minSize=... etc.)
+    private static final int POOL_MIN_SIZE = Integer.getInteger("db.pool.minSize", 2);
+    private static final int POOL_MAX_SIZE = Integer.getInteger("db.pool.maxSize", 10);
+    private static final long ACQUIRE_TIMEOUT_MS = Long.getLong("db.pool.acquireTimeoutMs", 5_000L);
+    private static final long LEAK_THRESHOLD_MS = Long.getLong("db.pool.leakThresholdMs", 30_000L);
+    private static final long VALIDATE_AFTER_IDLE_MS = Long.getLong("db.pool.validateAfterIdleMs",
+            ConnectionPool.DEFAULT_VALIDATE_AFTER_IDLE_MILLIS);
+
+    // Lazily created on first use so nothing connects until a repository needs MySQL
+    private static final class PoolHolder {
+        private static final ConnectionPool POOL = new ConnectionPool(
+                () -> DriverManager.getConnection(URL, USER, PASSWORD),
+                POOL_MIN_SIZE, POOL_MAX_SIZE, ACQUIRE_TIMEOUT_MS, LEAK_THRESHOLD_MS, VALIDATE_AFTER_IDLE_MS);
+    }
+
+    // Returns a pooled connection; closing it hands it back to the pool.
+    // Inside a UnitOfWork the thread's shared transactional connection is returned instead.
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL, USER, PASSWORD);
+        Connection joined = UnitOfWork.currentConnection(PoolHolder.POOL);
+        return (joined != null) ? joined : PoolHolder.POOL.getConnection();
+    }
+
+    public static ConnectionPool getPool() {
+        return PoolHolder.POOL;
     }
 
     // Quick test
@@ -20,5 +44,6 @@ public class DatabaseUtil {
         } catch (SQLException e) {
             System.err.println("❌ Connection failed: " + e.getMessage());
         }
+        System.out.println("📊 Pool: " + getPool().stats());
     }
 }
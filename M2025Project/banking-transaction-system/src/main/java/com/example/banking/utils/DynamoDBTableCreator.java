@@ -1,5 +1,6 @@
 package com.example.banking.utils;
 
+import com.example.banking.repository.DynamoDBAuditLogRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
@@ -15,6 +16,7 @@ public class DynamoDBTableCreator {
         try {
             if (DynamoDBUtil.tableExists(dynamoDb, tableName)) {
                 logger.info("✅ Table already exists: {}", tableName);
+                ensureAccountIndex(dynamoDb, tableName);
                 return;
             }
 
@@ -28,17 +30,12 @@ public class DynamoDBTableCreator {
                                     .build()
                     )
                     .attributeDefinitions(
-                            AttributeDefinition.builder()
-                                    .attributeName("logId")
-                                    .attributeType(ScalarAttributeType.S)
-                                    .build()
-                    )
-                    .provisionedThroughput(
-                            ProvisionedThroughput.builder()
-                                    .readCapacityUnits(5L)
-                                    .writeCapacityUnits(5L)
-                                    .build()
+                            stringAttribute("logId"),
+                            stringAttribute("accountId"),
+                            stringAttribute("createdAt")
                     )
+                    .globalSecondaryIndexes(accountIndex())
+                    .provisionedThroughput(throughput())
                     .build();
 
             dynamoDb.createTable(request);
@@ -51,10 +48,61 @@ public class DynamoDBTableCreator {
         }
     }
 
+    // 🔹 Tables created before the index existed get it added in place
+    private static void ensureAccountIndex(DynamoDbClient dynamoDb, String tableName) {
+        TableDescription table = dynamoDb.describeTable(b -> b.tableName(tableName)).table();
+        boolean present = table.hasGlobalSecondaryIndexes() && table.globalSecondaryIndexes().stream()
+                .anyMatch(gsi -> DynamoDBAuditLogRepository.ACCOUNT_INDEX.equals(gsi.indexName()));
+        if (present) {
+            logger.info("✅ Index already exists: {}.{}", tableName, DynamoDBAuditLogRepository.ACCOUNT_INDEX);
+            return;
+        }
+
+        GlobalSecondaryIndex index = accountIndex();
+        dynamoDb.updateTable(b -> b
+                .tableName(tableName)
+                .attributeDefinitions(stringAttribute("accountId"), stringAttribute("createdAt"))
+                .globalSecondaryIndexUpdates(GlobalSecondaryIndexUpdate.builder()
+                        .create(CreateGlobalSecondaryIndexAction.builder()
+                                .indexName(index.indexName())
+                                .keySchema(index.keySchema())
+                                .projection(index.projection())
+                                .provisionedThroughput(index.provisionedThroughput())
+                                .build())
+                        .build()));
+        logger.info("✅ Adding index (backfills in the background): {}.{}", tableName, index.indexName());
+    }
+
+    // accountId + createdAt, projecting every attribute so queries never go back to the table
+    private static GlobalSecondaryIndex accountIndex() {
+        return GlobalSecondaryIndex.builder()
+                .indexName(DynamoDBAuditLogRepository.ACCOUNT_INDEX)
+                .keySchema(
+                        KeySchemaElement.builder().attributeName("accountId").keyType(KeyType.HASH).build(),
+                        KeySchemaElement.builder().attributeName("createdAt").keyType(KeyType.RANGE).build()
+                )
+                .projection(Projection.builder().projectionType(ProjectionType.ALL).build())
+                .provisionedThroughput(throughput())
+                .build();
+    }
+
+    private static AttributeDefinition stringAttribute(String name) {
+        return AttributeDefinition.builder()
+                .attributeName(name)
+                .attributeType(ScalarAttributeType.S)
+                .build();
+    }
+
+    private static ProvisionedThroughput throughput() {
+        return ProvisionedThroughput.builder()
+                .readCapacityUnits(5L)
+                .writeCapacityUnits(5L)
+                .build();
+    }
+
     public static void main(String[] args) {
         DynamoDbClient dynamoDb = DynamoDBUtil.getLocalClient();
         createAuditLogsTable(dynamoDb);
         dynamoDb.close();
     }
 }
-
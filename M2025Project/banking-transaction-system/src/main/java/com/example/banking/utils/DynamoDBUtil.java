@@ -3,17 +3,43 @@ package com.example.banking.utils;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 
 import java.net.URI;
 
 public class DynamoDBUtil {
 
+    private static final String LOCAL_ENDPOINT = "http://localhost:8000";
+
     // Returns a DynamoDbClient connected to local DynamoDB
     public static DynamoDbClient getLocalClient() {
+        return getLocalClient(LOCAL_ENDPOINT);
+    }
+
+    // Returns a DynamoDbClient connected to the given endpoint (e.g. DynamoDB Local or a test stand-in)
+    public static DynamoDbClient getLocalClient(String endpoint) {
         return DynamoDbClient.builder()
                 .region(Region.US_EAST_1)
-                .endpointOverride(URI.create("http://localhost:8000"))
+                .endpointOverride(URI.create(endpoint))
+                .credentialsProvider(
+                        StaticCredentialsProvider.create(
+                                AwsBasicCredentials.create("dummyKey", "dummySecret")
+                        )
+                )
+                .build();
+    }
+
+    // Returns a non-blocking DynamoDbAsyncClient connected to local DynamoDB
+    public static DynamoDbAsyncClient getLocalAsyncClient() {
+        return getLocalAsyncClient(LOCAL_ENDPOINT);
+    }
+
+    // 🔹 Requests are multiplexed over the async HTTP client's connection pool instead of one blocked thread each
+    public static DynamoDbAsyncClient getLocalAsyncClient(String endpoint) {
+        return DynamoDbAsyncClient.builder()
+                .region(Region.US_EAST_1)
+                .endpointOverride(URI.create(endpoint))
                 .credentialsProvider(
                         StaticCredentialsProvider.create(
                                 AwsBasicCredentials.create("dummyKey", "dummySecret")
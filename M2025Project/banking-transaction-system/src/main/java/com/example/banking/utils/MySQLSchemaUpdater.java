@@ -0,0 +1,198 @@
+package com.example.banking.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Adds the indexes the repositories' queries rely on. Safe to run repeatedly.
+ */
+public class MySQLSchemaUpdater {
+
+    private static final Logger logger = LoggerFactory.getLogger(MySQLSchemaUpdater.class);
+
+    // Keyset history pages scan (account, created_at, id) on each side of a transfer
+    public static void createTransactionHistoryIndexes(Connection conn) throws SQLException {
+        ensureIndex(conn, "transactions", "idx_txn_from_created", "from_account_id, created_at, id");
+        ensureIndex(conn, "transactions", "idx_txn_to_created", "to_account_id, created_at, id");
+    }
+
+    // Per-account audit trail pages (AuditLogRepository.findByAccountId)
+    public static void createAuditLogIndexes(Connection conn) throws SQLException {
+        ensureIndex(conn, "audit_logs", "idx_audit_account_created", "account_id, created_at, id");
+    }
+
+    // Append-only ledger (seq gives a global order) and per-account snapshots of it.
+    // bucket (CRC32(account_id) % 1024, computed by MySQL) makes each recovery partition one index range.
+    public static void createLedgerTables(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS ledger_events (" +
+                    "seq BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY, " +
+                    "id VARCHAR(36) NOT NULL UNIQUE, " +
+                    "account_id VARCHAR(36) NOT NULL, " +
+                    "transaction_id VARCHAR(36), " +
+                    "amount DECIMAL(15,2) NOT NULL, " +
+                    "balance_after DECIMAL(15,2) NOT NULL, " +
+                    "created_at TIMESTAMP(6) NOT NULL, " +
+                    "INDEX idx_ledger_account_seq (account_id, seq))");
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS balance_snapshots (" +
+                    "account_id VARCHAR(36) NOT NULL PRIMARY KEY, " +
+                    "balance DECIMAL(15,2) NOT NULL, " +
+                    "last_seq BIGINT NOT NULL, " +
+                    "created_at TIMESTAMP(6) NOT NULL)");
+        }
+        // Added separately so tables created before the column get it too
+        ensureColumn(conn, "ledger_events", "bucket", "SMALLINT AS (CRC32(account_id) % 1024) STORED");
+        ensureColumn(conn, "balance_snapshots", "bucket", "SMALLINT AS (CRC32(account_id) % 1024) STORED");
+        ensureIndex(conn, "ledger_events", "idx_ledger_bucket_account_seq", "bucket, account_id, seq");
+        ensureIndex(conn, "balance_snapshots", "idx_snapshot_bucket", "bucket, account_id");
+        logger.info("✅ Ledger tables ready");
+    }
+
+    /**
+     * Double-entry postings. amount is the last index column, so totals and balances are index-only scans.
+     * An empty table is backfilled from existing SUCCESS transactions (debit from source, credit to destination).
+     */
+    public static void createPostingsTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS postings (" +
+                    "id VARCHAR(36) NOT NULL PRIMARY KEY, " +
+                    "transaction_id VARCHAR(36) NOT NULL, " +
+                    "account_id VARCHAR(36) NOT NULL, " +
+                    "amount DECIMAL(15,2) NOT NULL, " +
+                    "created_at TIMESTAMP(6) NOT NULL, " +
+                    "INDEX idx_postings_account_created (account_id, created_at, id, amount), " +
+                    "INDEX idx_postings_txn (transaction_id))");
+        }
+        logger.info("✅ Postings table ready ({} postings backfilled)", backfillPostings(conn));
+    }
+
+    private static final int POSTINGS_BACKFILL_CHUNK = 5_000;
+
+    // Postings for successful transactions that have none yet, one chunk of transaction ids per statement.
+    // Chunks commit one at a time and sides already posted are skipped (idx_postings_txn), so an
+    // interrupted run resumes where it stopped and re-running it is harmless.
+    static int backfillPostings(Connection conn) throws SQLException {
+        String chunkEnd = "SELECT MAX(id) FROM (SELECT id FROM transactions WHERE id > ? ORDER BY id LIMIT ?) c";
+        String side = "SELECT UUID(), t.id, t.%1$s, %2$st.amount, t.created_at FROM transactions t " +
+                "WHERE t.id > ? AND t.id <= ? AND t.status = 'SUCCESS' AND t.%1$s IS NOT NULL " +
+                "AND NOT EXISTS (SELECT 1 FROM postings p WHERE p.transaction_id = t.id AND p.account_id = t.%1$s)";
+        String insert = "INSERT INTO postings (id, transaction_id, account_id, amount, created_at) " +
+                String.format(side, "from_account_id", "-") + " UNION ALL " + String.format(side, "to_account_id", "");
+
+        int rows = 0;
+        String last = "";
+        try (PreparedStatement next = conn.prepareStatement(chunkEnd);
+             PreparedStatement ps = conn.prepareStatement(insert)) {
+            while (true) {
+                next.setString(1, last);
+                next.setInt(2, POSTINGS_BACKFILL_CHUNK);
+                String end;
+                try (ResultSet rs = next.executeQuery()) {
+                    end = rs.next() ? rs.getString(1) : null;
+                }
+                if (end == null) return rows;
+
+                for (int i = 0; i < 2; i++) {
+                    ps.setString(2 * i + 1, last);
+                    ps.setString(2 * i + 2, end);
+                }
+                rows += ps.executeUpdate();
+                last = end;
+            }
+        }
+    }
+
+    // Per-account, per-day (UTC) rollups; fill with StatementService.backfill after creating
+    public static void createDailyBalanceTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS daily_balances (" +
+                    "account_id VARCHAR(36) NOT NULL, " +
+                    "day DATE NOT NULL, " +
+                    "opening_balance DECIMAL(15,2) NOT NULL, " +
+                    "credits DECIMAL(15,2) NOT NULL, " +
+                    "debits DECIMAL(15,2) NOT NULL, " +
+                    "txn_count INT NOT NULL, " +
+                    "closing_balance DECIMAL(15,2) NOT NULL, " +
+                    "PRIMARY KEY (account_id, day))");
+            logger.info("✅ Daily balance table ready");
+        }
+    }
+
+    // Highest write-ahead log LSN already applied to MySQL (single row, id = 1)
+    public static void createWalTables(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS wal_checkpoint (" +
+                    "id TINYINT NOT NULL PRIMARY KEY, " +
+                    "applied_lsn BIGINT NOT NULL)");
+            logger.info("✅ WAL checkpoint table ready");
+        }
+    }
+
+    public static void createIngestTables(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS ingest_checkpoint (" +
+                    "file_key VARCHAR(255) NOT NULL, " +
+                    "partition_no INT NOT NULL, " +
+                    "applied_offset BIGINT NOT NULL, " +
+                    "PRIMARY KEY (file_key, partition_no))");
+            logger.info("✅ Ingest checkpoint table ready");
+        }
+    }
+
+    static void ensureColumn(Connection conn, String table, String column, String definition) throws SQLException {
+        String check = "SELECT 1 FROM information_schema.columns " +
+                "WHERE table_schema = DATABASE() AND table_name = ? AND column_name = ? LIMIT 1";
+        try (PreparedStatement ps = conn.prepareStatement(check)) {
+            ps.setString(1, table);
+            ps.setString(2, column);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) return;
+            }
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+            logger.info("✅ Added column: {}.{}", table, column);
+        }
+    }
+
+    static void ensureIndex(Connection conn, String table, String indexName, String columns) throws SQLException {
+        String check = "SELECT 1 FROM information_schema.statistics " +
+                "WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ? LIMIT 1";
+        try (PreparedStatement ps = conn.prepareStatement(check)) {
+            ps.setString(1, table);
+            ps.setString(2, indexName);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    logger.info("✅ Index already exists: {}.{}", table, indexName);
+                    return;
+                }
+            }
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("CREATE INDEX " + indexName + " ON " + table + " (" + columns + ")");
+            logger.info("✅ Created index: {}.{}", table, indexName);
+        }
+    }
+
+    public static void main(String[] args) {
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            createTransactionHistoryIndexes(conn);
+            createAuditLogIndexes(conn);
+            createLedgerTables(conn);
+            createPostingsTable(conn);
+            createDailyBalanceTable(conn);
+            createWalTables(conn);
+            createIngestTables(conn);
+        } catch (SQLException e) {
+            logger.error("❌ Error updating MySQL schema", e);
+        }
+    }
+}
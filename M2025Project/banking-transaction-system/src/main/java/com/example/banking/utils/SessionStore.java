@@ -0,0 +1,81 @@
+package com.example.banking.utils;
+
+import com.example.banking.model.Customer;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrent login sessions keyed by an opaque bearer token, for server mode.
+ * Unlike SessionManager (one console user per JVM) each request carries its own token, so any
+ * number of customers can be logged in at once. Sessions expire after the idle timeout; every
+ * successful lookup extends them, and expired entries are dropped lazily on lookup and by sweep().
+ */
+public class SessionStore {
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+    private final long idleTimeoutMillis;
+    private final LongSupplier clock;
+
+    public SessionStore(long idleTimeoutMillis) {
+        this(idleTimeoutMillis, System::currentTimeMillis);
+    }
+
+    SessionStore(long idleTimeoutMillis, LongSupplier clock) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.clock = clock;
+    }
+
+    // ✅ New session for a logged-in customer; returns its token
+    public String start(Customer customer) {
+        byte[] bytes = new byte[24];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        sessions.put(token, new Session(customer.getId(), clock.getAsLong() + idleTimeoutMillis));
+        return token;
+    }
+
+    // Customer id behind the token, or null if it is unknown or expired
+    public String resolve(String token) {
+        if (token == null) return null;
+        Session session = sessions.get(token);
+        if (session == null) return null;
+        long now = clock.getAsLong();
+        if (session.expiresAt < now) {
+            sessions.remove(token, session);
+            return null;
+        }
+        session.expiresAt = now + idleTimeoutMillis; // sliding expiry
+        return session.customerId;
+    }
+
+    public void end(String token) {
+        if (token != null) sessions.remove(token);
+    }
+
+    // 🔹 Drop every expired session; returns how many were removed
+    public int sweep() {
+        long now = clock.getAsLong();
+        int before = sessions.size();
+        sessions.values().removeIf(session -> session.expiresAt < now);
+        return before - sessions.size();
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    private static final class Session {
+        final String customerId;
+        volatile long expiresAt;
+
+        Session(String customerId, long expiresAt) {
+            this.customerId = customerId;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.banking.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Thread-bound database transaction that the JDBC repositories join automatically.
+ *
+ * Inside {@link #execute(Supplier)} every call to DatabaseUtil.getConnection() on the same thread
+ * returns the same connection (opened lazily, auto-commit off). The work is committed once when the
+ * outermost scope finishes, or rolled back if it throws. Nested scopes join the outer transaction
+ * and roll back only their own work through a savepoint.
+ */
+public final class UnitOfWork {
+
+    private static final Logger logger = LoggerFactory.getLogger(UnitOfWork.class);
+    private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<>();
+    private static final AtomicLong callbackFailures = new AtomicLong();
+
+    private Connection connection;
+    private final List<Runnable> completionCallbacks = new ArrayList<>();
+
+    private UnitOfWork() {}
+
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    // ✅ Run work in a single transaction (or join the one already open on this thread)
+    public static <T> T execute(Supplier<T> work) {
+        UnitOfWork uow = CURRENT.get();
+        if (uow != null) {
+            return uow.executeNested(work);
+        }
+
+        uow = new UnitOfWork();
+        CURRENT.set(uow);
+        Throwable failure = null;
+        try {
+            T result = work.get();
+            uow.commit();
+            return result;
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            uow.rollback(e);
+            throw e;
+        } finally {
+            CURRENT.remove();
+            uow.closeQuietly();
+            uow.runCompletionCallbacks(failure);
+        }
+    }
+
+    public static void run(Runnable work) {
+        execute(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs the callback once the current unit of work has committed or rolled back
+     * (immediately if none is active). Used by caches to drop entries the transaction touched.
+     * Every callback runs even if an earlier one throws. After a rollback their failures are suppressed
+     * onto the unit's own failure; after a commit they are logged and counted (getCallbackFailures)
+     * but never thrown, since the caller must not mistake committed work for failed work.
+     */
+    public static void afterCompletion(Runnable callback) {
+        UnitOfWork uow = CURRENT.get();
+        if (uow == null) {
+            callback.run();
+        } else {
+            uow.completionCallbacks.add(callback);
+        }
+    }
+
+    /**
+     * Connection for the current unit of work, or null if none is active.
+     * The returned handle ignores close() so repositories can keep their try-with-resources blocks.
+     */
+    static Connection currentConnection(ConnectionPool pool) throws SQLException {
+        UnitOfWork uow = CURRENT.get();
+        if (uow == null) return null;
+
+        if (uow.connection == null) {
+            Connection conn = pool.getConnection();
+            conn.setAutoCommit(false);
+            uow.connection = conn;
+        }
+        return nonClosing(uow.connection);
+    }
+
+    private <T> T executeNested(Supplier<T> work) {
+        Savepoint savepoint = null;
+        boolean openedHere = connection == null;
+        try {
+            if (!openedHere) savepoint = connection.setSavepoint();
+        } catch (SQLException e) {
+            throw new RuntimeException("Error creating savepoint", e);
+        }
+
+        try {
+            T result = work.get();
+            if (savepoint != null) connection.releaseSavepoint(savepoint);
+            return result;
+        } catch (RuntimeException | Error e) {
+            try {
+                if (savepoint != null) {
+                    connection.rollback(savepoint);
+                } else if (connection != null) {
+                    // Connection was opened inside this scope, so everything on it belongs to this scope
+                    connection.rollback();
+                }
+            } catch (SQLException rollbackError) {
+                e.addSuppressed(rollbackError);
+            }
+            throw e;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error releasing savepoint", e);
+        }
+    }
+
+    private void runCompletionCallbacks(Throwable failure) {
+        Error fatal = null;
+        for (Runnable callback : completionCallbacks) {
+            try {
+                callback.run();
+            } catch (RuntimeException | Error e) {
+                callbackFailures.incrementAndGet();
+                if (failure != null) {
+                    failure.addSuppressed(e);
+                } else if (e instanceof Error error) {
+                    if (fatal == null) fatal = error;
+                    else fatal.addSuppressed(error);
+                } else {
+                    logger.error("❌ Completion callback failed after commit; the committed work stands", e);
+                }
+            }
+        }
+        if (fatal != null) throw fatal;
+    }
+
+    // ✅ Completion callbacks that threw, after a commit or a rollback
+    public static long getCallbackFailures() {
+        return callbackFailures.get();
+    }
+
+    private void commit() {
+        if (connection == null) return; // nothing touched the database
+        try {
+            connection.commit();
+        } catch (SQLException e) {
+            throw new RuntimeException("Error committing unit of work: " + e.getMessage(), e);
+        }
+    }
+
+    private void rollback(Throwable cause) {
+        if (connection == null) return;
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    private void closeQuietly() {
+        if (connection == null) return;
+        try {
+            connection.setAutoCommit(true);
+        } catch (SQLException ignored) {}
+        try {
+            connection.close();
+        } catch (SQLException ignored) {}
+        connection = null;
+    }
+
+    private static Connection nonClosing(Connection target) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            return null;
+                        case "commit":
+                        case "rollback":
+                        case "setAutoCommit":
+                            // Only the unit of work decides when to commit
+                            if (args == null || args.length == 0 || !(args[0] instanceof Savepoint)) return null;
+                            break;
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            break;
+                    }
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
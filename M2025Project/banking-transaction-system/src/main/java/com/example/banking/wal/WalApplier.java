@@ -0,0 +1,214 @@
+package com.example.banking.wal;
+
+import com.example.banking.repository.WalCheckpointRepository;
+import com.example.banking.utils.UnitOfWork;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Applies durable write-ahead log records to MySQL in batches, off the request path.
+ * - Each batch and the new applied LSN commit in one unit of work, so a crash either keeps both or
+ *   neither; records at or below the checkpoint are skipped, which makes replay idempotent.
+ * - start() first replays whatever the log holds past the checkpoint, then follows new appends.
+ * - A failed batch is retried a few times (same records, same order); if it keeps failing its records are
+ *   retried one by one, and a record that still fails is dead-lettered through the handler's reject() so
+ *   one poison record cannot stall everything behind it. If even that cannot be recorded (database down),
+ *   the applier keeps retrying until it succeeds or is closed.
+ */
+public class WalApplier implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(WalApplier.class);
+    private static final long MAX_RETRY_BACKOFF_MILLIS = 5_000;
+    private static final int MAX_ATTEMPTS = 3; // per batch, then per record before it is dead-lettered
+
+    private final WriteAheadLog wal;
+    private final WalCheckpointRepository checkpoints;
+    private final WalBatchHandler handler;
+    private final int batchSize;
+
+    private final BlockingQueue<WalRecord> queue = new LinkedBlockingQueue<>();
+    private final Thread thread;
+    private volatile boolean running = true;
+    private volatile long appliedLsn;
+
+    // 🔹 Metrics
+    private final AtomicLong applied = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    private RuntimeException lastFailure; // applier thread (or start()) only
+
+    public WalApplier(WriteAheadLog wal, WalCheckpointRepository checkpoints, WalBatchHandler handler, int batchSize) {
+        if (batchSize < 1) throw new IllegalArgumentException("batchSize must be at least 1");
+        this.wal = wal;
+        this.checkpoints = checkpoints;
+        this.handler = handler;
+        this.batchSize = batchSize;
+        this.thread = new Thread(this::applyLoop, "wal-applier");
+        this.thread.setDaemon(true);
+    }
+
+    // ✅ Catch MySQL up with the log, then keep applying new records as they become durable
+    public void start() {
+        appliedLsn = checkpoints.loadAppliedLsn();
+        // Subscribe before reading so nothing appended meanwhile is missed; duplicates are filtered by LSN
+        wal.setDurableListener(queue::addAll);
+
+        List<WalRecord> backlog = wal.readFrom(appliedLsn);
+        if (!backlog.isEmpty()) {
+            logger.info("🔹 Replaying {} write-ahead log records after LSN {}", backlog.size(), appliedLsn);
+        }
+        for (int i = 0; i < backlog.size(); i += batchSize) {
+            applyWithRetry(backlog.subList(i, Math.min(i + batchSize, backlog.size())));
+        }
+        thread.start();
+    }
+
+    // Wait until everything durable in the log has been applied
+    public boolean flush(long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (appliedLsn < wal.getLastDurableLsn()) {
+            if (System.currentTimeMillis() > deadline) return false;
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() {
+        if (!flush(10_000)) {
+            logger.warn("⚠️ Write-ahead log not fully applied on shutdown: {}", stats());
+        }
+        running = false;
+        thread.interrupt();
+        try {
+            thread.join(10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ✅ Metrics
+    public long getAppliedLsn() { return appliedLsn; }
+    public long getLag() { return Math.max(0, wal.getLastDurableLsn() - appliedLsn); }
+    public long getAppliedCount() { return applied.get(); }
+    public long getBatchCount() { return batches.get(); }
+    public long getRetryCount() { return retries.get(); }
+    public long getDeadLetterCount() { return deadLettered.get(); }
+
+    public String stats() {
+        return String.format("appliedLsn=%d lag=%d applied=%d batches=%d retries=%d deadLettered=%d",
+                appliedLsn, getLag(), getAppliedCount(), getBatchCount(), getRetryCount(), getDeadLetterCount());
+    }
+
+    private void applyLoop() {
+        List<WalRecord> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                WalRecord first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                applyWithRetry(batch);
+            } catch (InterruptedException e) {
+                // close() has already waited for the backlog; anything left is replayed on next start
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void applyWithRetry(List<WalRecord> records) {
+        List<WalRecord> pending = new ArrayList<>(records.size());
+        for (WalRecord record : records) {
+            if (record.getLsn() > appliedLsn) pending.add(record);
+        }
+        if (pending.isEmpty() || tryApply(pending)) return;
+
+        // The batch keeps failing: apply one record at a time to isolate the one(s) responsible
+        for (WalRecord record : pending) {
+            while (!tryApply(List.of(record))) {
+                if (!running) return; // left for replay on the next start
+                if (deadLetter(record, lastFailure)) break;
+                sleep(MAX_RETRY_BACKOFF_MILLIS); // could not even record the failure: database unavailable
+            }
+        }
+    }
+
+    // Up to MAX_ATTEMPTS tries with backoff; false leaves the failure in lastFailure
+    private boolean tryApply(List<WalRecord> batch) {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                apply(batch);
+                return true;
+            } catch (RuntimeException e) {
+                lastFailure = e;
+                retries.incrementAndGet();
+                logger.error("❌ Applying WAL records {}..{} failed (attempt {})", batch.get(0).getLsn(),
+                        batch.get(batch.size() - 1).getLsn(), attempt, e);
+                if (!running) return false;
+                if (attempt < MAX_ATTEMPTS) sleep(Math.min(MAX_RETRY_BACKOFF_MILLIS, 50L << attempt));
+            }
+        }
+        return false;
+    }
+
+    // Records the poison record as failed and moves the checkpoint past it, in one unit of work
+    private boolean deadLetter(WalRecord record, RuntimeException cause) {
+        long lsn = record.getLsn();
+        Runnable afterCommit;
+        try {
+            afterCommit = UnitOfWork.execute(() -> {
+                Runnable action = handler.reject(record, cause);
+                checkpoints.saveAppliedLsn(lsn);
+                return action;
+            });
+        } catch (RuntimeException e) {
+            logger.error("❌ Could not dead-letter WAL record {}; retrying", lsn, e);
+            return false;
+        }
+
+        appliedLsn = lsn;
+        deadLettered.incrementAndGet();
+        wal.checkpoint(lsn);
+        logger.error("❌ Dead-lettered WAL record {} ({} {}) after {} attempts: {}", lsn, record.getType(),
+                record.getTxnId(), MAX_ATTEMPTS, cause == null ? "unknown" : cause.getMessage());
+        if (afterCommit != null) afterCommit.run();
+        return true;
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            // close() interrupts a sleeping applier; the running flag decides what happens next
+        }
+    }
+
+    private void apply(List<WalRecord> batch) {
+        long lastLsn = batch.get(batch.size() - 1).getLsn();
+        Runnable afterCommit = UnitOfWork.execute(() -> {
+            Runnable action = handler.apply(batch);
+            checkpoints.saveAppliedLsn(lastLsn);
+            return action;
+        });
+
+        appliedLsn = lastLsn;
+        applied.addAndGet(batch.size());
+        batches.incrementAndGet();
+        wal.checkpoint(lastLsn);
+        if (afterCommit != null) afterCommit.run();
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.banking.wal;
+
+import java.util.List;
+
+/**
+ * Applies a batch of logged operations to the database.
+ * Called inside the applier's unit of work; the returned action runs only after that unit of work
+ * has committed (e.g. cache and notification updates).
+ */
+@FunctionalInterface
+public interface WalBatchHandler {
+    Runnable apply(List<WalRecord> batch);
+
+    /**
+     * Resolves a record the database keeps refusing (its caller was already told PENDING), e.g. by recording
+     * it as FAILED. Called in its own unit of work once retries are exhausted; same after-commit contract.
+     */
+    default Runnable reject(WalRecord record, Exception cause) {
+        return null;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.banking.wal;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * One accepted money movement as written to the write-ahead log.
+ * The lsn (log sequence number) is assigned by the log when the record is appended.
+ */
+public class WalRecord {
+    private final long lsn;
+    private final String txnId;
+    private final String type;          // DEPOSIT / WITHDRAW / TRANSFER
+    private final String fromAccountId; // null for Deposit
+    private final String toAccountId;   // null for Withdraw
+    private final BigDecimal amount;
+    private final String actorId;
+    private final Instant createdAt;
+
+    public WalRecord(String txnId, String type, String fromAccountId, String toAccountId, BigDecimal amount,
+                     String actorId, Instant createdAt) {
+        this(0, txnId, type, fromAccountId, toAccountId, amount, actorId, createdAt);
+    }
+
+    private WalRecord(long lsn, String txnId, String type, String fromAccountId, String toAccountId,
+                      BigDecimal amount, String actorId, Instant createdAt) {
+        this.lsn = lsn;
+        this.txnId = txnId;
+        this.type = type;
+        this.fromAccountId = fromAccountId;
+        this.toAccountId = toAccountId;
+        this.amount = amount;
+        this.actorId = actorId;
+        this.createdAt = createdAt;
+    }
+
+    WalRecord withLsn(long lsn) {
+        return new WalRecord(lsn, txnId, type, fromAccountId, toAccountId, amount, actorId, createdAt);
+    }
+
+    // Getters
+    public long getLsn() { return lsn; }
+    public String getTxnId() { return txnId; }
+    public String getType() { return type; }
+    public String getFromAccountId() { return fromAccountId; }
+    public String getToAccountId() { return toAccountId; }
+    public BigDecimal getAmount() { return amount; }
+    public String getActorId() { return actorId; }
+    public Instant getCreatedAt() { return createdAt; }
+
+    // 🔹 Binary form: lsn, strings as (short length, UTF-8; -1 = null), amount as (scale, unscaled bytes), time
+    byte[] encode() {
+        byte[][] strings = {utf8(txnId), utf8(type), utf8(fromAccountId), utf8(toAccountId), utf8(actorId)};
+        byte[] unscaled = amount.unscaledValue().toByteArray();
+
+        int size = 8 + 4 + 1 + unscaled.length + 8 + 4;
+        for (byte[] s : strings) size += 2 + (s == null ? 0 : s.length);
+
+        ByteBuffer buf = ByteBuffer.allocate(size);
+        buf.putLong(lsn);
+        for (byte[] s : strings) {
+            if (s == null) {
+                buf.putShort((short) -1);
+            } else {
+                buf.putShort((short) s.length);
+                buf.put(s);
+            }
+        }
+        buf.putInt(amount.scale());
+        buf.put((byte) unscaled.length);
+        buf.put(unscaled);
+        buf.putLong(createdAt.getEpochSecond());
+        buf.putInt(createdAt.getNano());
+        return buf.array();
+    }
+
+    static WalRecord decode(ByteBuffer buf) {
+        long lsn = buf.getLong();
+        String txnId = getString(buf);
+        String type = getString(buf);
+        String from = getString(buf);
+        String to = getString(buf);
+        String actor = getString(buf);
+        int scale = buf.getInt();
+        byte[] unscaled = new byte[buf.get() & 0xFF];
+        buf.get(unscaled);
+        Instant createdAt = Instant.ofEpochSecond(buf.getLong(), buf.getInt());
+        return new WalRecord(lsn, txnId, type, from, to, new BigDecimal(new BigInteger(unscaled), scale), actor, createdAt);
+    }
+
+    private static byte[] utf8(String s) {
+        return s == null ? null : s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String getString(ByteBuffer buf) {
+        short length = buf.getShort();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,374 @@
+package com.example.banking.wal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, fsync'd log of accepted operations with group commit.
+ * - append() only enqueues; a single writer thread takes everything waiting, writes it in one go
+ *   and calls force() once, so N concurrent callers share one fsync.
+ * - Futures complete (and the durable listener sees the batch, in LSN order) only after force() returns.
+ * - Records are framed as [int bodyLength][int crc32(body)][body]; reopening truncates a torn tail.
+ * - Segment files are named after their first LSN and deleted once checkpoint() has passed them.
+ *   Creating one also fsyncs the directory, so a durable record never sits in a file the directory lost.
+ */
+public class WriteAheadLog implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteAheadLog.class);
+
+    private static final int HEADER_SIZE = 8;
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    // Forced after a segment is created, so the file's directory entry is as durable as its records
+    private final FileChannel directoryChannel;
+    private final long segmentBytes;
+    private final int maxBatch;
+
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile boolean running = true;
+    // Appends enqueue under the read lock; close() flips `running` under the write lock, so nothing
+    // can be enqueued after the writer has been told to drain and stop
+    private final ReentrantReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private volatile IOException failure;
+    private volatile Consumer<List<WalRecord>> durableListener = batch -> {};
+
+    // Touched only by the writer thread after construction
+    private final List<Segment> closedSegments = new ArrayList<>();
+    private Segment current;
+    private long nextLsn;
+    private volatile long lastDurableLsn;
+
+    // 🔹 Metrics
+    private final AtomicLong appends = new AtomicLong();
+    private final AtomicLong syncs = new AtomicLong();
+    private final AtomicLong syncNanos = new AtomicLong();
+
+    public WriteAheadLog(Path directory, long segmentBytes, int maxBatch) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxBatch = maxBatch;
+        try {
+            Files.createDirectories(directory);
+            directoryChannel = FileChannel.open(directory, StandardOpenOption.READ);
+            open();
+        } catch (IOException e) {
+            throw new RuntimeException("Error opening write-ahead log: " + e.getMessage(), e);
+        }
+        this.writer = new Thread(this::writeLoop, "wal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    // ✅ Completes with the record (now carrying its LSN) once it is on disk
+    public CompletableFuture<WalRecord> append(WalRecord record) {
+        closeLock.readLock().lock();
+        try {
+            if (!running) return CompletableFuture.failedFuture(new IllegalStateException("Write-ahead log is closed"));
+            if (failure != null) {
+                return CompletableFuture.failedFuture(new IllegalStateException("Write-ahead log failed", failure));
+            }
+            Pending pending = new Pending(record);
+            queue.add(pending);
+            return pending.future;
+        } finally {
+            closeLock.readLock().unlock();
+        }
+    }
+
+    // Called on the writer thread with each durable batch, in LSN order
+    public void setDurableListener(Consumer<List<WalRecord>> listener) {
+        this.durableListener = listener;
+    }
+
+    // Every durable record with lsn > afterLsn; used for replay before new appends are applied
+    public List<WalRecord> readFrom(long afterLsn) {
+        List<WalRecord> records = new ArrayList<>();
+        try {
+            for (Path file : segmentFiles()) {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    scan(channel, record -> {
+                        if (record.getLsn() > afterLsn && record.getLsn() <= lastDurableLsn) records.add(record);
+                    });
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading write-ahead log: " + e.getMessage(), e);
+        }
+        return records;
+    }
+
+    // 🔹 Everything up to appliedLsn is in MySQL; segments that end at or before it can go
+    public void checkpoint(long appliedLsn) {
+        List<Segment> removable = new ArrayList<>();
+        synchronized (closedSegments) {
+            closedSegments.removeIf(segment -> {
+                if (segment.lastLsn > appliedLsn) return false;
+                removable.add(segment);
+                return true;
+            });
+        }
+        for (Segment segment : removable) {
+            try {
+                Files.deleteIfExists(segment.path);
+            } catch (IOException e) {
+                logger.warn("⚠️ Could not delete WAL segment {}", segment.path, e);
+            }
+        }
+    }
+
+    public long getLastDurableLsn() { return lastDurableLsn; }
+
+    // ✅ Metrics
+    public long getAppendCount() { return appends.get(); }
+    public long getSyncCount() { return syncs.get(); }
+    public double getAverageBatchSize() {
+        long n = syncs.get();
+        return n == 0 ? 0 : (double) appends.get() / n;
+    }
+    public double getAverageSyncMillis() {
+        long n = syncs.get();
+        return n == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(syncNanos.get()) / 1000.0 / n;
+    }
+
+    public String stats() {
+        return String.format("lsn=%d appends=%d syncs=%d avgBatch=%.1f avgSync=%.2fms",
+                lastDurableLsn, getAppendCount(), getSyncCount(), getAverageBatchSize(), getAverageSyncMillis());
+    }
+
+    // Writes what is already queued, then stops
+    @Override
+    public void close() {
+        closeLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        // Not interrupted: an interrupt during write()/force() would close the channel under a batch
+        // that may already be durable. The writer sees `running` within one poll timeout.
+        try {
+            writer.join(10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            logger.warn("⚠️ Write-ahead log writer did not stop within 10s; failing what is still queued");
+            List<Pending> left = new ArrayList<>();
+            queue.drainTo(left);
+            left.forEach(p -> p.future.completeExceptionally(new IllegalStateException("Write-ahead log is closed")));
+        }
+        try {
+            current.channel.close();
+        } catch (IOException ignored) {}
+        try {
+            directoryChannel.close();
+        } catch (IOException ignored) {}
+    }
+
+    // ---- writer thread ----
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+            } catch (InterruptedException e) {
+                // Not how close() stops the writer; keep going until `running` is cleared and the queue is empty
+                Thread.interrupted();
+            }
+            if (!batch.isEmpty()) writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void writeBatch(List<Pending> batch) {
+        if (failure != null) {
+            batch.forEach(p -> p.future.completeExceptionally(new IllegalStateException("Write-ahead log failed", failure)));
+            return;
+        }
+
+        List<WalRecord> records = new ArrayList<>(batch.size());
+        List<byte[]> bodies = new ArrayList<>(batch.size());
+        int bytes = 0;
+        for (Pending pending : batch) {
+            WalRecord record = pending.record.withLsn(nextLsn++);
+            byte[] body = record.encode();
+            records.add(record);
+            bodies.add(body);
+            bytes += HEADER_SIZE + body.length;
+        }
+
+        ByteBuffer buf = ByteBuffer.allocate(bytes);
+        for (byte[] body : bodies) {
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            buf.putInt(body.length);
+            buf.putInt((int) crc.getValue());
+            buf.put(body);
+        }
+        buf.flip();
+
+        long start = System.nanoTime();
+        try {
+            if (current.size > 0 && current.size + bytes > segmentBytes) roll(records.get(0).getLsn());
+            while (buf.hasRemaining()) {
+                current.channel.write(buf);
+            }
+            current.channel.force(false); // the one fsync this whole batch shares
+            current.size += bytes;
+            current.lastLsn = records.get(records.size() - 1).getLsn();
+        } catch (IOException e) {
+            // Part of the batch may be on disk; refuse further appends rather than risk a gap
+            failure = e;
+            logger.error("❌ Write-ahead log write failed", e);
+            batch.forEach(p -> p.future.completeExceptionally(e));
+            return;
+        }
+        syncs.incrementAndGet();
+        syncNanos.addAndGet(System.nanoTime() - start);
+        appends.addAndGet(records.size());
+        lastDurableLsn = current.lastLsn;
+
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).future.complete(records.get(i));
+        }
+        try {
+            durableListener.accept(records);
+        } catch (RuntimeException e) {
+            logger.error("❌ WAL durable listener failed", e);
+        }
+    }
+
+    private void roll(long firstLsn) throws IOException {
+        current.channel.close();
+        synchronized (closedSegments) {
+            closedSegments.add(current);
+        }
+        current = openSegment(firstLsn);
+    }
+
+    // ---- recovery ----
+
+    private void open() throws IOException {
+        List<Path> files = segmentFiles();
+        long last = 0;
+        for (int i = 0; i < files.size(); i++) {
+            Path file = files.get(i);
+            boolean isLast = i == files.size() - 1;
+            Segment segment = new Segment(file);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long[] lastLsn = {0};
+                long validEnd = scan(channel, record -> lastLsn[0] = record.getLsn());
+                if (validEnd < channel.size()) {
+                    logger.warn("⚠️ Truncating torn tail of WAL segment {} at byte {}", file, validEnd);
+                    channel.truncate(validEnd);
+                }
+                segment.size = validEnd;
+                segment.lastLsn = lastLsn[0];
+            }
+            if (segment.lastLsn > 0) last = segment.lastLsn;
+            if (isLast) {
+                segment.channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                current = segment;
+            } else {
+                closedSegments.add(segment);
+            }
+        }
+
+        nextLsn = last + 1;
+        lastDurableLsn = last;
+        if (current == null) current = openSegment(nextLsn);
+    }
+
+    // Feeds complete records to the consumer; returns the offset just past the last one
+    private static long scan(FileChannel channel, Consumer<WalRecord> consumer) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        long pos = 0;
+        long size = channel.size();
+        while (pos + HEADER_SIZE <= size) {
+            header.clear();
+            channel.read(header, pos);
+            header.flip();
+            int length = header.getInt();
+            int expectedCrc = header.getInt();
+            if (length <= 0 || pos + HEADER_SIZE + length > size) break;
+
+            ByteBuffer body = ByteBuffer.allocate(length);
+            while (body.hasRemaining()) {
+                if (channel.read(body, pos + HEADER_SIZE + body.position()) < 0) break;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(body.array());
+            if ((int) crc.getValue() != expectedCrc) break;
+
+            body.flip();
+            consumer.accept(WalRecord.decode(body));
+            pos += HEADER_SIZE + length;
+        }
+        return pos;
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> listing = Files.list(directory)) {
+            return listing
+                    .filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                            && p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted() // zero-padded first LSN, so name order is log order
+                    .toList();
+        }
+    }
+
+    private Segment openSegment(long firstLsn) throws IOException {
+        Path file = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstLsn, SEGMENT_SUFFIX));
+        Segment segment = new Segment(file);
+        segment.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        // Before any record in it is acknowledged: a crash must not lose the new file's directory entry
+        directoryChannel.force(true);
+        return segment;
+    }
+
+    private static final class Segment {
+        final Path path;
+        FileChannel channel;
+        long size;
+        long lastLsn;
+
+        Segment(Path path) {
+            this.path = path;
+        }
+    }
+
+    private static final class Pending {
+        final WalRecord record;
+        final CompletableFuture<WalRecord> future = new CompletableFuture<>();
+
+        Pending(WalRecord record) {
+            this.record = record;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.banking.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RingBufferTest {
+
+    @Test
+    void offer_failsWhenFull_andSlotsAreReusedAfterPoll() {
+        RingBuffer<Integer> ring = new RingBuffer<>(4);
+        for (int i = 0; i < 4; i++) assertTrue(ring.offer(i));
+        assertFalse(ring.offer(99));
+
+        assertEquals(0, ring.poll());
+        assertTrue(ring.offer(4));
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(4, ring.drain(drained::add, 10));
+        assertEquals(List.of(1, 2, 3, 4), drained);
+        assertNull(ring.poll());
+    }
+
+    @Test
+    void manyProducers_oneConsumer_nothingLostAndPerProducerOrderKept() throws Exception {
+        RingBuffer<long[]> ring = new RingBuffer<>(64);
+        int producers = 4;
+        int perProducer = 20_000;
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            Thread t = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) ring.put(new long[]{producer, i});
+            });
+            threads.add(t);
+            t.start();
+        }
+
+        long[] next = new long[producers];
+        int received = 0;
+        while (received < producers * perProducer) {
+            long[] item = ring.poll();
+            if (item == null) {
+                Thread.yield();
+                continue;
+            }
+            assertEquals(next[(int) item[0]]++, item[1]);
+            received++;
+        }
+        for (Thread t : threads) t.join();
+        assertTrue(ring.isEmpty());
+    }
+
+    @Test
+    void capacity_mustBePowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer<>(100));
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.banking.engine;
+
+import com.example.banking.model.Account;
+import com.example.banking.model.Transaction;
+import com.example.banking.repository.AccountRepository;
+import com.example.banking.repository.AuditLogRepository;
+import com.example.banking.repository.TransactionRepository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Throughput and latency of the sharded engine for random transfers (mostly cross-shard).
+ * Run after mvn test-compile with:
+ *   mvn dependency:build-classpath -Dmdep.outputFile=cp.txt
+ *   java -cp target/classes:target/test-classes:$(cat cp.txt) com.example.banking.engine.ShardedLedgerEngineBenchmark
+ * Write-behind goes to no-op repositories, so it measures the engine rather than MySQL.
+ */
+public class ShardedLedgerEngineBenchmark {
+
+    private static final int ACCOUNTS = 10_000;
+    private static final int OPERATIONS = 200_000;
+    private static final int WINDOW = 4_096; // operations in flight per client
+
+    public static void main(String[] args) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int shards : new int[]{1, Math.max(2, cores)}) {
+            AccountRepository accounts = mock(AccountRepository.class, withSettings().stubOnly());
+            when(accounts.findById(anyString())).thenAnswer(inv ->
+                    new Account(inv.getArgument(0), "C", "N", BigDecimal.valueOf(1_000_000), "SAVINGS"));
+            when(accounts.credit(anyString(), any())).thenReturn(BigDecimal.ONE);
+            when(accounts.debit(anyString(), any())).thenReturn(BigDecimal.ONE);
+            TransactionRepository txns = mock(TransactionRepository.class, withSettings().stubOnly());
+            AuditLogRepository audits = mock(AuditLogRepository.class, withSettings().stubOnly());
+
+            try (ShardedLedgerEngine engine = new ShardedLedgerEngine(shards, 16_384, 1_000, accounts, txns, audits)) {
+                run(engine, OPERATIONS / 10); // warm-up (also loads every account)
+                long start = System.nanoTime();
+                long[] latencies = run(engine, OPERATIONS);
+                double seconds = (System.nanoTime() - start) / 1e9;
+                Arrays.sort(latencies);
+                System.out.printf("shards=%d  %,.0f ops/s  p50=%dµs  p99=%dµs  p99.9=%dµs%n", shards,
+                        OPERATIONS / seconds,
+                        latencies[latencies.length / 2] / 1_000,
+                        latencies[(int) (latencies.length * 0.99)] / 1_000,
+                        latencies[(int) (latencies.length * 0.999)] / 1_000);
+                System.out.println("   " + engine.stats());
+            }
+        }
+    }
+
+    // Submit-to-completion latency per operation, with a bounded number in flight
+    private static long[] run(ShardedLedgerEngine engine, int operations) {
+        Random rnd = new Random(7);
+        long[] latencies = new long[operations];
+        long[] started = new long[operations];
+        List<CompletableFuture<Transaction>> window = new ArrayList<>(WINDOW);
+        for (int i = 0; i < operations; i++) {
+            int from = rnd.nextInt(ACCOUNTS);
+            int to = (from + 1 + rnd.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+            int op = i;
+            started[i] = System.nanoTime();
+            window.add(engine.transfer("A" + from, "A" + to, BigDecimal.ONE, "C")
+                    .whenComplete((t, e) -> latencies[op] = System.nanoTime() - started[op]));
+            if (window.size() == WINDOW) {
+                window.forEach(CompletableFuture::join);
+                window.clear();
+            }
+        }
+        window.forEach(CompletableFuture::join);
+        engine.flush(60_000);
+        return latencies;
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.banking.engine;
+
+import com.example.banking.exception.AccountClosedException;
+import com.example.banking.exception.EngineBusyException;
+import com.example.banking.exception.InsufficientFundsException;
+import com.example.banking.exception.TransactionFailedException;
+import com.example.banking.model.Account;
+import com.example.banking.model.AuditLog;
+import com.example.banking.model.LedgerEvent;
+import com.example.banking.model.Transaction;
+import com.example.banking.repository.AccountRepository;
+import com.example.banking.repository.AuditLogRepository;
+import com.example.banking.repository.TransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ShardedLedgerEngineTest {
+
+    private static final int SHARDS = 4;
+
+    // "Database" balances, changed only by the engine's write-behind
+    private final Map<String, BigDecimal> stored = new ConcurrentHashMap<>();
+    private final Map<String, String> status = new ConcurrentHashMap<>();
+    private final List<Transaction> savedTxns = Collections.synchronizedList(new ArrayList<>());
+    private final List<AuditLog> savedAudits = Collections.synchronizedList(new ArrayList<>());
+    private volatile String poisonAccount;   // every balance update of it fails
+    private volatile String refusingAccount; // the database refuses its balance updates
+    private volatile boolean databaseDown;   // every call fails, as if MySQL could not be reached
+    private volatile String fatalAccount;    // loading it throws an Error that kills its shard
+    private AccountRepository accounts;
+    private TransactionRepository txns;
+    private AuditLogRepository audits;
+    private ShardedLedgerEngine engine;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        accounts = mock(AccountRepository.class);
+        when(accounts.findById(anyString())).thenAnswer(inv -> {
+            String id = inv.getArgument(0);
+            if (databaseDown) throw new RuntimeException("Communications link failure");
+            if (id.equals(fatalAccount)) throw new StackOverflowError("test");
+            if (!stored.containsKey(id)) return null;
+            Account acc = new Account(id, "C1", "N-" + id, stored.get(id), "SAVINGS");
+            acc.setStatus(status.get(id));
+            return acc;
+        });
+        when(accounts.credit(anyString(), any())).thenAnswer(inv -> {
+            if (databaseDown) throw new RuntimeException("Communications link failure");
+            if (inv.getArgument(0).equals(poisonAccount)) throw new RuntimeException("Out of range value for column");
+            return inv.getArgument(0).equals(refusingAccount) ? null
+                    : stored.merge(inv.getArgument(0), inv.getArgument(1), BigDecimal::add);
+        });
+        when(accounts.debit(anyString(), any())).thenAnswer(inv -> inv.getArgument(0).equals(refusingAccount) ? null
+                : stored.merge(inv.getArgument(0), ((BigDecimal) inv.getArgument(1)).negate(), BigDecimal::add));
+
+        txns = mock(TransactionRepository.class);
+        when(txns.saveAll(anyCollection())).thenAnswer(inv -> {
+            savedTxns.addAll(inv.getArgument(0));
+            return null;
+        });
+        audits = mock(AuditLogRepository.class);
+        when(audits.saveAll(anyCollection())).thenAnswer(inv -> {
+            savedAudits.addAll(inv.getArgument(0));
+            return null;
+        });
+
+        engine = new ShardedLedgerEngine(SHARDS, 1024, 100, accounts, txns, audits);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.close();
+    }
+
+    private void account(String id, long balance, String accountStatus) {
+        stored.put(id, BigDecimal.valueOf(balance));
+        status.put(id, accountStatus);
+    }
+
+    @Test
+    void concurrentCrossShardTransfers_conserveMoney_andReachTheDatabase() throws Exception {
+        int accounts = 16;
+        for (int i = 0; i < accounts; i++) account("A" + i, 1_000, "ACTIVE");
+
+        List<Thread> clients = new ArrayList<>();
+        List<CompletableFuture<Transaction>> futures = Collections.synchronizedList(new ArrayList<>());
+        for (int c = 0; c < 4; c++) {
+            int seed = c;
+            Thread t = new Thread(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < 2_000; i++) {
+                    int from = random.nextInt(accounts);
+                    int to = (from + 1 + random.nextInt(accounts - 1)) % accounts;
+                    futures.add(engine.transfer("A" + from, "A" + to, BigDecimal.valueOf(1 + random.nextInt(50)), "C1"));
+                }
+            });
+            clients.add(t);
+            t.start();
+        }
+        for (Thread t : clients) t.join();
+        futures.forEach(f -> f.handle((r, e) -> null).join());
+        assertTrue(engine.flush(10_000), engine.stats());
+
+        BigDecimal total = stored.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, BigDecimal.valueOf(accounts * 1_000L).compareTo(total));
+        assertTrue(stored.values().stream().allMatch(b -> b.signum() >= 0));
+        assertEquals(8_000, savedTxns.size());
+        assertEquals(0, engine.getDriftCount());
+        assertTrue(engine.getWriteBatches() < savedAudits.size(), "changes should be written in batches");
+    }
+
+    @Test
+    void insufficientFunds_isRejected_andRecordedAsFailed() {
+        account("A1", 100, "ACTIVE");
+
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> engine.withdraw("A1", BigDecimal.valueOf(500), "C1").join());
+        assertInstanceOf(InsufficientFundsException.class, e.getCause());
+        assertTrue(engine.flush(5_000));
+
+        assertEquals(0, BigDecimal.valueOf(100).compareTo(stored.get("A1")));
+        assertEquals("FAILED", savedTxns.get(0).getStatus());
+        assertEquals("WITHDRAW_FAILED", savedAudits.get(0).getAction());
+    }
+
+    @Test
+    void crossShardTransferToClosedAccount_isRefunded() {
+        account("SRC", 100, "ACTIVE");
+        // A closed destination that lives on a different shard, so the two-step path is taken
+        String dest = null;
+        for (int i = 0; dest == null; i++) {
+            if (LedgerEvent.partitionOf("D" + i, SHARDS) != LedgerEvent.partitionOf("SRC", SHARDS)) dest = "D" + i;
+        }
+        account(dest, 0, "CLOSED");
+
+        String destId = dest;
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> engine.transfer("SRC", destId, BigDecimal.valueOf(40), "C1").join());
+        assertInstanceOf(AccountClosedException.class, e.getCause());
+        assertTrue(engine.flush(5_000));
+
+        assertEquals(0, BigDecimal.valueOf(100).compareTo(stored.get("SRC")));
+        assertEquals(0, BigDecimal.ZERO.compareTo(stored.get(destId)));
+        assertEquals(List.of("TRANSFER-DEBIT", "TRANSFER-REVERSAL"),
+                savedAudits.stream().map(AuditLog::getAction).toList());
+        assertEquals("FAILED", savedTxns.get(0).getStatus());
+
+        // Source can still spend the refunded money
+        assertEquals("SUCCESS", engine.withdraw("SRC", BigDecimal.valueOf(100), "C1").join().getStatus());
+    }
+
+    @Test
+    void aChangeThatKeepsFailing_isDeadLettered_andItsAccountRefused() {
+        // Balances are updated in account order and the mock cannot roll back: the bad one sorts first
+        for (String id : List.of("A0", "A1", "A2")) account(id, 100, "ACTIVE");
+        poisonAccount = "A0";
+
+        List<CompletableFuture<Transaction>> futures = new ArrayList<>();
+        futures.add(engine.deposit("A1", BigDecimal.TEN, "C1"));
+        futures.add(engine.deposit("A0", BigDecimal.TEN, "C1"));
+        futures.add(engine.deposit("A2", BigDecimal.TEN, "C1"));
+        futures.forEach(CompletableFuture::join);
+        assertTrue(engine.flush(5_000), engine.stats());
+
+        // The others are written; the bad change is reported, not retried forever and not counted as written
+        assertEquals(0, BigDecimal.valueOf(110).compareTo(stored.get("A1")));
+        assertEquals(0, BigDecimal.valueOf(110).compareTo(stored.get("A2")));
+        assertEquals(0, BigDecimal.valueOf(100).compareTo(stored.get("A0")));
+        assertEquals(1, engine.getDeadLetterCount());
+        assertEquals(Set.of("A0"), engine.getOutOfSyncAccounts());
+        assertEquals(0, engine.getWriteBehindLag());
+
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> engine.withdraw("A0", BigDecimal.ONE, "C1").join());
+        assertInstanceOf(TransactionFailedException.class, e.getCause());
+        assertEquals("SUCCESS", engine.withdraw("A1", BigDecimal.ONE, "C1").join().getStatus());
+    }
+
+    @Test
+    void aBalanceUpdateRefusedByTheDatabase_savesNoRowsForIt_andIsReportedAsDrift() {
+        account("A1", 100, "ACTIVE");
+        account("A2", 100, "ACTIVE");
+        refusingAccount = "A2"; // e.g. closed by someone else since the engine loaded it
+
+        engine.deposit("A1", BigDecimal.TEN, "C1").join();
+        engine.deposit("A2", BigDecimal.TEN, "C1").join(); // accepted in memory
+        assertTrue(engine.flush(5_000), engine.stats());
+
+        assertEquals(1, engine.getDriftCount());
+        assertEquals(Set.of("A2"), engine.getOutOfSyncAccounts());
+        assertEquals(List.of("A1"), savedAudits.stream().map(AuditLog::getAccountId).toList());
+        assertEquals(1, savedTxns.size());
+    }
+
+    @Test
+    void whileTheDatabaseIsDown_aFullWriteBehindQueueFailsOperationsAsBusy_insteadOfBlocking() throws Exception {
+        account("A1", 100, "ACTIVE");
+        // Two-slot rings: the write-behind queue holds four changes
+        try (ShardedLedgerEngine small = new ShardedLedgerEngine(1, 2, 1, accounts, txns, audits, null, 50)) {
+            small.deposit("A1", BigDecimal.ONE, "C1").join(); // loads the account while the database is up
+            databaseDown = true;
+
+            long start = System.currentTimeMillis();
+            int busy = 0;
+            for (int i = 0; i < 20; i++) {
+                try {
+                    small.deposit("A1", BigDecimal.ONE, "C1").join();
+                } catch (CompletionException e) {
+                    assertInstanceOf(EngineBusyException.class, e.getCause());
+                    busy++;
+                }
+            }
+            assertTrue(busy >= 14, "busy=" + busy);
+            assertTrue(System.currentTimeMillis() - start < 5_000, "callers must not wait for the database");
+
+            databaseDown = false;
+            assertTrue(small.flush(15_000), small.stats());
+            assertEquals(0, BigDecimal.valueOf(100 + 21 - busy).compareTo(stored.get("A1")));
+        }
+    }
+
+    @Test
+    void aShardKilledByAnError_failsItsOperations_insteadOfLeavingThemPending() {
+        account("A1", 100, "ACTIVE");
+        fatalAccount = "A1";
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> engine.deposit("A1", BigDecimal.ONE, "C1").get(5, TimeUnit.SECONDS));
+        assertInstanceOf(EngineBusyException.class, e.getCause());
+
+        // Later operations for that shard fail at once
+        CompletionException again = assertThrows(CompletionException.class,
+                () -> engine.deposit("A1", BigDecimal.ONE, "C1").join());
+        assertInstanceOf(EngineBusyException.class, again.getCause());
+    }
+
+    @Test
+    void listeners_getEachSuccessfulOperationWithEveryAccountsEntry() {
+        account("SRC", 100, "ACTIVE");
+        String dest = null;
+        for (int i = 0; dest == null; i++) {
+            if (LedgerEvent.partitionOf("D" + i, SHARDS) != LedgerEvent.partitionOf("SRC", SHARDS)) dest = "D" + i;
+        }
+        account(dest, 0, "ACTIVE");
+        Map<String, List<String>> seen = new ConcurrentHashMap<>();
+        engine.addListener((txn, entries) -> seen.put(txn.getId(),
+                entries.stream().map(a -> a.getAccountId() + ":" + a.getAction()).toList()));
+
+        Transaction txn = engine.transfer("SRC", dest, BigDecimal.valueOf(40), "C1").join();
+        assertThrows(CompletionException.class, () -> engine.withdraw("SRC", BigDecimal.valueOf(500), "C1").join());
+        assertTrue(engine.flush(5_000));
+
+        assertEquals(Map.of(txn.getId(), List.of("SRC:TRANSFER-DEBIT", dest + ":TRANSFER-CREDIT")), seen);
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.banking.ingest;
+
+import com.example.banking.model.Account;
+import com.example.banking.model.IngestReport;
+import com.example.banking.repository.AccountRepository;
+import com.example.banking.repository.AuditLogRepository;
+import com.example.banking.repository.InMemoryIngestCheckpointRepository;
+import com.example.banking.repository.TransactionRepository;
+import com.example.banking.service.AuditDispatcher;
+
+import java.io.BufferedWriter;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Records/second of payment file ingestion: the parse stage alone, then the whole pipeline.
+ * Run after mvn test-compile with:
+ *   mvn dependency:build-classpath -Dmdep.outputFile=cp.txt
+ *   java -cp target/classes:target/test-classes:$(cat cp.txt) com.example.banking.ingest.PaymentFileIngestBenchmark
+ * Repositories are no-ops, so the pipeline numbers exclude MySQL (which bounds a real run).
+ */
+public class PaymentFileIngestBenchmark {
+
+    private static final int RECORDS = 1_000_000;
+    private static final int ACCOUNTS = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Files.createTempDirectory("ingest-bench");
+        Path file = dir.resolve("payments.csv");
+        generate(file);
+        System.out.printf("file: %,d records, %,d bytes%n", RECORDS, Files.size(file));
+
+        for (int round = 0; round < 3; round++) { // first round is warm-up
+            long start = System.nanoTime();
+            long parsed = parseOnly(file);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("parse only: %,.0f records/s%n", parsed / seconds);
+        }
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int partitions : new int[]{1, Math.max(4, cores)}) {
+            for (int round = 0; round < 2; round++) {
+                PaymentFileIngestor ingestor = pipeline(partitions);
+                IngestReport report = ingestor.ingest(file, PaymentFileFormat.CSV, dir.resolve("errors.csv"), "bench");
+                System.out.printf("pipeline partitions=%d: %s%n", ingestor.getPartitions(), report);
+            }
+        }
+    }
+
+    private static void generate(Path file) throws Exception {
+        Random random = new Random(42);
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            out.write("type,from,to,amount\n");
+            for (int i = 0; i < RECORDS; i++) {
+                String a = "ACC" + (100_000 + random.nextInt(ACCOUNTS));
+                String b = "ACC" + (100_000 + random.nextInt(ACCOUNTS));
+                String amount = (1 + random.nextInt(5_000)) + "." + (10 + random.nextInt(90));
+                switch (random.nextInt(3)) {
+                    case 0 -> out.write("D,," + a + "," + amount + "\n");
+                    case 1 -> out.write("W," + a + ",," + amount + "\n");
+                    default -> out.write("T," + a + "," + (a.equals(b) ? "ACC099999" : b) + "," + amount + "\n");
+                }
+            }
+        }
+    }
+
+    // The feeding thread's work without the partitions: map, split lines, parse into blocks
+    private static long parseOnly(Path file) throws Exception {
+        AccountNumberTable numbers = new AccountNumberTable();
+        PaymentRecordParser parser = new PaymentRecordParser(PaymentFileFormat.CSV, numbers);
+        RecordBlock block = new RecordBlock(8192);
+        long parsed = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int limit = buf.limit();
+            int lineStart = 0;
+            while (lineStart < limit) {
+                int lineEnd = lineStart;
+                while (lineEnd < limit && buf.get(lineEnd) != '\n') lineEnd++;
+                if (lineStart > 0) {
+                    if (block.isFull()) block.size = 0;
+                    parser.parse(buf, lineStart, lineEnd, block, block.size++);
+                    parsed++;
+                }
+                lineStart = lineEnd + 1;
+            }
+        }
+        return parsed;
+    }
+
+    private static PaymentFileIngestor pipeline(int partitions) {
+        // Plain proxies rather than mocks: Mockito's per-call bookkeeping would dominate the measurement
+        AccountRepository accounts = noOp(AccountRepository.class, (method, args) -> switch (method) {
+            case "credit", "debit" -> BigDecimal.ONE;
+            case "findByNumbers" -> {
+                List<Account> found = new ArrayList<>();
+                for (Object number : (Collection<?>) args[0]) {
+                    found.add(new Account("id-" + number, "C", (String) number, BigDecimal.valueOf(1_000_000), "SAVINGS"));
+                }
+                yield found;
+            }
+            default -> null;
+        });
+        TransactionRepository txns = noOp(TransactionRepository.class, (method, args) -> null);
+        AuditLogRepository audits = noOp(AuditLogRepository.class, (method, args) -> null);
+        return new PaymentFileIngestor(accounts, txns, audits, new InMemoryIngestCheckpointRepository(),
+                mock(AuditDispatcher.class, withSettings().stubOnly()), partitions, 500);
+    }
+
+    private static <T> T noOp(Class<T> type, BiFunction<String, Object[], Object> answer) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> answer.apply(method.getName(), args)));
+    }
+}
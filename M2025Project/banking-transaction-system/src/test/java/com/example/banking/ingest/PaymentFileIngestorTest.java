@@ -0,0 +1,215 @@
+package com.example.banking.ingest;
+
+import com.example.banking.exception.TransactionFailedException;
+import com.example.banking.model.Account;
+import com.example.banking.model.IngestReport;
+import com.example.banking.model.Transaction;
+import com.example.banking.repository.AccountRepository;
+import com.example.banking.repository.AuditLogRepository;
+import com.example.banking.repository.InMemoryIngestCheckpointRepository;
+import com.example.banking.repository.TransactionRepository;
+import com.example.banking.service.AuditDispatcher;
+import com.example.banking.utils.AccountLockManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PaymentFileIngestorTest {
+
+    @TempDir Path dir;
+
+    private final Map<String, BigDecimal> balances = new ConcurrentHashMap<>(); // the "database"
+    private final Map<String, Account> byNumber = new ConcurrentHashMap<>();
+    private final List<Transaction> savedTxns = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger creditCalls = new AtomicInteger();
+    private volatile int failCreditCall = -1;
+
+    private AccountRepository accountRepository;
+    private TransactionRepository transactionRepository;
+    private AuditLogRepository auditLogRepository;
+    private final InMemoryIngestCheckpointRepository checkpoints = new InMemoryIngestCheckpointRepository();
+
+    @BeforeEach
+    void setUp() {
+        addAccount("A1", "ACC1001", 1000, "ACTIVE");
+        addAccount("A2", "ACC2001", 500, "ACTIVE");
+        addAccount("A3", "ACC3001", 0, "CLOSED");
+
+        accountRepository = mock(AccountRepository.class);
+        when(accountRepository.findByNumbers(anyCollection())).thenAnswer(inv -> {
+            List<Account> found = new ArrayList<>();
+            for (String number : (Collection<String>) inv.getArgument(0)) {
+                if (byNumber.containsKey(number)) found.add(byNumber.get(number));
+            }
+            return found;
+        });
+        // Guarded updates like the JDBC repository's: closed accounts and overdrafts are refused
+        when(accountRepository.credit(anyString(), any(BigDecimal.class))).thenAnswer(inv -> {
+            if (creditCalls.incrementAndGet() == failCreditCall) throw new RuntimeException("Connection lost");
+            return update(inv.getArgument(0), inv.getArgument(1));
+        });
+        when(accountRepository.debit(anyString(), any(BigDecimal.class)))
+                .thenAnswer(inv -> update(inv.getArgument(0), ((BigDecimal) inv.getArgument(1)).negate()));
+
+        transactionRepository = mock(TransactionRepository.class);
+        when(transactionRepository.saveAll(anyCollection())).thenAnswer(inv -> {
+            savedTxns.addAll(inv.getArgument(0));
+            return new ArrayList<>((Collection<Transaction>) inv.getArgument(0));
+        });
+        auditLogRepository = mock(AuditLogRepository.class);
+    }
+
+    private void addAccount(String id, String number, long balance, String status) {
+        byNumber.put(number, new Account(id, "C-" + id, number, BigDecimal.valueOf(balance), "SAVINGS", status, Instant.now()));
+        balances.put(id, BigDecimal.valueOf(balance));
+    }
+
+    private synchronized BigDecimal update(String id, BigDecimal delta) {
+        Account acc = byNumber.values().stream().filter(a -> a.getId().equals(id)).findFirst().orElseThrow();
+        BigDecimal after = balances.get(id).add(delta);
+        if (!"ACTIVE".equals(acc.getStatus()) || after.signum() < 0) return null;
+        balances.put(id, after);
+        return after;
+    }
+
+    private PaymentFileIngestor ingestor(int partitions, int batchSize, int windowBytes) {
+        return new PaymentFileIngestor(accountRepository, transactionRepository, auditLogRepository, checkpoints,
+                mock(AuditDispatcher.class), partitions, batchSize, new AccountLockManager(64), windowBytes);
+    }
+
+    private Path file(String... lines) throws Exception {
+        Path file = dir.resolve("payments.csv");
+        Files.write(file, List.of(lines));
+        return file;
+    }
+
+    @Test
+    void appliesRecordsAcrossPartitionsAndReportsTheRest() throws Exception {
+        Path file = file(
+                "type,from,to,amount",
+                "D,,ACC1001,100",
+                "T,ACC1001,ACC2001,300",
+                "W,ACC2001,,900",
+                "T,ACC1001,ACC9999,5",
+                "garbage line",
+                "D,,ACC3001,10",
+                "",
+                "W,ACC2001,,50");
+        Path errors = dir.resolve("payments.errors");
+
+        // 64-byte windows: records also cross mapping window boundaries
+        IngestReport report = ingestor(4, 2, 64).ingest(file, PaymentFileFormat.CSV, errors, "ops");
+
+        assertEquals(7, report.getRecords());
+        assertEquals(3, report.getApplied());
+        assertEquals(2, report.getFailed());    // insufficient funds, closed account
+        assertEquals(2, report.getRejected());  // unknown account, unparseable line
+        assertEquals(new BigDecimal("800"), balances.get("A1"));
+        assertEquals(new BigDecimal("750"), balances.get("A2"));
+        assertEquals(3, savedTxns.stream().filter(t -> "SUCCESS".equals(t.getStatus())).count());
+        assertEquals(2, savedTxns.stream().filter(t -> "FAILED".equals(t.getStatus())).count());
+
+        List<String> errorLines = Files.readAllLines(errors);
+        assertEquals(5, errorLines.size()); // header + one per record not applied
+        assertTrue(errorLines.contains("4,57,\"Insufficient funds for withdrawal\",W,ACC2001,,900"), errorLines.toString());
+        assertTrue(errorLines.stream().anyMatch(l -> l.startsWith("5,") && l.contains("Destination account not found")));
+        assertTrue(errorLines.stream().anyMatch(l -> l.startsWith("6,") && l.endsWith(",garbage line")));
+        assertTrue(errorLines.stream().anyMatch(l -> l.startsWith("7,") && l.contains("Account is closed")));
+    }
+
+    @Test
+    void aWithdrawalAfterATransferIntoTheAccount_seesIt_evenAcrossPartitions() throws Exception {
+        // Payer and payee owned by different partitions; the payee starts empty
+        AccountLockManager locks = new AccountLockManager(64);
+        String payee = null;
+        for (int k = 0; payee == null; k++) {
+            if (locks.partitionOf("P" + k, 4) != locks.partitionOf("A1", 4)) payee = "P" + k;
+        }
+        addAccount(payee, "ACC5001", 0, "ACTIVE");
+        List<String> lines = new ArrayList<>();
+        for (int k = 0; k < 200; k++) {
+            lines.add("T,ACC1001,ACC5001,5");
+            lines.add("W,ACC5001,,5"); // only possible once the transfer just before it is applied
+        }
+
+        IngestReport report = ingestor(4, 3, 256).ingest(file(lines.toArray(new String[0])), PaymentFileFormat.CSV,
+                dir.resolve("payments.errors"), "ops");
+
+        assertEquals(400, report.getApplied(), Files.readAllLines(dir.resolve("payments.errors")).toString());
+        assertEquals(0, report.getFailed());
+        assertEquals(new BigDecimal("0"), balances.get(payee));
+        assertEquals(new BigDecimal("0"), balances.get("A1"));
+    }
+
+    @Test
+    void runningAFinishedFileAgainAppliesNothing() throws Exception {
+        Path file = file("D,,ACC1001,1", "T,ACC1001,ACC2001,2", "W,ACC2001,,3");
+        Path errors = dir.resolve("payments.errors");
+        ingestor(2, 500, PaymentFileIngestor.DEFAULT_WINDOW_BYTES).ingest(file, PaymentFileFormat.CSV, errors, "ops");
+
+        IngestReport again = ingestor(2, 500, PaymentFileIngestor.DEFAULT_WINDOW_BYTES)
+                .ingest(file, PaymentFileFormat.CSV, errors, "ops");
+
+        assertEquals(3, again.getSkipped());
+        assertEquals(0, again.getApplied());
+        assertEquals(new BigDecimal("999"), balances.get("A1"));
+        assertEquals(new BigDecimal("499"), balances.get("A2"));
+        assertEquals(3, savedTxns.size());
+    }
+
+    @Test
+    void aRenamedOrTouchedCopyOfAFinishedFile_appliesNothing() throws Exception {
+        Path file = file("D,,ACC1001,1", "T,ACC1001,ACC2001,2");
+        Path errors = dir.resolve("payments.errors");
+        ingestor(2, 500, PaymentFileIngestor.DEFAULT_WINDOW_BYTES).ingest(file, PaymentFileFormat.CSV, errors, "ops");
+
+        Path copy = Files.copy(file, dir.resolve("payments-resent.csv"));
+        Files.setLastModifiedTime(copy, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+        IngestReport again = ingestor(2, 500, PaymentFileIngestor.DEFAULT_WINDOW_BYTES)
+                .ingest(copy, PaymentFileFormat.CSV, errors, "ops");
+
+        assertEquals(2, again.getSkipped());
+        assertEquals(new BigDecimal("999"), balances.get("A1"));
+
+        // One changed byte is a different file
+        Files.write(copy, List.of("D,,ACC1001,1", "T,ACC1001,ACC2001,3"));
+        assertEquals(2, ingestor(2, 500, PaymentFileIngestor.DEFAULT_WINDOW_BYTES)
+                .ingest(copy, PaymentFileFormat.CSV, errors, "ops").getApplied());
+    }
+
+    @Test
+    void resumesAfterTheLastCommittedChunk() throws Exception {
+        Path file = file("D,,ACC1001,1", "D,,ACC1001,1", "D,,ACC1001,1", "D,,ACC1001,1", "D,,ACC1001,1", "D,,ACC1001,1");
+        Path errors = dir.resolve("payments.errors");
+        failCreditCall = 3; // first record of the second chunk
+
+        assertThrows(TransactionFailedException.class, () -> ingestor(1, 2, PaymentFileIngestor.DEFAULT_WINDOW_BYTES)
+                .ingest(file, PaymentFileFormat.CSV, errors, "ops"));
+        assertEquals(new BigDecimal("1002"), balances.get("A1"));
+
+        IngestReport resumed = ingestor(1, 2, PaymentFileIngestor.DEFAULT_WINDOW_BYTES)
+                .ingest(file, PaymentFileFormat.CSV, errors, "ops");
+
+        assertEquals(2, resumed.getSkipped());
+        assertEquals(4, resumed.getApplied());
+        assertEquals(new BigDecimal("1006"), balances.get("A1"));
+        assertEquals(6, savedTxns.size());
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.banking.ingest;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentRecordParserTest {
+
+    private final AccountNumberTable numbers = new AccountNumberTable();
+
+    private RecordBlock parse(PaymentFileFormat format, String... lines) {
+        PaymentRecordParser parser = new PaymentRecordParser(format, numbers);
+        RecordBlock block = new RecordBlock(lines.length);
+        for (String line : lines) {
+            ByteBuffer buf = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+            parser.parse(buf, 0, buf.limit(), block, block.size++);
+        }
+        return block;
+    }
+
+    private static BigDecimal amount(RecordBlock block, int i) {
+        return BigDecimal.valueOf(block.unscaled[i], block.scale[i]);
+    }
+
+    @Test
+    void parsesCsvRecordsAndInternsAccountNumbers() {
+        RecordBlock block = parse(PaymentFileFormat.CSV,
+                "T,ACC1001,ACC2001,250.75",
+                "deposit, ,ACC1001 ,40\r",
+                "Withdrawal,ACC2001,,0.5,salary advance");
+
+        for (int i = 0; i < 3; i++) assertNull(block.error[i], block.error[i]);
+        assertEquals(RecordBlock.TRANSFER, block.type[0]);
+        assertEquals(new BigDecimal("250.75"), amount(block, 0));
+        assertEquals(RecordBlock.DEPOSIT, block.type[1]);
+        assertEquals(-1, block.from[1]);
+        assertEquals(block.from[0], block.to[1]);          // same number, same ref
+        assertEquals(RecordBlock.WITHDRAW, block.type[2]);
+        assertEquals(new BigDecimal("0.5"), amount(block, 2));
+        assertEquals(2, numbers.size());
+        assertEquals("ACC1001", numbers.numberOf(block.from[0]));
+        assertEquals("ACC2001", numbers.numberOf(block.from[2]));
+    }
+
+    @Test
+    void parsesFixedWidthRecords() {
+        String line = String.format("%-1s%-20s%-20s%18s", "T", "ACC1001", "ACC2001", "1234.56") + "ref 42";
+
+        RecordBlock block = parse(PaymentFileFormat.FIXED_WIDTH, line);
+
+        assertNull(block.error[0]);
+        assertEquals(RecordBlock.TRANSFER, block.type[0]);
+        assertEquals("ACC1001", numbers.numberOf(block.from[0]));
+        assertEquals("ACC2001", numbers.numberOf(block.to[0]));
+        assertEquals(new BigDecimal("1234.56"), amount(block, 0));
+    }
+
+    @Test
+    void rejectsMalformedRecords() {
+        RecordBlock block = parse(PaymentFileFormat.CSV,
+                "X,ACC1,ACC2,1",
+                "D,ACC1,ACC2,1",
+                "T,ACC1,ACC1,1",
+                "W,ACC1,,12a",
+                "W,ACC1,,1234567890123456789",
+                "T,\"ACC1\",ACC2,1",
+                "T,ACC1,ACC2");
+
+        assertEquals("Unknown record type", block.error[0]);
+        assertEquals("A deposit names only the destination account", block.error[1]);
+        assertEquals("Source and destination accounts cannot be the same", block.error[2]);
+        assertEquals("Invalid amount", block.error[3]);
+        assertEquals("Amount has too many digits", block.error[4]);
+        assertEquals("Quoted fields are not supported", block.error[5]);
+        assertEquals("Expected 4 fields: type,from,to,amount", block.error[6]);
+    }
+}
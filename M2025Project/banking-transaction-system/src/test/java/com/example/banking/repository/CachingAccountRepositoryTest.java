@@ -0,0 +1,134 @@
+package com.example.banking.repository;
+
+import com.example.banking.model.Account;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CachingAccountRepositoryTest {
+
+    private AccountRepository delegate;
+    private CachingAccountRepository cache;
+
+    private Account acc1;
+    private Account acc2;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(AccountRepository.class);
+        cache = new CachingAccountRepository(delegate, 2);
+
+        acc1 = new Account("A1", "C1", "ACC1001", BigDecimal.valueOf(1000), "SAVINGS");
+        acc2 = new Account("A2", "C1", "ACC2001", BigDecimal.valueOf(500), "CURRENT");
+
+        when(delegate.findById("A1")).thenReturn(acc1);
+        when(delegate.findByNumber("ACC1001")).thenReturn(acc1);
+        when(delegate.findByNumber("ACC2001")).thenReturn(acc2);
+        when(delegate.findByCustomerIdAndType("C1", "SAVINGS")).thenReturn(acc1);
+    }
+
+    @Test
+    void repeatedLookups_hitCacheThroughAnyIndex() {
+        cache.findByNumber("ACC1001");
+        cache.findByNumber("ACC1001");
+        cache.findById("A1");
+
+        verify(delegate, times(1)).findByNumber("ACC1001");
+        verify(delegate, never()).findById("A1");
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void customerAndTypeIndex_isCached() {
+        assertEquals("A1", cache.findByCustomerIdAndType("C1", "SAVINGS").getId());
+        assertEquals("A1", cache.findByCustomerIdAndType("C1", "SAVINGS").getId());
+        verify(delegate, times(1)).findByCustomerIdAndType("C1", "SAVINGS");
+    }
+
+    @Test
+    void returnedAccounts_areCopies() {
+        Account first = cache.findByNumber("ACC1001");
+        first.setBalance(BigDecimal.ZERO);
+
+        assertEquals(BigDecimal.valueOf(1000), cache.findByNumber("ACC1001").getBalance());
+    }
+
+    @Test
+    void balanceChange_invalidatesEntry() {
+        cache.findByNumber("ACC1001");
+        when(delegate.credit("A1", BigDecimal.TEN)).thenReturn(BigDecimal.valueOf(1010));
+
+        cache.credit("A1", BigDecimal.TEN);
+        cache.findByNumber("ACC1001");
+
+        verify(delegate, times(2)).findByNumber("ACC1001");
+    }
+
+    @Test
+    void aWriteDuringALoad_onlyStopsCachingThatAccount() {
+        when(delegate.credit(anyString(), any())).thenReturn(BigDecimal.ONE);
+        // Each load races with a credit, as under write load: one to another account, one to its own
+        when(delegate.findByNumber("ACC2001")).thenAnswer(inv -> {
+            cache.credit("A1", BigDecimal.TEN);
+            return acc2;
+        });
+        when(delegate.findByNumber("ACC1001")).thenAnswer(inv -> {
+            cache.credit("A1", BigDecimal.TEN);
+            return acc1;
+        });
+
+        cache.findByNumber("ACC2001");
+        cache.findByNumber("ACC2001");
+        verify(delegate, times(1)).findByNumber("ACC2001");
+
+        cache.findByNumber("ACC1001");
+        cache.findByNumber("ACC1001");
+        verify(delegate, times(2)).findByNumber("ACC1001"); // possibly stale, so never cached
+    }
+
+    @Test
+    void save_invalidatesEntryAndTypeIndex() {
+        cache.findByCustomerIdAndType("C1", "SAVINGS");
+        when(delegate.save(acc1)).thenReturn(acc1);
+
+        acc1.setStatus("CLOSED");
+        cache.save(acc1);
+        cache.findByCustomerIdAndType("C1", "SAVINGS");
+
+        verify(delegate, times(2)).findByCustomerIdAndType("C1", "SAVINGS");
+    }
+
+    @Test
+    void leastRecentlyUsed_isEvictedWhenFull() {
+        Account acc3 = new Account("A3", "C2", "ACC3001", BigDecimal.ONE, "SAVINGS");
+        when(delegate.findByNumber("ACC3001")).thenReturn(acc3);
+
+        cache.findByNumber("ACC1001");
+        cache.findByNumber("ACC2001");
+        cache.findByNumber("ACC1001"); // A1 is now most recently used
+        cache.findByNumber("ACC3001"); // evicts A2
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        cache.findByNumber("ACC2001");
+        verify(delegate, times(2)).findByNumber("ACC2001");
+    }
+
+    @Test
+    void findByIds_onlyFetchesMisses() {
+        cache.findByNumber("ACC1001");
+        when(delegate.findByIds(List.of("A2"))).thenReturn(List.of(acc2));
+
+        List<Account> found = cache.findByIds(Arrays.asList("A1", "A2"));
+
+        assertEquals(2, found.size());
+        verify(delegate).findByIds(List.of("A2"));
+    }
+}
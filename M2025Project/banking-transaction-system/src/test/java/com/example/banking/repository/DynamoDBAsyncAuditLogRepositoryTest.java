@@ -0,0 +1,149 @@
+package com.example.banking.repository;
+
+import com.example.banking.model.AuditLog;
+import com.example.banking.utils.DynamoDBUtil;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class DynamoDBAsyncAuditLogRepositoryTest {
+
+    private AuditLog log(String id) {
+        return new AuditLog(id, "T-" + id, "A1", "ACTOR", "DEPOSIT", BigDecimal.ZERO, BigDecimal.ONE);
+    }
+
+    @Test
+    void saveAsync_capsRequestsInFlight() throws Exception {
+        DynamoDbAsyncClient client = mock(DynamoDbAsyncClient.class);
+        List<CompletableFuture<PutItemResponse>> pending = new CopyOnWriteArrayList<>();
+        when(client.putItem(any(PutItemRequest.class))).thenAnswer(inv -> {
+            CompletableFuture<PutItemResponse> f = new CompletableFuture<>();
+            pending.add(f);
+            return f;
+        });
+        DynamoDBAsyncAuditLogRepository repository = new DynamoDBAsyncAuditLogRepository(client, 2, 3, 1);
+
+        CompletableFuture<AuditLog> first = repository.saveAsync(log("L1"));
+        repository.saveAsync(log("L2"));
+        assertEquals(2, repository.getInFlight());
+
+        // A third write has to wait for a permit
+        CompletableFuture<AuditLog> third = CompletableFuture.supplyAsync(() -> repository.saveAsync(log("L3")).join());
+        Thread.sleep(100);
+        assertEquals(2, pending.size());
+        assertFalse(third.isDone());
+
+        pending.get(0).complete(PutItemResponse.builder().build());
+        assertEquals("L1", first.get(1, TimeUnit.SECONDS).getId());
+
+        while (pending.size() < 3) Thread.sleep(5);
+        pending.forEach(f -> f.complete(PutItemResponse.builder().build()));
+        assertEquals("L3", third.get(1, TimeUnit.SECONDS).getId());
+        assertEquals(0, repository.getInFlight());
+        assertEquals(1, repository.getPermitWaitCount());
+    }
+
+    @Test
+    void saveAllAsync_retriesUnprocessedItems() throws Exception {
+        DynamoDbAsyncClient client = mock(DynamoDbAsyncClient.class);
+        AtomicInteger calls = new AtomicInteger();
+        when(client.batchWriteItem(any(BatchWriteItemRequest.class))).thenAnswer(inv -> {
+            BatchWriteItemRequest request = inv.getArgument(0);
+            if (calls.incrementAndGet() == 1) {
+                List<WriteRequest> sent = request.requestItems().get("AuditLogs");
+                return CompletableFuture.completedFuture(BatchWriteItemResponse.builder()
+                        .unprocessedItems(Map.of("AuditLogs", sent.subList(0, 1))).build());
+            }
+            return CompletableFuture.completedFuture(BatchWriteItemResponse.builder().build());
+        });
+        DynamoDBAsyncAuditLogRepository repository = new DynamoDBAsyncAuditLogRepository(client, 4, 3, 1);
+
+        List<AuditLog> saved = repository.saveAllAsync(List.of(log("L1"), log("L2"))).get(1, TimeUnit.SECONDS);
+
+        assertEquals(2, saved.size());
+        assertEquals(2, calls.get());
+        assertEquals(1, repository.getThrottledItemCount());
+    }
+
+    @Test
+    void aRetryingBatch_keepsItsPermit_insteadOfWaitingBehindNewCallers() throws Exception {
+        DynamoDbAsyncClient client = mock(DynamoDbAsyncClient.class);
+        CompletableFuture<BatchWriteItemResponse> firstAttempt = new CompletableFuture<>();
+        AtomicInteger batchCalls = new AtomicInteger();
+        when(client.batchWriteItem(any(BatchWriteItemRequest.class))).thenAnswer(inv -> batchCalls.incrementAndGet() == 1
+                ? firstAttempt : CompletableFuture.completedFuture(BatchWriteItemResponse.builder().build()));
+        CompletableFuture<PutItemResponse> put = new CompletableFuture<>();
+        when(client.putItem(any(PutItemRequest.class))).thenReturn(put);
+        DynamoDBAsyncAuditLogRepository repository = new DynamoDBAsyncAuditLogRepository(client, 1, 3, 1);
+
+        CompletableFuture<List<AuditLog>> batch = repository.saveAllAsync(List.of(log("L1")));
+        CompletableFuture<AuditLog> waiting = CompletableFuture.supplyAsync(() -> repository.saveAsync(log("L2")).join());
+        while (repository.getPermitWaitCount() == 0) Thread.sleep(5);
+
+        // Throttled: the retry runs on a timer thread and must not queue behind the waiting caller
+        List<WriteRequest> sent = ((BatchWriteItemRequest) mockingDetails(client).getInvocations().iterator().next()
+                .getArgument(0)).requestItems().get("AuditLogs");
+        firstAttempt.complete(BatchWriteItemResponse.builder().unprocessedItems(Map.of("AuditLogs", sent)).build());
+
+        assertEquals(1, batch.get(1, TimeUnit.SECONDS).size());
+        assertEquals(2, batchCalls.get());
+
+        put.complete(PutItemResponse.builder().build());
+        assertEquals("L2", waiting.get(1, TimeUnit.SECONDS).getId());
+        assertEquals(0, repository.getInFlight());
+    }
+
+    // Real async client against a local stand-in endpoint that answers like DynamoDB
+    @Test
+    void realClient_writesThroughLocalEndpoint() throws Exception {
+        List<String> targets = new CopyOnWriteArrayList<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            targets.add(exchange.getRequestHeaders().getFirst("X-Amz-Target"));
+            exchange.getRequestBody().readAllBytes();
+            byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/x-amz-json-1.0");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+
+        try (DynamoDbAsyncClient client = DynamoDBUtil.getLocalAsyncClient(
+                "http://127.0.0.1:" + server.getAddress().getPort())) {
+            DynamoDBAsyncAuditLogRepository repository = new DynamoDBAsyncAuditLogRepository(client, 8);
+
+            List<CompletableFuture<AuditLog>> futures = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                futures.add(repository.saveAsync(log("L" + i)));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+            repository.saveAll(List.of(log("B1"), log("B2")));
+
+            assertEquals(20, targets.stream().filter("DynamoDB_20120810.PutItem"::equals).count());
+            assertTrue(targets.contains("DynamoDB_20120810.BatchWriteItem"));
+        } finally {
+            server.stop(0);
+        }
+    }
+}
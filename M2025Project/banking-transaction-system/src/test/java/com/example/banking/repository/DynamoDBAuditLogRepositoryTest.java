@@ -0,0 +1,234 @@
+package com.example.banking.repository;
+
+import com.example.banking.model.AuditLog;
+import com.example.banking.model.AuditLogPage;
+import com.example.banking.model.HistoryCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import com.example.banking.utils.AuditLogMapper;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputExceededException;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+import software.amazon.awssdk.services.dynamodb.paginators.ScanIterable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class DynamoDBAuditLogRepositoryTest {
+
+    private DynamoDbClient client;
+    private DynamoDBAuditLogRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        client = mock(DynamoDbClient.class);
+        repository = new DynamoDBAuditLogRepository(client, 4, 1);
+    }
+
+    private List<AuditLog> logs(int count) {
+        List<AuditLog> logs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            logs.add(new AuditLog("L" + i, "T" + i, "A1", "ACTOR", "DEPOSIT", BigDecimal.ZERO, BigDecimal.ONE));
+        }
+        return logs;
+    }
+
+    private static int itemCount(BatchWriteItemRequest request) {
+        return request.requestItems().values().stream().mapToInt(List::size).sum();
+    }
+
+    @Test
+    void saveAll_splitsIntoBatchesOf25() {
+        List<Integer> sizes = new ArrayList<>();
+        when(client.batchWriteItem(any(BatchWriteItemRequest.class))).thenAnswer(inv -> {
+            sizes.add(itemCount(inv.getArgument(0)));
+            return BatchWriteItemResponse.builder().build();
+        });
+
+        repository.saveAll(logs(60));
+
+        assertEquals(List.of(25, 25, 10), sizes);
+        assertEquals(3, repository.getBatchCount());
+        verify(client, never()).putItem(any(software.amazon.awssdk.services.dynamodb.model.PutItemRequest.class));
+    }
+
+    @Test
+    void unprocessedItems_areRetriedUntilWritten() {
+        List<Integer> sizes = new ArrayList<>();
+        when(client.batchWriteItem(any(BatchWriteItemRequest.class))).thenAnswer(inv -> {
+            BatchWriteItemRequest request = inv.getArgument(0);
+            sizes.add(itemCount(request));
+            if (sizes.size() == 1) {
+                List<WriteRequest> sent = request.requestItems().get("AuditLogs");
+                return BatchWriteItemResponse.builder()
+                        .unprocessedItems(Map.of("AuditLogs", sent.subList(0, 3)))
+                        .build();
+            }
+            return BatchWriteItemResponse.builder().build();
+        });
+
+        repository.saveAll(logs(10));
+
+        assertEquals(List.of(10, 3), sizes);
+        assertEquals(3, repository.getThrottledItemCount());
+        assertEquals(2, repository.getBatchRequestCount());
+    }
+
+    @Test
+    void giveUp_afterMaxAttempts() {
+        when(client.batchWriteItem(any(BatchWriteItemRequest.class))).thenAnswer(inv -> {
+            BatchWriteItemRequest request = inv.getArgument(0);
+            return BatchWriteItemResponse.builder().unprocessedItems(request.requestItems()).build();
+        });
+
+        assertThrows(RuntimeException.class, () -> repository.saveAll(logs(2)));
+        verify(client, times(4)).batchWriteItem(any(BatchWriteItemRequest.class));
+    }
+
+    @Test
+    void duplicateIds_areCollapsedWithinABatch() {
+        List<Integer> sizes = new ArrayList<>();
+        when(client.batchWriteItem(any(BatchWriteItemRequest.class))).thenAnswer(inv -> {
+            sizes.add(itemCount(inv.getArgument(0)));
+            return BatchWriteItemResponse.builder().build();
+        });
+        List<AuditLog> logs = logs(2);
+        logs.add(logs.get(0));
+
+        repository.saveAll(logs);
+
+        assertEquals(List.of(2), sizes);
+    }
+
+    // Real paginator over the mocked client, so page-following logic is exercised
+    private void stubPaginator() {
+        when(client.scanPaginator(any(ScanRequest.class)))
+                .thenAnswer(inv -> new ScanIterable(client, inv.getArgument(0)));
+    }
+
+    private static Map<String, AttributeValue> item(String id) {
+        return AuditLogMapper.toAttributeMap(
+                new AuditLog(id, "T", "A1", "ACTOR", "DEPOSIT", BigDecimal.ZERO, BigDecimal.ONE));
+    }
+
+    @Test
+    void findAll_followsLastEvaluatedKey() {
+        stubPaginator();
+        Map<String, AttributeValue> lastKey = Map.of("logId", AttributeValue.builder().s("L1").build());
+        when(client.scan(any(ScanRequest.class))).thenAnswer(inv -> {
+            ScanRequest request = inv.getArgument(0);
+            if (!request.hasExclusiveStartKey()) {
+                return ScanResponse.builder().items(item("L0"), item("L1")).lastEvaluatedKey(lastKey).build();
+            }
+            return ScanResponse.builder().items(item("L2")).build();
+        });
+
+        List<AuditLog> all = repository.findAll();
+
+        assertEquals(List.of("L0", "L1", "L2"), all.stream().map(AuditLog::getId).toList());
+        verify(client, times(2)).scan(any(ScanRequest.class));
+    }
+
+    @Test
+    void streamAll_isLazy() {
+        stubPaginator();
+        when(client.scan(any(ScanRequest.class))).thenReturn(ScanResponse.builder()
+                .items(item("L0"))
+                .lastEvaluatedKey(Map.of("logId", AttributeValue.builder().s("L0").build()))
+                .build());
+
+        assertEquals("L0", repository.streamAll().findFirst().orElseThrow().getId());
+        verify(client, times(1)).scan(any(ScanRequest.class));
+    }
+
+    @Test
+    void streamAll_wrapsAFailedLaterPage_whereTheStreamIsConsumed() {
+        stubPaginator();
+        when(client.scan(any(ScanRequest.class))).thenAnswer(inv -> {
+            ScanRequest request = inv.getArgument(0);
+            if (!request.hasExclusiveStartKey()) {
+                return ScanResponse.builder().items(item("L0"))
+                        .lastEvaluatedKey(Map.of("logId", AttributeValue.builder().s("L0").build())).build();
+            }
+            throw ProvisionedThroughputExceededException.builder().message("Throughput exceeded").build();
+        });
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> repository.streamAll().count());
+
+        assertTrue(e.getMessage().startsWith("Failed to fetch audit logs from DynamoDB"), e.getMessage());
+        assertInstanceOf(ProvisionedThroughputExceededException.class, e.getCause());
+    }
+
+    @Test
+    void parallelScan_coversEverySegment() {
+        stubPaginator();
+        when(client.scan(any(ScanRequest.class))).thenAnswer(inv -> {
+            ScanRequest request = inv.getArgument(0);
+            return ScanResponse.builder().items(item("S" + request.segment())).build();
+        });
+
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        long count = repository.parallelScan(4, log -> seen.add(log.getId()));
+
+        assertEquals(4, count);
+        assertEquals(Set.of("S0", "S1", "S2", "S3"), seen);
+    }
+
+    private static Map<String, AttributeValue> item(String id, Instant createdAt) {
+        return AuditLogMapper.toAttributeMap(
+                new AuditLog(id, "T", "A1", "ACTOR", "DEPOSIT", BigDecimal.ZERO, BigDecimal.ONE, createdAt));
+    }
+
+    @Test
+    void findByAccountId_queriesIndexNewestFirst_andReturnsCursor() {
+        Instant from = Instant.parse("2025-01-01T00:00:00Z");
+        Instant to = Instant.parse("2025-02-01T00:00:00Z");
+        when(client.query(any(QueryRequest.class))).thenReturn(QueryResponse.builder()
+                .items(item("L3", from.plusSeconds(3)), item("L2", from.plusSeconds(2)), item("L1", from.plusSeconds(1)))
+                .build());
+
+        AuditLogPage page = repository.findByAccountId("A1", from, to, 2);
+
+        assertEquals(List.of("L3", "L2"), page.getItems().stream().map(AuditLog::getId).toList());
+        assertTrue(page.hasMore());
+        assertEquals("L2", page.getNextCursor().getId());
+
+        verify(client).query(argThat((QueryRequest q) ->
+                DynamoDBAuditLogRepository.ACCOUNT_INDEX.equals(q.indexName())
+                        && !q.scanIndexForward()
+                        && q.limit() == 3
+                        && q.keyConditionExpression().contains("BETWEEN")
+                        && q.expressionAttributeValues().get(":t").s().equals("2025-01-31T23:59:59.999999999Z")));
+        verify(client, never()).scan(any(ScanRequest.class));
+    }
+
+    @Test
+    void findByAccountId_resumesFromCursor() {
+        Instant at = Instant.parse("2025-01-01T00:00:02Z");
+        when(client.query(any(QueryRequest.class))).thenReturn(QueryResponse.builder()
+                .items(item("L1", at.minusSeconds(1))).build());
+
+        AuditLogPage page = repository.findByAccountId("A1", null, null, 2, new HistoryCursor(at, "L2"));
+
+        assertFalse(page.hasMore());
+        verify(client).query(argThat((QueryRequest q) ->
+                q.exclusiveStartKey().get("logId").s().equals("L2")
+                        && q.exclusiveStartKey().get("createdAt").s().equals("2025-01-01T00:00:02.000000000Z")));
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.banking.repository;
+
+import com.example.banking.model.BalanceSnapshot;
+import com.example.banking.model.LedgerEvent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Test/benchmark stand-in for JDBCBalanceSnapshotRepository
+public class InMemoryBalanceSnapshotRepository implements BalanceSnapshotRepository {
+
+    private final Map<String, BalanceSnapshot> byAccount = new ConcurrentHashMap<>();
+
+    @Override
+    public void saveAll(Collection<BalanceSnapshot> snapshots) {
+        for (BalanceSnapshot snapshot : snapshots) {
+            byAccount.merge(snapshot.getAccountId(), snapshot,
+                    (old, fresh) -> fresh.getLastSequence() > old.getLastSequence() ? fresh : old);
+        }
+    }
+
+    @Override
+    public List<BalanceSnapshot> findByPartition(int partition, int partitions) {
+        List<BalanceSnapshot> list = new ArrayList<>();
+        for (BalanceSnapshot snapshot : byAccount.values()) {
+            if (LedgerEvent.partitionOf(snapshot.getAccountId(), partitions) == partition) list.add(snapshot);
+        }
+        return list;
+    }
+
+    public BalanceSnapshot find(String accountId) {
+        return byAccount.get(accountId);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.banking.repository;
+
+import com.example.banking.model.AuditLog;
+import com.example.banking.model.DailyBalance;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Test stand-in for JDBCDailyBalanceRepository
+public class InMemoryDailyBalanceRepository implements DailyBalanceRepository {
+
+    private final Map<String, NavigableMap<LocalDate, DailyBalance>> byAccount = new ConcurrentHashMap<>();
+
+    private NavigableMap<LocalDate, DailyBalance> days(String accountId) {
+        return byAccount.computeIfAbsent(accountId, id -> new TreeMap<>());
+    }
+
+    @Override
+    public synchronized void applyAll(Collection<AuditLog> entries) {
+        for (AuditLog entry : entries) {
+            if (!DailyBalance.isMovement(entry)) continue;
+            DailyBalance row = DailyBalance.of(entry);
+            days(row.getAccountId()).merge(row.getDay(), row, DailyBalance::plus);
+        }
+    }
+
+    @Override
+    public synchronized void replaceForAccount(String accountId, List<DailyBalance> rows) {
+        NavigableMap<LocalDate, DailyBalance> days = days(accountId);
+        days.clear();
+        rows.forEach(row -> days.put(row.getDay(), row));
+    }
+
+    @Override
+    public synchronized List<DailyBalance> findByAccountId(String accountId, LocalDate from, LocalDate to) {
+        return new ArrayList<>(days(accountId).subMap(from, true, to, true).values());
+    }
+
+    @Override
+    public synchronized DailyBalance findLatestBefore(String accountId, LocalDate day) {
+        Map.Entry<LocalDate, DailyBalance> e = days(accountId).lowerEntry(day);
+        return e == null ? null : e.getValue();
+    }
+
+    @Override
+    public synchronized DailyBalance findEarliestAfter(String accountId, LocalDate day) {
+        Map.Entry<LocalDate, DailyBalance> e = days(accountId).higherEntry(day);
+        return e == null ? null : e.getValue();
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.banking.repository;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Test/benchmark stand-in for JDBCIngestCheckpointRepository
+public class InMemoryIngestCheckpointRepository implements IngestCheckpointRepository {
+
+    private final Map<String, Map<Integer, Long>> byFile = new ConcurrentHashMap<>();
+
+    @Override
+    public Map<Integer, Long> loadOffsets(String fileKey) {
+        return new HashMap<>(byFile.getOrDefault(fileKey, Map.of()));
+    }
+
+    @Override
+    public void saveOffset(String fileKey, int partition, long offset) {
+        byFile.computeIfAbsent(fileKey, k -> new ConcurrentHashMap<>()).merge(partition, offset, Math::max);
+    }
+}
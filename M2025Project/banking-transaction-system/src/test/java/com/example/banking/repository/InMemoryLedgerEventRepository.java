@@ -0,0 +1,50 @@
+package com.example.banking.repository;
+
+import com.example.banking.model.BalanceSnapshot;
+import com.example.banking.model.LedgerEvent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Test/benchmark stand-in for JDBCLedgerEventRepository; joins against the snapshot store like the SQL does
+public class InMemoryLedgerEventRepository implements LedgerEventRepository {
+
+    private final InMemoryBalanceSnapshotRepository snapshots;
+    private final List<LedgerEvent> events = new ArrayList<>();
+
+    public InMemoryLedgerEventRepository(InMemoryBalanceSnapshotRepository snapshots) {
+        this.snapshots = snapshots;
+    }
+
+    @Override
+    public synchronized void appendAll(Collection<LedgerEvent> batch) {
+        for (LedgerEvent e : batch) {
+            events.add(new LedgerEvent(events.size() + 1, e.getId(), e.getAccountId(), e.getTxnId(),
+                    e.getAmount(), e.getBalanceAfter(), e.getCreatedAt()));
+        }
+    }
+
+    @Override
+    public void forEachAfterSnapshot(int partition, int partitions, Consumer<LedgerEvent> consumer) {
+        List<LedgerEvent> copy;
+        synchronized (this) {
+            copy = new ArrayList<>(events);
+        }
+        for (LedgerEvent e : copy) {
+            if (LedgerEvent.partitionOf(e.getAccountId(), partitions) != partition) continue;
+            BalanceSnapshot snapshot = snapshots.find(e.getAccountId());
+            if (snapshot == null || e.getSequence() > snapshot.getLastSequence()) consumer.accept(e);
+        }
+    }
+
+    @Override
+    public synchronized long maxSequence() {
+        return events.size();
+    }
+
+    public synchronized int size() {
+        return events.size();
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.banking.repository;
+
+import com.example.banking.model.AuditLog;
+import com.example.banking.model.AuditLogPage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class JournalAuditLogRepositoryTest {
+
+    @TempDir
+    Path dir;
+
+    private AuditLog log(String id, String txnId, String accountId, long epochSecond) {
+        return new AuditLog(id, txnId, accountId, "ACTOR", "DEPOSIT",
+                new BigDecimal("100.25"), new BigDecimal("-3.50"), Instant.ofEpochSecond(epochSecond, 123));
+    }
+
+    @Test
+    void savedRecords_roundTripAndAreIndexed() {
+        try (JournalAuditLogRepository journal = new JournalAuditLogRepository(dir, 4096, false)) {
+            journal.saveAll(List.of(log("L1", "T1", "A1", 1), log("L2", "T1", "A2", 2)));
+
+            AuditLog found = journal.findById("L1");
+            assertEquals("A1", found.getAccountId());
+            assertEquals(new BigDecimal("100.25"), found.getBeforeBalance());
+            assertEquals(new BigDecimal("-3.50"), found.getAfterBalance());
+            assertEquals(Instant.ofEpochSecond(1, 123), found.getCreatedAt());
+            assertEquals(2, journal.findByTxnId("T1").size());
+        }
+    }
+
+    @Test
+    void segmentsRollOver_andIndexIsRebuiltOnReopen() {
+        try (JournalAuditLogRepository journal = new JournalAuditLogRepository(dir, 1024, false)) {
+            for (int i = 0; i < 40; i++) {
+                journal.save(log("L" + i, "T" + i, "A1", i));
+            }
+            assertTrue(journal.getSegmentCount() > 1);
+        }
+
+        try (JournalAuditLogRepository reopened = new JournalAuditLogRepository(dir, 1024, false)) {
+            assertEquals(40, reopened.size());
+            assertEquals(40, reopened.findAll().size());
+            assertEquals("T39", reopened.findById("L39").getTxnId());
+
+            reopened.save(log("L40", "T40", "A1", 40));
+            assertEquals(41, reopened.findAll().size());
+        }
+    }
+
+    @Test
+    void tornRecord_truncatesTheSegment_soLaterRecordsNeverComeBack() throws Exception {
+        try (JournalAuditLogRepository journal = new JournalAuditLogRepository(dir, 4096, false)) {
+            journal.save(log("L1", "T1", "A1", 1));
+            journal.save(log("L2", "T2", "A1", 2));
+            journal.save(log("L3", "T3", "A1", 3));
+        }
+
+        // Corrupt the body of the second record; the third is intact on disk behind it
+        Path segment = segmentFiles().get(0);
+        try (RandomAccessFile raf = new RandomAccessFile(segment.toFile(), "rw")) {
+            int firstLength = raf.readInt();
+            raf.seek(8 + firstLength + 8 + 3);
+            raf.write(0x7F);
+        }
+
+        try (JournalAuditLogRepository reopened = new JournalAuditLogRepository(dir, 4096, false)) {
+            assertNotNull(reopened.findById("L1"));
+            assertNull(reopened.findById("L2"));
+            assertNull(reopened.findById("L3"));
+
+            // Same size as L2, so it ends exactly where L3 used to start
+            reopened.save(log("L4", "T4", "A1", 4));
+            assertEquals(List.of("L1", "L4"), reopened.findAll().stream().map(AuditLog::getId).toList());
+        }
+
+        try (JournalAuditLogRepository again = new JournalAuditLogRepository(dir, 4096, false)) {
+            assertEquals(List.of("L1", "L4"), again.findAll().stream().map(AuditLog::getId).toList());
+        }
+    }
+
+    @Test
+    void retention_dropsTheOldestSegment_andItsIndexEntries() throws Exception {
+        try (JournalAuditLogRepository journal = new JournalAuditLogRepository(dir, 1024, 3, false, null)) {
+            for (int i = 0; i < 80; i++) {
+                journal.save(log("L" + i, "T" + i, "A1", i));
+            }
+
+            assertEquals(3, journal.getSegmentCount());
+            assertEquals(3, segmentFiles().size());
+            assertTrue(journal.size() < 80);
+            assertNull(journal.findById("L0"));
+            assertTrue(journal.findByTxnId("T0").isEmpty());
+            assertEquals(journal.size(), journal.findByAccountId("A1", null, null, 100).getItems().size());
+            assertNotNull(journal.findById("L79"));
+        }
+    }
+
+    @Test
+    void forwardsDownstreamInOrder_andResumesAfterTheLastForwardedRecord() throws Exception {
+        List<String> received = Collections.synchronizedList(new ArrayList<>());
+        AuditLogRepository downstream = recording(received);
+
+        try (JournalAuditLogRepository journal = new JournalAuditLogRepository(dir, 4096, 4, false, downstream)) {
+            for (int i = 1; i <= 5; i++) journal.save(log("L" + i, "T" + i, "A1", i));
+            awaitForwarded(journal, 5);
+        }
+        assertEquals(List.of("L1", "L2", "L3", "L4", "L5"), received);
+
+        received.clear();
+        try (JournalAuditLogRepository reopened = new JournalAuditLogRepository(dir, 4096, 4, false, downstream)) {
+            reopened.save(log("L6", "T6", "A1", 6));
+            awaitForwarded(reopened, 1);
+        }
+        assertEquals(List.of("L6"), received);
+    }
+
+    @Test
+    void aFailedForward_isRetried_andAFullJournalRefusesNewRecords() throws Exception {
+        List<String> received = Collections.synchronizedList(new ArrayList<>());
+        AuditLogRepository downstream = mock(AuditLogRepository.class);
+        AtomicBoolean down = new AtomicBoolean(true);
+        when(downstream.saveAll(anyCollection())).thenAnswer(inv -> {
+            if (down.get()) throw new RuntimeException("DynamoDB unavailable");
+            for (AuditLog log : (Collection<AuditLog>) inv.getArgument(0)) received.add(log.getId());
+            return new ArrayList<>((Collection<AuditLog>) inv.getArgument(0));
+        });
+
+        try (JournalAuditLogRepository journal = new JournalAuditLogRepository(dir, 1024, 2, false, downstream, 10)) {
+            int saved = 0;
+            RuntimeException full = null;
+            while (full == null) {
+                try {
+                    journal.save(log("L" + saved, "T" + saved, "A1", saved));
+                    saved++;
+                } catch (RuntimeException e) {
+                    full = e;
+                }
+            }
+            assertTrue(full.getMessage().contains("waiting to be forwarded"), full.getMessage());
+            assertNotNull(journal.findById("L0")); // nothing unforwarded was dropped
+
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (journal.getForwardFailures() == 0 && System.currentTimeMillis() < deadline) Thread.sleep(5);
+            assertTrue(journal.getForwardFailures() > 0);
+            assertEquals(0, journal.getForwardedCount());
+
+            down.set(false);
+            awaitForwarded(journal, saved);
+            assertEquals(saved, received.size());
+            assertEquals("L0", received.get(0));
+
+            // Forwarded segments can now make room
+            journal.save(log("L" + saved, "T" + saved, "A1", saved));
+        }
+    }
+
+    private static AuditLogRepository recording(List<String> received) {
+        AuditLogRepository downstream = mock(AuditLogRepository.class);
+        when(downstream.saveAll(anyCollection())).thenAnswer(inv -> {
+            for (AuditLog log : (Collection<AuditLog>) inv.getArgument(0)) received.add(log.getId());
+            return new ArrayList<>((Collection<AuditLog>) inv.getArgument(0));
+        });
+        return downstream;
+    }
+
+    private static void awaitForwarded(JournalAuditLogRepository journal, long count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (journal.getForwardedCount() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(count, journal.getForwardedCount());
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".journal")).sorted().toList();
+        }
+    }
+
+    @Test
+    void findByAccountId_pagesNewestFirstWithinRange() {
+        try (JournalAuditLogRepository journal = new JournalAuditLogRepository(dir, 4096, false)) {
+            List<AuditLog> logs = new ArrayList<>();
+            for (int i = 1; i <= 5; i++) logs.add(log("L" + i, "T" + i, "A1", i));
+            logs.add(log("X1", "TX", "A2", 3));
+            journal.saveAll(logs);
+
+            AuditLogPage first = journal.findByAccountId("A1", Instant.ofEpochSecond(2), null, 2);
+            assertEquals(List.of("L5", "L4"), first.getItems().stream().map(AuditLog::getId).toList());
+            assertTrue(first.hasMore());
+
+            AuditLogPage second = journal.findByAccountId("A1", Instant.ofEpochSecond(2), null, 2, first.getNextCursor());
+            assertEquals(List.of("L3", "L2"), second.getItems().stream().map(AuditLog::getId).toList());
+            assertFalse(second.hasMore());
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.banking.server;
+
+import com.example.banking.exception.InvalidCredentialsException;
+import com.example.banking.exception.TransactionFailedException;
+import com.example.banking.model.Account;
+import com.example.banking.model.Customer;
+import com.example.banking.model.Posting;
+import com.example.banking.model.PostingPage;
+import com.example.banking.model.PostingTotals;
+import com.example.banking.model.Transaction;
+import com.example.banking.repository.AccountRepository;
+import com.example.banking.repository.AuditLogRepository;
+import com.example.banking.repository.DynamoDBAuditLogRepository;
+import com.example.banking.repository.TransactionRepository;
+import com.example.banking.service.AccountService;
+import com.example.banking.service.AuditDispatcher;
+import com.example.banking.service.AuthService;
+import com.example.banking.service.MiniStatementService;
+import com.example.banking.service.PostingService;
+import com.example.banking.service.TransactionService;
+import com.example.banking.utils.SessionStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.not;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BankingHttpServerTest {
+
+    private AuthService authService;
+    private AccountService accountService;
+    private TransactionService transactionService;
+    private BankingHttpServer server;
+    private final HttpClient client = HttpClient.newHttpClient();
+    private String base;
+
+    @BeforeEach
+    void setUp() {
+        authService = mock(AuthService.class);
+        accountService = mock(AccountService.class);
+        transactionService = mock(TransactionService.class);
+        // Every email logs in as its own customer; each customer's balance echoes their id
+        when(authService.login(anyString(), eq("secret1"))).thenAnswer(inv -> {
+            String email = inv.getArgument(0);
+            return new Customer("C-" + email, "Name", email, "secret1", "9999999999");
+        });
+        when(authService.login(anyString(), not(eq("secret1"))))
+                .thenThrow(new InvalidCredentialsException("Invalid email or password"));
+        when(accountService.viewBalance(anyString(), anyString())).thenAnswer(inv ->
+                new BigDecimal(((String) inv.getArgument(1)).replaceAll("\\D", "")));
+
+        server = new BankingHttpServer(authService, accountService, transactionService, new SessionStore(60_000));
+        base = "http://127.0.0.1:" + server.start("127.0.0.1", 0, 8) + "/api/";
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private HttpResponse<String> call(String method, String path, String token, String body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(base + path))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) request.header("Authorization", "Bearer " + token);
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private String login(String email) throws Exception {
+        HttpResponse<String> response = call("POST", "login", null,
+                "{\"email\":\"" + email + "\",\"password\":\"secret1\"}");
+        assertEquals(200, response.statusCode(), response.body());
+        return Json.parseObject(response.body()).get("token");
+    }
+
+    @Test
+    void requestsNeedAValidSession_andLogoutEndsIt() throws Exception {
+        assertEquals(401, call("GET", "accounts", null, null).statusCode());
+        assertEquals(401, call("GET", "accounts", "bogus", null).statusCode());
+
+        String token = login("a1@x.com");
+        when(accountService.getCustomerAccounts("C-a1@x.com")).thenReturn(
+                List.of(new Account("ID1", "C-a1@x.com", "ACC1", new BigDecimal("10.50"), "SAVINGS")));
+        HttpResponse<String> accounts = call("GET", "accounts", token, null);
+        assertEquals(200, accounts.statusCode());
+        assertTrue(accounts.body().contains("\"accountNumber\":\"ACC1\""), accounts.body());
+        assertTrue(accounts.body().contains("\"balance\":10.50"), accounts.body());
+
+        assertEquals(200, call("POST", "logout", token, null).statusCode());
+        assertEquals(401, call("GET", "accounts", token, null).statusCode());
+        assertEquals(401, call("POST", "login", null, "{\"email\":\"a@x.com\",\"password\":\"wrong\"}").statusCode());
+    }
+
+    @Test
+    void moneyMovements_returnTransactionJson_andMapErrorsToStatusCodes() throws Exception {
+        String token = login("b2@x.com");
+        Transaction txn = new Transaction("T1", null, "ID1", "DEPOSIT", new BigDecimal("25.00"));
+        when(transactionService.deposit("ACC1", new BigDecimal("25.00"), "C-b2@x.com")).thenReturn(txn);
+        when(accountService.getAccountNumbersByIds(List.of("ID1"))).thenReturn(Map.of("ID1", "ACC1"));
+        // The exceptions a real service throws: the strategy's refusal wrapped in TransactionFailedException
+        TransactionService real = realTransactionService(
+                new Account("ID1", "C-b2@x.com", "ACC1", new BigDecimal("10.00"), "SAVINGS"));
+        TransactionFailedException overdraft = assertThrows(TransactionFailedException.class,
+                () -> real.withdraw("ACC1", new BigDecimal("999"), "C-b2@x.com"));
+        TransactionFailedException negativeAmount = assertThrows(TransactionFailedException.class,
+                () -> real.deposit("ACC1", new BigDecimal("-5"), "C-b2@x.com"));
+        when(transactionService.withdraw(eq("ACC1"), any(), anyString())).thenThrow(overdraft);
+        when(transactionService.deposit(eq("ACC1"), eq(new BigDecimal("-5")), anyString())).thenThrow(negativeAmount);
+
+        HttpResponse<String> deposit = call("POST", "deposit", token, "{\"accountNumber\":\"ACC1\",\"amount\":25.00}");
+        assertEquals(200, deposit.statusCode(), deposit.body());
+        assertTrue(deposit.body().contains("\"transactionId\":\"T1\""));
+        assertTrue(deposit.body().contains("\"toAccountNumber\":\"ACC1\""));
+
+        HttpResponse<String> withdraw = call("POST", "withdraw", token, "{\"accountNumber\":\"ACC1\",\"amount\":\"999\"}");
+        assertEquals(409, withdraw.statusCode());
+        assertTrue(withdraw.body().contains("Withdrawal failed: Insufficient funds for withdrawal"), withdraw.body());
+
+        HttpResponse<String> negative = call("POST", "deposit", token, "{\"accountNumber\":\"ACC1\",\"amount\":-5}");
+        assertEquals(400, negative.statusCode());
+        assertTrue(negative.body().contains("Deposit amount must be positive"), negative.body());
+
+        assertEquals(400, call("POST", "deposit", token, "{\"accountNumber\":\"ACC1\"}").statusCode());
+        assertEquals(400, call("POST", "deposit", token, "{not json").statusCode());
+        assertEquals(404, call("GET", "nowhere", token, null).statusCode());
+        assertEquals(0, server.getServerErrorCount());
+    }
+
+    // A TransactionService over in-memory mocks holding one account, for producing its real failures
+    static TransactionService realTransactionService(Account account) throws Exception {
+        for (Class<?> type : List.of(TransactionService.class, MiniStatementService.class)) {
+            Field instance = type.getDeclaredField("instance");
+            instance.setAccessible(true);
+            instance.set(null, null);
+        }
+        AccountRepository accounts = mock(AccountRepository.class);
+        when(accounts.findByNumber(account.getNumber())).thenReturn(account);
+        return TransactionService.getInstance(accounts, mock(TransactionRepository.class),
+                mock(AuditLogRepository.class), AuditDispatcher.synchronous(mock(DynamoDBAuditLogRepository.class)));
+    }
+
+    @Test
+    void concurrentCustomers_eachSeeTheirOwnSession() throws Exception {
+        int customers = 50;
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < customers; i++) {
+                int id = i;
+                results.add(pool.submit(() -> {
+                    String token = login("u" + id + "@x.com");
+                    return call("GET", "accounts/ACC/balance", token, null).body();
+                }));
+            }
+            for (int i = 0; i < customers; i++) {
+                assertTrue(results.get(i).get(10, TimeUnit.SECONDS).contains("\"balance\":" + i + "}"),
+                        "customer " + i + " got another customer's session");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(customers * 2L, server.getRequestCount());
+    }
+
+    @Test
+    void postings_areServedOnlyOnceEnabled() throws Exception {
+        String token = login("p1@x.com");
+        assertEquals(404, call("GET", "accounts/ACC1/postings", token, null).statusCode());
+
+        PostingService postings = mock(PostingService.class);
+        Instant at = Instant.parse("2025-03-01T10:00:00Z");
+        when(postings.getPostings("ACC1", "C-p1@x.com", null, null, 20, null)).thenReturn(new PostingPage(
+                List.of(new Posting("P1", "T1", "ID1", new BigDecimal("-5.00"), at)), null));
+        when(postings.getTotals("ACC1", "C-p1@x.com", at, null))
+                .thenReturn(new PostingTotals("ID1", new BigDecimal("7.00"), new BigDecimal("5.00"), 2));
+        when(postings.getComputedBalance("ACC1", "C-p1@x.com", null)).thenReturn(new BigDecimal("2.00"));
+        server.enablePostings(postings);
+
+        HttpResponse<String> page = call("GET", "accounts/ACC1/postings", token, null);
+        assertEquals(200, page.statusCode(), page.body());
+        assertTrue(page.body().contains("\"transactionId\":\"T1\",\"amount\":-5.00"), page.body());
+
+        HttpResponse<String> totals = call("GET", "accounts/ACC1/postings/totals?from=" + at, token, null);
+        assertEquals(200, totals.statusCode(), totals.body());
+        assertTrue(totals.body().contains("\"net\":2.00,\"count\":2,\"postedBalance\":2.00"), totals.body());
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.banking.server;
+
+import com.example.banking.exception.InsufficientFundsException;
+import com.example.banking.exception.InvalidCredentialsException;
+import com.example.banking.model.Account;
+import com.example.banking.model.Customer;
+import com.example.banking.model.Transaction;
+import com.example.banking.server.BinaryProtocol.Response;
+import com.example.banking.service.AccountService;
+import com.example.banking.service.AuthService;
+import com.example.banking.service.TransactionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.EOFException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.not;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BinaryProtocolServerTest {
+
+    private AuthService authService;
+    private AccountService accountService;
+    private TransactionService transactionService;
+    private BinaryProtocolServer server;
+    private int port;
+
+    @BeforeEach
+    void setUp() {
+        authService = mock(AuthService.class);
+        accountService = mock(AccountService.class);
+        transactionService = mock(TransactionService.class);
+        when(authService.login(anyString(), eq("secret1"))).thenAnswer(inv ->
+                new Customer("C-" + inv.getArgument(0), "Name", inv.getArgument(0), "secret1", "9999999999"));
+        when(authService.login(anyString(), not(eq("secret1"))))
+                .thenThrow(new InvalidCredentialsException("Invalid email or password"));
+        when(transactionService.deposit(anyString(), any(), anyString())).thenAnswer(inv ->
+                new Transaction("T-" + inv.getArgument(2), null, "ID", "DEPOSIT", inv.getArgument(1)));
+
+        server = new BinaryProtocolServer(authService, accountService, transactionService, 8);
+        port = server.start("127.0.0.1", 0, 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void pipelinedRequests_areAnsweredInOrderAsTheLoggedInCustomer() throws Exception {
+        when(accountService.viewBalance("ACC1", "C-a@x.com")).thenReturn(new BigDecimal("125.50"));
+        when(transactionService.withdraw(eq("ACC1"), any(), eq("C-a@x.com")))
+                .thenThrow(new InsufficientFundsException("Insufficient funds"));
+
+        try (BinaryProtocolClient client = new BinaryProtocolClient("127.0.0.1", port)) {
+            // Nothing is awaited until all four are on the wire
+            int login = client.sendLogin("a@x.com", "secret1");
+            int deposit = client.sendDeposit("ACC1", new BigDecimal("25.50"));
+            int balance = client.sendBalance("ACC1");
+            int withdraw = client.sendWithdraw("ACC1", new BigDecimal("1000"));
+            client.flush();
+
+            Response r1 = client.receive();
+            assertEquals(login, r1.getRequestId());
+            assertEquals("C-a@x.com", r1.getCustomerId());
+
+            Response r2 = client.receive();
+            assertEquals(deposit, r2.getRequestId());
+            assertEquals("T-C-a@x.com", r2.getTransactionId());
+            verify(transactionService).deposit("ACC1", new BigDecimal("25.50"), "C-a@x.com");
+
+            Response r3 = client.receive();
+            assertEquals(balance, r3.getRequestId());
+            assertEquals(new BigDecimal("125.50"), r3.getBalance());
+
+            Response r4 = client.receive();
+            assertEquals(withdraw, r4.getRequestId());
+            assertEquals(BinaryProtocol.CONFLICT, r4.getStatus());
+            assertEquals("Insufficient funds", r4.getError());
+        }
+    }
+
+    @Test
+    void refusalsFromARealTransactionService_keepTheirStatusAndMessage() throws Exception {
+        TransactionService real = BankingHttpServerTest.realTransactionService(
+                new Account("ID1", "C-a@x.com", "ACC1", new BigDecimal("10.00"), "SAVINGS"));
+        try (BinaryProtocolServer realServer = new BinaryProtocolServer(authService, accountService, real, 8);
+             BinaryProtocolClient client = new BinaryProtocolClient("127.0.0.1", realServer.start("127.0.0.1", 0, 8))) {
+            assertTrue(client.login("a@x.com", "secret1").isOk());
+
+            client.sendWithdraw("ACC1", new BigDecimal("999"));
+            client.sendDeposit("ACC1", new BigDecimal("-5"));
+            client.flush();
+
+            Response overdraft = client.receive();
+            assertEquals(BinaryProtocol.CONFLICT, overdraft.getStatus());
+            assertEquals("Withdrawal failed: Insufficient funds for withdrawal", overdraft.getError());
+            Response negative = client.receive();
+            assertEquals(BinaryProtocol.BAD_REQUEST, negative.getStatus());
+            assertEquals("Deposit failed: Deposit amount must be positive", negative.getError());
+        }
+    }
+
+    @Test
+    void badRequestsAreAnswered_butAnUnframeableStreamIsDropped() throws Exception {
+        try (BinaryProtocolClient client = new BinaryProtocolClient("127.0.0.1", port)) {
+            client.sendBalance("ACC1");
+            assertEquals(BinaryProtocol.UNAUTHENTICATED, client.receive().getStatus());
+            assertEquals(BinaryProtocol.UNAUTHENTICATED, client.login("a@x.com", "wrong").getStatus());
+            assertTrue(client.login("a@x.com", "secret1").isOk()); // still usable
+        }
+
+        try (Socket socket = new Socket("127.0.0.1", port)) {
+            OutputStream out = socket.getOutputStream();
+            // Well-framed but unknown op 99, then a frame longer than the protocol allows
+            out.write(new byte[]{0, 5, 0, 0, 0, 7, 99});
+            out.write(new byte[]{(byte) 0xFF, (byte) 0xFF, 0, 0});
+            out.flush();
+            byte[] header = socket.getInputStream().readNBytes(9);
+            assertEquals(7, header[5]);                      // requestId echoed
+            assertEquals(BinaryProtocol.BAD_REQUEST, header[7]);
+            socket.getInputStream().readAllBytes();          // returns once the server hangs up
+        }
+        assertEquals(1, server.getProtocolErrorCount());
+    }
+
+    @Test
+    void manyConnections_withPipelinesDeeperThanTheLimit_getEveryAnswer() throws Exception {
+        int terminals = 20;
+        int perTerminal = 200; // far beyond maxPipeline = 8, so reads get paused and resumed
+        ExecutorService pool = Executors.newFixedThreadPool(terminals);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < terminals; t++) {
+                String email = "t" + t + "@x.com";
+                results.add(pool.submit(() -> {
+                    try (BinaryProtocolClient client = new BinaryProtocolClient("127.0.0.1", port)) {
+                        client.sendLogin(email, "secret1");
+                        for (int i = 0; i < perTerminal; i++) client.sendDeposit("ACC", BigDecimal.ONE);
+                        client.flush();
+                        int ok = 0;
+                        int expectedId = 1;
+                        for (int i = 0; i <= perTerminal; i++) {
+                            Response r = client.receive();
+                            assertEquals(expectedId++, r.getRequestId());
+                            if (r.isOk() && (i == 0 || r.getTransactionId().equals("T-C-" + email))) ok++;
+                        }
+                        return ok;
+                    }
+                }));
+            }
+            for (Future<Integer> result : results) {
+                assertEquals(perTerminal + 1, result.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(terminals * (perTerminal + 1L), server.getRequestCount());
+        assertTrue(server.getReadPauseCount() > 0);
+    }
+}
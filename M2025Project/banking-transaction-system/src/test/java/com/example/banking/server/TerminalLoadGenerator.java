@@ -0,0 +1,118 @@
+package com.example.banking.server;
+
+import com.example.banking.model.Customer;
+import com.example.banking.model.Transaction;
+import com.example.banking.server.BinaryProtocol.Response;
+import com.example.banking.service.AccountService;
+import com.example.banking.service.AuthService;
+import com.example.banking.service.TransactionService;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Load generator for the terminal protocol: N connections, each keeping `pipeline` deposits in flight.
+ * Run after mvn test-compile with:
+ *   mvn dependency:build-classpath -Dmdep.outputFile=cp.txt
+ *   java -cp target/classes:target/test-classes:$(cat cp.txt) com.example.banking.server.TerminalLoadGenerator \
+ *        [host port email password accountNumber] [-Dconnections=200 -Dpipeline=32 -Dseconds=10]
+ * Without a target it starts an in-process server over stub services, which measures protocol and
+ * event-loop overhead rather than MySQL.
+ */
+public class TerminalLoadGenerator {
+
+    public static void main(String[] args) throws Exception {
+        int connections = Integer.getInteger("connections", 200);
+        int pipeline = Integer.getInteger("pipeline", 32);
+        int seconds = Integer.getInteger("seconds", 10);
+
+        BinaryProtocolServer local = null;
+        String host;
+        int port;
+        String email;
+        String password;
+        String account;
+        if (args.length >= 5) {
+            host = args[0];
+            port = Integer.parseInt(args[1]);
+            email = args[2];
+            password = args[3];
+            account = args[4];
+        } else {
+            local = stubServer();
+            host = "127.0.0.1";
+            port = local.start(host, 0, 64);
+            email = "load@x.com";
+            password = "secret1";
+            account = "ACC-LOAD";
+        }
+
+        AtomicLong completed = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        long[][] latencies = new long[connections][];
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService terminals = Executors.newFixedThreadPool(connections);
+        List<Future<?>> futures = new ArrayList<>(connections);
+        long start = System.nanoTime();
+        for (int c = 0; c < connections; c++) {
+            int id = c;
+            futures.add(terminals.submit(() -> {
+                latencies[id] = runTerminal(host, port, email, password, account, pipeline, deadline, completed, failed);
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) future.get();
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        terminals.shutdown();
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("connections=%d pipeline=%d  %,.0f req/s  failed=%d  window p50=%dµs p99=%dµs%n",
+                connections, pipeline, completed.get() / elapsed, failed.get(),
+                all.length == 0 ? 0 : all[all.length / 2] / 1_000,
+                all.length == 0 ? 0 : all[(int) (all.length * 0.99)] / 1_000);
+        if (local != null) {
+            System.out.println("   " + local.stats());
+            local.close();
+        }
+    }
+
+    // Sends windows of `pipeline` deposits until the deadline; returns each window's round-trip time
+    private static long[] runTerminal(String host, int port, String email, String password, String account,
+                                      int pipeline, long deadline, AtomicLong completed, AtomicLong failed)
+            throws Exception {
+        List<Long> windows = new ArrayList<>();
+        try (BinaryProtocolClient client = new BinaryProtocolClient(host, port)) {
+            if (!client.login(email, password).isOk()) throw new IllegalStateException("Login failed for " + email);
+            BigDecimal amount = new BigDecimal("1.00");
+            while (System.nanoTime() < deadline) {
+                long sent = System.nanoTime();
+                for (int i = 0; i < pipeline; i++) client.sendDeposit(account, amount);
+                client.flush();
+                for (int i = 0; i < pipeline; i++) {
+                    Response response = client.receive();
+                    if (response.isOk()) completed.incrementAndGet(); else failed.incrementAndGet();
+                }
+                windows.add(System.nanoTime() - sent);
+            }
+        }
+        return windows.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static BinaryProtocolServer stubServer() {
+        AuthService auth = mock(AuthService.class, withSettings().stubOnly());
+        when(auth.login(anyString(), anyString())).thenAnswer(inv ->
+                new Customer("C1", "Load", inv.getArgument(0), "secret1", "9999999999"));
+        TransactionService transactions = mock(TransactionService.class, withSettings().stubOnly());
+        Transaction txn = new Transaction("T1", null, "A1", "DEPOSIT", BigDecimal.ONE);
+        when(transactions.deposit(anyString(), any(), anyString())).thenReturn(txn);
+        AccountService accounts = mock(AccountService.class, withSettings().stubOnly());
+        return new BinaryProtocolServer(auth, accounts, transactions, 64);
+    }
+}
@@ -2,14 +2,21 @@ package com.example.banking.service;
 
 import com.example.banking.exception.*;
 import com.example.banking.model.Account;
+import com.example.banking.model.AuditLog;
+import com.example.banking.model.AuditLogPage;
 import com.example.banking.repository.AccountRepository;
+import com.example.banking.repository.AuditLogRepository;
+import com.example.banking.repository.InMemoryDailyBalanceRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -104,4 +111,55 @@ class AccountServiceTest {
         assertThrows(AccountClosedException.class,
                 () -> accountService.closeAccount("ACC1001", "C1"));
     }
+
+    // ---------- getAccountNumbersByIds ----------
+    @Test
+    void accountNumbersByIds_usesOneBulkLookup() {
+        when(accountRepository.findByIds(anyCollection())).thenReturn(Arrays.asList(accSavings));
+
+        var numbers = accountService.getAccountNumbersByIds(Arrays.asList("A1", "A1", "MISSING"));
+
+        assertEquals("ACC1001", numbers.get("A1"));
+        assertFalse(numbers.containsKey("MISSING"));
+        verify(accountRepository, times(1)).findByIds(anyCollection());
+        verify(accountRepository, never()).findById(anyString());
+    }
+
+    // ---------- balanceAsOf ----------
+    @Test
+    void balanceAsOf_startsFromDayCheckpointAndAddsOnlyThatDaysDeltas() {
+        Instant noon = Instant.parse("2025-03-02T12:00:00Z");
+        InMemoryDailyBalanceRepository rollups = new InMemoryDailyBalanceRepository();
+        AuditLogRepository auditRepo = mock(AuditLogRepository.class);
+        accountService.enableBalanceHistory(rollups, auditRepo);
+
+        AuditLog day1 = movement(100, 300, Instant.parse("2025-03-01T09:00:00Z"));
+        AuditLog morning = movement(300, 250, Instant.parse("2025-03-02T08:00:00Z"));
+        AuditLog failed = movement(250, 250, Instant.parse("2025-03-02T10:00:00Z"));
+        AuditLog evening = movement(250, 900, Instant.parse("2025-03-02T18:00:00Z"));
+        rollups.applyAll(List.of(day1, morning, failed, evening));
+        when(auditRepo.findByAccountId(eq("A1"), eq(Instant.parse("2025-03-02T00:00:00Z")), eq(noon), anyInt(), isNull()))
+                .thenReturn(new AuditLogPage(List.of(failed, morning), null));
+
+        assertEquals(0, BigDecimal.valueOf(250).compareTo(accountService.balanceAsOf("ACC1001", "C1", noon)));
+        // Quiet day: carried over from the previous active day without touching the audit trail
+        assertEquals(0, BigDecimal.valueOf(900).compareTo(
+                accountService.balanceAsOf("ACC1001", "C1", Instant.parse("2025-03-05T00:00:00Z"))));
+        // Before any movement: the first active day's opening balance
+        assertEquals(0, BigDecimal.valueOf(100).compareTo(
+                accountService.balanceAsOf("ACC1001", "C1", Instant.parse("2025-02-01T00:00:00Z"))));
+        verify(auditRepo, times(1)).findByAccountId(anyString(), any(), any(), anyInt(), any());
+    }
+
+    @Test
+    void balanceAsOf_requiresOwnership() {
+        accountService.enableBalanceHistory(new InMemoryDailyBalanceRepository(), mock(AuditLogRepository.class));
+        assertThrows(UnauthorizedAccessException.class,
+                () -> accountService.balanceAsOf("ACC1001", "OTHER", Instant.now()));
+    }
+
+    private AuditLog movement(long before, long after, Instant at) {
+        return new AuditLog(UUID.randomUUID().toString(), "T", "A1", "C1", "DEPOSIT",
+                BigDecimal.valueOf(before), BigDecimal.valueOf(after), at);
+    }
 }
@@ -0,0 +1,168 @@
+package com.example.banking.service;
+
+import com.example.banking.exception.AuditQueueFullException;
+import com.example.banking.model.AuditLog;
+import com.example.banking.repository.AuditLogRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class AuditDispatcherTest {
+
+    private AuditLog log(String id) {
+        return new AuditLog(id, "T-" + id, "A1", "ACTOR", "DEPOSIT", BigDecimal.ZERO, BigDecimal.ONE);
+    }
+
+    private List<AuditLog> logs(int count) {
+        List<AuditLog> logs = new ArrayList<>();
+        for (int i = 0; i < count; i++) logs.add(log("L" + i));
+        return logs;
+    }
+
+    @Test
+    void async_writesEverythingInBatches() {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        AuditLogRepository sink = mock(AuditLogRepository.class);
+        when(sink.saveAll(anyCollection())).thenAnswer(inv -> {
+            batchSizes.add(((Collection<?>) inv.getArgument(0)).size());
+            return List.of();
+        });
+
+        try (AuditDispatcher dispatcher = new AuditDispatcher(List.of(sink), 1000, 10,
+                AuditDispatcher.BackpressurePolicy.BLOCK, AuditDispatcher.DurabilityMode.ASYNC, 1000)) {
+            dispatcher.dispatch(logs(95));
+            assertTrue(dispatcher.flush(5000));
+
+            assertEquals(95, dispatcher.getWritten());
+            assertEquals(95, batchSizes.stream().mapToInt(Integer::intValue).sum());
+            assertTrue(batchSizes.stream().allMatch(size -> size <= 10));
+        }
+    }
+
+    @Test
+    void failFast_rejectsWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch writing = new CountDownLatch(1);
+        AuditLogRepository sink = mock(AuditLogRepository.class);
+        when(sink.saveAll(anyCollection())).thenAnswer(inv -> {
+            writing.countDown();
+            release.await();
+            return List.of();
+        });
+
+        try (AuditDispatcher dispatcher = new AuditDispatcher(List.of(sink), 2, 1,
+                AuditDispatcher.BackpressurePolicy.FAIL_FAST, AuditDispatcher.DurabilityMode.ASYNC, 0)) {
+            dispatcher.dispatch(List.of(log("busy")));
+            writing.await();                               // writer is now stuck on "busy"
+            dispatcher.dispatch(List.of(log("q1"), log("q2")));
+
+            assertThrows(AuditQueueFullException.class, () -> dispatcher.dispatch(List.of(log("overflow"))));
+            assertEquals(1, dispatcher.getRejected());
+            release.countDown();
+        }
+    }
+
+    @Test
+    void aProducerWaitingForRoom_doesNotHoldUpOnesThatFit() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch writing = new CountDownLatch(1);
+        AuditLogRepository sink = mock(AuditLogRepository.class);
+        when(sink.saveAll(anyCollection())).thenAnswer(inv -> {
+            writing.countDown();
+            release.await();
+            return List.of();
+        });
+
+        try (AuditDispatcher dispatcher = new AuditDispatcher(List.of(sink), 4, 1,
+                AuditDispatcher.BackpressurePolicy.BLOCK, AuditDispatcher.DurabilityMode.ASYNC, 10_000)) {
+            dispatcher.dispatch(List.of(log("busy")));
+            writing.await();
+            dispatcher.dispatch(logs(3)); // one slot left
+
+            Thread big = new Thread(() -> dispatcher.dispatch(List.of(log("b1"), log("b2"))));
+            big.start();
+            while (big.getState() != Thread.State.TIMED_WAITING) Thread.sleep(1);
+
+            long start = System.currentTimeMillis();
+            dispatcher.dispatch(List.of(log("small")));
+            assertTrue(System.currentTimeMillis() - start < 1_000, "a dispatch that fits must not wait");
+
+            release.countDown(); // the writer drains and wakes the waiting producer
+            big.join(5_000);
+            assertFalse(big.isAlive());
+            assertTrue(dispatcher.flush(5000));
+            assertEquals(7, dispatcher.getWritten());
+            assertEquals(0, dispatcher.getRejected());
+        }
+    }
+
+    @Test
+    void synchronous_writesOnCallerThread_andRethrowsFailures() {
+        AuditLogRepository sink = mock(AuditLogRepository.class);
+        AuditDispatcher dispatcher = AuditDispatcher.synchronous(sink);
+
+        dispatcher.dispatch(logs(3));
+        verify(sink).saveAll(anyCollection());
+
+        when(sink.saveAll(anyCollection())).thenThrow(new RuntimeException("down"));
+        assertThrows(RuntimeException.class, () -> dispatcher.dispatch(logs(1)));
+        assertEquals(1, dispatcher.getFailed());
+    }
+
+    @Test
+    void aDispatchIsQueuedForEverySinkOrForNone() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch writing = new CountDownLatch(1);
+        AuditLogRepository fast = mock(AuditLogRepository.class);
+        AuditLogRepository stuck = mock(AuditLogRepository.class);
+        when(stuck.saveAll(anyCollection())).thenAnswer(inv -> {
+            writing.countDown();
+            release.await();
+            return List.of();
+        });
+
+        try (AuditDispatcher dispatcher = new AuditDispatcher(List.of(fast, stuck), 2, 1,
+                AuditDispatcher.BackpressurePolicy.BLOCK, AuditDispatcher.DurabilityMode.ASYNC, 50)) {
+            dispatcher.dispatch(List.of(log("busy")));
+            writing.await();
+            dispatcher.dispatch(List.of(log("q1"), log("q2"))); // fills the stuck sink's queue
+            while (dispatcher.getWritten() < 3) Thread.sleep(5); // the fast sink wrote all three
+
+            assertThrows(AuditQueueFullException.class, () -> dispatcher.dispatch(List.of(log("overflow"))));
+            release.countDown();
+            assertTrue(dispatcher.flush(5000));
+
+            // The fast sink had room but was not handed the rejected log either
+            verify(fast, times(3)).saveAll(anyCollection());
+            assertEquals(6, dispatcher.getWritten());
+        }
+    }
+
+    @Test
+    void synchronous_triesEverySink_andCountsDroppedBatches() {
+        AuditLogRepository failing = mock(AuditLogRepository.class);
+        AuditLogRepository healthy = mock(AuditLogRepository.class);
+        when(failing.saveAll(anyCollection())).thenThrow(new RuntimeException("down"));
+        AuditDispatcher sync = AuditDispatcher.synchronous(failing, healthy);
+
+        assertThrows(RuntimeException.class, () -> sync.dispatch(logs(2)));
+        verify(healthy).saveAll(anyCollection());
+
+        try (AuditDispatcher async = new AuditDispatcher(List.of(failing), 10, 10,
+                AuditDispatcher.BackpressurePolicy.BLOCK, AuditDispatcher.DurabilityMode.ASYNC, 1000)) {
+            async.dispatch(logs(1));
+            assertTrue(async.flush(5000)); // three attempts, then the batch is dropped
+            assertEquals(1, async.getDroppedBatches());
+            assertEquals(1, async.getFailed());
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.banking.service;
+
+import com.example.banking.model.LedgerEvent;
+import com.example.banking.repository.InMemoryBalanceSnapshotRepository;
+import com.example.banking.repository.InMemoryLedgerEventRepository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Recovery time vs. event count, with and without a snapshot, single-partition vs. parallel.
+ * Run after mvn test-compile with:
+ *   mvn dependency:build-classpath -Dmdep.outputFile=cp.txt
+ *   java -cp target/classes:target/test-classes:$(cat cp.txt) com.example.banking.service.LedgerRecoveryBenchmark
+ * Uses in-memory stores, so it measures the replay itself rather than MySQL
+ * (the in-memory tail read still walks every event; MySQL seeks the tail per account).
+ */
+public class LedgerRecoveryBenchmark {
+
+    private static final int ACCOUNTS = 10_000;
+
+    public static void main(String[] args) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int[] eventCounts = {100_000, 500_000, 1_000_000, 2_000_000};
+
+        System.out.printf("%10s %10s %14s %14s %14s%n", "events", "snapshot", "1 partition", cores + " partitions", "replayed");
+        for (int events : eventCounts) {
+            for (boolean snapshot : new boolean[]{false, true}) {
+                InMemoryBalanceSnapshotRepository snapshots = new InMemoryBalanceSnapshotRepository();
+                InMemoryLedgerEventRepository ledger = new InMemoryLedgerEventRepository(snapshots);
+                BigDecimal[] balances = new BigDecimal[ACCOUNTS];
+                Random rnd = new Random(42);
+
+                // 90% of the history before the snapshot, the last 10% as the tail
+                append(ledger, balances, rnd, snapshot ? events * 9 / 10 : events);
+                if (snapshot) {
+                    new LedgerService(ledger, snapshots, cores).takeSnapshot();
+                    append(ledger, balances, rnd, events / 10);
+                }
+
+                long single = time(new LedgerService(ledger, snapshots, 1));
+                LedgerService parallel = new LedgerService(ledger, snapshots, cores);
+                long multi = time(parallel);
+                System.out.printf("%10d %10s %11d ms %11d ms %14d%n",
+                        events, snapshot ? "yes" : "no", single, multi, parallel.getLastReplayedEvents());
+            }
+        }
+    }
+
+    private static void append(InMemoryLedgerEventRepository ledger, BigDecimal[] balances, Random rnd, int count) {
+        List<LedgerEvent> batch = new ArrayList<>(1000);
+        for (int i = 0; i < count; i++) {
+            int account = rnd.nextInt(ACCOUNTS);
+            BigDecimal amount = BigDecimal.valueOf(rnd.nextInt(1000) - 400);
+            BigDecimal before = balances[account] == null ? BigDecimal.ZERO : balances[account];
+            balances[account] = before.add(amount);
+            batch.add(new LedgerEvent(UUID.randomUUID().toString(), "A" + account, "T" + i, amount,
+                    balances[account], Instant.now()));
+            if (batch.size() == 1000) {
+                ledger.appendAll(batch);
+                batch.clear();
+            }
+        }
+        ledger.appendAll(batch);
+    }
+
+    // Best of three runs
+    private static long time(LedgerService service) {
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < 3; run++) {
+            long start = System.nanoTime();
+            service.recover();
+            best = Math.min(best, (System.nanoTime() - start) / 1_000_000);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.banking.service;
+
+import com.example.banking.model.Account;
+import com.example.banking.model.AuditLog;
+import com.example.banking.model.Transaction;
+import com.example.banking.repository.AccountRepository;
+import com.example.banking.repository.InMemoryBalanceSnapshotRepository;
+import com.example.banking.repository.InMemoryLedgerEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class LedgerServiceTest {
+
+    private InMemoryBalanceSnapshotRepository snapshots;
+    private InMemoryLedgerEventRepository events;
+    private LedgerService ledger;
+
+    @BeforeEach
+    void setUp() {
+        snapshots = new InMemoryBalanceSnapshotRepository();
+        events = new InMemoryLedgerEventRepository(snapshots);
+        ledger = new LedgerService(events, snapshots, 4);
+    }
+
+    // One successful operation touching a single account
+    private void move(String accountId, long before, long after) {
+        Transaction txn = new Transaction(UUID.randomUUID().toString(), null, accountId, "DEPOSIT",
+                BigDecimal.valueOf(Math.abs(after - before)));
+        ledger.onTransaction(txn, List.of(new AuditLog(UUID.randomUUID().toString(), txn.getId(), accountId,
+                "ACTOR", "DEPOSIT", BigDecimal.valueOf(before), BigDecimal.valueOf(after))));
+    }
+
+    @Test
+    void recover_replaysEveryEvent() {
+        move("A1", 0, 100);
+        move("A1", 100, 70);
+        move("A2", 0, 5);
+
+        Map<String, BigDecimal> balances = ledger.recoverBalances();
+
+        assertEquals(0, BigDecimal.valueOf(70).compareTo(balances.get("A1")));
+        assertEquals(0, BigDecimal.valueOf(5).compareTo(balances.get("A2")));
+        assertEquals(3, ledger.getLastReplayedEvents());
+        assertEquals(0, ledger.getDriftCount());
+    }
+
+    @Test
+    void snapshot_limitsReplayToTheTail() {
+        for (int i = 0; i < 10; i++) move("A1", i * 10L, i * 10L + 10);
+        assertEquals(1, ledger.takeSnapshot());
+
+        move("A1", 100, 150);
+        Map<String, BigDecimal> balances = ledger.recoverBalances();
+
+        assertEquals(0, BigDecimal.valueOf(150).compareTo(balances.get("A1")));
+        assertEquals(1, ledger.getLastReplayedEvents());
+    }
+
+    @Test
+    void transferEntries_becomeOneEventPerAccount() {
+        Transaction txn = new Transaction("T1", "A1", "A2", "TRANSFER", BigDecimal.TEN);
+        ledger.onTransaction(txn, List.of(
+                new AuditLog("L1", "T1", "A1", "ACTOR", "TRANSFER-DEBIT", BigDecimal.valueOf(50), BigDecimal.valueOf(40)),
+                new AuditLog("L2", "T1", "A2", "ACTOR", "TRANSFER-CREDIT", BigDecimal.ZERO, BigDecimal.TEN)));
+
+        assertEquals(2, events.size());
+        assertEquals(0, BigDecimal.TEN.compareTo(ledger.recoverBalances().get("A2")));
+    }
+
+    @Test
+    void preLedgerBalance_isReportedAsDrift_notPaperedOver() {
+        move("A1", 500, 600); // account held 500 before the ledger existed
+        move("A1", 600, 650);
+        move("A2", 0, 10);
+
+        assertEquals(0, BigDecimal.valueOf(150).compareTo(ledger.recoverBalances().get("A1")));
+        assertEquals(1, ledger.getDriftCount()); // once per account, not per event
+        assertEquals(Set.of("A1"), ledger.getDriftedAccounts());
+
+        // ...so the accounts table check flags it too
+        AccountRepository accounts = mock(AccountRepository.class);
+        when(accounts.findByIds(anyCollection())).thenReturn(List.of(
+                new Account("A1", "C1", "ACC1", BigDecimal.valueOf(650), "SAVINGS"),
+                new Account("A2", "C1", "ACC2", BigDecimal.TEN, "CURRENT")));
+        assertEquals(List.of("A1"), ledger.findMismatches(accounts));
+    }
+
+    @Test
+    void findMismatches_comparesWithAccountsTable() {
+        move("A1", 0, 100);
+        move("A2", 0, 50);
+        AccountRepository accounts = mock(AccountRepository.class);
+        when(accounts.findByIds(anyCollection())).thenReturn(List.of(
+                new Account("A1", "C1", "ACC1", BigDecimal.valueOf(100), "SAVINGS"),
+                new Account("A2", "C1", "ACC2", BigDecimal.valueOf(49), "CURRENT")));
+
+        assertEquals(List.of("A2"), ledger.findMismatches(accounts));
+    }
+}
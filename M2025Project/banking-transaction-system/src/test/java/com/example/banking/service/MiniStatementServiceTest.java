@@ -0,0 +1,94 @@
+package com.example.banking.service;
+
+import com.example.banking.model.Transaction;
+import com.example.banking.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MiniStatementServiceTest {
+
+    private TransactionRepository transactionRepository;
+    private MiniStatementService service;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository = mock(TransactionRepository.class);
+        service = new MiniStatementService(transactionRepository, 2);
+    }
+
+    private Transaction txn(String id, long epochSecond) {
+        return new Transaction(id, null, "A1", "DEPOSIT", BigDecimal.ONE, "SUCCESS", Instant.ofEpochSecond(epochSecond));
+    }
+
+    @Test
+    void keepsOnlyNewestFive_newestFirst() {
+        service.loadInitial("A1");
+        for (int i = 1; i <= 7; i++) {
+            service.addTransaction("A1", txn("T" + i, i));
+        }
+
+        List<Transaction> mini = service.getMiniStatement("A1");
+        assertEquals(List.of("T7", "T6", "T5", "T4", "T3"), mini.stream().map(Transaction::getId).toList());
+    }
+
+    @Test
+    void failedTransactions_areIgnored() {
+        Transaction failed = txn("F1", 1);
+        failed.setStatus("FAILED");
+        service.addTransaction("A1", failed);
+
+        when(transactionRepository.findRecentSuccessfulByAccountId("A1", 5)).thenReturn(List.of());
+        assertTrue(service.getMiniStatement("A1").isEmpty());
+    }
+
+    @Test
+    void loadInitial_usesLimitQuery_andMergesWithLiveEntries() {
+        when(transactionRepository.findRecentSuccessfulByAccountId("A1", 5)).thenAnswer(inv -> {
+            service.addTransaction("A1", txn("LIVE", 100)); // committed while the query runs
+            return List.of(txn("DB2", 20), txn("DB1", 10));
+        });
+
+        service.loadInitial("A1");
+
+        assertEquals(List.of("LIVE", "DB2", "DB1"),
+                service.getMiniStatement("A1").stream().map(Transaction::getId).toList());
+        verify(transactionRepository, never()).findByAccountId(anyString());
+    }
+
+    @Test
+    void leastRecentlyUsedAccount_isEvicted_andReloadedOnDemand() {
+        for (String account : List.of("A1", "A2", "A3")) service.loadInitial(account);
+        service.addTransaction("A1", txn("T1", 1));
+        service.addTransaction("A2", txn("T2", 2));
+        service.addTransaction("A3", txn("T3", 3)); // evicts A1
+
+        assertEquals(2, service.trackedAccounts());
+
+        when(transactionRepository.findRecentSuccessfulByAccountId("A1", 5)).thenReturn(List.of(txn("T1", 1)));
+        assertEquals("T1", service.getMiniStatement("A1").get(0).getId());
+        verify(transactionRepository, times(2)).findRecentSuccessfulByAccountId("A1", 5);
+    }
+
+    @Test
+    void aPushForAnEvictedAccount_doesNotHideItsEarlierHistory() {
+        when(transactionRepository.findRecentSuccessfulByAccountId("A1", 5))
+                .thenReturn(List.of(txn("OLD2", 2), txn("OLD1", 1)));
+        service.loadInitial("A1");
+        service.loadInitial("A2");
+        service.loadInitial("A3"); // evicts A1
+
+        service.addTransaction("A1", txn("NEW", 3));
+        when(transactionRepository.findRecentSuccessfulByAccountId("A1", 5))
+                .thenReturn(List.of(txn("NEW", 3), txn("OLD2", 2), txn("OLD1", 1)));
+
+        assertEquals(List.of("NEW", "OLD2", "OLD1"),
+                service.getMiniStatement("A1").stream().map(Transaction::getId).toList());
+    }
+}
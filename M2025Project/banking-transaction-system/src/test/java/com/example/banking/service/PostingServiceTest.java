@@ -0,0 +1,88 @@
+package com.example.banking.service;
+
+import com.example.banking.exception.UnauthorizedAccessException;
+import com.example.banking.model.Account;
+import com.example.banking.model.Posting;
+import com.example.banking.model.PostingPage;
+import com.example.banking.model.Transaction;
+import com.example.banking.repository.AccountRepository;
+import com.example.banking.repository.PostingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PostingServiceTest {
+
+    private PostingRepository repository;
+    private AccountRepository accounts;
+    private PostingService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(PostingRepository.class);
+        accounts = mock(AccountRepository.class);
+        when(accounts.findByNumber("ACC1")).thenReturn(new Account("A1", "C1", "ACC1", BigDecimal.TEN, "SAVINGS"));
+        service = new PostingService(repository, accounts);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Posting> postingsWrittenFor(Transaction txn) {
+        service.onTransaction(txn, List.of());
+        ArgumentCaptor<Collection<Posting>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(repository).saveAll(captor.capture());
+        return new ArrayList<>(captor.getValue());
+    }
+
+    @Test
+    void transfer_writesBalancedDebitAndCredit() {
+        Transaction txn = new Transaction("T1", "A1", "A2", "TRANSFER", new BigDecimal("25.00"));
+
+        List<Posting> postings = postingsWrittenFor(txn);
+
+        assertEquals(2, postings.size());
+        assertEquals("A1", postings.get(0).getAccountId());
+        assertTrue(postings.get(0).isDebit());
+        assertEquals(new BigDecimal("-25.00"), postings.get(0).getAmount());
+        assertEquals("A2", postings.get(1).getAccountId());
+        assertEquals(0, postings.get(0).getAmount().add(postings.get(1).getAmount()).signum());
+        assertTrue(postings.stream().allMatch(p -> p.getTxnId().equals("T1")
+                && p.getCreatedAt().equals(txn.getCreatedAt())));
+    }
+
+    @Test
+    void deposit_writesSingleCredit() {
+        List<Posting> postings = postingsWrittenFor(new Transaction("T2", null, "A1", "DEPOSIT", BigDecimal.TEN));
+
+        assertEquals(1, postings.size());
+        assertEquals("A1", postings.get(0).getAccountId());
+        assertFalse(postings.get(0).isDebit());
+    }
+
+    @Test
+    void getPostings_rejectsOversizedPage() {
+        assertThrows(IllegalArgumentException.class, () -> service.getPostings("ACC1", "C1", null, null, 501, null));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void queries_areByAccountNumber_andOnlyForItsOwner() {
+        PostingPage page = new PostingPage(List.of(), null);
+        when(repository.findByAccountId("A1", null, null, 20, null)).thenReturn(page);
+
+        assertSame(page, service.getPostings("ACC1", "C1", null, null, 20, null));
+        assertThrows(UnauthorizedAccessException.class, () -> service.getPostings("ACC1", "C2", null, null, 20, null));
+        assertThrows(UnauthorizedAccessException.class, () -> service.getTotals("ACC1", "C2", null, null));
+        assertThrows(UnauthorizedAccessException.class, () -> service.getComputedBalance("ACC1", "C2", null));
+        verify(repository, times(1)).findByAccountId(any(), any(), any(), anyInt(), any());
+        verify(repository, never()).totalsByAccountId(any(), any(), any());
+        verify(repository, never()).balanceOf(any(), any());
+    }
+}
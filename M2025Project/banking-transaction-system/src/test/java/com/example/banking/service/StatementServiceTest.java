@@ -0,0 +1,120 @@
+package com.example.banking.service;
+
+import com.example.banking.model.Account;
+import com.example.banking.model.AuditLog;
+import com.example.banking.model.AuditLogPage;
+import com.example.banking.model.DailyBalance;
+import com.example.banking.model.HistoryCursor;
+import com.example.banking.model.PeriodStatement;
+import com.example.banking.model.Transaction;
+import com.example.banking.repository.AccountRepository;
+import com.example.banking.repository.AuditLogRepository;
+import com.example.banking.repository.InMemoryDailyBalanceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class StatementServiceTest {
+
+    private static final LocalDate DAY1 = LocalDate.of(2025, 3, 1);
+
+    private InMemoryDailyBalanceRepository rollups;
+    private AuditLogRepository auditRepo;
+    private StatementService service;
+    private final List<AuditLog> trail = new ArrayList<>(); // oldest first
+
+    @BeforeEach
+    void setUp() {
+        rollups = new InMemoryDailyBalanceRepository();
+        auditRepo = mock(AuditLogRepository.class);
+        AccountRepository accountRepo = mock(AccountRepository.class);
+        when(accountRepo.findByNumber("ACC1")).thenReturn(new Account("A1", "C1", "ACC1", BigDecimal.valueOf(80), "SAVINGS"));
+        service = new StatementService(rollups, auditRepo, accountRepo);
+    }
+
+    // One committed movement on A1 at noon UTC of the given day
+    private void move(LocalDate day, long before, long after) {
+        Instant at = day.atTime(12, 0).toInstant(ZoneOffset.UTC).plusNanos(trail.size() * 1000L);
+        AuditLog entry = new AuditLog(UUID.randomUUID().toString(), "T" + trail.size(), "A1", "C1", "DEPOSIT",
+                BigDecimal.valueOf(before), BigDecimal.valueOf(after), at);
+        trail.add(entry);
+        service.onTransaction(new Transaction(entry.getTxnId(), null, "A1", "DEPOSIT", BigDecimal.ONE), List.of(entry));
+    }
+
+    @Test
+    void statement_sumsDailyRowsAndCarriesBalancesAcrossQuietDays() {
+        move(DAY1, 0, 100);
+        move(DAY1, 100, 70);
+        move(DAY1.plusDays(3), 70, 80);
+
+        PeriodStatement st = service.getStatement("ACC1", "C1", DAY1, DAY1.plusDays(5));
+        assertEquals(2, st.getDays().size());
+        assertEquals(0, BigDecimal.ZERO.compareTo(st.getOpeningBalance()));
+        assertEquals(0, BigDecimal.valueOf(110).compareTo(st.getCredits()));
+        assertEquals(0, BigDecimal.valueOf(30).compareTo(st.getDebits()));
+        assertEquals(3, st.getCount());
+        assertEquals(0, BigDecimal.valueOf(80).compareTo(st.getClosingBalance()));
+
+        // No activity in the period: balance is the previous active day's close
+        PeriodStatement quiet = service.getStatement("ACC1", "C1", DAY1.plusDays(1), DAY1.plusDays(2));
+        assertTrue(quiet.getDays().isEmpty());
+        assertEquals(0, BigDecimal.valueOf(70).compareTo(quiet.getOpeningBalance()));
+        assertEquals(0, BigDecimal.valueOf(70).compareTo(quiet.getClosingBalance()));
+    }
+
+    @Test
+    void backfill_rebuildsSameRowsAsIncrementalUpdates() {
+        move(DAY1, 0, 100);
+        move(DAY1, 100, 70);
+        move(DAY1.plusDays(1), 70, 70); // failed attempt: no balance change, not a movement
+        move(DAY1.plusDays(2), 70, 90);
+        List<DailyBalance> incremental = rollups.findByAccountId("A1", DAY1, DAY1.plusDays(9));
+
+        // Audit trail served newest first in pages of one, as the repository would page it
+        List<AuditLog> newestFirst = new ArrayList<>(trail);
+        Collections.reverse(newestFirst);
+        when(auditRepo.findByAccountId(eq("A1"), isNull(), isNull(), anyInt(), any())).thenAnswer(inv -> {
+            HistoryCursor cursor = inv.getArgument(4, HistoryCursor.class);
+            int index = cursor == null ? 0 : indexOf(newestFirst, cursor.getId()) + 1;
+            List<AuditLog> page = newestFirst.subList(index, index + 1);
+            return new AuditLogPage(page, index + 1 < newestFirst.size()
+                    ? HistoryCursor.after(page.get(0)) : null);
+        });
+
+        rollups.replaceForAccount("A1", List.of());
+        assertEquals(2, service.backfill(List.of("A1"), 2));
+
+        List<DailyBalance> rebuilt = rollups.findByAccountId("A1", DAY1, DAY1.plusDays(9));
+        assertEquals(incremental.size(), rebuilt.size());
+        for (int i = 0; i < rebuilt.size(); i++) {
+            assertEquals(incremental.get(i).getDay(), rebuilt.get(i).getDay());
+            assertEquals(incremental.get(i).getCount(), rebuilt.get(i).getCount());
+            assertEquals(0, incremental.get(i).getOpeningBalance().compareTo(rebuilt.get(i).getOpeningBalance()));
+            assertEquals(0, incremental.get(i).getClosingBalance().compareTo(rebuilt.get(i).getClosingBalance()));
+        }
+    }
+
+    @Test
+    void statement_rejectsInvertedRange() {
+        assertThrows(IllegalArgumentException.class, () -> service.getStatement("ACC1", "C1", DAY1, DAY1.minusDays(1)));
+    }
+
+    private static int indexOf(List<AuditLog> logs, String id) {
+        for (int i = 0; i < logs.size(); i++) {
+            if (logs.get(i).getId().equals(id)) return i;
+        }
+        return -1;
+    }
+}
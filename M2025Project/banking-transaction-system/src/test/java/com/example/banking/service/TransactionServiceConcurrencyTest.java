@@ -0,0 +1,165 @@
+package com.example.banking.service;
+
+import com.example.banking.exception.TransactionFailedException;
+import com.example.banking.model.Account;
+import com.example.banking.repository.AccountRepository;
+import com.example.banking.repository.AuditLogRepository;
+import com.example.banking.repository.DynamoDBAuditLogRepository;
+import com.example.banking.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Stress test: many threads hammer a handful of accounts with deposits, withdrawals and transfers.
+ * The in-memory repository below does a deliberately racy read-modify-write, so any missing
+ * locking in TransactionService shows up as balance drift.
+ */
+class TransactionServiceConcurrencyTest {
+
+    private static final int ACCOUNTS = 6;
+    private static final int THREADS = 8;
+    private static final int OPS_PER_THREAD = 1500;
+    private static final BigDecimal INITIAL = BigDecimal.valueOf(1000);
+
+    private RacyAccountRepository accountRepository;
+    private TransactionService transactionService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        resetSingleton(TransactionService.class);
+        resetSingleton(MiniStatementService.class);
+
+        accountRepository = new RacyAccountRepository();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountRepository.add(new Account("A" + i, "ACTOR", "ACC" + i, INITIAL, "SAVINGS"));
+        }
+
+        transactionService = TransactionService.getInstance(
+                accountRepository, mock(TransactionRepository.class), mock(AuditLogRepository.class),
+                AuditDispatcher.synchronous(mock(DynamoDBAuditLogRepository.class)));
+    }
+
+    private void resetSingleton(Class<?> clazz) throws Exception {
+        var field = clazz.getDeclaredField("instance");
+        field.setAccessible(true);
+        field.set(null, null);
+    }
+
+    @Test
+    void concurrentOperations_produceNoBalanceDrift() throws Exception {
+        AtomicLong deposited = new AtomicLong();
+        AtomicLong withdrawn = new AtomicLong();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                start.await();
+                for (int i = 0; i < OPS_PER_THREAD; i++) {
+                    int a = rnd.nextInt(ACCOUNTS);
+                    int b = (a + 1 + rnd.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+                    int amount = 1 + rnd.nextInt(50);
+                    try {
+                        switch (rnd.nextInt(3)) {
+                            case 0 -> {
+                                transactionService.deposit("ACC" + a, BigDecimal.valueOf(amount), "ACTOR");
+                                deposited.addAndGet(amount);
+                            }
+                            case 1 -> {
+                                transactionService.withdraw("ACC" + a, BigDecimal.valueOf(amount), "ACTOR");
+                                withdrawn.addAndGet(amount);
+                            }
+                            default -> transactionService.transfer("ACC" + a, "ACC" + b, BigDecimal.valueOf(amount), "ACTOR");
+                        }
+                    } catch (TransactionFailedException expected) {
+                        // insufficient funds under contention is fine
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> f : futures) {
+            f.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        BigDecimal expectedTotal = INITIAL.multiply(BigDecimal.valueOf(ACCOUNTS))
+                .add(BigDecimal.valueOf(deposited.get()))
+                .subtract(BigDecimal.valueOf(withdrawn.get()));
+
+        BigDecimal actualTotal = BigDecimal.ZERO;
+        for (BigDecimal balance : accountRepository.balances.values()) {
+            assertTrue(balance.signum() >= 0, "balance went negative: " + balance);
+            actualTotal = actualTotal.add(balance);
+        }
+        assertEquals(0, expectedTotal.compareTo(actualTotal),
+                "expected " + expectedTotal + " but accounts hold " + actualTotal);
+    }
+
+    // In-memory repository whose credit/debit are NOT atomic on their own
+    private static class RacyAccountRepository implements AccountRepository {
+        private final Map<String, Account> byId = new ConcurrentHashMap<>();
+        private final Map<String, Account> byNumber = new ConcurrentHashMap<>();
+        private final Map<String, BigDecimal> balances = new ConcurrentHashMap<>();
+
+        void add(Account account) {
+            byId.put(account.getId(), account);
+            byNumber.put(account.getNumber(), account);
+            balances.put(account.getId(), account.getBalance());
+        }
+
+        // Fresh copy per lookup, like a database read
+        private Account copy(Account a) {
+            if (a == null) return null;
+            return new Account(a.getId(), a.getCustomerId(), a.getNumber(), balances.get(a.getId()),
+                    a.getType(), a.getStatus(), a.getCreatedAt());
+        }
+
+        @Override public Account save(Account account) { return account; }
+        @Override public Account findById(String id) { return copy(byId.get(id)); }
+        @Override public Account findByNumber(String number) { return copy(byNumber.get(number)); }
+        @Override public List<Account> findByIds(Collection<String> ids) {
+            List<Account> found = new ArrayList<>();
+            for (String id : ids) if (byId.containsKey(id)) found.add(copy(byId.get(id)));
+            return found;
+        }
+        @Override public List<Account> findByCustomerId(String customerId) { return new ArrayList<>(); }
+        @Override public List<String> findAllIds() { return new ArrayList<>(byId.keySet()); }
+        @Override public Account findByCustomerIdAndType(String customerId, String type) { return null; }
+
+        @Override
+        public BigDecimal credit(String accountId, BigDecimal amount) {
+            BigDecimal current = balances.get(accountId);
+            Thread.yield(); // widen the race window
+            BigDecimal updated = current.add(amount);
+            balances.put(accountId, updated);
+            return updated;
+        }
+
+        @Override
+        public BigDecimal debit(String accountId, BigDecimal amount) {
+            BigDecimal current = balances.get(accountId);
+            Thread.yield();
+            if (current.compareTo(amount) < 0) return null;
+            BigDecimal updated = current.subtract(amount);
+            balances.put(accountId, updated);
+            return updated;
+        }
+    }
+}
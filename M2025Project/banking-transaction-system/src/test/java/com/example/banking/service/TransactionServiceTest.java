@@ -1,19 +1,37 @@
 package com.example.banking.service;
 
+import com.example.banking.engine.ShardedLedgerEngine;
+import com.example.banking.exception.EngineBusyException;
+import com.example.banking.exception.InsufficientFundsException;
 import com.example.banking.exception.TransactionFailedException;
 import com.example.banking.model.Account;
+import com.example.banking.model.HistoryCursor;
 import com.example.banking.model.Transaction;
+import com.example.banking.model.TransactionPage;
+import com.example.banking.model.TransferRequest;
+import com.example.banking.model.TransferResult;
 import com.example.banking.repository.AccountRepository;
 import com.example.banking.repository.TransactionRepository;
 import com.example.banking.repository.AuditLogRepository;
 import com.example.banking.repository.DynamoDBAuditLogRepository;
+import com.example.banking.repository.WalCheckpointRepository;
+import com.example.banking.utils.UnitOfWork;
+import com.example.banking.wal.WriteAheadLog;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -37,18 +55,12 @@ class TransactionServiceTest {
         resetSingleton(TransactionService.class);
         resetSingleton(MiniStatementService.class);
 
+        // DynamoDB mock is written inline so tests can verify it without waiting on a writer thread
         transactionService = TransactionService.getInstance(
-                accountRepository, transactionRepository, auditLogRepository, null
+                accountRepository, transactionRepository, auditLogRepository,
+                AuditDispatcher.synchronous(dynamoDbAuditLogRepository)
         );
 
-        // Inject DynamoDB mock to avoid NullPointerException
-        var dynField = TransactionService.class.getDeclaredField("dynamoDbAuditLogRepository");
-        dynField.setAccessible(true);
-        dynField.set(transactionService, dynamoDbAuditLogRepository);
-
-        // Lenient stubbing for DynamoDB to prevent NPE
-        lenient().when(dynamoDbAuditLogRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
-
         account1 = new Account("A1", "ACTOR1", "ACC1001", BigDecimal.valueOf(1000), "SAVINGS");
         account2 = new Account("A2", "ACTOR1", "ACC2001", BigDecimal.valueOf(500), "CURRENT");
 
@@ -57,10 +69,25 @@ class TransactionServiceTest {
         lenient().when(accountRepository.findByNumber("ACC2001")).thenReturn(account2);
 
         lenient().when(accountRepository.save(any(Account.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Simulate the database's atomic balance updates
+        lenient().when(accountRepository.credit(anyString(), any(BigDecimal.class))).thenAnswer(inv -> {
+            Account acc = accountById(inv.getArgument(0));
+            return acc.getBalance().add(inv.getArgument(1));
+        });
+        lenient().when(accountRepository.debit(anyString(), any(BigDecimal.class))).thenAnswer(inv -> {
+            Account acc = accountById(inv.getArgument(0));
+            BigDecimal amount = inv.getArgument(1);
+            return acc.getBalance().compareTo(amount) < 0 ? null : acc.getBalance().subtract(amount);
+        });
         lenient().when(transactionRepository.save(any(Transaction.class))).thenAnswer(inv -> inv.getArgument(0));
         lenient().when(auditLogRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
     }
 
+    private Account accountById(String id) {
+        return id.equals(account1.getId()) ? account1 : account2;
+    }
+
     private void resetSingleton(Class<?> clazz) throws Exception {
         var field = clazz.getDeclaredField("instance");
         field.setAccessible(true);
@@ -75,6 +102,26 @@ class TransactionServiceTest {
         verify(transactionRepository, atLeastOnce()).save(any(Transaction.class));
     }
 
+    @Test
+    void deposit_committed_isNotFailedByAnAuditSinkError() {
+        when(dynamoDbAuditLogRepository.saveAll(anyCollection())).thenThrow(new RuntimeException("DynamoDB down"));
+
+        assertDoesNotThrow(() -> transactionService.deposit("ACC1001", BigDecimal.valueOf(200), "ACTOR1"));
+        assertEquals(BigDecimal.valueOf(1200), account1.getBalance());
+        assertEquals(1, transactionService.getAuditDispatchFailures());
+    }
+
+    @Test
+    void deposit_committed_isNotRecordedAsFailedWhenACompletionCallbackThrows() {
+        // e.g. a cache invalidation registered by a repository or listener during the unit of work
+        transactionService.addListener((txn, entries) ->
+                UnitOfWork.afterCompletion(() -> { throw new IllegalStateException("cache unavailable"); }));
+
+        Transaction txn = assertDoesNotThrow(() -> transactionService.deposit("ACC1001", BigDecimal.valueOf(200), "ACTOR1"));
+        assertEquals("SUCCESS", txn.getStatus());
+        verify(transactionRepository, never()).save(argThat(t -> "FAILED".equals(t.getStatus())));
+    }
+
     @Test
     void deposit_negativeAmount_throwsException() {
         assertThrows(TransactionFailedException.class,
@@ -91,8 +138,9 @@ class TransactionServiceTest {
 
     @Test
     void withdraw_insufficientFunds_throwsException() {
-        assertThrows(TransactionFailedException.class,
+        TransactionFailedException e = assertThrows(TransactionFailedException.class,
                 () -> transactionService.withdraw("ACC1001", BigDecimal.valueOf(2000), "ACTOR1"));
+        assertInstanceOf(InsufficientFundsException.class, e.getCause()); // the API maps the cause to 409
     }
 
     @Test
@@ -116,12 +164,210 @@ class TransactionServiceTest {
                 () -> transactionService.transfer("ACC1001", "ACC2001", BigDecimal.valueOf(2000), "ACTOR1"));
     }
 
+    @Test
+    void transfer_success_writesBothAuditRowsInOneBatch() {
+        transactionService.transfer("ACC1001", "ACC2001", BigDecimal.valueOf(100), "ACTOR1");
+        verify(auditLogRepository).saveAll(argThat(logs -> logs.size() == 2));
+        verify(auditLogRepository, never()).save(any());
+    }
+
+    @Test
+    void transfer_insufficientFunds_leavesBalancesUntouched() {
+        assertThrows(TransactionFailedException.class,
+                () -> transactionService.transfer("ACC1001", "ACC2001", BigDecimal.valueOf(2000), "ACTOR1"));
+        assertEquals(BigDecimal.valueOf(1000), account1.getBalance());
+        assertEquals(BigDecimal.valueOf(500), account2.getBalance());
+        verify(accountRepository, never()).credit(anyString(), any(BigDecimal.class));
+    }
+
     @Test
     void transfer_negativeAmount_throwsException() {
         assertThrows(TransactionFailedException.class,
                 () -> transactionService.transfer("ACC1001", "ACC2001", BigDecimal.valueOf(-100), "ACTOR1"));
     }
-}
 
+    // ---------- History ----------
+    @Test
+    void historyPage_passesCursorAndBoundsToRepository() {
+        HistoryCursor cursor = new HistoryCursor(Instant.parse("2025-01-02T00:00:00Z"), "T9");
+        Instant from = Instant.parse("2025-01-01T00:00:00Z");
+        TransactionPage page = new TransactionPage(List.of(), null);
+        when(transactionRepository.findPageByAccountId("A1", cursor, 20, from, null)).thenReturn(page);
+
+        assertSame(page, transactionService.getHistoryPage("ACC1001", "ACTOR1", cursor, 20, from, null));
+    }
+
+    @Test
+    void historyPage_rejectsOversizedPage() {
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionService.getHistoryPage("ACC1001", "ACTOR1", null, 10_000, null, null));
+    }
+
+    @Test
+    void deposit_withWriteAheadLog_isPendingUntilApplied(@TempDir Path walDir) {
+        long[] appliedLsn = {0};
+        WalCheckpointRepository checkpoints = new WalCheckpointRepository() {
+            @Override public long loadAppliedLsn() { return appliedLsn[0]; }
+            @Override public void saveAppliedLsn(long lsn) { appliedLsn[0] = lsn; }
+        };
+        transactionService.enableWriteAheadLog(new WriteAheadLog(walDir, 1 << 20, 64), checkpoints, 10);
+        try {
+            Transaction txn = transactionService.deposit("ACC1001", BigDecimal.valueOf(200), "ACTOR1");
+            assertEquals("PENDING", txn.getStatus());
+
+            assertTrue(transactionService.flushWriteAheadLog(5_000));
+            verify(accountRepository).credit("A1", BigDecimal.valueOf(200));
+            verify(transactionRepository).save(argThat(t -> t.getId().equals(txn.getId()) && "SUCCESS".equals(t.getStatus())));
+            assertEquals(1, appliedLsn[0]);
+
+            // Projected balance is 1200, so a 1300 withdrawal is refused before it reaches the log
+            assertThrows(TransactionFailedException.class,
+                    () -> transactionService.withdraw("ACC1001", BigDecimal.valueOf(1300), "ACTOR1"));
+        } finally {
+            transactionService.shutdown();
+        }
+    }
+
+    @Test
+    void withdraw_withWriteAheadLog_afterDeposit_usesStoredBalancePlusDeposit(@TempDir Path walDir) {
+        WalCheckpointRepository checkpoints = new WalCheckpointRepository() {
+            private long lsn;
+            @Override public long loadAppliedLsn() { return lsn; }
+            @Override public void saveAppliedLsn(long applied) { lsn = applied; }
+        };
+        transactionService.enableWriteAheadLog(new WriteAheadLog(walDir, 1 << 20, 64), checkpoints, 10);
+        try {
+            transactionService.deposit("ACC1001", BigDecimal.valueOf(200), "ACTOR1");
+
+            // Projected balance is 1000 + 200, not just the 200 deposited
+            Transaction txn = transactionService.withdraw("ACC1001", BigDecimal.valueOf(300), "ACTOR1");
+            assertEquals("PENDING", txn.getStatus());
+            assertTrue(transactionService.flushWriteAheadLog(5_000));
+            verify(accountRepository).debit("A1", BigDecimal.valueOf(300));
+        } finally {
+            transactionService.shutdown();
+        }
+    }
+
+    @Test
+    void transfer_withLedgerEngine_runsOnTheShards_andWritesBehindWithListeners() {
+        when(accountRepository.findById("A1")).thenReturn(account1);
+        when(accountRepository.findById("A2")).thenReturn(account2);
+        List<String> notified = new CopyOnWriteArrayList<>();
+        transactionService.addListener((txn, entries) -> notified.add(txn.getType() + ":" + entries.size()));
+        ShardedLedgerEngine engine = new ShardedLedgerEngine(2, 64, 10, accountRepository, transactionRepository,
+                auditLogRepository);
+        transactionService.enableLedgerEngine(engine);
+        try {
+            Transaction txn = transactionService.transfer("ACC1001", "ACC2001", BigDecimal.valueOf(300), "ACTOR1");
+            assertEquals("SUCCESS", txn.getStatus());
+            TransactionFailedException e = assertThrows(TransactionFailedException.class,
+                    () -> transactionService.withdraw("ACC1001", BigDecimal.valueOf(5_000), "ACTOR1"));
+            assertInstanceOf(InsufficientFundsException.class, e.getCause());
+
+            assertTrue(engine.flush(5_000), engine.stats());
+            verify(accountRepository).debit("A1", BigDecimal.valueOf(300));
+            verify(accountRepository).credit("A2", BigDecimal.valueOf(300));
+            assertEquals(List.of("TRANSFER:2"), notified);
+            assertThrows(IllegalStateException.class, () -> transactionService.enableWriteAheadLog(null, null, 1));
+        } finally {
+            transactionService.shutdown();
+        }
+    }
+
+    @Test
+    void deposit_withLedgerEngine_thatDoesNotAnswer_failsAsBusy_insteadOfWaitingForever() {
+        ShardedLedgerEngine engine = mock(ShardedLedgerEngine.class);
+        when(engine.getBusyTimeoutMillis()).thenReturn(20L);
+        when(engine.deposit(anyString(), any(), anyString())).thenReturn(new CompletableFuture<>());
+        transactionService.enableLedgerEngine(engine);
+        try {
+            TransactionFailedException e = assertThrows(TransactionFailedException.class,
+                    () -> transactionService.deposit("ACC1001", BigDecimal.TEN, "ACTOR1"));
+            assertInstanceOf(EngineBusyException.class, e.getCause());
+        } finally {
+            transactionService.shutdown();
+        }
+    }
+
+    // ---- batch transfers ----
+
+    private void stubBatchAccounts(Account... accounts) {
+        List<Account> all = List.of(accounts);
+        lenient().when(accountRepository.findByNumbers(any())).thenReturn(all);
+        lenient().when(accountRepository.findByIds(any())).thenAnswer(inv -> all.stream()
+                .map(a -> new Account(a.getId(), a.getCustomerId(), a.getNumber(), a.getBalance(), a.getType()))
+                .toList());
+    }
+
+    @Test
+    void executeBatch_netsMovementsIntoOneUpdatePerAccount_andReportsEachLine() {
+        Account payee = new Account("A3", "OTHER", "ACC3001", BigDecimal.ZERO, "SAVINGS");
+        stubBatchAccounts(account1, account2, payee);
+        when(accountRepository.applyDeltas(any())).thenReturn(Set.of());
+
+        List<TransferResult> results = transactionService.executeBatch(List.of(
+                new TransferRequest("ACC1001", "ACC3001", new BigDecimal("100")),
+                new TransferRequest("ACC1001", "ACC3001", new BigDecimal("200")),
+                new TransferRequest("ACC2001", "ACC1001", new BigDecimal("50")),
+                new TransferRequest("ACC1001", "ACC2001", new BigDecimal("5000")),  // insufficient
+                new TransferRequest("ACC1001", "ACC404", new BigDecimal("1")),      // unknown payee
+                new TransferRequest("ACC3001", "ACC1001", new BigDecimal("1"))),    // not the caller's account
+                "ACTOR1");
+
+        assertEquals(6, results.size());
+        assertTrue(results.get(0).isSuccess() && results.get(1).isSuccess() && results.get(2).isSuccess());
+        assertEquals("Insufficient funds", results.get(3).getError());
+        assertEquals("FAILED", results.get(3).getTransaction().getStatus());
+        assertEquals("Destination account not found", results.get(4).getError());
+        assertNull(results.get(4).getTransaction());
+        assertTrue(results.get(5).getError().startsWith("Unauthorized"));
+
+        // One guarded update per touched account, no per-line credit/debit
+        verify(accountRepository).applyDeltas(Map.of(
+                "A1", new BigDecimal("-250"), "A2", new BigDecimal("-50"), "A3", new BigDecimal("300")));
+        verify(accountRepository, never()).credit(anyString(), any());
+        verify(accountRepository, never()).debit(anyString(), any());
+        // 3 SUCCESS + 1 FAILED rows, 6 movement + 1 failure audit entries, each in one batched insert
+        verify(transactionRepository).saveAll(argThat(txns -> txns.size() == 4));
+        verify(auditLogRepository).saveAll(argThat(logs -> logs.size() == 7));
+    }
+
+    @Test
+    void executeBatch_linesRunInOrderAgainstRunningBalances() {
+        Account payee = new Account("A3", "ACTOR1", "ACC3001", BigDecimal.ZERO, "SAVINGS");
+        stubBatchAccounts(account1, account2, payee);
+        when(accountRepository.applyDeltas(any())).thenReturn(Set.of());
+
+        // A2 holds 500: the second line only fits because the first one paid A2 first
+        List<TransferResult> results = transactionService.executeBatch(List.of(
+                new TransferRequest("ACC1001", "ACC2001", new BigDecimal("700")),
+                new TransferRequest("ACC2001", "ACC3001", new BigDecimal("1100")),
+                new TransferRequest("ACC2001", "ACC3001", new BigDecimal("200"))), "ACTOR1");
+
+        assertTrue(results.get(0).isSuccess());
+        assertTrue(results.get(1).isSuccess());
+        assertEquals("Insufficient funds", results.get(2).getError()); // 100 left
+        verify(accountRepository).applyDeltas(Map.of(
+                "A1", new BigDecimal("-700"), "A2", new BigDecimal("-400"), "A3", new BigDecimal("1100")));
+    }
 
+    @Test
+    void executeBatch_revalidatesOnceWhenAnAccountChangedUnderneath() {
+        Account payee = new Account("A3", "OTHER", "ACC3001", BigDecimal.ZERO, "SAVINGS");
+        Account closedPayee = new Account("A3", "OTHER", "ACC3001", BigDecimal.ZERO, "SAVINGS", "CLOSED", Instant.now());
+        when(accountRepository.findByNumbers(any())).thenReturn(List.of(account1, payee));
+        when(accountRepository.findByIds(any()))
+                .thenReturn(List.of(account1, payee))          // first pass: payee still looks active
+                .thenReturn(List.of(account1, closedPayee));   // retry: its closure is visible
+        when(accountRepository.applyDeltas(any())).thenReturn(Set.of("A3")).thenReturn(Set.of());
+
+        List<TransferResult> results = transactionService.executeBatch(List.of(
+                new TransferRequest("ACC1001", "ACC3001", new BigDecimal("10"))), "ACTOR1");
 
+        assertEquals("Source or destination account is closed", results.get(0).getError());
+        verify(accountRepository, times(2)).findByIds(any());
+        // Nothing from the refused first pass was written
+        verify(transactionRepository).saveAll(argThat(txns -> txns.isEmpty()));
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.banking.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConnectionPoolTest {
+
+    private final List<Connection> created = new ArrayList<>();
+    private ConnectionPool pool;
+
+    private Connection newMockConnection() throws SQLException {
+        Connection conn = mock(Connection.class);
+        when(conn.isValid(anyInt())).thenReturn(true);
+        when(conn.getAutoCommit()).thenReturn(true);
+        created.add(conn);
+        return conn;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) pool.close();
+    }
+
+    @Test
+    void closedConnection_isReused() throws Exception {
+        pool = new ConnectionPool(this::newMockConnection, 0, 2, 500, 0);
+
+        Connection first = pool.getConnection();
+        first.close();
+        Connection second = pool.getConnection();
+        second.close();
+
+        assertEquals(1, created.size());
+        assertEquals(0, pool.getActiveCount());
+        assertEquals(1, pool.getIdleCount());
+        assertEquals(2, pool.getAcquireCount());
+    }
+
+    @Test
+    void exhaustedPool_timesOut() throws Exception {
+        pool = new ConnectionPool(this::newMockConnection, 0, 1, 100, 0);
+
+        try (Connection ignored = pool.getConnection()) {
+            assertThrows(SQLTimeoutException.class, () -> pool.getConnection());
+            assertEquals(1, pool.getTimeoutCount());
+        }
+        assertEquals(0, pool.getActiveCount());
+    }
+
+    @Test
+    void invalidIdleConnection_isReplaced() throws Exception {
+        pool = new ConnectionPool(this::newMockConnection, 0, 2, 500, 0, 0);
+
+        pool.getConnection().close();
+        when(created.get(0).isValid(anyInt())).thenReturn(false);
+
+        try (Connection ignored = pool.getConnection()) {
+            assertEquals(2, created.size());
+            verify(created.get(0)).close();
+            assertEquals(1, pool.getDiscardedCount());
+        }
+    }
+
+    @Test
+    void uncommittedWork_isRolledBackOnRelease() throws Exception {
+        pool = new ConnectionPool(this::newMockConnection, 0, 1, 500, 0);
+
+        Connection conn = pool.getConnection();
+        when(created.get(0).getAutoCommit()).thenReturn(false);
+        conn.close();
+
+        verify(created.get(0)).rollback();
+        verify(created.get(0)).setAutoCommit(true);
+    }
+
+    @Test
+    void recentlyReturnedConnection_isHandedOutWithoutValidation() throws Exception {
+        pool = new ConnectionPool(this::newMockConnection, 0, 1, 500, 0, 60_000);
+
+        pool.getConnection().close();
+        pool.getConnection().close();
+
+        verify(created.get(0), never()).isValid(anyInt());
+    }
+
+    @Test
+    void discardedConnection_isReplacedUpToMinimum() throws Exception {
+        pool = new ConnectionPool(this::newMockConnection, 1, 2, 500, 0, 0);
+        while (pool.getIdleCount() < 1) Thread.sleep(5);
+
+        Connection conn = pool.getConnection();
+        when(created.get(0).getAutoCommit()).thenReturn(false);
+        doThrow(new SQLException("connection reset")).when(created.get(0)).rollback();
+        conn.close();
+
+        long deadline = System.currentTimeMillis() + 2000;
+        while (pool.getIdleCount() < 1 && System.currentTimeMillis() < deadline) Thread.sleep(5);
+        assertEquals(1, pool.getDiscardedCount());
+        assertEquals(1, pool.getIdleCount());
+        assertEquals(2, created.size());
+    }
+
+    @Test
+    void connectionReturnedAfterShutdown_isClosed() throws Exception {
+        pool = new ConnectionPool(this::newMockConnection, 0, 1, 500, 0);
+
+        Connection conn = pool.getConnection();
+        pool.close();
+        conn.close();
+
+        verify(created.get(0)).close();
+        assertEquals(0, pool.getTotalCount());
+        assertEquals(0, pool.getIdleCount());
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.banking.utils;
+
+import com.example.banking.model.Customer;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionStoreTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+    private final SessionStore store = new SessionStore(100, now::get);
+
+    private Customer customer(String id) {
+        return new Customer(id, "Name", id + "@x.com", "secret1", "9999999999");
+    }
+
+    @Test
+    void sessionsAreIndependentAndEndable() {
+        String a = store.start(customer("A"));
+        String b = store.start(customer("B"));
+
+        assertNotEquals(a, b);
+        assertEquals("A", store.resolve(a));
+        assertEquals("B", store.resolve(b));
+        assertNull(store.resolve("unknown"));
+        assertNull(store.resolve(null));
+
+        store.end(a);
+        assertNull(store.resolve(a));
+        assertEquals("B", store.resolve(b));
+    }
+
+    @Test
+    void idleSessionsExpire_activeOnesAreExtended() {
+        String active = store.start(customer("A"));
+        String idle = store.start(customer("B"));
+
+        now.addAndGet(80);
+        assertEquals("A", store.resolve(active)); // extends to t+180
+        now.addAndGet(80);
+
+        assertEquals("A", store.resolve(active));
+        assertEquals(1, store.sweep());
+        assertNull(store.resolve(idle));
+        assertEquals(1, store.size());
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.banking.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UnitOfWorkTest {
+
+    private Connection physical;
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        physical = mock(Connection.class);
+        when(physical.isValid(anyInt())).thenReturn(true);
+        when(physical.getAutoCommit()).thenReturn(true);
+        pool = new ConnectionPool(() -> physical, 0, 1, 500, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    void allCallsShareOneConnection_andCommitOnce() {
+        UnitOfWork.run(() -> {
+            try (Connection a = UnitOfWork.currentConnection(pool);
+                 Connection b = UnitOfWork.currentConnection(pool)) {
+                a.commit(); // ignored: only the unit of work commits
+                assertNotNull(b);
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        try {
+            verify(physical).setAutoCommit(false);
+            verify(physical, times(1)).commit();
+            verify(physical, never()).rollback();
+        } catch (SQLException e) {
+            fail(e);
+        }
+        assertEquals(0, pool.getActiveCount());
+        assertFalse(UnitOfWork.isActive());
+    }
+
+    @Test
+    void failure_rollsBack() throws SQLException {
+        assertThrows(IllegalStateException.class, () -> UnitOfWork.run(() -> {
+            try {
+                UnitOfWork.currentConnection(pool);
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+            throw new IllegalStateException("boom");
+        }));
+
+        verify(physical, never()).commit();
+        verify(physical).rollback();
+        assertEquals(0, pool.getActiveCount());
+    }
+
+    @Test
+    void nestedFailure_rollsBackToSavepoint_outerStillCommits() throws SQLException {
+        Savepoint savepoint = mock(Savepoint.class);
+        when(physical.setSavepoint()).thenReturn(savepoint);
+
+        UnitOfWork.run(() -> {
+            try {
+                UnitOfWork.currentConnection(pool);
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+            assertThrows(IllegalStateException.class, () -> UnitOfWork.run(() -> {
+                throw new IllegalStateException("inner");
+            }));
+        });
+
+        verify(physical).rollback(savepoint);
+        verify(physical).commit();
+    }
+
+    @Test
+    void noDatabaseAccess_opensNoConnection() {
+        String result = UnitOfWork.execute(() -> "done");
+        assertEquals("done", result);
+        assertEquals(0, pool.getAcquireCount());
+    }
+
+    @Test
+    void everyCompletionCallbackRuns_andTheirFailuresNeverFailCommittedWork() {
+        int[] ran = {0};
+        IllegalStateException failure = assertThrows(IllegalStateException.class, () -> UnitOfWork.run(() -> {
+            UnitOfWork.afterCompletion(() -> { throw new IllegalArgumentException("cache 1"); });
+            UnitOfWork.afterCompletion(() -> ran[0]++);
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals(1, ran[0]);
+        assertEquals("cache 1", failure.getSuppressed()[0].getMessage());
+
+        // After a commit they are logged and counted, never thrown: the work did commit
+        long failuresBefore = UnitOfWork.getCallbackFailures();
+        assertEquals("done", UnitOfWork.execute(() -> {
+            UnitOfWork.afterCompletion(() -> { throw new IllegalArgumentException("cache 1"); });
+            UnitOfWork.afterCompletion(() -> { throw new IllegalArgumentException("cache 2"); });
+            UnitOfWork.afterCompletion(() -> ran[0]++);
+            return "done";
+        }));
+        assertEquals(2, ran[0]);
+        assertEquals(2, UnitOfWork.getCallbackFailures() - failuresBefore);
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.banking.wal;
+
+import com.example.banking.repository.WalCheckpointRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteAheadLogTest {
+
+    @TempDir
+    Path dir;
+
+    private WalRecord record(String txnId) {
+        return new WalRecord(txnId, "TRANSFER", "A1", "A2", new BigDecimal("12.34"), "ACTOR",
+                Instant.ofEpochSecond(1_700_000_000L, 42));
+    }
+
+    @Test
+    void concurrentAppends_shareGroupCommits() {
+        try (WriteAheadLog wal = new WriteAheadLog(dir, 1 << 20, 512)) {
+            List<CompletableFuture<WalRecord>> futures = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                futures.add(wal.append(record("T" + i)));
+            }
+            futures.forEach(CompletableFuture::join);
+
+            assertEquals(500, wal.getAppendCount());
+            assertEquals(500, wal.getLastDurableLsn());
+            assertTrue(wal.getSyncCount() < 500, "expected batched fsyncs, got " + wal.stats());
+        }
+    }
+
+    @Test
+    void close_racingAppends_completesEveryFutureAndKeepsWhatWasAccepted() throws Exception {
+        WriteAheadLog wal = new WriteAheadLog(dir, 1 << 20, 64);
+        List<CompletableFuture<WalRecord>> futures = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> appenders = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int id = t;
+            Thread appender = new Thread(() -> {
+                for (int i = 0; i < 500; i++) futures.add(wal.append(record("T" + id + "-" + i)));
+            });
+            appenders.add(appender);
+            appender.start();
+        }
+        Thread.sleep(5);
+        wal.close();
+        for (Thread appender : appenders) appender.join();
+
+        long accepted = 0;
+        for (CompletableFuture<WalRecord> future : futures) {
+            // Every future settles: either durable, or refused because the log was closing
+            try {
+                future.get(5, TimeUnit.SECONDS);
+                accepted++;
+            } catch (ExecutionException e) {
+                assertEquals("Write-ahead log is closed", e.getCause().getMessage());
+            }
+        }
+        try (WriteAheadLog reopened = new WriteAheadLog(dir, 1 << 20, 64)) {
+            assertEquals(accepted, reopened.readFrom(0).size());
+        }
+    }
+
+    @Test
+    void reopen_readsRecordsBackAndContinuesLsns() {
+        try (WriteAheadLog wal = new WriteAheadLog(dir, 512, 8)) {
+            for (int i = 0; i < 20; i++) {
+                wal.append(record("T" + i)).join();
+            }
+        }
+
+        try (WriteAheadLog reopened = new WriteAheadLog(dir, 512, 8)) {
+            List<WalRecord> records = reopened.readFrom(15);
+            assertEquals(List.of(16L, 17L, 18L, 19L, 20L), records.stream().map(WalRecord::getLsn).toList());
+
+            WalRecord first = records.get(0);
+            assertEquals("T15", first.getTxnId());
+            assertEquals("A1", first.getFromAccountId());
+            assertEquals(new BigDecimal("12.34"), first.getAmount());
+            assertEquals(Instant.ofEpochSecond(1_700_000_000L, 42), first.getCreatedAt());
+
+            assertEquals(21, reopened.append(record("T20")).join().getLsn());
+        }
+    }
+
+    @Test
+    void tornTail_isDroppedOnReopen() throws Exception {
+        try (WriteAheadLog wal = new WriteAheadLog(dir, 1 << 20, 8)) {
+            wal.append(record("T1")).join();
+            wal.append(record("T2")).join();
+        }
+
+        // Simulate a crash part-way through the last record
+        Path segment;
+        try (Stream<Path> files = Files.list(dir)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.setLength(file.length() - 5);
+        }
+
+        try (WriteAheadLog reopened = new WriteAheadLog(dir, 1 << 20, 8)) {
+            assertEquals(1, reopened.getLastDurableLsn());
+            assertEquals(List.of("T1"), reopened.readFrom(0).stream().map(WalRecord::getTxnId).toList());
+            assertEquals(2, reopened.append(record("T3")).join().getLsn());
+        }
+    }
+
+    @Test
+    void applier_skipsRecordsAtOrBelowCheckpoint_andAdvancesIt() {
+        try (WriteAheadLog wal = new WriteAheadLog(dir, 1 << 20, 8)) {
+            for (int i = 1; i <= 3; i++) {
+                wal.append(record("T" + i)).join();
+            }
+
+            long[] saved = {2};
+            WalCheckpointRepository checkpoints = new WalCheckpointRepository() {
+                @Override public long loadAppliedLsn() { return saved[0]; }
+                @Override public void saveAppliedLsn(long lsn) { saved[0] = Math.max(saved[0], lsn); }
+            };
+            List<String> applied = Collections.synchronizedList(new ArrayList<>());
+            try (WalApplier applier = new WalApplier(wal, checkpoints, batch -> {
+                batch.forEach(r -> applied.add(r.getTxnId()));
+                return null;
+            }, 10)) {
+                applier.start();
+                assertEquals(List.of("T3"), applied);
+
+                wal.append(record("T4")).join();
+                assertTrue(applier.flush(5_000));
+                assertEquals(List.of("T3", "T4"), applied);
+                assertEquals(4, saved[0]);
+                assertEquals(0, applier.getLag());
+            }
+        }
+    }
+
+    @Test
+    void applier_deadLettersARecordThatKeepsFailing_andAppliesTheRest() {
+        try (WriteAheadLog wal = new WriteAheadLog(dir, 1 << 20, 8)) {
+            for (int i = 1; i <= 3; i++) {
+                wal.append(record("T" + i)).join();
+            }
+
+            long[] saved = {0};
+            WalCheckpointRepository checkpoints = new WalCheckpointRepository() {
+                @Override public long loadAppliedLsn() { return saved[0]; }
+                @Override public void saveAppliedLsn(long lsn) { saved[0] = Math.max(saved[0], lsn); }
+            };
+            List<String> applied = Collections.synchronizedList(new ArrayList<>());
+            List<String> rejected = Collections.synchronizedList(new ArrayList<>());
+            WalBatchHandler handler = new WalBatchHandler() {
+                @Override
+                public Runnable apply(List<WalRecord> batch) {
+                    if (batch.stream().anyMatch(r -> r.getTxnId().equals("T2"))) {
+                        throw new IllegalStateException("Refused by the database");
+                    }
+                    batch.forEach(r -> applied.add(r.getTxnId()));
+                    return null;
+                }
+
+                @Override
+                public Runnable reject(WalRecord record, Exception cause) {
+                    rejected.add(record.getTxnId() + ": " + cause.getMessage());
+                    return null;
+                }
+            };
+            try (WalApplier applier = new WalApplier(wal, checkpoints, handler, 10)) {
+                applier.start();
+
+                assertEquals(List.of("T1", "T3"), applied);
+                assertEquals(List.of("T2: Refused by the database"), rejected);
+                assertEquals(3, saved[0]);
+                assertEquals(1, applier.getDeadLetterCount());
+            }
+        }
+    }
+}